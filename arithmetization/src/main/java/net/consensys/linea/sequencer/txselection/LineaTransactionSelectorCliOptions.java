@@ -22,9 +22,16 @@ import picocli.CommandLine;
 public class LineaTransactionSelectorCliOptions {
   public static final int DEFAULT_MAX_BLOCK_CALLDATA_SIZE = 70000;
   private static final String DEFAULT_MODULE_LIMIT_FILE_PATH = "moduleLimitFile.json";
+  public static final int DEFAULT_TRACE_FOOTPRINTS_CAPACITY = 10_000;
+  public static final int DEFAULT_SENDER_FOOTPRINT_WINDOW = 0;
+  public static final int DEFAULT_MAX_LINE_COUNT_SKIPS = 0;
 
   private static final String MAX_BLOCK_CALLDATA_SIZE = "--plugin-linea-max-block-calldata-size";
   private static final String MODULE_LIMIT_FILE_PATH = "--plugin-linea-module-limit-file-path";
+  private static final String TRACE_FOOTPRINTS_CAPACITY =
+      "--plugin-linea-trace-footprints-capacity";
+  private static final String SENDER_FOOTPRINT_WINDOW = "--plugin-linea-sender-footprint-window";
+  private static final String MAX_LINE_COUNT_SKIPS = "--plugin-linea-max-line-count-skips";
 
   @CommandLine.Option(
       names = {MAX_BLOCK_CALLDATA_SIZE},
@@ -46,6 +53,40 @@ public class LineaTransactionSelectorCliOptions {
               + ")")
   private String moduleLimitFilePath = DEFAULT_MODULE_LIMIT_FILE_PATH;
 
+  @CommandLine.Option(
+      names = {TRACE_FOOTPRINTS_CAPACITY},
+      hidden = true,
+      paramLabel = "<INTEGER>",
+      description =
+          "Number of recently evaluated transactions whose trace lines per module are kept, 0 to"
+              + " keep none (default: "
+              + DEFAULT_TRACE_FOOTPRINTS_CAPACITY
+              + ")")
+  private int traceFootprintsCapacity = DEFAULT_TRACE_FOOTPRINTS_CAPACITY;
+
+  @CommandLine.Option(
+      names = {SENDER_FOOTPRINT_WINDOW},
+      hidden = true,
+      paramLabel = "<INTEGER>",
+      description =
+          "Number of transactions over which the trace lines of each sender are averaged, 0 not to"
+              + " average them (default: "
+              + DEFAULT_SENDER_FOOTPRINT_WINDOW
+              + ")")
+  private int senderFootprintWindow = DEFAULT_SENDER_FOOTPRINT_WINDOW;
+
+  @CommandLine.Option(
+      names = {MAX_LINE_COUNT_SKIPS},
+      hidden = true,
+      paramLabel = "<INTEGER>",
+      description =
+          "Number of transactions overflowing a module limit that are skipped in a row, leaving"
+              + " room for smaller ones, before the block is deemed full; 0 to deem it full at the"
+              + " first one (default: "
+              + DEFAULT_MAX_LINE_COUNT_SKIPS
+              + ")")
+  private int maxLineCountSkips = DEFAULT_MAX_LINE_COUNT_SKIPS;
+
   private LineaTransactionSelectorCliOptions() {}
 
   /**
@@ -68,6 +109,9 @@ public class LineaTransactionSelectorCliOptions {
     final LineaTransactionSelectorCliOptions options = create();
     options.maxBlockCallDataSize = config.maxBlockCallDataSize();
     options.moduleLimitFilePath = config.moduleLimitsFilePath();
+    options.traceFootprintsCapacity = config.traceFootprintsCapacity();
+    options.senderFootprintWindow = config.senderFootprintWindow();
+    options.maxLineCountSkips = config.maxLineCountSkips();
     return options;
   }
 
@@ -80,6 +124,9 @@ public class LineaTransactionSelectorCliOptions {
     return new LineaTransactionSelectorConfiguration.Builder()
         .maxBlockCallDataSize(maxBlockCallDataSize)
         .moduleLimits(moduleLimitFilePath)
+        .traceFootprintsCapacity(traceFootprintsCapacity)
+        .senderFootprintWindow(senderFootprintWindow)
+        .maxLineCountSkips(maxLineCountSkips)
         .build();
   }
 
@@ -88,6 +135,9 @@ public class LineaTransactionSelectorCliOptions {
     return MoreObjects.toStringHelper(this)
         .add(MAX_BLOCK_CALLDATA_SIZE, maxBlockCallDataSize)
         .add(MODULE_LIMIT_FILE_PATH, moduleLimitFilePath)
+        .add(TRACE_FOOTPRINTS_CAPACITY, traceFootprintsCapacity)
+        .add(SENDER_FOOTPRINT_WINDOW, senderFootprintWindow)
+        .add(MAX_LINE_COUNT_SKIPS, maxLineCountSkips)
         .toString();
   }
 }
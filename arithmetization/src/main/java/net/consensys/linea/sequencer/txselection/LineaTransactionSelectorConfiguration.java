@@ -19,11 +19,21 @@ package net.consensys.linea.sequencer.txselection;
 public final class LineaTransactionSelectorConfiguration {
   private final int maxBlockCallDataSize;
   private final String moduleLimitsFilePath;
+  private final int traceFootprintsCapacity;
+  private final int senderFootprintWindow;
+  private final int maxLineCountSkips;
 
   private LineaTransactionSelectorConfiguration(
-      int maxBlockCallDataSize, final String moduleLimitsFilePath) {
+      int maxBlockCallDataSize,
+      final String moduleLimitsFilePath,
+      int traceFootprintsCapacity,
+      int senderFootprintWindow,
+      int maxLineCountSkips) {
     this.maxBlockCallDataSize = maxBlockCallDataSize;
     this.moduleLimitsFilePath = moduleLimitsFilePath;
+    this.traceFootprintsCapacity = traceFootprintsCapacity;
+    this.senderFootprintWindow = senderFootprintWindow;
+    this.maxLineCountSkips = maxLineCountSkips;
   }
 
   public int maxBlockCallDataSize() {
@@ -34,9 +44,24 @@ public final class LineaTransactionSelectorConfiguration {
     return moduleLimitsFilePath;
   }
 
+  public int traceFootprintsCapacity() {
+    return traceFootprintsCapacity;
+  }
+
+  public int senderFootprintWindow() {
+    return senderFootprintWindow;
+  }
+
+  public int maxLineCountSkips() {
+    return maxLineCountSkips;
+  }
+
   public static class Builder {
     private int maxBlockCallDataSize;
     private String moduleLimitsFilePath;
+    private int traceFootprintsCapacity;
+    private int senderFootprintWindow;
+    private int maxLineCountSkips;
 
     public Builder maxBlockCallDataSize(final int maxBlockCallDataSize) {
       this.maxBlockCallDataSize = maxBlockCallDataSize;
@@ -48,8 +73,28 @@ public final class LineaTransactionSelectorConfiguration {
       return this;
     }
 
+    public Builder traceFootprintsCapacity(final int traceFootprintsCapacity) {
+      this.traceFootprintsCapacity = traceFootprintsCapacity;
+      return this;
+    }
+
+    public Builder senderFootprintWindow(final int senderFootprintWindow) {
+      this.senderFootprintWindow = senderFootprintWindow;
+      return this;
+    }
+
+    public Builder maxLineCountSkips(final int maxLineCountSkips) {
+      this.maxLineCountSkips = maxLineCountSkips;
+      return this;
+    }
+
     public LineaTransactionSelectorConfiguration build() {
-      return new LineaTransactionSelectorConfiguration(maxBlockCallDataSize, moduleLimitsFilePath);
+      return new LineaTransactionSelectorConfiguration(
+          maxBlockCallDataSize,
+          moduleLimitsFilePath,
+          traceFootprintsCapacity,
+          senderFootprintWindow,
+          maxLineCountSkips);
     }
   }
 }
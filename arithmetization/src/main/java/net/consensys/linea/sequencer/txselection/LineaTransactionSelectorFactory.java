@@ -18,6 +18,8 @@ package net.consensys.linea.sequencer.txselection;
 import java.util.Map;
 import java.util.function.Supplier;
 
+import lombok.AccessLevel;
+import lombok.Getter;
 import net.consensys.linea.sequencer.txselection.selectors.LineaTransactionSelector;
 import org.hyperledger.besu.plugin.services.txselection.PluginTransactionSelector;
 import org.hyperledger.besu.plugin.services.txselection.PluginTransactionSelectorFactory;
@@ -26,17 +28,47 @@ import org.hyperledger.besu.plugin.services.txselection.PluginTransactionSelecto
 public class LineaTransactionSelectorFactory implements PluginTransactionSelectorFactory {
   private final LineaTransactionSelectorCliOptions options;
   private final Supplier<Map<String, Integer>> limitsMapSupplier;
+  private final Supplier<TraceFootprints> footprintsSupplier;
+  @Getter(AccessLevel.PACKAGE)
+  private final ZkTracerPool tracerPool = new ZkTracerPool();
 
   public LineaTransactionSelectorFactory(
       final LineaTransactionSelectorCliOptions options,
       final Supplier<Map<String, Integer>> limitsMapSupplier) {
+    this(options, limitsMapSupplier, () -> null);
+  }
+
+  /**
+   * @param options the CLI options
+   * @param limitsMapSupplier the provider of the line limit of every module
+   * @param footprintsSupplier the provider of where to record the footprint of the evaluated
+   *     transactions, which may provide null not to record them
+   */
+  public LineaTransactionSelectorFactory(
+      final LineaTransactionSelectorCliOptions options,
+      final Supplier<Map<String, Integer>> limitsMapSupplier,
+      final Supplier<TraceFootprints> footprintsSupplier) {
     this.options = options;
     this.limitsMapSupplier = limitsMapSupplier;
+    this.footprintsSupplier = footprintsSupplier;
   }
 
+  /**
+   * Create a selector for a new block-building attempt, owning its own tracer.
+   *
+   * <p>The tracer is given back to the pool once it has traced the end of the block, whether the
+   * selection was stopped or not; it is never tied to the thread that created the selector.
+   *
+   * @return the selector
+   */
   @Override
   public PluginTransactionSelector create() {
     final LineaTransactionSelectorConfiguration lineaConfiguration = options.toDomainObject();
-    return new LineaTransactionSelector(lineaConfiguration, this.limitsMapSupplier);
+
+    return new LineaTransactionSelector(
+        lineaConfiguration,
+        this.limitsMapSupplier,
+        this.tracerPool.acquire(),
+        this.footprintsSupplier.get());
   }
 }
@@ -24,9 +24,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.auto.service.AutoService;
 import lombok.extern.slf4j.Slf4j;
 import net.consensys.linea.LineaRequiredPlugin;
+import net.consensys.linea.sequencer.txselection.rpc.LineaGetTraceFootprintsV0;
 import org.hyperledger.besu.plugin.BesuContext;
 import org.hyperledger.besu.plugin.BesuPlugin;
 import org.hyperledger.besu.plugin.services.PicoCLIOptions;
+import org.hyperledger.besu.plugin.services.RpcEndpointService;
 import org.hyperledger.besu.plugin.services.TransactionSelectionService;
 
 /** Implementation of the base {@link BesuPlugin} interface for Linea Transaction Selection. */
@@ -37,6 +39,7 @@ public class LineaTransactionSelectorPlugin extends LineaRequiredPlugin {
   private final LineaTransactionSelectorCliOptions options;
   private Optional<TransactionSelectionService> service;
   private Map<String, Integer> limitsMap;
+  private TraceFootprints traceFootprints;
 
   public LineaTransactionSelectorPlugin() {
     options = LineaTransactionSelectorCliOptions.create();
@@ -63,6 +66,17 @@ public class LineaTransactionSelectorPlugin extends LineaRequiredPlugin {
             () ->
                 new RuntimeException(
                     "Failed to obtain TransactionSelectionService from the BesuContext.")));
+
+    final LineaGetTraceFootprintsV0 footprintsMethod =
+        new LineaGetTraceFootprintsV0(() -> this.traceFootprints);
+    context
+        .getService(RpcEndpointService.class)
+        .ifPresent(
+            rpc ->
+                rpc.registerRPCEndpoint(
+                    footprintsMethod.getNamespace(),
+                    footprintsMethod.getName(),
+                    footprintsMethod::execute));
   }
 
   @Override
@@ -83,6 +97,13 @@ public class LineaTransactionSelectorPlugin extends LineaRequiredPlugin {
       log.error(errorMsg);
       throw new RuntimeException(errorMsg, e);
     }
+
+    if (lineaConfiguration.traceFootprintsCapacity() > 0) {
+      traceFootprints =
+          new TraceFootprints(
+              lineaConfiguration.traceFootprintsCapacity(),
+              lineaConfiguration.senderFootprintWindow());
+    }
   }
 
   @Override
@@ -90,6 +111,7 @@ public class LineaTransactionSelectorPlugin extends LineaRequiredPlugin {
 
   private void createAndRegister(final TransactionSelectionService transactionSelectionService) {
     transactionSelectionService.registerTransactionSelectorFactory(
-        new LineaTransactionSelectorFactory(options, () -> this.limitsMap));
+        new LineaTransactionSelectorFactory(
+            options, () -> this.limitsMap, () -> this.traceFootprints));
   }
 }
@@ -0,0 +1,157 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.sequencer.txselection;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.common.base.Preconditions;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+
+/**
+ * The trace lines added, per module, by the transactions recently evaluated for inclusion in a
+ * block.
+ *
+ * <p>Footprints are kept in a bounded LRU keyed by transaction hash, so that the memory used does
+ * not depend on the size of the transaction pool. Optionally, an exponential moving average of the
+ * footprints of each sender is maintained as well, for as many senders as footprints.
+ *
+ * <p>Footprints are recorded by the block-building threads and read by the RPC, hence all accesses
+ * are synchronized; none of them happens while tracing.
+ */
+public class TraceFootprints {
+  /**
+   * The trace lines added by a transaction.
+   *
+   * @param hash the hash of the transaction
+   * @param sender the sender of the transaction
+   * @param lineCounts the number of lines added to every module, omitting the untouched ones
+   */
+  public record Footprint(Hash hash, Address sender, Map<String, Integer> lineCounts) {}
+
+  private final int capacity;
+  private final int senderWindow;
+  private final LinkedHashMap<Hash, Footprint> footprints;
+  private final LinkedHashMap<Address, Map<String, Double>> senderAverages;
+
+  /**
+   * @param capacity the maximal number of footprints, and of sender averages, to keep
+   * @param senderWindow the number of transactions over which the footprints of a sender are
+   *     averaged -- the latest one weighing 1/senderWindow, or 0 not to average them
+   */
+  public TraceFootprints(final int capacity, final int senderWindow) {
+    Preconditions.checkArgument(capacity > 0, "capacity must be positive");
+    Preconditions.checkArgument(senderWindow >= 0, "senderWindow must not be negative");
+    this.capacity = capacity;
+    this.senderWindow = senderWindow;
+    this.footprints = lru();
+    this.senderAverages = lru();
+  }
+
+  private <K, V> LinkedHashMap<K, V> lru() {
+    return new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+        return this.size() > TraceFootprints.this.capacity;
+      }
+    };
+  }
+
+  /**
+   * Compute the footprint of a transaction from the line counts of a tracer before and after
+   * tracing it.
+   *
+   * @param hash the hash of the transaction
+   * @param sender the sender of the transaction
+   * @param before the line counts before tracing the transaction
+   * @param after the line counts after tracing the transaction
+   * @return the footprint of the transaction
+   */
+  public static Footprint diff(
+      final Hash hash,
+      final Address sender,
+      final Map<String, Integer> before,
+      final Map<String, Integer> after) {
+    final Map<String, Integer> lineCounts = new HashMap<>();
+    after.forEach(
+        (module, count) -> {
+          final int delta = count - before.getOrDefault(module, 0);
+          if (delta != 0) {
+            lineCounts.put(module, delta);
+          }
+        });
+    return new Footprint(hash, sender, Map.copyOf(lineCounts));
+  }
+
+  /**
+   * Record the footprint of an evaluated transaction, replacing any previous one.
+   *
+   * @param footprint the footprint
+   */
+  public synchronized void record(final Footprint footprint) {
+    this.footprints.put(footprint.hash(), footprint);
+
+    if (this.senderWindow > 0) {
+      final Map<String, Double> average = this.senderAverages.get(footprint.sender());
+      if (average == null) {
+        final Map<String, Double> first = new HashMap<>();
+        footprint.lineCounts().forEach((module, count) -> first.put(module, (double) count));
+        this.senderAverages.put(footprint.sender(), first);
+      } else {
+        final double weight = 1.0 / this.senderWindow;
+        average.replaceAll((module, value) -> value * (1 - weight));
+        footprint
+            .lineCounts()
+            .forEach((module, count) -> average.merge(module, weight * count, Double::sum));
+      }
+    }
+  }
+
+  /**
+   * @param hash the hash of a transaction
+   * @return its footprint, if it has been recorded recently
+   */
+  public synchronized Optional<Footprint> get(final Hash hash) {
+    return Optional.ofNullable(this.footprints.get(hash));
+  }
+
+  /**
+   * @param sender a sender
+   * @return the recorded footprints of its transactions, from the least to the most recently used
+   */
+  public synchronized List<Footprint> bySender(final Address sender) {
+    final List<Footprint> r = new ArrayList<>();
+    for (Footprint footprint : this.footprints.values()) {
+      if (footprint.sender().equals(sender)) {
+        r.add(footprint);
+      }
+    }
+    return r;
+  }
+
+  /**
+   * @param sender a sender
+   * @return the moving average of the footprints of its transactions, if any is maintained
+   */
+  public synchronized Optional<Map<String, Double>> senderAverage(final Address sender) {
+    return Optional.ofNullable(this.senderAverages.get(sender)).map(Map::copyOf);
+  }
+}
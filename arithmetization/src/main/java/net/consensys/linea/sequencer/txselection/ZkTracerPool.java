@@ -0,0 +1,95 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.sequencer.txselection;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.extern.slf4j.Slf4j;
+import net.consensys.linea.zktracer.TracingMode;
+import net.consensys.linea.zktracer.ZkTracer;
+import org.hyperledger.besu.plugin.data.BlockBody;
+import org.hyperledger.besu.plugin.data.BlockHeader;
+
+/**
+ * Hands out line-counting {@link ZkTracer} instances to the block-building attempts, so that
+ * several of them can run concurrently, each with its own isolated tracer.
+ *
+ * <p>A lent tracer is given back once it has traced the end of its block, the last callback it
+ * receives from the block builder; it is then reset and kept aside to be lent again, rather than
+ * rebuilt from scratch for every block. The tracer of an attempt aborted before the end of its
+ * block is never given back, and is simply collected along with its selector.
+ */
+@Slf4j
+public class ZkTracerPool {
+  /** The number of tracers currently lent */
+  private final AtomicInteger leased = new AtomicInteger();
+  /** The tracers ready to be lent again */
+  private final Deque<PooledTracer> idle = new ConcurrentLinkedDeque<>();
+
+  /**
+   * Lend a tracer, ready to trace a new block.
+   *
+   * @return a tracer exclusively owned by the caller until it traces the end of the block
+   */
+  public ZkTracer acquire() {
+    final PooledTracer pooled = idle.pollFirst();
+    final PooledTracer tracer = pooled != null ? pooled : new PooledTracer();
+    tracer.lent = true;
+    log.trace("Lending tracer, {} currently leased", leased.incrementAndGet());
+    return tracer;
+  }
+
+  private void release(final PooledTracer tracer) {
+    tracer.lent = false;
+    tracer.reset();
+    idle.offerFirst(tracer);
+    log.trace("Tracer released, {} currently leased", leased.decrementAndGet());
+  }
+
+  /**
+   * @return the number of tracers currently lent
+   */
+  public int leased() {
+    return leased.get();
+  }
+
+  /**
+   * @return the number of tracers waiting to be lent again
+   */
+  public int idle() {
+    return idle.size();
+  }
+
+  /** A tracer going back to the pool once it has traced the end of the block it was lent for. */
+  private final class PooledTracer extends ZkTracer {
+    /** Whether the tracer is currently lent; only accessed by the thread owning the tracer */
+    private boolean lent;
+
+    private PooledTracer() {
+      super(TracingMode.LINE_COUNT);
+    }
+
+    @Override
+    public void traceEndBlock(final BlockHeader blockHeader, final BlockBody blockBody) {
+      super.traceEndBlock(blockHeader, blockBody);
+      if (this.lent) {
+        release(this);
+      }
+    }
+  }
+}
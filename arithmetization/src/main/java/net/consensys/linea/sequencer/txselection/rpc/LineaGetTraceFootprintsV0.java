@@ -0,0 +1,110 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.sequencer.txselection.rpc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import net.consensys.linea.sequencer.txselection.TraceFootprints;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.plugin.services.exception.PluginRpcEndpointException;
+import org.hyperledger.besu.plugin.services.rpc.PluginRpcRequest;
+
+/**
+ * Reports the trace lines added, per module, by the transactions recently evaluated by the
+ * sequencer, either for a single transaction or for all the transactions of a sender.
+ */
+public class LineaGetTraceFootprintsV0 {
+  private final Supplier<TraceFootprints> footprints;
+
+  /**
+   * The footprint of a transaction, as reported by the RPC.
+   *
+   * @param hash the hash of the transaction
+   * @param sender the sender of the transaction
+   * @param lineCounts the number of lines added to every module it touched
+   */
+  public record Footprint(String hash, String sender, Map<String, Integer> lineCounts) {
+    static Footprint of(TraceFootprints.Footprint footprint) {
+      return new Footprint(
+          footprint.hash().toHexString(),
+          footprint.sender().toHexString(),
+          footprint.lineCounts());
+    }
+  }
+
+  /**
+   * @param footprints the matching footprints
+   * @param senderAverage the moving average of the footprints of the requested sender, if requested
+   *     and maintained
+   */
+  public record Response(List<Footprint> footprints, Map<String, Double> senderAverage) {}
+
+  public LineaGetTraceFootprintsV0(final Supplier<TraceFootprints> footprints) {
+    this.footprints = footprints;
+  }
+
+  public String getNamespace() {
+    return "linea";
+  }
+
+  public String getName() {
+    return "getTraceFootprintsV0";
+  }
+
+  /**
+   * Reports the footprints recorded for a transaction hash or for a sender address.
+   *
+   * @param request holds the transaction hash or the sender address.
+   * @return the matching footprints.
+   */
+  public Response execute(final PluginRpcRequest request) {
+    final Object[] params = request.getParams();
+    if (params.length != 1) {
+      throw new PluginRpcEndpointException(
+          String.format("Expected 1 parameter but got %d", params.length));
+    }
+    final TraceFootprints footprints = this.footprints.get();
+    if (footprints == null) {
+      throw new PluginRpcEndpointException("Trace footprints are not recorded");
+    }
+
+    final Bytes key;
+    try {
+      key = Bytes.fromHexString(params[0].toString());
+    } catch (IllegalArgumentException e) {
+      throw new PluginRpcEndpointException("Invalid hash or address " + params[0]);
+    }
+
+    if (key.size() == Hash.SIZE) {
+      return new Response(
+          footprints.get(Hash.wrap(Bytes32.wrap(key))).stream().map(Footprint::of).toList(),
+          null);
+    }
+    if (key.size() == Address.SIZE) {
+      final Address sender = Address.wrap(key);
+      return new Response(
+          footprints.bySender(sender).stream().map(Footprint::of).toList(),
+          footprints.senderAverage(sender).orElse(null));
+    }
+
+    throw new PluginRpcEndpointException("Invalid hash or address " + params[0]);
+  }
+}
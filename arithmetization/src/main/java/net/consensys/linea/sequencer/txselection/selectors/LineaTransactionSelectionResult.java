@@ -0,0 +1,53 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package net.consensys.linea.sequencer.txselection.selectors;
+
+import org.hyperledger.besu.plugin.data.TransactionSelectionResult;
+
+/** The selection results specific to the Linea selectors. */
+public class LineaTransactionSelectionResult extends TransactionSelectionResult {
+  private enum LineaStatus implements TransactionSelectionResult.Status {
+    TX_MODULE_LINE_COUNT_OVERFLOW(false, false);
+
+    private final boolean stop;
+    private final boolean discard;
+
+    LineaStatus(final boolean stop, final boolean discard) {
+      this.stop = stop;
+      this.discard = discard;
+    }
+
+    @Override
+    public boolean stop() {
+      return stop;
+    }
+
+    @Override
+    public boolean discard() {
+      return discard;
+    }
+  }
+
+  /**
+   * The transaction does not fit in what is left of the line limit of some module, but smaller
+   * ones may still fit: it is skipped, kept in the pool, and the selection goes on.
+   */
+  public static final TransactionSelectionResult TX_MODULE_LINE_COUNT_OVERFLOW =
+      new LineaTransactionSelectionResult(LineaStatus.TX_MODULE_LINE_COUNT_OVERFLOW);
+
+  private LineaTransactionSelectionResult(final LineaStatus status) {
+    super(status);
+  }
+}
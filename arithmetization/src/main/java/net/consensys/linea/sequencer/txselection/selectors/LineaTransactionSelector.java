@@ -20,6 +20,8 @@ import java.util.function.Supplier;
 
 import lombok.extern.slf4j.Slf4j;
 import net.consensys.linea.sequencer.txselection.LineaTransactionSelectorConfiguration;
+import net.consensys.linea.sequencer.txselection.TraceFootprints;
+import net.consensys.linea.zktracer.ZkTracer;
 import org.hyperledger.besu.datatypes.PendingTransaction;
 import org.hyperledger.besu.plugin.data.TransactionProcessingResult;
 import org.hyperledger.besu.plugin.data.TransactionSelectionResult;
@@ -30,29 +32,39 @@ import org.hyperledger.besu.plugin.services.txselection.PluginTransactionSelecto
 @Slf4j
 public class LineaTransactionSelector implements PluginTransactionSelector {
 
-  private static TraceLineLimitTransactionSelector traceLineLimitTransactionSelector;
+  private final TraceLineLimitTransactionSelector traceLineLimitTransactionSelector;
   List<PluginTransactionSelector> selectors;
 
   public LineaTransactionSelector(
       LineaTransactionSelectorConfiguration lineaConfiguration,
-      final Supplier<Map<String, Integer>> limitsMapSupplier) {
-    this.selectors = createTransactionSelectors(lineaConfiguration, limitsMapSupplier);
+      final Supplier<Map<String, Integer>> limitsMapSupplier,
+      final ZkTracer zkTracer) {
+    this(lineaConfiguration, limitsMapSupplier, zkTracer, null);
+  }
+
+  public LineaTransactionSelector(
+      LineaTransactionSelectorConfiguration lineaConfiguration,
+      final Supplier<Map<String, Integer>> limitsMapSupplier,
+      final ZkTracer zkTracer,
+      final TraceFootprints footprints) {
+    this.traceLineLimitTransactionSelector =
+        new TraceLineLimitTransactionSelector(
+            limitsMapSupplier,
+            lineaConfiguration.moduleLimitsFilePath(),
+            zkTracer,
+            footprints,
+            lineaConfiguration.maxLineCountSkips());
+    this.selectors = createTransactionSelectors(lineaConfiguration);
   }
 
   /**
    * Creates a list of selectors based on Linea configuration.
    *
    * @param lineaConfiguration The configuration to use.
-   * @param limitsMapSupplier The supplier for the limits map.
    * @return A list of selectors.
    */
-  private static List<PluginTransactionSelector> createTransactionSelectors(
-      final LineaTransactionSelectorConfiguration lineaConfiguration,
-      final Supplier<Map<String, Integer>> limitsMapSupplier) {
-
-    traceLineLimitTransactionSelector =
-        new TraceLineLimitTransactionSelector(
-            limitsMapSupplier, lineaConfiguration.moduleLimitsFilePath());
+  private List<PluginTransactionSelector> createTransactionSelectors(
+      final LineaTransactionSelectorConfiguration lineaConfiguration) {
     return List.of(
         new MaxBlockCallDataTransactionSelector(lineaConfiguration.maxBlockCallDataSize()),
         traceLineLimitTransactionSelector);
@@ -15,9 +15,11 @@
 package net.consensys.linea.sequencer.txselection.selectors;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Supplier;
 
 import lombok.extern.slf4j.Slf4j;
+import net.consensys.linea.sequencer.txselection.TraceFootprints;
 import net.consensys.linea.zktracer.ZkTracer;
 import org.hyperledger.besu.datatypes.PendingTransaction;
 import org.hyperledger.besu.plugin.data.TransactionProcessingResult;
@@ -36,32 +38,166 @@ public class TraceLineLimitTransactionSelector implements PluginTransactionSelec
   private final Supplier<Map<String, Integer>> moduleLimitsProvider;
   private final ZkTracer zkTracer;
   private final String limitFilePath;
+  /** Where to record the footprint of every evaluated transaction; null not to record them */
+  private final TraceFootprints footprints;
+  /** The state of the tracer after the last selected transaction */
+  private ZkTracer.Checkpoint lastSelected;
+  /** The line counts of the tracer after the last selected transaction */
+  private Map<String, Integer> lastSelectedLineCounts;
+  /** The line counts of the tracer after the last evaluated transaction */
+  private Map<String, Integer> lastEvaluatedLineCounts;
+  /**
+   * How many transactions overflowing a module may be skipped in a row before the block is deemed
+   * full; 0 to deem it full at the first overflow
+   */
+  private final int maxLineCountSkips;
+  /** The number of transactions skipped in a row for overflowing a module */
+  private int lineCountSkips;
 
+  /**
+   * Create a selector counting trace lines with the given tracer.
+   *
+   * @param moduleLimitsProvider The provider of the line limit of every module.
+   * @param limitFilePath The file the limits are read from.
+   * @param zkTracer A line-counting tracer, exclusively owned by this selector.
+   */
+  public TraceLineLimitTransactionSelector(
+      final Supplier<Map<String, Integer>> moduleLimitsProvider,
+      final String limitFilePath,
+      final ZkTracer zkTracer) {
+    this(moduleLimitsProvider, limitFilePath, zkTracer, null);
+  }
+
+  /**
+   * Create a selector counting trace lines with the given tracer, and recording the footprint of
+   * every transaction it evaluates.
+   *
+   * @param moduleLimitsProvider The provider of the line limit of every module.
+   * @param limitFilePath The file the limits are read from.
+   * @param zkTracer A line-counting tracer, exclusively owned by this selector.
+   * @param footprints Where to record the footprints, or null not to record them.
+   */
   public TraceLineLimitTransactionSelector(
-      final Supplier<Map<String, Integer>> moduleLimitsProvider, final String limitFilePath) {
+      final Supplier<Map<String, Integer>> moduleLimitsProvider,
+      final String limitFilePath,
+      final ZkTracer zkTracer,
+      final TraceFootprints footprints) {
+    this(moduleLimitsProvider, limitFilePath, zkTracer, footprints, 0);
+  }
+
+  /**
+   * Create a selector counting trace lines with the given tracer, recording the footprint of every
+   * transaction it evaluates, and packing the block around the transactions too large for what is
+   * left of the line limits.
+   *
+   * <p>When a transaction overflows a module, or is known from its recorded footprint to overflow
+   * it, it is skipped instead of ending the block, so that smaller transactions down the pool may
+   * still fill the remaining lines. The block is only deemed full after maxLineCountSkips such
+   * transactions in a row.
+   *
+   * <p>Only the exact footprint of the very same transaction is trusted to skip it untraced: the
+   * average footprint of its sender is a mere estimate, which would moreover never be refreshed if
+   * it prevented the transactions of that sender from being traced.
+   *
+   * @param moduleLimitsProvider The provider of the line limit of every module.
+   * @param limitFilePath The file the limits are read from.
+   * @param zkTracer A line-counting tracer, exclusively owned by this selector.
+   * @param footprints Where to record, and look up, the footprints, or null not to use them.
+   * @param maxLineCountSkips How many overflowing transactions may be skipped in a row, 0 to deem
+   *     the block full at the first one.
+   */
+  public TraceLineLimitTransactionSelector(
+      final Supplier<Map<String, Integer>> moduleLimitsProvider,
+      final String limitFilePath,
+      final ZkTracer zkTracer,
+      final TraceFootprints footprints,
+      final int maxLineCountSkips) {
     this.moduleLimitsProvider = moduleLimitsProvider;
-    zkTracer = new ZkTracer();
+    this.zkTracer = zkTracer;
+    this.footprints = footprints;
+    this.maxLineCountSkips = maxLineCountSkips;
     zkTracer.traceStartConflation(1L);
+    this.lastSelected = zkTracer.checkpoint();
+    this.lastSelectedLineCounts = zkTracer.getModulesLineCount();
     this.limitFilePath = limitFilePath;
   }
 
   /**
-   * No checking is done pre-processing.
+   * When packing around overflowing transactions, skip without tracing them the transactions whose
+   * recorded footprint, measured when they were last traced, does not fit in what is left of the
+   * line limits.
    *
    * @param pendingTransaction The transaction to evaluate.
-   * @return TransactionSelectionResult.SELECTED
+   * @return TX_MODULE_LINE_COUNT_OVERFLOW, or BLOCK_FULL, if the transaction is known not to fit,
+   *     otherwise SELECTED.
    */
   @Override
   public TransactionSelectionResult evaluateTransactionPreProcessing(
       final PendingTransaction pendingTransaction) {
+    if (this.maxLineCountSkips == 0 || this.footprints == null) {
+      return TransactionSelectionResult.SELECTED;
+    }
+
+    final Optional<TraceFootprints.Footprint> footprint =
+        this.footprints.get(pendingTransaction.getTransaction().getHash());
+    if (footprint.isEmpty()) {
+      return TransactionSelectionResult.SELECTED;
+    }
+
+    final Map<String, Integer> moduleLimits = moduleLimitsProvider.get();
+    for (var e : footprint.get().lineCounts().entrySet()) {
+      final int limit = moduleLimits.getOrDefault(e.getKey(), Integer.MAX_VALUE);
+      final int used = this.lastSelectedLineCounts.getOrDefault(e.getKey(), 0);
+      if ((long) used + e.getValue() > limit) {
+        return this.skip(e.getValue() > limit);
+      }
+    }
     return TransactionSelectionResult.SELECTED;
   }
 
+  /**
+   * Skip a transaction overflowing a module, or deem the block full if too many were skipped in a
+   * row.
+   *
+   * @param alone whether the transaction overflows the module by itself, in which case it says
+   *     nothing about how full the block is
+   * @return TX_MODULE_LINE_COUNT_OVERFLOW or BLOCK_FULL
+   */
+  private TransactionSelectionResult skip(final boolean alone) {
+    if (alone) {
+      return LineaTransactionSelectionResult.TX_MODULE_LINE_COUNT_OVERFLOW;
+    }
+    if (this.lineCountSkips < this.maxLineCountSkips) {
+      this.lineCountSkips++;
+      return LineaTransactionSelectionResult.TX_MODULE_LINE_COUNT_OVERFLOW;
+    }
+    return TransactionSelectionResult.BLOCK_FULL;
+  }
+
+  @Override
+  public void onTransactionSelected(
+      final PendingTransaction pendingTransaction,
+      final TransactionProcessingResult processingResult) {
+    this.lineCountSkips = 0;
+    this.lastSelected = zkTracer.checkpoint();
+    this.lastSelectedLineCounts =
+        this.lastEvaluatedLineCounts != null
+            ? this.lastEvaluatedLineCounts
+            : zkTracer.getModulesLineCount();
+  }
+
+  /**
+   * Erase the tracing of the rejected transaction, if it has been traced at all, by rolling back to
+   * the last selected transaction.
+   *
+   * @param pendingTransaction The non-selected transaction.
+   * @param transactionSelectionResult The reason for not selecting the transaction.
+   */
   @Override
   public void onTransactionNotSelected(
       final PendingTransaction pendingTransaction,
       final TransactionSelectionResult transactionSelectionResult) {
-    zkTracer.popTransaction(pendingTransaction);
+    zkTracer.rollback(this.lastSelected);
   }
 
   /**
@@ -69,7 +205,8 @@ public class TraceLineLimitTransactionSelector implements PluginTransactionSelec
    *
    * @param pendingTransaction The processed transaction.
    * @param processingResult The result of the transaction processing.
-   * @return BLOCK_FULL if the trace lines for a module are over the limit, otherwise SELECTED.
+   * @return BLOCK_FULL, or TX_MODULE_LINE_COUNT_OVERFLOW when packing around overflowing
+   *     transactions, if the trace lines for a module are over the limit, otherwise SELECTED.
    */
   @Override
   public TransactionSelectionResult evaluateTransactionPostProcessing(
@@ -78,6 +215,15 @@ public class TraceLineLimitTransactionSelector implements PluginTransactionSelec
     final Map<String, Integer> moduleLimits = moduleLimitsProvider.get();
     // check that we are not exceed line number for any module
     final Map<String, Integer> lineCounts = zkTracer.getModulesLineCount();
+    this.lastEvaluatedLineCounts = lineCounts;
+    if (this.footprints != null) {
+      this.footprints.record(
+          TraceFootprints.diff(
+              pendingTransaction.getTransaction().getHash(),
+              pendingTransaction.getTransaction().getSender(),
+              this.lastSelectedLineCounts,
+              lineCounts));
+    }
     for (var e : lineCounts.entrySet()) {
       final String module = e.getKey();
       if (!moduleLimits.containsKey(module)) {
@@ -86,8 +232,14 @@ public class TraceLineLimitTransactionSelector implements PluginTransactionSelec
         log.error(errorMsg);
         throw new RuntimeException(errorMsg);
       }
-      if (lineCounts.get(module) > moduleLimits.get(module)) {
-        return TransactionSelectionResult.BLOCK_FULL;
+      final int limit = moduleLimits.get(module);
+      if (lineCounts.get(module) > limit) {
+        if (this.maxLineCountSkips == 0) {
+          return TransactionSelectionResult.BLOCK_FULL;
+        }
+        final int alone =
+            lineCounts.get(module) - this.lastSelectedLineCounts.getOrDefault(module, 0);
+        return this.skip(alone > limit);
       }
     }
     return TransactionSelectionResult.SELECTED;
@@ -0,0 +1,150 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.sequencer.txvalidation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hyperledger.besu.datatypes.Address;
+
+/**
+ * An immutable set of denied addresses.
+ *
+ * <p>Each address is packed into three primitive keys (bytes 0-7, bytes 8-15 and bytes 16-19) and
+ * the entries are kept sorted in a single flat array, so that {@link #contains(Address)} is a
+ * binary search over primitives that neither allocates nor locks.
+ */
+public final class DenyList {
+  public static final DenyList EMPTY = new DenyList(new long[0]);
+
+  private static final int STRIDE = 3;
+
+  private final long[] entries;
+
+  private DenyList(final long[] entries) {
+    this.entries = entries;
+  }
+
+  /**
+   * Build a deny list from a collection of addresses.
+   *
+   * @param addresses the denied addresses
+   * @return the deny list
+   */
+  public static DenyList of(final Collection<Address> addresses) {
+    final List<long[]> keys = new ArrayList<>(addresses.size());
+    for (Address address : addresses) {
+      keys.add(new long[] {key0(address), key1(address), key2(address)});
+    }
+    keys.sort(
+        Comparator.<long[]>comparingLong(k -> k[0])
+            .thenComparingLong(k -> k[1])
+            .thenComparingLong(k -> k[2]));
+
+    final long[] entries = new long[keys.size() * STRIDE];
+    int size = 0;
+    for (long[] k : keys) {
+      if (size > 0
+          && entries[(size - 1) * STRIDE] == k[0]
+          && entries[(size - 1) * STRIDE + 1] == k[1]
+          && entries[(size - 1) * STRIDE + 2] == k[2]) {
+        continue;
+      }
+      System.arraycopy(k, 0, entries, size * STRIDE, STRIDE);
+      size++;
+    }
+
+    return new DenyList(Arrays.copyOf(entries, size * STRIDE));
+  }
+
+  /**
+   * Read a deny list from a file containing one hex-encoded address per line; blank lines are
+   * ignored.
+   *
+   * @param path the deny list file
+   * @return the deny list
+   * @throws IOException if the file can not be read
+   */
+  public static DenyList load(final Path path) throws IOException {
+    try (Stream<String> lines = Files.lines(path)) {
+      return of(
+          lines
+              .map(String::trim)
+              .filter(l -> !l.isEmpty())
+              .map(Address::fromHexString)
+              .toList());
+    }
+  }
+
+  /**
+   * Check whether an address is denied. Safe to call concurrently from any thread.
+   *
+   * @param address the address to look up
+   * @return true if the address is on the deny list
+   */
+  public boolean contains(final Address address) {
+    final long k0 = key0(address);
+    final long k1 = key1(address);
+    final long k2 = key2(address);
+
+    int lo = 0;
+    int hi = this.size() - 1;
+    while (lo <= hi) {
+      final int mid = (lo + hi) >>> 1;
+      final int base = mid * STRIDE;
+      int cmp = Long.compare(entries[base], k0);
+      if (cmp == 0) {
+        cmp = Long.compare(entries[base + 1], k1);
+      }
+      if (cmp == 0) {
+        cmp = Long.compare(entries[base + 2], k2);
+      }
+
+      if (cmp < 0) {
+        lo = mid + 1;
+      } else if (cmp > 0) {
+        hi = mid - 1;
+      } else {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  public int size() {
+    return entries.length / STRIDE;
+  }
+
+  private static long key0(final Address address) {
+    return address.getLong(0);
+  }
+
+  private static long key1(final Address address) {
+    return address.getLong(8);
+  }
+
+  private static long key2(final Address address) {
+    return address.getInt(16);
+  }
+}
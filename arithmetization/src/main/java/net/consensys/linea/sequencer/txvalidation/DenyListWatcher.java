@@ -0,0 +1,134 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.sequencer.txvalidation;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the current {@link DenyList} in sync with its file on disk.
+ *
+ * <p>A new {@link DenyList} is built off the validation path and published by swapping the shared
+ * reference, so readers never observe a partially loaded list and never wait on a reload. If the
+ * file can not be parsed, the previous list stays in place.
+ *
+ * <p>The file should be updated atomically, by writing the new list next to it and renaming it
+ * over the old one. Files written in place are only reloaded once they have not been modified for
+ * {@link #DEBOUNCE_MILLIS}, so that a file written in several chunks is reloaded once complete.
+ */
+@Slf4j
+public class DenyListWatcher implements Closeable {
+  /** How long the file must stay unmodified before it is reloaded */
+  static final long DEBOUNCE_MILLIS = 500;
+
+  private final Path path;
+  private final AtomicReference<DenyList> denyList;
+  private WatchService watchService;
+  private Thread thread;
+
+  public DenyListWatcher(final Path path, final AtomicReference<DenyList> denyList) {
+    this.path = path.toAbsolutePath();
+    this.denyList = denyList;
+  }
+
+  /**
+   * Load the deny list and start watching its file for changes.
+   *
+   * @throws IOException if the initial load fails or the file can not be watched
+   */
+  public void start() throws IOException {
+    denyList.set(DenyList.load(path));
+    log.info("Loaded {} addresses from deny list {}", denyList.get().size(), path);
+
+    watchService = path.getFileSystem().newWatchService();
+    path.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+
+    thread = new Thread(this::watch, "linea-deny-list-watcher");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /** Reload the deny list from disk, keeping the current one if the file is invalid. */
+  void reload() {
+    try {
+      final DenyList reloaded = DenyList.load(path);
+      denyList.set(reloaded);
+      log.info("Reloaded {} addresses from deny list {}", reloaded.size(), path);
+    } catch (Exception e) {
+      log.error("Failed to reload deny list {}, keeping the previous one", path, e);
+    }
+  }
+
+  private void watch() {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        if (!this.concernsFile(watchService.take())) {
+          continue;
+        }
+        // let a burst of modifications, e.g. a file written in several chunks, settle
+        WatchKey next;
+        while ((next = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+          this.concernsFile(next);
+        }
+        reload();
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      // stopping
+    }
+  }
+
+  /**
+   * Consume the events of a key, and stop watching if the directory is no longer watched.
+   *
+   * @param key the signalled key
+   * @return whether any of the events concerns the deny list file
+   */
+  private boolean concernsFile(final WatchKey key) {
+    boolean changed = false;
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.context() instanceof Path p && path.getFileName().equals(p)) {
+        changed = true;
+      }
+    }
+    if (!key.reset()) {
+      log.warn("Deny list directory {} is no longer watched", path.getParent());
+      Thread.currentThread().interrupt();
+    }
+    return changed;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (thread != null) {
+      thread.interrupt();
+    }
+    if (watchService != null) {
+      watchService.close();
+    }
+  }
+}
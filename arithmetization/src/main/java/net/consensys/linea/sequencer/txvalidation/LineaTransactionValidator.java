@@ -17,6 +17,7 @@ package net.consensys.linea.sequencer.txvalidation;
 
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,7 +33,7 @@ import org.hyperledger.besu.plugin.services.txvalidator.PluginTransactionValidat
 @RequiredArgsConstructor
 public class LineaTransactionValidator implements PluginTransactionValidator {
   private final LineaTransactionValidatorConfiguration config;
-  private final Set<Address> denied;
+  private final Supplier<DenyList> denyListSupplier;
 
   private static final Set<Address> precompiles =
       Set.of(
@@ -67,11 +68,11 @@ public class LineaTransactionValidator implements PluginTransactionValidator {
   private Optional<String> validateRecipient(final Transaction transaction) {
     if (transaction.getTo().isPresent()) {
       final Address to = transaction.getTo().get();
-      if (denied.contains(to)) {
+      if (denyListSupplier.get().contains(to)) {
         final String errMsg =
-            String.format(
-                "recipient %s is blocked as appearing on the SDN or other legally prohibited list",
-                to);
+            "recipient "
+                + to
+                + " is blocked as appearing on the SDN or other legally prohibited list";
         log.debug(errMsg);
         return Optional.of(errMsg);
       } else if (precompiles.contains(to)) {
@@ -85,11 +86,11 @@ public class LineaTransactionValidator implements PluginTransactionValidator {
   }
 
   private Optional<String> validateSender(final Transaction transaction) {
-    if (denied.contains(transaction.getSender())) {
+    if (denyListSupplier.get().contains(transaction.getSender())) {
       final String errMsg =
-          String.format(
-              "sender %s is blocked as appearing on the SDN or other legally prohibited list",
-              transaction.getSender());
+          "sender "
+              + transaction.getSender()
+              + " is blocked as appearing on the SDN or other legally prohibited list";
       log.debug(errMsg);
       return Optional.of(errMsg);
     }
@@ -15,9 +15,8 @@
 
 package net.consensys.linea.sequencer.txvalidation;
 
-import java.util.Set;
+import java.util.function.Supplier;
 
-import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.plugin.services.txvalidator.PluginTransactionValidator;
 import org.hyperledger.besu.plugin.services.txvalidator.PluginTransactionValidatorFactory;
 
@@ -25,16 +24,17 @@ import org.hyperledger.besu.plugin.services.txvalidator.PluginTransactionValidat
 public class LineaTransactionValidatorFactory implements PluginTransactionValidatorFactory {
 
   private final LineaTransactionValidatorCliOptions options;
-  private final Set<Address> denied;
+  private final Supplier<DenyList> denyListSupplier;
 
   public LineaTransactionValidatorFactory(
-      final LineaTransactionValidatorCliOptions options, final Set<Address> denied) {
+      final LineaTransactionValidatorCliOptions options,
+      final Supplier<DenyList> denyListSupplier) {
     this.options = options;
-    this.denied = denied;
+    this.denyListSupplier = denyListSupplier;
   }
 
   @Override
   public PluginTransactionValidator create() {
-    return new LineaTransactionValidator(options.toDomainObject(), denied);
+    return new LineaTransactionValidator(options.toDomainObject(), denyListSupplier);
   }
 }
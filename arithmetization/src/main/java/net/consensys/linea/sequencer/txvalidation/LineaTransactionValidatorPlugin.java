@@ -15,17 +15,14 @@
 
 package net.consensys.linea.sequencer.txvalidation;
 
-import java.nio.file.Files;
+import java.io.IOException;
 import java.nio.file.Paths;
-import java.util.HashSet;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Stream;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.google.auto.service.AutoService;
 import lombok.extern.slf4j.Slf4j;
 import net.consensys.linea.LineaRequiredPlugin;
-import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.plugin.BesuContext;
 import org.hyperledger.besu.plugin.BesuPlugin;
 import org.hyperledger.besu.plugin.services.PicoCLIOptions;
@@ -37,7 +34,8 @@ import org.hyperledger.besu.plugin.services.PluginTransactionValidatorService;
 public class LineaTransactionValidatorPlugin extends LineaRequiredPlugin {
   public static final String NAME = "linea";
   private final LineaTransactionValidatorCliOptions options;
-  private final Set<Address> denied = new HashSet<>();
+  private final AtomicReference<DenyList> denyList = new AtomicReference<>(DenyList.EMPTY);
+  private DenyListWatcher denyListWatcher;
 
   public LineaTransactionValidatorPlugin() {
     options = LineaTransactionValidatorCliOptions.create();
@@ -71,22 +69,30 @@ public class LineaTransactionValidatorPlugin extends LineaRequiredPlugin {
   public void start() {
     final LineaTransactionValidatorConfiguration config = options.toDomainObject();
 
-    try (Stream<String> lines = Files.lines(Paths.get(config.denyListPath()))) {
-      lines.forEach(
-          l -> {
-            final Address address = Address.fromHexString(l.trim());
-            denied.add(address);
-          });
-    } catch (Exception e) {
+    denyListWatcher = new DenyListWatcher(Paths.get(config.denyListPath()), denyList);
+    try {
+      denyListWatcher.start();
+    } catch (IOException e) {
       throw new RuntimeException(e);
     }
 
     log.debug("Starting {} with configuration: {}", NAME, options);
   }
 
+  @Override
+  public void stop() {
+    if (denyListWatcher != null) {
+      try {
+        denyListWatcher.close();
+      } catch (IOException e) {
+        log.warn("Failed to stop the deny list watcher", e);
+      }
+    }
+  }
+
   private void createAndRegister(
       final PluginTransactionValidatorService transactionValidationService) {
     transactionValidationService.registerTransactionValidatorFactory(
-        new LineaTransactionValidatorFactory(options, denied));
+        new LineaTransactionValidatorFactory(options, denyList::get));
   }
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.tracegeneration;
+
+import com.google.common.base.MoreObjects;
+import picocli.CommandLine;
+
+/** The rollup RPC CLI options. */
+public class RollupRpcCliOptions {
+  public static final String TRACE_JOBS_CONCURRENCY = "--plugin-linea-trace-jobs-concurrency";
+  public static final int DEFAULT_TRACE_JOBS_CONCURRENCY = 1;
+
+  public static final String TRACE_JOBS_QUEUE_LIMIT = "--plugin-linea-trace-jobs-queue-limit";
+  public static final int DEFAULT_TRACE_JOBS_QUEUE_LIMIT = 16;
+
+  public static final String TRACE_PROFILING = "--plugin-linea-trace-profiling";
+
+  public static final String TRACE_COMPRESSION_LEVEL = "--plugin-linea-trace-compression-level";
+  public static final int DEFAULT_TRACE_COMPRESSION_LEVEL = 6;
+
+  public static final String TRACE_COMPRESSION_THREADS =
+      "--plugin-linea-trace-compression-threads";
+  public static final int DEFAULT_TRACE_COMPRESSION_THREADS = 0;
+
+  @CommandLine.Option(
+      names = {TRACE_JOBS_CONCURRENCY},
+      hidden = true,
+      paramLabel = "<INTEGER>",
+      description =
+          "Maximum number of trace generation jobs running at the same time (default: "
+              + DEFAULT_TRACE_JOBS_CONCURRENCY
+              + ")")
+  private int traceJobsConcurrency = DEFAULT_TRACE_JOBS_CONCURRENCY;
+
+  @CommandLine.Option(
+      names = {TRACE_JOBS_QUEUE_LIMIT},
+      hidden = true,
+      paramLabel = "<INTEGER>",
+      description =
+          "Maximum number of trace generation jobs waiting to run (default: "
+              + DEFAULT_TRACE_JOBS_QUEUE_LIMIT
+              + ")")
+  private int traceJobsQueueLimit = DEFAULT_TRACE_JOBS_QUEUE_LIMIT;
+
+  @CommandLine.Option(
+      names = {TRACE_PROFILING},
+      hidden = true,
+      paramLabel = "<BOOLEAN>",
+      description =
+          "Write the cost of tracing per opcode and module hook as collapsed stacks, for flame"
+              + " graphs, next to the generated traces (default: false)")
+  private boolean traceProfiling = false;
+
+  @CommandLine.Option(
+      names = {TRACE_COMPRESSION_LEVEL},
+      hidden = true,
+      paramLabel = "<INTEGER>",
+      description =
+          "Gzip compression level of the trace files, from 1 to 9, or 0 to write them uncompressed"
+              + " (default: "
+              + DEFAULT_TRACE_COMPRESSION_LEVEL
+              + ")")
+  private int traceCompressionLevel = DEFAULT_TRACE_COMPRESSION_LEVEL;
+
+  @CommandLine.Option(
+      names = {TRACE_COMPRESSION_THREADS},
+      hidden = true,
+      paramLabel = "<INTEGER>",
+      description =
+          "Number of threads compressing a trace file, 0 for as many as there are processors"
+              + " (default: "
+              + DEFAULT_TRACE_COMPRESSION_THREADS
+              + ")")
+  private int traceCompressionThreads = DEFAULT_TRACE_COMPRESSION_THREADS;
+
+  private RollupRpcCliOptions() {}
+
+  /**
+   * Create rollup RPC cli options.
+   *
+   * @return the rollup RPC cli options
+   */
+  public static RollupRpcCliOptions create() {
+    return new RollupRpcCliOptions();
+  }
+
+  /**
+   * Cli options from config.
+   *
+   * @param config the config
+   * @return the cli options
+   */
+  public static RollupRpcCliOptions fromConfig(final RollupRpcConfiguration config) {
+    final RollupRpcCliOptions options = create();
+    options.traceJobsConcurrency = config.traceJobsConcurrency();
+    options.traceJobsQueueLimit = config.traceJobsQueueLimit();
+    options.traceProfiling = config.traceProfiling();
+    options.traceCompressionLevel = config.traceCompressionLevel();
+    options.traceCompressionThreads = config.traceCompressionThreads();
+    return options;
+  }
+
+  /**
+   * To domain object rollup RPC configuration.
+   *
+   * @return the rollup RPC configuration
+   */
+  public RollupRpcConfiguration toDomainObject() {
+    return new RollupRpcConfiguration(
+        traceJobsConcurrency,
+        traceJobsQueueLimit,
+        traceProfiling,
+        traceCompressionLevel,
+        traceCompressionThreads);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add(TRACE_JOBS_CONCURRENCY, traceJobsConcurrency)
+        .add(TRACE_JOBS_QUEUE_LIMIT, traceJobsQueueLimit)
+        .add(TRACE_PROFILING, traceProfiling)
+        .add(TRACE_COMPRESSION_LEVEL, traceCompressionLevel)
+        .add(TRACE_COMPRESSION_THREADS, traceCompressionThreads)
+        .toString();
+  }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.tracegeneration;
+
+/**
+ * The rollup RPC configuration.
+ *
+ * @param traceJobsConcurrency the maximum number of trace generation jobs running at the same time
+ * @param traceJobsQueueLimit the maximum number of trace generation jobs waiting to run
+ * @param traceProfiling whether to write the cost of tracing next to the generated traces
+ * @param traceCompressionLevel the gzip compression level of the trace files, 0 not to compress
+ *     them
+ * @param traceCompressionThreads the number of threads compressing a trace file, 0 for as many as
+ *     there are processors
+ */
+public record RollupRpcConfiguration(
+    int traceJobsConcurrency,
+    int traceJobsQueueLimit,
+    boolean traceProfiling,
+    int traceCompressionLevel,
+    int traceCompressionThreads) {}
@@ -21,40 +21,71 @@ import com.google.auto.service.AutoService;
 import lombok.extern.slf4j.Slf4j;
 import net.consensys.linea.LineaRequiredPlugin;
 import net.consensys.linea.tracegeneration.rpc.RollupGenerateConflatedTracesToFileV0;
+import net.consensys.linea.tracegeneration.rpc.RollupGetConflatedTracesJobV0;
+import net.consensys.linea.tracegeneration.rpc.RollupSubmitConflatedTracesJobV0;
+import net.consensys.linea.tracegeneration.rpc.TraceJobs;
 import net.consensys.linea.zktracer.opcode.OpCodes;
 import org.hyperledger.besu.plugin.BesuContext;
 import org.hyperledger.besu.plugin.BesuPlugin;
+import org.hyperledger.besu.plugin.services.PicoCLIOptions;
 import org.hyperledger.besu.plugin.services.RpcEndpointService;
 
 /** Plugin with RPC endpoints. */
 @AutoService(BesuPlugin.class)
 @Slf4j
 public class RollupRpcEndpointServicePlugin extends LineaRequiredPlugin {
+  public static final String NAME = "linea";
+  private final RollupRpcCliOptions options = RollupRpcCliOptions.create();
+  private RollupGenerateConflatedTracesToFileV0 generateMethod;
+  private TraceJobs traceJobs;
+
   @Override
   public void doRegister(final BesuContext context) {
-    RollupGenerateConflatedTracesToFileV0 method =
-        new RollupGenerateConflatedTracesToFileV0(context);
+    final Optional<PicoCLIOptions> cmdlineOptions = context.getService(PicoCLIOptions.class);
+
+    if (cmdlineOptions.isEmpty()) {
+      throw new IllegalStateException("Failed to obtain PicoCLI options from the BesuContext");
+    }
+
+    cmdlineOptions.get().addPicoCLIOptions(NAME, options);
+
+    generateMethod = new RollupGenerateConflatedTracesToFileV0(context);
+    RollupSubmitConflatedTracesJobV0 submitMethod =
+        new RollupSubmitConflatedTracesJobV0(() -> this.traceJobs);
+    RollupGetConflatedTracesJobV0 getMethod =
+        new RollupGetConflatedTracesJobV0(() -> this.traceJobs);
 
     Optional<RpcEndpointService> service = context.getService(RpcEndpointService.class);
-    createAndRegister(
-        method,
+    final RpcEndpointService rpcEndpointService =
         service.orElseThrow(
             () ->
-                new RuntimeException("Failed to obtain RpcEndpointService from the BesuContext.")));
-  }
-
-  private void createAndRegister(
-      final RollupGenerateConflatedTracesToFileV0 method,
-      final RpcEndpointService rpcEndpointService) {
+                new RuntimeException("Failed to obtain RpcEndpointService from the BesuContext."));
+    rpcEndpointService.registerRPCEndpoint(
+        generateMethod.getNamespace(), generateMethod.getName(), generateMethod::execute);
+    rpcEndpointService.registerRPCEndpoint(
+        submitMethod.getNamespace(), submitMethod.getName(), submitMethod::execute);
     rpcEndpointService.registerRPCEndpoint(
-        method.getNamespace(), method.getName(), method::execute);
+        getMethod.getNamespace(), getMethod.getName(), getMethod::execute);
   }
 
   @Override
   public void start() {
     OpCodes.load();
+
+    log.debug("Starting {} with configuration: {}", NAME, options);
+    final RollupRpcConfiguration config = options.toDomainObject();
+    generateMethod.setProfiling(config.traceProfiling());
+    generateMethod.setCompressionLevel(config.traceCompressionLevel());
+    generateMethod.setCompressionThreads(config.traceCompressionThreads());
+    traceJobs =
+        new TraceJobs(
+            config.traceJobsConcurrency(), config.traceJobsQueueLimit(), generateMethod::generate);
   }
 
   @Override
-  public void stop() {}
+  public void stop() {
+    if (traceJobs != null) {
+      traceJobs.shutdown();
+    }
+  }
 }
@@ -0,0 +1,219 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.tracegeneration.rpc;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A gzip output stream compressing on several threads, in the manner of pigz.
+ *
+ * <p>The input is cut into blocks that are deflated independently, each one primed with the last
+ * 32KiB of its predecessor so as not to lose much compression. All but the last block end on a sync
+ * flush, hence on a byte boundary, so that their concatenation is a single valid DEFLATE stream;
+ * the output is a standard, single-member gzip file.
+ *
+ * <p>At most twice as many blocks as threads are in flight at any time, so that memory usage does
+ * not depend on the size of the input.
+ */
+class ParallelGzipOutputStream extends OutputStream {
+  static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+  private static final int DICTIONARY_SIZE = 1 << 15;
+  private static final byte[] HEADER = {
+    0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+  };
+
+  private final OutputStream out;
+  private final int level;
+  private final int blockSize;
+  private final int maxInFlight;
+  private final ExecutorService executor;
+  private final ArrayDeque<Future<byte[]>> inFlight = new ArrayDeque<>();
+  private final CRC32 crc = new CRC32();
+  private long inputSize = 0;
+
+  private byte[] block;
+  private int blockLength = 0;
+  /** The tail of the previous block, used as dictionary by the current one */
+  private byte[] dictionary = new byte[0];
+  private boolean closed = false;
+
+  /**
+   * @param out where to write the compressed stream
+   * @param level the compression level, from 1 to 9
+   * @param threads the number of compressing threads
+   * @param blockSize the size of the independently compressed blocks
+   * @throws IOException if the gzip header can not be written
+   */
+  ParallelGzipOutputStream(
+      final OutputStream out, final int level, final int threads, final int blockSize)
+      throws IOException {
+    Preconditions.checkArgument(level >= 1 && level <= 9, "level must be between 1 and 9");
+    Preconditions.checkArgument(threads > 0, "threads must be positive");
+    Preconditions.checkArgument(blockSize > 0, "blockSize must be positive");
+    this.out = out;
+    this.level = level;
+    this.blockSize = blockSize;
+    this.maxInFlight = 2 * threads;
+    this.executor =
+        Executors.newFixedThreadPool(
+            threads,
+            r -> {
+              final Thread thread = new Thread(r, "linea-trace-gzip");
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.block = new byte[blockSize];
+    out.write(HEADER);
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    this.write(new byte[] {(byte) b}, 0, 1);
+  }
+
+  @Override
+  public void write(final byte[] b, int off, int len) throws IOException {
+    this.ensureOpen();
+    while (len > 0) {
+      final int n = Math.min(len, this.blockSize - this.blockLength);
+      System.arraycopy(b, off, this.block, this.blockLength, n);
+      this.blockLength += n;
+      off += n;
+      len -= n;
+      if (this.blockLength == this.blockSize) {
+        this.submit(false);
+      }
+    }
+  }
+
+  /**
+   * Hand the current block over to the compressing threads, then write out the compressed blocks
+   * until few enough are in flight.
+   *
+   * @param last whether the current block ends the stream
+   */
+  private void submit(final boolean last) throws IOException {
+    final byte[] input = this.block;
+    final int length = this.blockLength;
+    final byte[] dictionary = this.dictionary;
+    this.crc.update(input, 0, length);
+    this.inputSize += length;
+
+    this.inFlight.add(this.executor.submit(() -> deflate(input, length, dictionary, last)));
+
+    final int tail = Math.min(DICTIONARY_SIZE, length);
+    this.dictionary = Arrays.copyOfRange(input, length - tail, length);
+    this.block = new byte[this.blockSize];
+    this.blockLength = 0;
+
+    while (this.inFlight.size() >= (last ? 1 : this.maxInFlight)) {
+      this.out.write(this.await(this.inFlight.poll()));
+    }
+  }
+
+  private byte[] deflate(
+      final byte[] input, final int length, final byte[] dictionary, final boolean last) {
+    final Deflater deflater = new Deflater(this.level, true);
+    try {
+      if (dictionary.length > 0) {
+        deflater.setDictionary(dictionary);
+      }
+      deflater.setInput(input, 0, length);
+      if (last) {
+        deflater.finish();
+      }
+
+      byte[] output = new byte[length + (length >> 3) + 64];
+      int size = 0;
+      while (true) {
+        if (size == output.length) {
+          output = Arrays.copyOf(output, 2 * output.length);
+        }
+        final int n =
+            last
+                ? deflater.deflate(output, size, output.length - size)
+                : deflater.deflate(output, size, output.length - size, Deflater.SYNC_FLUSH);
+        size += n;
+        // the output is complete once the deflater stops filling the whole buffer
+        if (last ? deflater.finished() : size < output.length) {
+          break;
+        }
+      }
+      return Arrays.copyOf(output, size);
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private byte[] await(final Future<byte[]> compressed) throws IOException {
+    try {
+      return compressed.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("interrupted while compressing");
+    } catch (ExecutionException e) {
+      throw new IOException("failed to compress", e.getCause());
+    }
+  }
+
+  private void ensureOpen() throws IOException {
+    if (this.closed) {
+      throw new IOException("stream closed");
+    }
+  }
+
+  /** Compress and write out the pending input, then write the gzip trailer. */
+  @Override
+  public void close() throws IOException {
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+
+    try {
+      this.submit(true);
+
+      final long crc = this.crc.getValue();
+      final long size = this.inputSize;
+      this.out.write(
+          new byte[] {
+            (byte) crc,
+            (byte) (crc >> 8),
+            (byte) (crc >> 16),
+            (byte) (crc >> 24),
+            (byte) size,
+            (byte) (size >> 8),
+            (byte) (size >> 16),
+            (byte) (size >> 24)
+          });
+    } finally {
+      this.executor.shutdownNow();
+      this.out.close();
+    }
+  }
+}
@@ -15,33 +15,57 @@
 
 package net.consensys.linea.tracegeneration.rpc;
 
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.zip.GZIPOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
 import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import net.consensys.linea.zktracer.TracerProfiler;
+import net.consensys.linea.zktracer.TracingMode;
 import net.consensys.linea.zktracer.ZkTracer;
+import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.plugin.BesuContext;
+import org.hyperledger.besu.plugin.data.BlockBody;
+import org.hyperledger.besu.plugin.data.BlockContext;
+import org.hyperledger.besu.plugin.data.BlockHeader;
 import org.hyperledger.besu.plugin.services.BesuConfiguration;
+import org.hyperledger.besu.plugin.services.BlockchainService;
 import org.hyperledger.besu.plugin.services.TraceService;
 import org.hyperledger.besu.plugin.services.exception.PluginRpcEndpointException;
 import org.hyperledger.besu.plugin.services.rpc.PluginRpcRequest;
 
 /** Responsible for conflated file traces generation. */
+@Slf4j
 public class RollupGenerateConflatedTracesToFileV0 {
 
   private final BesuContext besuContext;
   private final JsonFactory jsonFactory = new JsonFactory();
-  private final boolean isGzipEnabled = true;
+  /** Whether to write the cost of tracing next to the generated traces. */
+  @Setter private volatile boolean profiling = false;
+  /** The gzip compression level of the trace files; 0 not to compress them. */
+  @Setter private volatile int compressionLevel = 6;
+  /** The number of threads compressing a trace file; 0 for as many as there are processors. */
+  @Setter private volatile int compressionThreads = 0;
 
   private Path tracesPath;
   private TraceService traceService;
+  private TraceResultCache traceResultCache;
 
   public RollupGenerateConflatedTracesToFileV0(final BesuContext besuContext) {
     this.besuContext = besuContext;
@@ -62,6 +86,44 @@ public class RollupGenerateConflatedTracesToFileV0 {
    * @return an execution file trace.
    */
   public FileTrace execute(final PluginRpcRequest request) {
+    try {
+      final TraceRequestParams params = TraceRequestParams.createTraceParams(request.getParams());
+
+      return generate(params, new TraceProgress());
+    } catch (Exception ex) {
+      throw new PluginRpcEndpointException(ex.getMessage());
+    }
+  }
+
+  /**
+   * Generates the execution traces of a block range, unless they already have been.
+   *
+   * @param params the block range to trace.
+   * @param progress updated as the traces are generated.
+   * @return an execution file trace.
+   */
+  public FileTrace generate(final TraceRequestParams params, final TraceProgress progress) {
+    init();
+    // the same level names the cached traces and compresses them
+    final int level = compressionLevel;
+
+    // blocks that can not be identified are traced every time
+    return getBlockHashes(params.fromBlock(), params.toBlock())
+        .map(
+            blockHashes ->
+                new TraceResultCache.Key(
+                    params.fromBlock(),
+                    params.toBlock(),
+                    blockHashes,
+                    params.runtimeVersion(),
+                    level))
+        .map(
+            key ->
+                traceResultCache.getOrCompute(key, () -> generateTraces(params, level, progress)))
+        .orElseGet(() -> generateTraces(params, level, progress));
+  }
+
+  private synchronized void init() {
     if (traceService == null) {
       traceService = initTraceService();
     }
@@ -70,32 +132,63 @@ public class RollupGenerateConflatedTracesToFileV0 {
       tracesPath = initTracesPath();
     }
 
-    try {
-      TraceRequestParams params = TraceRequestParams.createTraceParams(request.getParams());
-
-      final long fromBlock = params.fromBlock();
-      final long toBlock = params.toBlock();
-      final ZkTracer tracer = new ZkTracer();
-
-      traceService.trace(
-          fromBlock,
-          toBlock,
-          worldStateBeforeTracing -> {
-            // before tracing
-            tracer.traceStartConflation(toBlock - fromBlock + 1);
-          },
-          worldStateAfterTracing -> {
-            // after tracing
-            tracer.traceEndConflation();
-          },
-          tracer);
-
-      final String path = writeTraceToFile(tracer, params.runtimeVersion());
-
-      return new FileTrace(params.runtimeVersion(), path);
-    } catch (Exception ex) {
-      throw new PluginRpcEndpointException(ex.getMessage());
+    if (traceResultCache == null) {
+      traceResultCache = new TraceResultCache(tracesPath.resolve("index"));
+    }
+  }
+
+  private FileTrace generateTraces(
+      final TraceRequestParams params, final int level, final TraceProgress progress) {
+    final long fromBlock = params.fromBlock();
+    final long toBlock = params.toBlock();
+    final TracerProfiler profiler = profiling ? new TracerProfiler() : null;
+    final ZkTracer tracer =
+        new ZkTracer(TracingMode.FULL, profiler) {
+          @Override
+          public void traceEndBlock(final BlockHeader blockHeader, final BlockBody blockBody) {
+            super.traceEndBlock(blockHeader, blockBody);
+            progress.blockTraced();
+          }
+        };
+
+    traceService.trace(
+        fromBlock,
+        toBlock,
+        worldStateBeforeTracing -> {
+          // before tracing
+          tracer.traceStartConflation(toBlock - fromBlock + 1);
+        },
+        worldStateAfterTracing -> {
+          // after tracing
+          tracer.traceEndConflation();
+        },
+        tracer);
+
+    final String path = writeTraceToFile(tracer, params.runtimeVersion(), level, progress);
+    if (profiler != null) {
+      writeProfile(profiler, path);
+    }
+
+    return new FileTrace(params.runtimeVersion(), path);
+  }
+
+  private Optional<List<Hash>> getBlockHashes(final long fromBlock, final long toBlock) {
+    final Optional<BlockchainService> blockchainService =
+        besuContext.getService(BlockchainService.class);
+    if (blockchainService.isEmpty()) {
+      return Optional.empty();
+    }
+
+    final List<Hash> blockHashes = new ArrayList<>();
+    for (long number = fromBlock; number <= toBlock; number++) {
+      final Optional<BlockContext> block = blockchainService.get().getBlockByNumber(number);
+      if (block.isEmpty()) {
+        return Optional.empty();
+      }
+      blockHashes.add(block.get().getBlockHeader().getBlockHash());
     }
+
+    return Optional.of(blockHashes);
   }
 
   private Path initTracesPath() {
@@ -120,14 +213,18 @@ public class RollupGenerateConflatedTracesToFileV0 {
                     "Unable to find trace service. Please ensure TraceService is registered."));
   }
 
-  private String writeTraceToFile(final ZkTracer tracer, final String traceRuntimeVersion) {
-    final File file = generateOutputFile(traceRuntimeVersion);
-    final OutputStream outputStream = createOutputStream(file);
+  private String writeTraceToFile(
+      final ZkTracer tracer,
+      final String traceRuntimeVersion,
+      final int level,
+      final TraceProgress progress) {
+    final File file = generateOutputFile(traceRuntimeVersion, level);
+    final OutputStream outputStream = createOutputStream(file, level, progress);
 
     try (JsonGenerator jsonGenerator =
         jsonFactory.createGenerator(outputStream, JsonEncoding.UTF8)) {
       jsonGenerator.useDefaultPrettyPrinter();
-      jsonGenerator.writeObject(tracer.getJsonTrace());
+      jsonGenerator.writeObject(tracer.getTrace(module -> progress.moduleCommitted()).toJson());
 
     } catch (IOException e) {
       throw new RuntimeException(e);
@@ -136,11 +233,44 @@ public class RollupGenerateConflatedTracesToFileV0 {
     return file.getAbsolutePath();
   }
 
-  private OutputStream createOutputStream(final File file) {
+  /**
+   * Write the cost of tracing as collapsed stacks, one file per metric, next to the traces.
+   *
+   * @param profiler the profiler of the tracer having generated the traces
+   * @param tracePath the path to the generated traces
+   */
+  private void writeProfile(final TracerProfiler profiler, final String tracePath) {
+    for (TracerProfiler.Metric metric : TracerProfiler.Metric.values()) {
+      final Path profilePath =
+          Path.of("%s.%s.folded".formatted(tracePath, metric.name().toLowerCase()));
+      try {
+        Files.writeString(profilePath, profiler.toCollapsedStacks(metric));
+        log.info("Wrote tracing profile {}", profilePath);
+      } catch (IOException e) {
+        log.warn("Failed to write tracing profile {}", profilePath, e);
+      }
+    }
+  }
+
+  /**
+   * Open the trace file for writing; the JSON generator buffers its output, so that the file
+   * channel is written to directly, through the parallel compressor if any.
+   */
+  private OutputStream createOutputStream(
+      final File file, final int level, final TraceProgress progress) {
     try {
-      FileOutputStream fileOutputStream = new FileOutputStream(file);
-      if (isGzipEnabled) {
-        return new GZIPOutputStream(fileOutputStream);
+      final OutputStream fileOutputStream =
+          new CountingOutputStream(
+              Channels.newOutputStream(
+                  FileChannel.open(file.toPath(), CREATE, WRITE, TRUNCATE_EXISTING)),
+              progress);
+      if (level > 0) {
+        final int threads =
+            compressionThreads > 0
+                ? compressionThreads
+                : Runtime.getRuntime().availableProcessors();
+        return new ParallelGzipOutputStream(
+            fileOutputStream, level, threads, ParallelGzipOutputStream.DEFAULT_BLOCK_SIZE);
       }
 
       return fileOutputStream;
@@ -149,7 +279,7 @@ public class RollupGenerateConflatedTracesToFileV0 {
     }
   }
 
-  private File generateOutputFile(final String tracesEngineVersion) {
+  private File generateOutputFile(final String tracesEngineVersion, final int level) {
 
     if (!Files.isDirectory(tracesPath) && !tracesPath.toFile().mkdirs()) {
       throw new RuntimeException(
@@ -162,11 +292,33 @@ public class RollupGenerateConflatedTracesToFileV0 {
         .resolve(
             String.format(
                 "%.10s-%s.traces.%s",
-                System.currentTimeMillis(), tracesEngineVersion, getFileFormat()))
+                System.currentTimeMillis(), tracesEngineVersion, getFileFormat(level)))
         .toFile();
   }
 
-  private String getFileFormat() {
-    return isGzipEnabled ? "json.gz" : "json";
+  private String getFileFormat(final int level) {
+    return level > 0 ? "json.gz" : "json";
+  }
+
+  /** Reports the bytes actually written to the trace file. */
+  private static class CountingOutputStream extends FilterOutputStream {
+    private final TraceProgress progress;
+
+    CountingOutputStream(final OutputStream out, final TraceProgress progress) {
+      super(out);
+      this.progress = progress;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      out.write(b);
+      progress.bytesWritten(1);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+      out.write(b, off, len);
+      progress.bytesWritten(len);
+    }
   }
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.tracegeneration.rpc;
+
+import java.util.function.Supplier;
+
+import org.hyperledger.besu.plugin.services.exception.PluginRpcEndpointException;
+import org.hyperledger.besu.plugin.services.rpc.PluginRpcRequest;
+
+/** Responsible for reporting the progress of conflated file traces generation jobs. */
+public class RollupGetConflatedTracesJobV0 {
+  private final Supplier<TraceJobs> traceJobs;
+
+  public RollupGetConflatedTracesJobV0(final Supplier<TraceJobs> traceJobs) {
+    this.traceJobs = traceJobs;
+  }
+
+  public String getNamespace() {
+    return "rollup";
+  }
+
+  public String getName() {
+    return "getConflatedTracesJobV0";
+  }
+
+  /**
+   * Reports the state of a job queued by {@link RollupSubmitConflatedTracesJobV0}.
+   *
+   * @param request holds the job identifier.
+   * @return the status of the job, with its file trace once completed.
+   */
+  public TraceJobStatus execute(final PluginRpcRequest request) {
+    final Object[] params = request.getParams();
+    if (params.length != 1) {
+      throw new PluginRpcEndpointException(
+          String.format("Expected 1 parameter but got %d", params.length));
+    }
+
+    final String jobId = params[0].toString();
+    return traceJobs
+        .get()
+        .get(jobId)
+        .map(TraceJob::status)
+        .orElseThrow(() -> new PluginRpcEndpointException("Unknown trace job " + jobId));
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.tracegeneration.rpc;
+
+import java.util.function.Supplier;
+
+import org.hyperledger.besu.plugin.services.exception.PluginRpcEndpointException;
+import org.hyperledger.besu.plugin.services.rpc.PluginRpcRequest;
+
+/** Responsible for queuing conflated file traces generation jobs. */
+public class RollupSubmitConflatedTracesJobV0 {
+  private final Supplier<TraceJobs> traceJobs;
+
+  public RollupSubmitConflatedTracesJobV0(final Supplier<TraceJobs> traceJobs) {
+    this.traceJobs = traceJobs;
+  }
+
+  public String getNamespace() {
+    return "rollup";
+  }
+
+  public String getName() {
+    return "submitConflatedTracesJobV0";
+  }
+
+  /**
+   * Queues the generation of execution traces, to be polled with {@link
+   * RollupGetConflatedTracesJobV0}.
+   *
+   * @param request holds parameters of the RPC request.
+   * @return the status of the queued job.
+   */
+  public TraceJobStatus execute(final PluginRpcRequest request) {
+    try {
+      final TraceRequestParams params = TraceRequestParams.createTraceParams(request.getParams());
+
+      return traceJobs.get().submit(params).status();
+    } catch (Exception ex) {
+      throw new PluginRpcEndpointException(ex.getMessage());
+    }
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.tracegeneration.rpc;
+
+import java.time.Instant;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+
+/** A conflated traces generation running in the background. */
+@Accessors(fluent = true)
+public class TraceJob {
+  /** The lifecycle of a job. */
+  public enum State {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+  }
+
+  @Getter private final String id;
+  @Getter private final TraceRequestParams params;
+  @Getter private final TraceProgress progress = new TraceProgress();
+  @Getter private volatile State state = State.QUEUED;
+  @Getter private volatile FileTrace result;
+  @Getter private volatile String error;
+  @Getter private volatile Instant finishedAt;
+
+  TraceJob(final String id, final TraceRequestParams params) {
+    this.id = id;
+    this.params = params;
+  }
+
+  void running() {
+    this.state = State.RUNNING;
+  }
+
+  void completed(final FileTrace result) {
+    this.result = result;
+    this.finish(State.COMPLETED);
+  }
+
+  void failed(final String error) {
+    this.error = error;
+    this.finish(State.FAILED);
+  }
+
+  boolean isFinished() {
+    return this.finishedAt != null;
+  }
+
+  private void finish(final State state) {
+    this.finishedAt = Instant.now();
+    this.state = state;
+  }
+
+  /**
+   * @return the JSON representation of the job, as reported by the RPC endpoints
+   */
+  public TraceJobStatus status() {
+    return new TraceJobStatus(
+        id,
+        state,
+        params.fromBlock(),
+        params.toBlock(),
+        progress.blocksTraced(),
+        progress.modulesCommitted(),
+        progress.bytesWritten(),
+        result,
+        error);
+  }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.tracegeneration.rpc;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/** TraceJobStatus reports the state and progress of a conflated traces generation job. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TraceJobStatus(
+    @JsonProperty("jobId") String jobId,
+    @JsonProperty("state") TraceJob.State state,
+    @JsonProperty("fromBlock") long fromBlock,
+    @JsonProperty("toBlock") long toBlock,
+    @JsonProperty("blocksTraced") long blocksTraced,
+    @JsonProperty("modulesCommitted") long modulesCommitted,
+    @JsonProperty("bytesWritten") long bytesWritten,
+    @JsonProperty("result") FileTrace result,
+    @JsonProperty("error") String error) {}
@@ -0,0 +1,121 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.tracegeneration.rpc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs conflated traces generation jobs in the background, on a bounded number of threads and with
+ * a bounded queue, so that trace generation never holds the RPC workers of the node.
+ */
+@Slf4j
+public class TraceJobs {
+  /** How long the outcome of a finished job can be polled */
+  private static final Duration RETENTION = Duration.ofHours(1);
+
+  private final BiFunction<TraceRequestParams, TraceProgress, FileTrace> generator;
+  private final ThreadPoolExecutor executor;
+  private final ConcurrentMap<String, TraceJob> jobs = new ConcurrentHashMap<>();
+
+  /**
+   * @param concurrency the maximum number of jobs running at the same time
+   * @param queueLimit the maximum number of jobs waiting for a thread
+   * @param generator generates the traces of a job, reporting its progress
+   */
+  public TraceJobs(
+      final int concurrency,
+      final int queueLimit,
+      final BiFunction<TraceRequestParams, TraceProgress, FileTrace> generator) {
+    this.generator = generator;
+    this.executor =
+        new ThreadPoolExecutor(
+            concurrency,
+            concurrency,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueLimit),
+            new ThreadFactoryBuilder().setNameFormat("linea-trace-job-%d").setDaemon(true).build(),
+            new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  /**
+   * Queue the generation of the traces of a block range.
+   *
+   * @param params the block range to trace
+   * @return the queued job
+   * @throws IllegalStateException if the queue is full
+   */
+  public TraceJob submit(final TraceRequestParams params) {
+    this.purgeFinishedJobs();
+
+    final TraceJob job = new TraceJob(UUID.randomUUID().toString(), params);
+    this.jobs.put(job.id(), job);
+    try {
+      this.executor.execute(() -> this.run(job));
+    } catch (RejectedExecutionException e) {
+      this.jobs.remove(job.id());
+      throw new IllegalStateException(
+          "Too many trace jobs: %d running and %d queued"
+              .formatted(this.executor.getActiveCount(), this.executor.getQueue().size()));
+    }
+
+    log.info(
+        "Queued trace job {} for blocks {}-{}", job.id(), params.fromBlock(), params.toBlock());
+    return job;
+  }
+
+  /**
+   * @param id the identifier of a job
+   * @return the job, if it is known and has not expired
+   */
+  public Optional<TraceJob> get(final String id) {
+    return Optional.ofNullable(this.jobs.get(id));
+  }
+
+  /** Stop the running jobs and drop the queued ones. */
+  public void shutdown() {
+    this.executor.shutdownNow();
+  }
+
+  private void run(final TraceJob job) {
+    job.running();
+    try {
+      job.completed(this.generator.apply(job.params(), job.progress()));
+      log.info("Trace job {} completed", job.id());
+    } catch (Exception e) {
+      log.error("Trace job {} failed", job.id(), e);
+      job.failed(e.getMessage());
+    }
+  }
+
+  private void purgeFinishedJobs() {
+    final Instant expiry = Instant.now().minus(RETENTION);
+    this.jobs.values().removeIf(job -> job.isFinished() && job.finishedAt().isBefore(expiry));
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.tracegeneration.rpc;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Counts the work done so far while generating conflated traces. */
+public class TraceProgress {
+  private final AtomicLong blocksTraced = new AtomicLong();
+  private final AtomicLong modulesCommitted = new AtomicLong();
+  private final AtomicLong bytesWritten = new AtomicLong();
+
+  void blockTraced() {
+    blocksTraced.incrementAndGet();
+  }
+
+  void moduleCommitted() {
+    modulesCommitted.incrementAndGet();
+  }
+
+  void bytesWritten(final long count) {
+    bytesWritten.addAndGet(count);
+  }
+
+  public long blocksTraced() {
+    return blocksTraced.get();
+  }
+
+  public long modulesCommitted() {
+    return modulesCommitted.get();
+  }
+
+  public long bytesWritten() {
+    return bytesWritten.get();
+  }
+}
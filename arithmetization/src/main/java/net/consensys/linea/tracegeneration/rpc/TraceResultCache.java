@@ -0,0 +1,194 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.tracegeneration.rpc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.extern.slf4j.Slf4j;
+import net.consensys.linea.zktracer.json.JsonConverter;
+import org.hyperledger.besu.datatypes.Hash;
+
+/**
+ * Remembers the conflated traces already written to disk, so that a request for a range that has
+ * already been traced is answered with the existing {@link FileTrace} instead of re-tracing it.
+ *
+ * <p>Results are indexed by block range, block hashes, tracer version and compression level, one
+ * small index file per range, written once its trace file is complete; a reorganized range, a new
+ * tracer version or a request for differently compressed traces therefore never hits a stale
+ * trace. Concurrent requests for the same key share a single tracing.
+ */
+@Slf4j
+public class TraceResultCache {
+  private static final JsonConverter JSON_CONVERTER = JsonConverter.builder().build();
+
+  private final Path indexPath;
+  private final ConcurrentMap<Key, CompletableFuture<FileTrace>> inFlight =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Identifies the conflated traces of a block range.
+   *
+   * @param fromBlock the first block of the range
+   * @param toBlock the last block of the range
+   * @param blockHashes the hashes of the blocks of the range, in order
+   * @param tracesEngineVersion the version of the tracer generating the traces
+   * @param compressionLevel the gzip compression level of the trace file, 0 if uncompressed
+   */
+  public record Key(
+      long fromBlock,
+      long toBlock,
+      List<Hash> blockHashes,
+      String tracesEngineVersion,
+      int compressionLevel) {}
+
+  /** The content of an index file. */
+  record IndexEntry(
+      @JsonProperty("fromBlock") long fromBlock,
+      @JsonProperty("toBlock") long toBlock,
+      @JsonProperty("blockHashes") List<String> blockHashes,
+      @JsonProperty("tracesEngineVersion") String tracesEngineVersion,
+      @JsonProperty("compressionLevel") int compressionLevel,
+      @JsonProperty("traceFileName") String traceFileName) {}
+
+  public TraceResultCache(final Path indexPath) {
+    this.indexPath = indexPath;
+  }
+
+  /**
+   * Return the traces matching the key, generating them only if they are neither on disk nor
+   * already being generated.
+   *
+   * @param key the traced block range
+   * @param tracing generates the traces of the range
+   * @return the traces of the range
+   */
+  public FileTrace getOrCompute(final Key key, final Supplier<FileTrace> tracing) {
+    final Optional<FileTrace> stored = this.lookup(key);
+    if (stored.isPresent()) {
+      log.info("Traces of blocks {}-{} already generated", key.fromBlock(), key.toBlock());
+      return stored.get();
+    }
+
+    final CompletableFuture<FileTrace> created = new CompletableFuture<>();
+    final CompletableFuture<FileTrace> running = this.inFlight.putIfAbsent(key, created);
+    if (running != null) {
+      log.info("Joining ongoing tracing of blocks {}-{}", key.fromBlock(), key.toBlock());
+      return join(running);
+    }
+
+    try {
+      // the previous owner of the key may have completed since the lookup
+      final FileTrace result =
+          this.lookup(key)
+              .orElseGet(
+                  () -> {
+                    final FileTrace traced = tracing.get();
+                    this.store(key, traced);
+                    return traced;
+                  });
+      created.complete(result);
+      return result;
+    } catch (RuntimeException e) {
+      created.completeExceptionally(e);
+      throw e;
+    } finally {
+      this.inFlight.remove(key, created);
+    }
+  }
+
+  Optional<FileTrace> lookup(final Key key) {
+    final Path indexFile = this.indexFile(key);
+    if (!Files.exists(indexFile)) {
+      return Optional.empty();
+    }
+
+    try {
+      final IndexEntry entry =
+          JSON_CONVERTER.fromJson(Files.readString(indexFile), IndexEntry.class);
+      final boolean matches =
+          entry.fromBlock() == key.fromBlock()
+              && entry.toBlock() == key.toBlock()
+              && entry.tracesEngineVersion().equals(key.tracesEngineVersion())
+              && entry.compressionLevel() == key.compressionLevel()
+              && entry.blockHashes().equals(hexStrings(key.blockHashes()));
+      if (!matches || !Files.exists(Path.of(entry.traceFileName()))) {
+        return Optional.empty();
+      }
+
+      return Optional.of(new FileTrace(entry.tracesEngineVersion(), entry.traceFileName()));
+    } catch (IOException | RuntimeException e) {
+      log.warn("Ignoring unreadable trace index {}", indexFile, e);
+      return Optional.empty();
+    }
+  }
+
+  private void store(final Key key, final FileTrace trace) {
+    final IndexEntry entry =
+        new IndexEntry(
+            key.fromBlock(),
+            key.toBlock(),
+            hexStrings(key.blockHashes()),
+            key.tracesEngineVersion(),
+            key.compressionLevel(),
+            trace.traceFileName());
+
+    try {
+      Files.createDirectories(this.indexPath);
+      final Path indexFile = this.indexFile(key);
+      final Path tmpFile =
+          Files.createTempFile(this.indexPath, indexFile.getFileName() + ".", ".tmp");
+      Files.writeString(tmpFile, JSON_CONVERTER.toJson(entry));
+      Files.move(
+          tmpFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      // the traces are valid all the same, they will just be generated again if requested
+      log.warn("Unable to index traces of blocks {}-{}", key.fromBlock(), key.toBlock(), e);
+    }
+  }
+
+  private Path indexFile(final Key key) {
+    final String version = key.tracesEngineVersion().replaceAll("[^A-Za-z0-9._-]", "_");
+    return this.indexPath.resolve(
+        "%d-%d-%s-level%d.index.json"
+            .formatted(key.fromBlock(), key.toBlock(), version, key.compressionLevel()));
+  }
+
+  private static List<String> hexStrings(final List<Hash> hashes) {
+    return hashes.stream().map(Hash::toHexString).toList();
+  }
+
+  private static FileTrace join(final CompletableFuture<FileTrace> running) {
+    try {
+      return running.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.zktracer;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.consensys.linea.zktracer.module.Module;
+import net.consensys.linea.zktracer.opcode.OpCodeData;
+import net.consensys.linea.zktracer.opcode.OpCodes;
+
+/**
+ * Accumulates the time spent and the memory allocated while tracing, per opcode, per instruction
+ * family and per module hook, and exports them as collapsed stacks -- the input format of flame
+ * graph renderers.
+ *
+ * <p>The tracer opens a span around each of its entry points, and the hub reports the module hooks
+ * it calls within these spans. A stack is then, e.g., {@code
+ * tracePreExecution;ADD;ADD;Add.tracePreOpcode}, the tracer own work being reported on the stack
+ * without a module. Counters are kept in flat primitive arrays indexed by module, hook and opcode,
+ * so that profiling does not allocate once every module has been seen; allocations are measured
+ * with the per-thread counter of the JVM, if it provides one.
+ *
+ * <p>Like the tracer it profiles, a profiler is not thread-safe.
+ */
+public final class TracerProfiler {
+  /** What is reported by the collapsed stacks. */
+  public enum Metric {
+    /** The number of times a stack has been seen. */
+    CALLS,
+    /** The nanoseconds spent in a stack. */
+    NANOS,
+    /** The bytes allocated in a stack. */
+    ALLOCATED_BYTES
+  }
+
+  /**
+   * The module hooks, each with the tracer entry point opening the span it is called within; the
+   * hooks sharing the span of another one are never used to open a span.
+   */
+  public enum Hook {
+    PRE_OPCODE("tracePreExecution", "tracePreOpcode"),
+    POST_EXECUTION("tracePostExecution", "tracePostExecution"),
+    POST_OP("tracePostExecution", "tracePostOp"),
+    CONTEXT_ENTER("traceContextEnter", "traceContextEnter"),
+    COMMIT("commit", "commit");
+
+    private final String span;
+    private final String module;
+
+    Hook(String span, String module) {
+      this.span = span;
+      this.module = module;
+    }
+  }
+
+  /** The row of the spans not related to an opcode. */
+  public static final int NO_OPCODE = 256;
+
+  private static final int ROWS = NO_OPCODE + 1;
+  private static final int HOOKS = Hook.values().length;
+  private static final int MODULE_STRIDE = HOOKS * ROWS;
+  private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+  /** The modules seen so far; index 0 stands for the tracer itself. */
+  private final List<String> moduleNames = new ArrayList<>(List.of(""));
+
+  private final Map<Class<?>, Integer> moduleIndices = new HashMap<>();
+  private long[] calls = new long[MODULE_STRIDE];
+  private long[] nanos = new long[MODULE_STRIDE];
+  private long[] allocatedBytes = new long[MODULE_STRIDE];
+
+  private Hook span;
+  private int spanRow;
+  private long spanStartNanos;
+  private long spanStartBytes;
+  private long nestedNanos;
+  private long nestedBytes;
+  private long hookStartNanos;
+  private long hookStartBytes;
+
+  private static com.sun.management.ThreadMXBean threads() {
+    if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+        && threads.isThreadAllocatedMemorySupported()
+        && threads.isThreadAllocatedMemoryEnabled()) {
+      return threads;
+    }
+    return null;
+  }
+
+  private static long allocatedBytes() {
+    return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+  }
+
+  /**
+   * Open a span for an entry point of the tracer.
+   *
+   * @param hook the entry point
+   * @param opCode the opcode being traced, or {@link #NO_OPCODE}
+   */
+  public void startSpan(Hook hook, int opCode) {
+    this.span = hook;
+    this.spanRow = opCode;
+    this.nestedNanos = 0;
+    this.nestedBytes = 0;
+    this.spanStartBytes = allocatedBytes();
+    this.spanStartNanos = System.nanoTime();
+  }
+
+  /** Close the current span, accounting its time minus that of its module hooks to the tracer. */
+  public void endSpan() {
+    final long elapsed = System.nanoTime() - this.spanStartNanos;
+    final long allocated = allocatedBytes() - this.spanStartBytes;
+    this.record(0, this.span, elapsed - this.nestedNanos, allocated - this.nestedBytes);
+    this.span = null;
+  }
+
+  /**
+   * @return whether a span is open, i.e. whether module hooks should be measured
+   */
+  public boolean inSpan() {
+    return this.span != null;
+  }
+
+  /** Start measuring a module hook within the current span. */
+  public void startHook() {
+    this.hookStartBytes = allocatedBytes();
+    this.hookStartNanos = System.nanoTime();
+  }
+
+  /**
+   * Stop measuring a module hook within the current span.
+   *
+   * @param module the module whose hook was called
+   * @param hook the hook that was called
+   */
+  public void endHook(Module module, Hook hook) {
+    final long elapsed = System.nanoTime() - this.hookStartNanos;
+    final long allocated = allocatedBytes() - this.hookStartBytes;
+    this.nestedNanos += elapsed;
+    this.nestedBytes += allocated;
+    this.record(this.moduleIndex(module), hook, elapsed, allocated);
+  }
+
+  private void record(int module, Hook hook, long elapsed, long allocated) {
+    final int i = module * MODULE_STRIDE + hook.ordinal() * ROWS + this.spanRow;
+    this.calls[i]++;
+    this.nanos[i] += elapsed;
+    this.allocatedBytes[i] += allocated;
+  }
+
+  private int moduleIndex(Module module) {
+    final Integer index = this.moduleIndices.get(module.getClass());
+    if (index != null) {
+      return index;
+    }
+
+    final int newIndex = this.moduleNames.size();
+    this.moduleNames.add(module.getClass().getSimpleName());
+    this.moduleIndices.put(module.getClass(), newIndex);
+    final int size = this.moduleNames.size() * MODULE_STRIDE;
+    this.calls = Arrays.copyOf(this.calls, size);
+    this.nanos = Arrays.copyOf(this.nanos, size);
+    this.allocatedBytes = Arrays.copyOf(this.allocatedBytes, size);
+    return newIndex;
+  }
+
+  /** Forget everything measured so far. */
+  public void reset() {
+    Arrays.fill(this.calls, 0);
+    Arrays.fill(this.nanos, 0);
+    Arrays.fill(this.allocatedBytes, 0);
+  }
+
+  /**
+   * Export the measures in the collapsed stack format, one {@code frame;frame;... value} line per
+   * stack, skipping the empty ones.
+   *
+   * @param metric the measure to report
+   * @return the collapsed stacks
+   */
+  public String toCollapsedStacks(Metric metric) {
+    final long[] values =
+        switch (metric) {
+          case CALLS -> this.calls;
+          case NANOS -> this.nanos;
+          case ALLOCATED_BYTES -> this.allocatedBytes;
+        };
+
+    // unassigned opcodes all map to INVALID, so that stacks may have to be merged
+    final Map<String, Long> stacks = new LinkedHashMap<>();
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] <= 0) {
+        continue;
+      }
+
+      final int module = i / MODULE_STRIDE;
+      final Hook hook = Hook.values()[(i % MODULE_STRIDE) / ROWS];
+      final int row = i % ROWS;
+      final StringBuilder stack = new StringBuilder(hook.span);
+      if (row != NO_OPCODE) {
+        final OpCodeData opCode = OpCodes.of(row);
+        stack.append(';').append(opCode.instructionFamily()).append(';').append(opCode.mnemonic());
+      }
+      if (module != 0) {
+        stack.append(';').append(this.moduleNames.get(module)).append('.').append(hook.module);
+      }
+      stacks.merge(stack.toString(), values[i], Long::sum);
+    }
+
+    final StringBuilder r = new StringBuilder();
+    stacks.forEach((stack, value) -> r.append(stack).append(' ').append(value).append('\n'));
+    return r.toString();
+  }
+}
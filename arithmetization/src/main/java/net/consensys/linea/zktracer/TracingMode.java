@@ -0,0 +1,27 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.zktracer;
+
+/** Selects how much information a {@link ZkTracer} records while tracing. */
+public enum TracingMode {
+  /** Record everything required to generate the traces of all the modules. */
+  FULL,
+  /**
+   * Only record what is required to compute the exact line count of every module, e.g. for block
+   * building; a tracer in this mode can not generate traces.
+   */
+  LINE_COUNT
+}
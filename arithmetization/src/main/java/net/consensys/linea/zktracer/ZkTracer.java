@@ -15,11 +15,13 @@
 
 package net.consensys.linea.zktracer;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
-import lombok.RequiredArgsConstructor;
 import net.consensys.linea.zktracer.module.Module;
 import net.consensys.linea.zktracer.module.hub.Hub;
 import net.consensys.linea.zktracer.opcode.OpCodes;
@@ -37,29 +39,118 @@ import org.hyperledger.besu.plugin.data.BlockBody;
 import org.hyperledger.besu.plugin.data.BlockHeader;
 import org.hyperledger.besu.plugin.data.ProcessableBlockHeader;
 
-@RequiredArgsConstructor
 public class ZkTracer implements ZkBlockAwareOperationTracer {
   /** The {@link GasCalculator} used in this version of the arithmetization */
   public static final GasCalculator gasCalculator = new LondonGasCalculator();
 
-  private final ZkTraceBuilder zkTraceBuilder = new ZkTraceBuilder();
+  private final TracingMode mode;
+  /** Measures the cost of tracing; null when not profiling */
+  private final TracerProfiler profiler;
+  private ZkTraceBuilder zkTraceBuilder = new ZkTraceBuilder();
   private final Hub hub;
-  private Hash hashOfLastTransactionTraced = Hash.EMPTY;
+  /** The transactions currently traced, from the oldest to the latest */
+  private final List<TracedTransaction> tracedTransactions = new ArrayList<>();
+  /** The identifier of the next traced transaction */
+  private long nextTransactionId = 0;
+
+  /**
+   * A transaction traced by this tracer.
+   *
+   * @param id a unique identifier, distinguishing several tracings of the same transaction
+   * @param hash the hash of the transaction
+   */
+  private record TracedTransaction(long id, Hash hash) {}
+
+  /**
+   * A point in the tracing to which the tracer can be rolled back.
+   *
+   * @param depth the number of transactions traced at the time of the checkpoint
+   * @param lastTransactionId the identifier of the latest transaction traced at the time of the
+   *     checkpoint, or -1 if there were none
+   */
+  public record Checkpoint(int depth, long lastTransactionId) {}
 
   public ZkTracer() {
-    // Load opcodes configured in src/main/resources/opcodes.yml.
+    this(TracingMode.FULL);
+  }
+
+  /**
+   * Create a tracer recording as much information as required by the given {@link TracingMode}.
+   *
+   * @param mode whether to record full traces or only line counts
+   */
+  public ZkTracer(final TracingMode mode) {
+    this(mode, null);
+  }
+
+  /**
+   * Create a tracer recording as much information as required by the given {@link TracingMode},
+   * and reporting the cost of each opcode and module hook to the given profiler.
+   *
+   * @param mode whether to record full traces or only line counts
+   * @param profiler where to report the cost of tracing, or null if not profiling
+   */
+  public ZkTracer(final TracingMode mode, final TracerProfiler profiler) {
+    // Load opcodes configured in src/main/resources/opcodes.yml, if not done yet.
     OpCodes.load();
 
-    this.hub = new Hub();
+    this.mode = mode;
+    this.profiler = profiler;
+    this.hub = new Hub(mode, profiler);
+  }
+
+  /**
+   * Forget everything traced so far, leaving the tracer as if it had just been created, so that it
+   * can be reused for another block or conflation. Checkpoints taken before the reset are no longer
+   * valid.
+   *
+   * <p>The hub and the modules are cleared in place, so that the buffers they have grown while
+   * tracing are reused rather than reallocated; the opcode metadata is shared by all tracers and is
+   * not reloaded. Only the trace builder is replaced, as the traces it has already built still
+   * refer to its results.
+   */
+  public void reset() {
+    this.tracedTransactions.clear();
+    this.zkTraceBuilder = new ZkTraceBuilder();
+    this.hub.reset();
   }
 
   public ZkTrace getTrace() {
+    return this.getTrace(module -> {});
+  }
+
+  /**
+   * Generate the traces of all the modules.
+   *
+   * @param onModuleCommitted called after the trace of each module has been generated
+   * @return the traces
+   */
+  public ZkTrace getTrace(final Consumer<Module> onModuleCommitted) {
+    if (this.mode != TracingMode.FULL) {
+      throw new IllegalStateException("traces can not be generated in " + this.mode);
+    }
     for (Module module : this.hub.getModulesToTrace()) {
-      zkTraceBuilder.addTrace(module);
+      if (this.profiler == null) {
+        zkTraceBuilder.addTrace(module);
+      } else {
+        this.profiler.startSpan(TracerProfiler.Hook.COMMIT, TracerProfiler.NO_OPCODE);
+        this.profiler.startHook();
+        zkTraceBuilder.addTrace(module);
+        this.profiler.endHook(module, TracerProfiler.Hook.COMMIT);
+        this.profiler.endSpan();
+      }
+      onModuleCommitted.accept(module);
     }
     return zkTraceBuilder.build();
   }
 
+  /**
+   * @return the modules whose traces are generated by this tracer
+   */
+  List<Module> getModulesToTrace() {
+    return this.hub.getModulesToTrace();
+  }
+
   @Override
   public void traceStartConflation(final long numBlocksInConflation) {
     hub.traceStartConflation(numBlocksInConflation);
@@ -92,7 +183,7 @@ public class ZkTracer implements ZkBlockAwareOperationTracer {
 
   @Override
   public void traceStartTransaction(WorldView worldView, Transaction transaction) {
-    hashOfLastTransactionTraced = transaction.getHash();
+    this.tracedTransactions.add(new TracedTransaction(nextTransactionId++, transaction.getHash()));
     this.hub.traceStartTx(worldView, transaction);
   }
 
@@ -110,12 +201,26 @@ public class ZkTracer implements ZkBlockAwareOperationTracer {
 
   @Override
   public void tracePreExecution(final MessageFrame frame) {
+    if (this.profiler == null) {
+      this.hub.tracePreOpcode(frame);
+      return;
+    }
+    this.profiler.startSpan(
+        TracerProfiler.Hook.PRE_OPCODE, frame.getCurrentOperation().getOpcode());
     this.hub.tracePreOpcode(frame);
+    this.profiler.endSpan();
   }
 
   @Override
   public void tracePostExecution(MessageFrame frame, Operation.OperationResult operationResult) {
+    if (this.profiler == null) {
+      this.hub.tracePostExecution(frame, operationResult);
+      return;
+    }
+    this.profiler.startSpan(
+        TracerProfiler.Hook.POST_EXECUTION, frame.getCurrentOperation().getOpcode());
     this.hub.tracePostExecution(frame, operationResult);
+    this.profiler.endSpan();
   }
 
   @Override
@@ -123,7 +228,13 @@ public class ZkTracer implements ZkBlockAwareOperationTracer {
     // We only want to trigger on creation of new contexts, not on re-entry in
     // existing contexts
     if (frame.getState() == MessageFrame.State.NOT_STARTED) {
+      if (this.profiler == null) {
+        this.hub.traceContextEnter(frame);
+        return;
+      }
+      this.profiler.startSpan(TracerProfiler.Hook.CONTEXT_ENTER, TracerProfiler.NO_OPCODE);
       this.hub.traceContextEnter(frame);
+      this.profiler.endSpan();
     }
   }
 
@@ -139,11 +250,69 @@ public class ZkTracer implements ZkBlockAwareOperationTracer {
 
   /** When called, erase all tracing related to the last included transaction. */
   public void popTransaction(final PendingTransaction pendingTransaction) {
-    if (hashOfLastTransactionTraced.equals(pendingTransaction.getTransaction().getHash())) {
-      hub.popTransaction();
+    final Hash hash = pendingTransaction.getTransaction().getHash();
+    if (!this.tracedTransactions.isEmpty() && this.lastTracedTransaction().hash().equals(hash)) {
+      this.popLastTransaction();
+    }
+  }
+
+  /**
+   * Mark the current point of the tracing, so that it can later be restored with {@link
+   * #rollback(Checkpoint)}.
+   *
+   * @return a checkpoint of the current tracing
+   */
+  public Checkpoint checkpoint() {
+    final int depth = this.tracedTransactions.size();
+    return new Checkpoint(depth, depth == 0 ? -1 : this.lastTracedTransaction().id());
+  }
+
+  /**
+   * Erase all the tracing of the transactions traced after the given checkpoint. As each module
+   * stacks the state of every transaction on top of the previous ones, it only requires dropping as
+   * many layers as there are transactions to forget, each of them costing as much as the tracing
+   * of its transaction recorded.
+   *
+   * <p>Every state modified by a transaction is restored, the conflation-wide deployment
+   * information, code store and code identifiers included, so that re-tracing a rolled back
+   * transaction traces it exactly as the first time. Only the transactions are rolled back though:
+   * the blocks started or ended since the checkpoint remain traced.
+   *
+   * @param checkpoint a checkpoint obtained from {@link #checkpoint()}
+   * @throws IllegalArgumentException if some of the transactions traced before the checkpoint have
+   *     since been rolled back
+   */
+  public void rollback(final Checkpoint checkpoint) {
+    final int depth = checkpoint.depth();
+    final boolean stale =
+        depth > this.tracedTransactions.size()
+            || (depth > 0
+                && this.tracedTransactions.get(depth - 1).id() != checkpoint.lastTransactionId());
+    if (stale) {
+      throw new IllegalArgumentException("checkpoint " + checkpoint + " is no longer valid");
+    }
+
+    while (this.tracedTransactions.size() > depth) {
+      this.popLastTransaction();
     }
   }
 
+  private TracedTransaction lastTracedTransaction() {
+    return this.tracedTransactions.get(this.tracedTransactions.size() - 1);
+  }
+
+  private void popLastTransaction() {
+    this.tracedTransactions.remove(this.tracedTransactions.size() - 1);
+    this.hub.popTransaction();
+  }
+
+  /**
+   * @return the profiler measuring the cost of this tracer, if profiling
+   */
+  public Optional<TracerProfiler> getProfiler() {
+    return Optional.ofNullable(this.profiler);
+  }
+
   public Map<String, Integer> getModulesLineCount() {
     final HashMap<String, Integer> modulesLineCount = new HashMap<>();
     hub.getModulesToTrace()
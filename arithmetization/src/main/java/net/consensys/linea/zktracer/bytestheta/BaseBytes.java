@@ -16,6 +16,7 @@
 package net.consensys.linea.zktracer.bytestheta;
 
 import net.consensys.linea.zktracer.types.Bytes16;
+import net.consensys.linea.zktracer.types.Word256;
 import org.apache.tuweni.bytes.Bytes32;
 import org.apache.tuweni.bytes.MutableBytes32;
 
@@ -40,6 +41,17 @@ public class BaseBytes implements HighLowBytes {
     return new BaseBytes(arg);
   }
 
+  /**
+   * This static factory method returns a new instance of the `BaseBytes` class, initialized with
+   * the given {@link Word256}.
+   *
+   * @param arg The {@link Word256} used to initialize the new `BaseBytes` instance.
+   * @return A new instance of the `BaseBytes` class holding the bytes of `arg`.
+   */
+  public static BaseBytes fromWord256(Word256 arg) {
+    return new BaseBytes(arg.toBytes32());
+  }
+
   /**
    * The constructor for the `BaseBytes` class. It takes a parameter of type `Bytes32` called `arg`,
    * which is used to initialize the object.
@@ -91,6 +103,15 @@ public class BaseBytes implements HighLowBytes {
     return bytes32;
   }
 
+  /**
+   * Returns the 256-bit block of data as a {@link Word256}.
+   *
+   * @return A {@link Word256} holding the value of the `bytes32` instance variable.
+   */
+  public Word256 toWord256() {
+    return Word256.fromBytes(bytes32);
+  }
+
   /**
    * Returns `true` if the `bytes32` instance variable contains all zeros, and `false` otherwise.
    *
@@ -16,6 +16,7 @@
 package net.consensys.linea.zktracer.bytestheta;
 
 import net.consensys.linea.zktracer.types.Bytes16;
+import net.consensys.linea.zktracer.types.Word256;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 
@@ -50,6 +51,39 @@ public class BaseTheta extends BytesArray implements HighLowBytes {
     return new BaseTheta(arg);
   }
 
+  /**
+   * Creates a new BaseTheta instance from a given Word256 input.
+   *
+   * @param arg A Word256 input.
+   * @return A new BaseTheta instance.
+   */
+  public static BaseTheta fromWord256(Word256 arg) {
+    return new BaseTheta(arg.toBytes32());
+  }
+
+  /**
+   * Returns the value held by this BaseTheta as a Word256. Chunk i is read directly as limb i,
+   * without concatenating the chunks into an intermediate Bytes32.
+   *
+   * @return A Word256 instance.
+   */
+  public Word256 toWord256() {
+    return Word256.of(
+        bytesArray[3].toLong(),
+        bytesArray[2].toLong(),
+        bytesArray[1].toLong(),
+        bytesArray[0].toLong());
+  }
+
+  /**
+   * Returns an independent copy of this BaseTheta.
+   *
+   * @return A new BaseTheta instance holding the same bytes.
+   */
+  public BaseTheta copy() {
+    return fromBytes32(Bytes32.wrap(Bytes.concatenate(getHigh(), getLow())));
+  }
+
   /**
    * Returns a Bytes32 instance representing the concatenated bytes in the BaseTheta.
    *
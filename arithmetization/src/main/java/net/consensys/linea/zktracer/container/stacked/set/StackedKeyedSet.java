@@ -0,0 +1,96 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.zktracer.container.stacked.set;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import net.consensys.linea.zktracer.container.StackedContainer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link StackedSet} variant where elements are deduplicated on a separate, cheap key rather
+ * than on the elements themselves.
+ *
+ * <p>An element is only built when its key is seen for the first time across all the nested
+ * contexts, so that repeated operations cost a single key lookup. All the elements live in a single
+ * map, whatever their context, and each context only records the keys it added so that they can be
+ * dropped with it; adding an element thus costs the same whatever the nesting depth. Elements are
+ * iterated in insertion order.
+ *
+ * @param <K> the type of the deduplication keys
+ * @param <E> the type of elements stored in the set
+ */
+public class StackedKeyedSet<K, E> extends AbstractCollection<E> implements StackedContainer {
+  private final Map<K, E> elements = new LinkedHashMap<>();
+  /** The keys added in each of the nested contexts */
+  private final List<List<K>> contextKeys = new ArrayList<>();
+
+  @Override
+  public void enter() {
+    this.contextKeys.add(new ArrayList<>());
+  }
+
+  @Override
+  public void pop() {
+    for (K key : this.contextKeys.remove(this.contextKeys.size() - 1)) {
+      this.elements.remove(key);
+    }
+  }
+
+  /**
+   * Add the element identified by the given key, unless one is already present in any context.
+   *
+   * @param key the key identifying the element
+   * @param element builds the element, only called if the key is new
+   * @return true if the element was added
+   */
+  public boolean add(final K key, final Supplier<? extends E> element) {
+    if (this.elements.containsKey(key)) {
+      return false;
+    }
+
+    this.elements.put(key, element.get());
+    this.contextKeys.get(this.contextKeys.size() - 1).add(key);
+    return true;
+  }
+
+  public boolean containsKey(final K key) {
+    return this.elements.containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return this.elements.size();
+  }
+
+  @NotNull
+  @Override
+  public Iterator<E> iterator() {
+    return this.elements.values().iterator();
+  }
+
+  @Override
+  public void clear() {
+    this.elements.clear();
+    this.contextKeys.clear();
+  }
+}
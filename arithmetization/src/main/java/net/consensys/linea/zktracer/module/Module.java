@@ -67,6 +67,12 @@ public interface Module {
   /** Called when a transaction execution is cancelled; should revert the state of the module. */
   void popTransaction();
 
+  /**
+   * Called when the tracer is reused; should bring the module back to its initial state, clearing
+   * its containers in place rather than reallocating them.
+   */
+  void reset();
+
   int lineCount();
 
   default void tracePreExecution(
@@ -0,0 +1,101 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.zktracer.module;
+
+import java.util.Arrays;
+
+import net.consensys.linea.zktracer.opcode.OpCode;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * The identity of an ALU operation, used to trace identical operations only once per conflation.
+ *
+ * <p>The opcode and the raw 32-byte arguments are packed into primitive limbs and hashed once at
+ * construction, so that a lookup in a deduplicating set boils down to a handful of {@code long}
+ * comparisons instead of hashing and comparing {@link org.apache.tuweni.bytes.Bytes} objects.
+ */
+public final class OperationKey {
+  private final byte opCode;
+  private final long[] limbs;
+  private final long hash;
+
+  private OperationKey(final byte opCode, final long[] limbs) {
+    this.opCode = opCode;
+    this.limbs = limbs;
+
+    long h = opCode;
+    for (long limb : limbs) {
+      h = (h ^ limb) * 0x9e3779b97f4a7c15L;
+      h ^= h >>> 32;
+    }
+    this.hash = h;
+  }
+
+  /**
+   * The key of a two-argument operation.
+   *
+   * @param opCode the operation
+   * @param arg1 the first argument
+   * @param arg2 the second argument
+   * @return the key
+   */
+  public static OperationKey of(final OpCode opCode, final Bytes32 arg1, final Bytes32 arg2) {
+    final long[] limbs = new long[8];
+    pack(arg1, limbs, 0);
+    pack(arg2, limbs, 4);
+    return new OperationKey(opCode.byteValue(), limbs);
+  }
+
+  /**
+   * The key of a three-argument operation.
+   *
+   * @param opCode the operation
+   * @param arg1 the first argument
+   * @param arg2 the second argument
+   * @param arg3 the third argument
+   * @return the key
+   */
+  public static OperationKey of(
+      final OpCode opCode, final Bytes32 arg1, final Bytes32 arg2, final Bytes32 arg3) {
+    final long[] limbs = new long[12];
+    pack(arg1, limbs, 0);
+    pack(arg2, limbs, 4);
+    pack(arg3, limbs, 8);
+    return new OperationKey(opCode.byteValue(), limbs);
+  }
+
+  private static void pack(final Bytes32 arg, final long[] limbs, final int offset) {
+    for (int i = 0; i < 4; i++) {
+      limbs[offset + i] = arg.getLong(8 * i);
+    }
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    return o instanceof OperationKey other
+        && this.hash == other.hash
+        && this.opCode == other.opCode
+        && Arrays.equals(this.limbs, other.limbs);
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(this.hash);
+  }
+}
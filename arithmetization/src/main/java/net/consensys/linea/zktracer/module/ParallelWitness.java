@@ -0,0 +1,99 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.zktracer.module;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Computes the witnesses of independent operations concurrently, ahead of their tracing.
+ *
+ * <p>The operations are split in batches processed on a dedicated, fixed-size thread pool shared
+ * by all the tracers, so that the witness computation neither competes with the host node for the
+ * common fork-join pool nor grows with the number of tracers committing at the same time. The
+ * trace lines are then still written serially, in iteration order, so that the stamps stay
+ * consistent.
+ */
+public final class ParallelWitness {
+  /** Below this number of operations, splitting the work costs more than it saves */
+  private static final int MIN_OPERATIONS = 64;
+  /** The number of operations handed to a thread at once */
+  private static final int BATCH_SIZE = 64;
+  /** At most half of the cores, leaving the other ones to the host node */
+  private static final int THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+  private static final ExecutorService EXECUTOR =
+      Executors.newFixedThreadPool(
+          THREADS,
+          new ThreadFactoryBuilder()
+              .setNameFormat("linea-zktracer-witness-%d")
+              .setDaemon(true)
+              .build());
+
+  private ParallelWitness() {}
+
+  /**
+   * Compute the witness of every operation; a no-op for small sets, whose witnesses are then
+   * computed while tracing.
+   *
+   * @param operations the operations about to be traced
+   * @param witness the idempotent witness computation of an operation
+   * @param <T> the type of the operations
+   */
+  public static <T> void compute(final Collection<T> operations, final Consumer<T> witness) {
+    if (operations.size() < MIN_OPERATIONS) {
+      return;
+    }
+
+    final List<Future<?>> batches = new ArrayList<>(operations.size() / BATCH_SIZE + 1);
+    List<T> batch = new ArrayList<>(BATCH_SIZE);
+    for (T operation : operations) {
+      batch.add(operation);
+      if (batch.size() == BATCH_SIZE) {
+        batches.add(submit(batch, witness));
+        batch = new ArrayList<>(BATCH_SIZE);
+      }
+    }
+    if (!batch.isEmpty()) {
+      batches.add(submit(batch, witness));
+    }
+
+    try {
+      for (Future<?> future : batches) {
+        future.get();
+      }
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted while computing witnesses", e);
+    }
+  }
+
+  private static <T> Future<?> submit(final List<T> batch, final Consumer<T> witness) {
+    return EXECUTOR.submit(() -> batch.forEach(witness));
+  }
+}
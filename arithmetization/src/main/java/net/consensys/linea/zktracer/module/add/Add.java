@@ -17,10 +17,12 @@ package net.consensys.linea.zktracer.module.add;
 
 import java.math.BigInteger;
 
+import net.consensys.linea.zktracer.TracingMode;
 import net.consensys.linea.zktracer.bytestheta.BaseBytes;
-import net.consensys.linea.zktracer.container.stacked.set.StackedSet;
+import net.consensys.linea.zktracer.container.stacked.set.StackedKeyedSet;
 import net.consensys.linea.zktracer.module.Module;
 import net.consensys.linea.zktracer.module.ModuleTrace;
+import net.consensys.linea.zktracer.module.OperationKey;
 import net.consensys.linea.zktracer.opcode.OpCode;
 import net.consensys.linea.zktracer.opcode.OpCodeData;
 import net.consensys.linea.zktracer.opcode.OpCodes;
@@ -37,7 +39,19 @@ public class Add implements Module {
   private int stamp = 0;
 
   /** A set of the operations to trace */
-  private final StackedSet<AddOperation> chunks = new StackedSet<>();
+  private final StackedKeyedSet<OperationKey, AddOperation> chunks = new StackedKeyedSet<>();
+  /** The line counts of the operations, used instead of the operations when counting lines */
+  private final StackedKeyedSet<OperationKey, Integer> lineCounts = new StackedKeyedSet<>();
+  /** Whether only the line counts are recorded */
+  private final boolean countsOnly;
+
+  public Add() {
+    this(TracingMode.FULL);
+  }
+
+  public Add(final TracingMode mode) {
+    this.countsOnly = mode == TracingMode.LINE_COUNT;
+  }
 
   @Override
   public String jsonKey() {
@@ -47,11 +61,20 @@ public class Add implements Module {
   @Override
   public void enterTransaction() {
     this.chunks.enter();
+    this.lineCounts.enter();
   }
 
   @Override
   public void popTransaction() {
     this.chunks.pop();
+    this.lineCounts.pop();
+  }
+
+  @Override
+  public void reset() {
+    this.chunks.clear();
+    this.lineCounts.clear();
+    this.stamp = 0;
   }
 
   @Override
@@ -59,8 +82,13 @@ public class Add implements Module {
     final Bytes32 arg1 = Bytes32.leftPad(frame.getStackItem(0));
     final Bytes32 arg2 = Bytes32.leftPad(frame.getStackItem(1));
 
-    this.chunks.add(
-        new AddOperation(OpCode.of(frame.getCurrentOperation().getOpcode()), arg1, arg2));
+    final OpCode opCode = OpCode.of(frame.getCurrentOperation().getOpcode());
+    final OperationKey key = OperationKey.of(opCode, arg1, arg2);
+    if (this.countsOnly) {
+      this.lineCounts.add(key, () -> 16);
+    } else {
+      this.chunks.add(key, () -> new AddOperation(opCode, arg1, arg2));
+    }
   }
 
   /**
@@ -125,6 +153,16 @@ public class Add implements Module {
       }
     }
 
+    // the values constant over the operation are shared by all its lines
+    final BigInteger arg1HiValue = arg1Hi.toUnsignedBigInteger();
+    final BigInteger arg1LoValue = arg1Lo.toUnsignedBigInteger();
+    final BigInteger arg2HiValue = arg2Hi.toUnsignedBigInteger();
+    final BigInteger arg2LoValue = arg2Lo.toUnsignedBigInteger();
+    final BigInteger instValue = BigInteger.valueOf(opCodeData.value());
+    final BigInteger resHiValue = resHi.toUnsignedBigInteger();
+    final BigInteger resLoValue = resLo.toUnsignedBigInteger();
+    final BigInteger stampValue = BigInteger.valueOf(stamp);
+
     for (int i = 0; i < 16; i++) {
       Bytes32 addRes;
       if (opCode == OpCode.ADD) {
@@ -138,18 +176,18 @@ public class Add implements Module {
       trace
           .acc1(resHi.slice(0, 1 + i).toUnsignedBigInteger())
           .acc2(resLo.slice(0, 1 + i).toUnsignedBigInteger())
-          .arg1Hi(arg1Hi.toUnsignedBigInteger())
-          .arg1Lo(arg1Lo.toUnsignedBigInteger())
-          .arg2Hi(arg2Hi.toUnsignedBigInteger())
-          .arg2Lo(arg2Lo.toUnsignedBigInteger())
+          .arg1Hi(arg1HiValue)
+          .arg1Lo(arg1LoValue)
+          .arg2Hi(arg2HiValue)
+          .arg2Lo(arg2LoValue)
           .byte1(UnsignedByte.of(resHi.get(i)))
           .byte2(UnsignedByte.of(resLo.get(i)))
           .ct(BigInteger.valueOf(i))
-          .inst(BigInteger.valueOf(opCodeData.value()))
+          .inst(instValue)
           .overflow(overflowBit(i, overflowHi, overflowLo))
-          .resHi(resHi.toUnsignedBigInteger())
-          .resLo(resLo.toUnsignedBigInteger())
-          .stamp(BigInteger.valueOf(stamp))
+          .resHi(resHiValue)
+          .resLo(resLoValue)
+          .stamp(stampValue)
           .validateRow();
     }
   }
@@ -166,6 +204,6 @@ public class Add implements Module {
 
   @Override
   public int lineCount() {
-    return this.chunks.size() * 16;
+    return (this.countsOnly ? this.lineCounts.size() : this.chunks.size()) * 16;
   }
 }
@@ -17,41 +17,59 @@ package net.consensys.linea.zktracer.module.ext;
 
 import java.math.BigInteger;
 
-import net.consensys.linea.zktracer.container.stacked.set.StackedSet;
+import net.consensys.linea.zktracer.TracingMode;
+import net.consensys.linea.zktracer.container.stacked.set.StackedKeyedSet;
 import net.consensys.linea.zktracer.module.Module;
 import net.consensys.linea.zktracer.module.ModuleTrace;
+import net.consensys.linea.zktracer.module.OperationKey;
+import net.consensys.linea.zktracer.module.ParallelWitness;
 import net.consensys.linea.zktracer.opcode.OpCodeData;
 import net.consensys.linea.zktracer.opcode.OpCodes;
 import net.consensys.linea.zktracer.types.UnsignedByte;
 import org.apache.tuweni.bytes.Bytes32;
-import org.hyperledger.besu.datatypes.Transaction;
 import org.hyperledger.besu.evm.frame.MessageFrame;
-import org.hyperledger.besu.evm.worldstate.WorldView;
 
 public class Ext implements Module {
   private int stamp = 0;
 
   /** A set of the operations to trace */
-  private final StackedSet<ExtOperation> operations = new StackedSet<>();
+  private final StackedKeyedSet<OperationKey, ExtOperation> operations =
+      new StackedKeyedSet<>();
+  /** The line counts of the operations, used instead of the operations when counting lines */
+  private final StackedKeyedSet<OperationKey, Integer> lineCounts = new StackedKeyedSet<>();
+  /** Whether only the line counts are recorded */
+  private final boolean countsOnly;
 
-  @Override
-  public String jsonKey() {
-    return "ext";
+  public Ext() {
+    this(TracingMode.FULL);
+  }
+
+  public Ext(final TracingMode mode) {
+    this.countsOnly = mode == TracingMode.LINE_COUNT;
   }
 
   @Override
-  public void traceStartTx(WorldView worldView, Transaction tx) {
-    this.operations.enter();
+  public String jsonKey() {
+    return "ext";
   }
 
   @Override
   public void enterTransaction() {
     this.operations.enter();
+    this.lineCounts.enter();
   }
 
   @Override
   public void popTransaction() {
     this.operations.pop();
+    this.lineCounts.pop();
+  }
+
+  @Override
+  public void reset() {
+    this.operations.clear();
+    this.lineCounts.clear();
+    this.stamp = 0;
   }
 
   @Override
@@ -61,11 +79,29 @@ public class Ext implements Module {
     final Bytes32 arg2 = Bytes32.leftPad(frame.getStackItem(1));
     final Bytes32 arg3 = Bytes32.leftPad(frame.getStackItem(2));
 
-    this.operations.add(new ExtOperation(opCode, arg1, arg2, arg3));
+    final OperationKey key = OperationKey.of(opCode.mnemonic(), arg1, arg2, arg3);
+    if (this.countsOnly) {
+      this.lineCounts.add(key, () -> ExtOperation.lineCount(opCode.mnemonic(), arg1, arg2, arg3));
+    } else {
+      this.operations.add(key, () -> new ExtOperation(opCode, arg1, arg2, arg3));
+    }
   }
 
   public void traceExtOperation(ExtOperation op, Trace.TraceBuilder trace) {
     this.stamp++;
+    op.computeWitness();
+
+    // the values constant over the operation are shared by all its lines
+    final BigInteger arg1Hi = op.getArg1().getHigh().toUnsignedBigInteger();
+    final BigInteger arg1Lo = op.getArg1().getLow().toUnsignedBigInteger();
+    final BigInteger arg2Hi = op.getArg2().getHigh().toUnsignedBigInteger();
+    final BigInteger arg2Lo = op.getArg2().getLow().toUnsignedBigInteger();
+    final BigInteger arg3Hi = op.getArg3().getHigh().toUnsignedBigInteger();
+    final BigInteger arg3Lo = op.getArg3().getLow().toUnsignedBigInteger();
+    final BigInteger resHi = op.getResult().getHigh().toUnsignedBigInteger();
+    final BigInteger resLo = op.getResult().getLow().toUnsignedBigInteger();
+    final BigInteger inst = BigInteger.valueOf(op.getOpCode().byteValue());
+    final BigInteger stampValue = BigInteger.valueOf(this.stamp);
 
     for (int i = 0; i < op.maxCounter(); i++) {
       final int accLength = i + 1;
@@ -178,26 +214,26 @@ public class Ext implements Module {
           .accR2(op.getRBytes().get(2).slice(0, accLength).toUnsignedBigInteger())
           .accR3(op.getRBytes().get(3).slice(0, accLength).toUnsignedBigInteger())
           // other
-          .arg1Hi(op.getArg1().getHigh().toUnsignedBigInteger())
-          .arg1Lo(op.getArg1().getLow().toUnsignedBigInteger())
-          .arg2Hi(op.getArg2().getHigh().toUnsignedBigInteger())
-          .arg2Lo(op.getArg2().getLow().toUnsignedBigInteger())
-          .arg3Hi(op.getArg3().getHigh().toUnsignedBigInteger())
-          .arg3Lo(op.getArg3().getLow().toUnsignedBigInteger())
-          .resHi(op.getResult().getHigh().toUnsignedBigInteger())
-          .resLo(op.getResult().getLow().toUnsignedBigInteger())
+          .arg1Hi(arg1Hi)
+          .arg1Lo(arg1Lo)
+          .arg2Hi(arg2Hi)
+          .arg2Lo(arg2Lo)
+          .arg3Hi(arg3Hi)
+          .arg3Lo(arg3Lo)
+          .resHi(resHi)
+          .resLo(resLo)
           .cmp(op.getCmp()[i])
           .ofH(op.getOverflowH()[i])
           .ofJ(op.getOverflowJ()[i])
           .ofI(op.getOverflowI()[i])
           .ofRes(op.getOverflowRes()[i])
           .ct(BigInteger.valueOf(i))
-          .inst(BigInteger.valueOf(op.getOpCode().byteValue()))
+          .inst(inst)
           .oli(op.isOli())
           .bit1(op.getBit1())
           .bit2(op.getBit2())
           .bit3(op.getBit3())
-          .stamp(BigInteger.valueOf(stamp))
+          .stamp(stampValue)
           .validateRow();
     }
   }
@@ -205,6 +241,7 @@ public class Ext implements Module {
   @Override
   public ModuleTrace commit() {
     final Trace.TraceBuilder trace = Trace.builder(this.lineCount());
+    ParallelWitness.compute(this.operations, ExtOperation::computeWitness);
     for (ExtOperation operation : this.operations) {
       this.traceExtOperation(operation, trace);
     }
@@ -213,6 +250,9 @@ public class Ext implements Module {
 
   @Override
   public int lineCount() {
+    if (this.countsOnly) {
+      return this.lineCounts.stream().mapToInt(Integer::intValue).sum();
+    }
     return this.operations.stream().mapToInt(ExtOperation::maxCounter).sum();
   }
 }
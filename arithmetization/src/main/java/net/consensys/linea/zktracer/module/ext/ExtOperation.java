@@ -17,8 +17,6 @@ package net.consensys.linea.zktracer.module.ext;
 
 import static net.consensys.linea.zktracer.module.Util.boolToInt;
 
-import java.util.Objects;
-
 import lombok.Getter;
 import net.consensys.linea.zktracer.bytestheta.BaseBytes;
 import net.consensys.linea.zktracer.bytestheta.BaseTheta;
@@ -26,6 +24,7 @@ import net.consensys.linea.zktracer.bytestheta.BytesArray;
 import net.consensys.linea.zktracer.module.ext.calculator.AbstractExtCalculator;
 import net.consensys.linea.zktracer.opcode.OpCode;
 import net.consensys.linea.zktracer.opcode.OpCodeData;
+import net.consensys.linea.zktracer.types.Word256;
 import org.apache.tuweni.bytes.Bytes32;
 import org.apache.tuweni.units.bigints.UInt256;
 
@@ -37,14 +36,17 @@ public class ExtOperation {
   @Getter private final BaseBytes arg1;
   @Getter private final BaseBytes arg2;
   @Getter private final BaseBytes arg3;
-  @Getter private final BaseTheta result;
-  @Getter private final BaseTheta aBytes;
-  @Getter private final BaseTheta bBytes;
-  @Getter private final BaseTheta cBytes;
+
+  // The witness columns, filled by computeWitness()
+  private boolean witnessComputed = false;
+  @Getter private BaseTheta result;
+  @Getter private BaseTheta aBytes;
+  @Getter private BaseTheta bBytes;
+  @Getter private BaseTheta cBytes;
   @Getter private BaseTheta deltaBytes;
-  @Getter private final BytesArray hBytes;
-  @Getter private final BaseTheta rBytes;
-  @Getter private final BytesArray iBytes;
+  @Getter private BytesArray hBytes;
+  @Getter private BaseTheta rBytes;
+  @Getter private BytesArray iBytes;
   @Getter private BytesArray jBytes;
   @Getter private BytesArray qBytes;
   @Getter private boolean[] cmp = new boolean[8];
@@ -53,15 +55,6 @@ public class ExtOperation {
   @Getter boolean[] overflowRes = new boolean[8];
   @Getter boolean[] overflowI = new boolean[8];
 
-  /**
-   * This custom hash function ensures that all identical operations are only traced once per
-   * conflation block.
-   */
-  @Override
-  public int hashCode() {
-    return Objects.hash(this.opCode, this.arg1, this.arg2, this.arg3);
-  }
-
   public ExtOperation(OpCodeData opCodeData, Bytes32 arg1, Bytes32 arg2, Bytes32 arg3) {
     this(opCodeData.mnemonic(), arg1, arg2, arg3);
   }
@@ -71,6 +64,23 @@ public class ExtOperation {
     this.arg1 = BaseBytes.fromBytes32(arg1);
     this.arg2 = BaseBytes.fromBytes32(arg2);
     this.arg3 = BaseBytes.fromBytes32(arg3);
+    this.oli = isOneLineInstruction();
+  }
+
+  /**
+   * Compute the witness columns of the operation. This is deferred until the operation is actually
+   * traced, as the line count only depends on the arguments, and most of the operations seen
+   * during execution are duplicates or end up popped with their transaction.
+   */
+  void computeWitness() {
+    if (this.witnessComputed) {
+      return;
+    }
+    this.witnessComputed = true;
+
+    final Bytes32 arg1 = this.arg1.getBytes32().copy();
+    final Bytes32 arg2 = this.arg2.getBytes32().copy();
+    final Bytes32 arg3 = this.arg3.getBytes32().copy();
     this.aBytes = BaseTheta.fromBytes32(arg1);
     this.bBytes = BaseTheta.fromBytes32(arg2);
     this.cBytes = BaseTheta.fromBytes32(arg3);
@@ -86,7 +96,6 @@ public class ExtOperation {
     this.result = BaseTheta.fromBytes32(result);
     this.rBytes = BaseTheta.fromBytes32(result);
 
-    this.oli = isOneLineInstruction();
     if (!this.oli) {
       cmp = computer.computeComparisonFlags(cBytes, rBytes);
       deltaBytes = computer.computeDeltas(cBytes, rBytes);
@@ -110,9 +119,7 @@ public class ExtOperation {
   }
 
   public boolean getBit3() {
-    UInt256 uInt256 = UInt256.fromBytes(this.arg3.getBytes32());
-
-    return UInt256.ONE.compareTo(uInt256) >= 0;
+    return this.arg3.toWord256().compareTo(Word256.ONE) <= 0;
   }
 
   /** Returns true if any of the bit1, bit2, or bit3 flags are set. */
@@ -128,6 +135,24 @@ public class ExtOperation {
     return MMEDIUM;
   }
 
+  /**
+   * Count the trace lines of an operation without building it, following {@link
+   * #isOneLineInstruction()}.
+   *
+   * @param opCode the operation, ADDMOD or MULMOD
+   * @param arg1 the first argument
+   * @param arg2 the second argument
+   * @param arg3 the modulus
+   * @return the number of lines of the operation
+   */
+  static int lineCount(
+      final OpCode opCode, final Bytes32 arg1, final Bytes32 arg2, final Bytes32 arg3) {
+    final boolean oli =
+        (opCode == OpCode.MULMOD && (arg1.isZero() || arg2.isZero()))
+            || Word256.fromBytes(arg3).compareTo(Word256.ONE) <= 0;
+    return oli ? 1 : MMEDIUM;
+  }
+
   private UInt256 getSigma() {
     return UInt256.valueOf(boolToInt(overflowI[0]));
   }
@@ -26,6 +26,20 @@ import org.hyperledger.besu.datatypes.Wei;
  * @param balanceTooLow trying to give more ETH than the caller has
  */
 public record Aborts(boolean callStackOverflow, boolean balanceTooLow) {
+  private static final Aborts NONE = new Aborts(false, false);
+  private static final Aborts CALL_STACK_OVERFLOW = new Aborts(true, false);
+
+  /**
+   * Compute the aborting conditions of an instruction that can neither call nor create, for which
+   * only the depth of the call stack matters.
+   *
+   * @param hub the execution context
+   * @return the {@link Aborts} for the current instruction
+   */
+  public static Aborts forNonCallingFrame(Hub hub) {
+    return hub.callStack().wouldOverflow() ? CALL_STACK_OVERFLOW : NONE;
+  }
+
   public static Aborts forFrame(Hub hub) {
     return new Aborts(
         hub.callStack().wouldOverflow(),
@@ -34,7 +48,7 @@ public record Aborts(boolean callStackOverflow, boolean balanceTooLow) {
             if (hub.exceptions().none()) {
               final Address myAddress = hub.currentFrame().address();
               final Wei myBalance =
-                  hub.messageFrame().getWorldUpdater().getAccount(myAddress).getBalance();
+                  hub.accounts().get(hub.messageFrame(), myAddress).getBalance();
               final Wei value = Wei.of(UInt256.fromBytes(hub.messageFrame().getStackItem(2)));
 
               yield value.greaterThan(myBalance);
@@ -46,7 +60,7 @@ public record Aborts(boolean callStackOverflow, boolean balanceTooLow) {
             if (hub.exceptions().none()) {
               final Address myAddress = hub.currentFrame().address();
               final Wei myBalance =
-                  hub.messageFrame().getWorldUpdater().getAccount(myAddress).getBalance();
+                  hub.accounts().get(hub.messageFrame(), myAddress).getBalance();
               final Wei value = Wei.of(UInt256.fromBytes(hub.messageFrame().getStackItem(0)));
 
               yield value.greaterThan(myBalance);
@@ -0,0 +1,82 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.zktracer.module.hub;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.evm.account.Account;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.worldstate.WorldView;
+
+/**
+ * The accounts looked up by the hub in the current world view.
+ *
+ * <p>Looking up an account walks the chain of nested world updaters, one per call depth. The hub
+ * looks the same few accounts up many times per instruction, so resolved accounts are kept until
+ * the world view changes -- i.e. when entering or leaving a context -- or until the hub invalidates
+ * them, which it must do whenever an instruction may have modified an account.
+ */
+public class AccountCache {
+  private final Map<Address, Account> accounts = new HashMap<>();
+  /** The world view the cached accounts have been resolved in */
+  private WorldView view;
+
+  /**
+   * Returns the account at the given address in the world view of the given frame.
+   *
+   * @param frame the frame to look the account up in
+   * @param address the address of the account
+   * @return the account, or null if it does not exist
+   */
+  public Account get(MessageFrame frame, Address address) {
+    return this.get(frame.getWorldUpdater(), address);
+  }
+
+  /**
+   * Returns the account at the given address in the given world view.
+   *
+   * @param view the world view to look the account up in
+   * @param address the address of the account
+   * @return the account, or null if it does not exist
+   */
+  public Account get(WorldView view, Address address) {
+    if (view != this.view) {
+      this.accounts.clear();
+      this.view = view;
+    }
+
+    final Account cached = this.accounts.get(address);
+    if (cached != null || this.accounts.containsKey(address)) {
+      return cached;
+    }
+    final Account account = view.get(address);
+    this.accounts.put(address, account);
+    return account;
+  }
+
+  /** Forget the resolved accounts; to be called whenever the world state may have changed. */
+  public void invalidate() {
+    this.accounts.clear();
+  }
+
+  /** Forget the resolved accounts and the world view they were resolved in. */
+  public void clear() {
+    this.accounts.clear();
+    this.view = null;
+  }
+}
@@ -27,8 +27,23 @@ public record AccountSnapshot(
     Bytecode code,
     int deploymentNumber,
     boolean deploymentStatus) {
+  /**
+   * Snapshot an account; its code is shared through the given store, and neither its code nor its
+   * balance are copied.
+   *
+   * @param codes the code store of the current conflation
+   * @param account the account to snapshot, or null for an empty one
+   * @param warm whether the account is warm
+   * @param deploymentNumber the deployment number of the account
+   * @param deploymentStatus whether the account is being deployed
+   * @return the snapshot
+   */
   public static AccountSnapshot fromAccount(
-      Account account, boolean warm, int deploymentNumber, boolean deploymentStatus) {
+      CodeStore codes,
+      Account account,
+      boolean warm,
+      int deploymentNumber,
+      boolean deploymentStatus) {
     if (account == null) {
       return new AccountSnapshot(
           Address.ZERO, 0, Wei.ZERO, warm, Bytecode.EMPTY, deploymentNumber, deploymentStatus);
@@ -37,9 +52,9 @@ public record AccountSnapshot(
     return new AccountSnapshot(
         account.getAddress(),
         account.getNonce(),
-        account.getBalance().copy(),
+        account.getBalance(),
         warm,
-        new Bytecode(account.getCode().copy()),
+        codes.of(account),
         deploymentNumber,
         deploymentStatus);
   }
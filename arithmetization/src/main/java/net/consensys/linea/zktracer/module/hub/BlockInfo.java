@@ -39,4 +39,11 @@ public class BlockInfo {
     this.minerAddress = processableBlockHeader.getCoinbase();
     this.baseFee = Wei.fromQuantity(processableBlockHeader.getBaseFee().orElseThrow());
   }
+
+  /** Forget every block seen so far. */
+  void reset() {
+    this.blockNumber = 0;
+    this.minerAddress = null;
+    this.baseFee = null;
+  }
 }
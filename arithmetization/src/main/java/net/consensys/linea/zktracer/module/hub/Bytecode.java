@@ -40,6 +40,17 @@ public final class Bytecode {
     this.bytecode = Objects.requireNonNullElse(bytes, Bytes.EMPTY);
   }
 
+  /**
+   * Create an instance from {@link Bytes} whose hash is already known.
+   *
+   * @param bytes the bytecode
+   * @param hash the hash of the bytecode
+   */
+  Bytecode(Bytes bytes, Hash hash) {
+    this.bytecode = bytes;
+    this.hash = hash;
+  }
+
   /**
    * Create an instance from Besu {@link Code}.
    *
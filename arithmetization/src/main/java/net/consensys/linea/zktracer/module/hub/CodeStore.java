@@ -0,0 +1,85 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.zktracer.module.hub;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.consensys.linea.zktracer.container.StackedContainer;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.evm.account.Account;
+
+/**
+ * The bytecodes met during a conflation, keyed by their hash.
+ *
+ * <p>Accounts are snapshotted many times per transaction, but their code only changes on
+ * deployment; snapshots therefore share a single {@link Bytecode} per code hash, and the code of an
+ * account is only fetched -- never copied -- the first time its hash is met.
+ *
+ * <p>The bytecodes first met by a transaction are forgotten along with it when it is popped.
+ */
+public class CodeStore implements StackedContainer {
+  private final Map<Hash, Bytecode> bytecodes = new HashMap<>();
+  /** The hashes first met in each of the nested contexts */
+  private final List<List<Hash>> contextHashes = new ArrayList<>();
+
+  @Override
+  public void enter() {
+    this.contextHashes.add(new ArrayList<>());
+  }
+
+  @Override
+  public void pop() {
+    for (Hash hash : this.contextHashes.remove(this.contextHashes.size() - 1)) {
+      this.bytecodes.remove(hash);
+    }
+  }
+
+  /**
+   * Returns the bytecode of the given account, fetching it if its hash was never met before.
+   *
+   * @param account the account
+   * @return the shared bytecode of this account
+   */
+  public Bytecode of(Account account) {
+    final Hash hash = account.getCodeHash();
+    if (hash.equals(Hash.EMPTY)) {
+      return Bytecode.EMPTY;
+    }
+
+    final Bytecode known = this.bytecodes.get(hash);
+    if (known != null) {
+      return known;
+    }
+    final Bytecode fetched = new Bytecode(account.getCode(), hash);
+    this.bytecodes.put(hash, fetched);
+    if (!this.contextHashes.isEmpty()) {
+      this.contextHashes.get(this.contextHashes.size() - 1).add(hash);
+    }
+    return fetched;
+  }
+
+  /**
+   * Returns the number of distinct non-empty bytecodes met so far.
+   *
+   * @return the number of stored bytecodes
+   */
+  public int size() {
+    return this.bytecodes.size();
+  }
+}
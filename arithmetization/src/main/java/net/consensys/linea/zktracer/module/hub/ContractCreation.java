@@ -0,0 +1,43 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.zktracer.module.hub;
+
+import java.util.Optional;
+
+import net.consensys.linea.zktracer.opcode.OpCode;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.hyperledger.besu.datatypes.Address;
+
+/**
+ * The resolved parameters of a CREATE or CREATE2, shared by all the modules tracing it.
+ *
+ * @param opCode either CREATE or CREATE2
+ * @param creator the address of the creating contract
+ * @param creatorNonce the nonce of the creating contract before the creation
+ * @param initCode the init code read from memory
+ * @param salt the salt of a CREATE2
+ * @param initCodeHash the Keccak of the init code of a CREATE2
+ * @param deployedAddress the address the init code is deployed at
+ */
+public record ContractCreation(
+    OpCode opCode,
+    Address creator,
+    long creatorNonce,
+    Bytes initCode,
+    Optional<Bytes32> salt,
+    Optional<Bytes32> initCodeHash,
+    Address deployedAddress) {}
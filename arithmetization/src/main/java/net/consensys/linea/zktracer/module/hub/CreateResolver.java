@@ -0,0 +1,92 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.zktracer.module.hub;
+
+import static net.consensys.linea.zktracer.types.Conversions.bigIntegerToBytes;
+import static org.hyperledger.besu.crypto.Hash.keccak256;
+import static org.hyperledger.besu.evm.internal.Words.clampedToLong;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import net.consensys.linea.zktracer.opcode.OpCode;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+
+/**
+ * Resolves CREATE and CREATE2 operations once for all the modules that need them: the init code is
+ * read from memory once, and the init code hash and the deployment address are computed once.
+ *
+ * <p>Init code hashes are memoized for the duration of a transaction, so that a factory deploying
+ * the same init code repeatedly only hashes it once.
+ */
+public class CreateResolver {
+  private static final Bytes CREATE2_SHIFT = bigIntegerToBytes(BigInteger.valueOf(0xff));
+
+  private final Map<Bytes, Bytes32> initCodeHashes = new HashMap<>();
+
+  /** Forget the memoized init code hashes; to be called at the start of every transaction. */
+  void reset() {
+    this.initCodeHashes.clear();
+  }
+
+  /**
+   * Resolve the CREATE or CREATE2 about to be executed in the given frame.
+   *
+   * @param frame the frame executing a CREATE or CREATE2
+   * @param accounts the accounts of the hub
+   * @return the resolved contract creation
+   */
+  public ContractCreation resolve(MessageFrame frame, AccountCache accounts) {
+    final OpCode opCode = OpCode.of(frame.getCurrentOperation().getOpcode());
+    final Address creator = frame.getRecipientAddress();
+    final long creatorNonce = accounts.get(frame, creator).getNonce();
+
+    final long offset = clampedToLong(frame.getStackItem(1));
+    final long length = clampedToLong(frame.getStackItem(2));
+    final Bytes initCode = frame.shadowReadMemory(offset, length);
+
+    return switch (opCode) {
+      case CREATE -> new ContractCreation(
+          opCode,
+          creator,
+          creatorNonce,
+          initCode,
+          Optional.empty(),
+          Optional.empty(),
+          Address.contractAddress(creator, creatorNonce));
+      case CREATE2 -> {
+        final Bytes32 salt = Bytes32.leftPad(frame.getStackItem(3));
+        final Bytes32 initCodeHash =
+            this.initCodeHashes.computeIfAbsent(initCode, c -> keccak256(c));
+        yield new ContractCreation(
+            opCode,
+            creator,
+            creatorNonce,
+            initCode,
+            Optional.of(salt),
+            Optional.of(initCodeHash),
+            Address.extract(
+                keccak256(Bytes.concatenate(CREATE2_SHIFT, creator, salt, initCodeHash))));
+      }
+      default -> throw new IllegalArgumentException("not a contract creation: " + opCode);
+    };
+  }
+}
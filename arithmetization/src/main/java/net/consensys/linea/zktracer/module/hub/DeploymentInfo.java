@@ -15,15 +15,68 @@
 
 package net.consensys.linea.zktracer.module.hub;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import net.consensys.linea.zktracer.container.StackedContainer;
 import org.hyperledger.besu.datatypes.Address;
 
-/** Stores information relative to contract deployment. */
-public class DeploymentInfo {
+/**
+ * Stores information relative to contract deployment.
+ *
+ * <p>The deployment information of every address is restored to what it was before a transaction
+ * when this transaction is popped.
+ */
+public class DeploymentInfo implements StackedContainer {
   private final Map<Address, Integer> deploymentNumber = new HashMap<>();
   private final Map<Address, Boolean> isDeploying = new HashMap<>();
+  /**
+   * For each of the nested contexts, the information of the addresses it modified as it was before
+   * their first modification
+   */
+  private final List<Map<Address, Prior>> contextPriors = new ArrayList<>();
+
+  /**
+   * The deployment information of an address before it was modified.
+   *
+   * @param number the deployment number, or null if there was none
+   * @param deploying whether the address was being deployed, or null if it was never marked
+   */
+  private record Prior(Integer number, Boolean deploying) {}
+
+  @Override
+  public void enter() {
+    this.contextPriors.add(new HashMap<>());
+  }
+
+  @Override
+  public void pop() {
+    final Map<Address, Prior> priors = this.contextPriors.remove(this.contextPriors.size() - 1);
+    priors.forEach(
+        (address, prior) -> {
+          restore(this.deploymentNumber, address, prior.number());
+          restore(this.isDeploying, address, prior.deploying());
+        });
+  }
+
+  private static <V> void restore(final Map<Address, V> map, final Address address, final V prior) {
+    if (prior == null) {
+      map.remove(address);
+    } else {
+      map.put(address, prior);
+    }
+  }
+
+  private void remember(final Address address) {
+    if (!this.contextPriors.isEmpty()) {
+      this.contextPriors
+          .get(this.contextPriors.size() - 1)
+          .computeIfAbsent(
+              address, a -> new Prior(this.deploymentNumber.get(a), this.isDeploying.get(a)));
+    }
+  }
 
   /**
    * Returns the deployment number of the given address; sets it to zero if it is the first
@@ -37,6 +90,7 @@ public class DeploymentInfo {
   }
 
   void deploy(Address address) {
+    this.remember(address);
     this.deploymentNumber.put(address, this.number(address) + 1);
     this.markDeploying(address);
   }
@@ -46,10 +100,12 @@ public class DeploymentInfo {
   }
 
   public final void markDeploying(Address address) {
+    this.remember(address);
     this.isDeploying.put(address, true);
   }
 
   public final void unmarkDeploying(Address address) {
+    this.remember(address);
     this.isDeploying.put(address, false);
   }
 }
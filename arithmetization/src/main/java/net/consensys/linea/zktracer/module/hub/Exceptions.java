@@ -45,6 +45,8 @@ public record Exceptions(
     boolean jumpFault,
     boolean staticViolation,
     boolean outOfSStore) {
+  private static final Exceptions NONE = empty();
+
   /**
    * @return true if no stack exception has been raised
    */
@@ -202,6 +204,31 @@ public record Exceptions(
         isOutOfSStore(frame, opCode));
   }
 
+  /**
+   * Compute the exceptions that may happen in the current frame when it executes an instruction
+   * only touching the stack, i.e. PUSH, POP, DUP, SWAP or JUMPDEST. Such an instruction is never
+   * invalid, expands no memory, does not jump and is allowed in a static context, so only the stack
+   * and the gas have to be checked.
+   *
+   * @param frame the context from which to compute the putative exceptions
+   * @return all {@link Exceptions} relative to the given frame
+   */
+  public static Exceptions forStackOnlyFrame(final MessageFrame frame, GasProjector gp) {
+    final OpCode opCode = OpCode.of(frame.getCurrentOperation().getOpcode());
+    final OpCodeData opCodeData = opCode.getData();
+
+    final boolean stackUnderflow = isStackUnderflow(frame, opCodeData);
+    final boolean stackOverflow = isStackOverflow(frame, opCodeData);
+    final boolean outOfGas =
+        (stackUnderflow || stackOverflow) ? false : isOutOfGas(frame, opCode, gp);
+    if (!stackUnderflow && !stackOverflow && !outOfGas) {
+      return NONE;
+    }
+
+    return new Exceptions(
+        false, stackUnderflow, stackOverflow, false, outOfGas, false, false, false, false);
+  }
+
   public static Exceptions empty() {
     return new Exceptions(false, false, false, false, false, false, false, false, false);
   }
@@ -29,6 +29,8 @@ import java.util.stream.Stream;
 import lombok.Getter;
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
+import net.consensys.linea.zktracer.TracingMode;
+import net.consensys.linea.zktracer.TracerProfiler;
 import net.consensys.linea.zktracer.module.Module;
 import net.consensys.linea.zktracer.module.ModuleTrace;
 import net.consensys.linea.zktracer.module.add.Add;
@@ -64,8 +66,8 @@ import net.consensys.linea.zktracer.runtime.callstack.CallFrame;
 import net.consensys.linea.zktracer.runtime.callstack.CallFrameType;
 import net.consensys.linea.zktracer.runtime.callstack.CallStack;
 import net.consensys.linea.zktracer.runtime.stack.ConflationInfo;
+import net.consensys.linea.zktracer.runtime.stack.StackArena;
 import net.consensys.linea.zktracer.runtime.stack.StackContext;
-import net.consensys.linea.zktracer.runtime.stack.StackLine;
 import net.consensys.linea.zktracer.types.EWord;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
@@ -103,6 +105,9 @@ public class Hub implements Module {
 
   public static final GasProjector gp = new GasProjector();
 
+  /** How much information is recorded while tracing */
+  @Getter private final TracingMode mode;
+
   // Revertible state of the hub
   private final State state = new State();
 
@@ -112,6 +117,10 @@ public class Hub implements Module {
   @Getter TxInfo tx = new TxInfo();
   @Getter CallStack callStack = new CallStack();
   private final DeferRegistry defers = new DeferRegistry();
+  private final StackArena stackArena;
+  @Getter private final AccountCache accounts = new AccountCache();
+  /** Where to report the time spent in the module hooks; null when not profiling */
+  private final TracerProfiler profiler;
 
   // These attributes are transient (opcode-specific) and do not need to be
   // reversed.
@@ -120,7 +129,18 @@ public class Hub implements Module {
   @Getter private Signals signals;
 
   private void resetSignals() {
-    this.signals = new Signals(this);
+    if (this.signals == null) {
+      this.signals = new Signals(this);
+    } else {
+      this.signals.reset();
+    }
+  }
+
+  /**
+   * @return true if only the line counts are required, so that values can be left untraced
+   */
+  public boolean countsOnly() {
+    return this.mode == TracingMode.LINE_COUNT;
   }
 
   public int stamp() {
@@ -156,16 +176,17 @@ public class Hub implements Module {
     this.state.currentTxTrace().add(section);
   }
 
-  private final Module add = new Add();
-  private final Module ext = new Ext();
-  private final Module mod = new Mod();
-  private final Module mul = new Mul();
-  private final Module shf = new Shf();
-  private final Wcp wcp = new Wcp();
+  private final Module add;
+  private final Module ext;
+  private final Module mod;
+  private final Module mul;
+  private final Module shf;
+  private final Wcp wcp;
   private final RlpTxn rlpTxn;
   private final Module mxp;
   private final RlpTxrcpt rlpTxrcpt = new RlpTxrcpt();
   private final RlpAddr rlpAddr = new RlpAddr();
+  private final CreateResolver createResolver = new CreateResolver();
   private final Rom rom;
   private final RomLex romLex;
   private final TxnData txnData;
@@ -189,7 +210,30 @@ public class Hub implements Module {
   // those precompile to meet prover's limit
 
   public Hub() {
-    this.mxp = new Mxp(this);
+    this(TracingMode.FULL);
+  }
+
+  public Hub(TracingMode mode) {
+    this(mode, null);
+  }
+
+  /**
+   * Create a hub whose module hooks are reported to the given profiler.
+   *
+   * @param mode how much information to record
+   * @param profiler where to report the module hooks, or null if not profiling
+   */
+  public Hub(TracingMode mode, TracerProfiler profiler) {
+    this.mode = mode;
+    this.profiler = profiler;
+    this.stackArena = new StackArena(mode == TracingMode.FULL);
+    this.add = new Add(mode);
+    this.ext = new Ext(mode);
+    this.mod = new Mod(mode);
+    this.mul = new Mul(mode);
+    this.shf = new Shf(mode);
+    this.wcp = new Wcp(mode);
+    this.mxp = new Mxp(this, mode);
     this.romLex = new RomLex(this);
     this.rom = new Rom(this.romLex);
     this.rlpTxn = new RlpTxn(this.romLex);
@@ -290,7 +334,8 @@ public class Hub implements Module {
     Address fromAddress = this.tx.transaction().getSender();
     AccountSnapshot oldFromAccount =
         AccountSnapshot.fromAccount(
-            world.get(fromAddress),
+            this.conflation.codeStore(),
+            this.accounts.get(world, fromAddress),
             false,
             this.conflation.deploymentInfo().number(fromAddress),
             false);
@@ -305,7 +350,8 @@ public class Hub implements Module {
             || isPrecompile(toAddress); // should never happen – no TX to PC allowed
     AccountSnapshot oldToAccount =
         AccountSnapshot.fromAccount(
-            world.get(toAddress),
+            this.conflation.codeStore(),
+            this.accounts.get(world, toAddress),
             toIsWarm,
             this.conflation.deploymentInfo().number(toAddress),
             false);
@@ -317,7 +363,8 @@ public class Hub implements Module {
             || isPrecompile(this.block.minerAddress);
     AccountSnapshot oldMinerAccount =
         AccountSnapshot.fromAccount(
-            world.get(this.block.minerAddress),
+            this.conflation.codeStore(),
+            this.accounts.get(world, this.block.minerAddress),
             minerIsWarm,
             this.conflation.deploymentInfo().number(this.block.minerAddress),
             false);
@@ -349,7 +396,11 @@ public class Hub implements Module {
                   Address address = entry.address();
                   AccountSnapshot snapshot =
                       AccountSnapshot.fromAccount(
-                          world.get(address), seenAddresses.contains(address), 0, false);
+                          this.conflation.codeStore(),
+                          this.accounts.get(world, address),
+                          seenAddresses.contains(address),
+                          0,
+                          false);
                   fragments.add(new AccountFragment(snapshot, snapshot, false, 0, false));
                   seenAddresses.add(address);
 
@@ -357,7 +408,7 @@ public class Hub implements Module {
                   for (Bytes32 key_ : keys) {
                     UInt256 key = UInt256.fromBytes(key_);
                     EWord value =
-                        Optional.ofNullable(world.get(address))
+                        Optional.ofNullable(this.accounts.get(world, address))
                             .map(account -> EWord.of(account.getStorageValue(key)))
                             .orElse(EWord.ZERO);
                     fragments.add(
@@ -413,67 +464,109 @@ public class Hub implements Module {
   private void handleStack(MessageFrame frame) {
     this.currentFrame()
         .stack()
-        .processInstruction(frame, this.currentFrame(), TAU * this.state.stamps().hub());
+        .processInstruction(
+            frame, this.currentFrame(), this.stackArena, TAU * this.state.stamps().hub());
+  }
+
+  private void triggerPreOpcode(Module m, MessageFrame frame) {
+    if (this.profiler == null || !this.profiler.inSpan()) {
+      m.tracePreOpcode(frame);
+      return;
+    }
+    this.profiler.startHook();
+    m.tracePreOpcode(frame);
+    this.profiler.endHook(m, TracerProfiler.Hook.PRE_OPCODE);
+  }
+
+  private void triggerPostOp(Module m, MessageFrame frame) {
+    if (this.profiler == null || !this.profiler.inSpan()) {
+      m.tracePostOp(frame);
+      return;
+    }
+    this.profiler.startHook();
+    m.tracePostOp(frame);
+    this.profiler.endHook(m, TracerProfiler.Hook.POST_OP);
+  }
+
+  private void triggerPostExecution(
+      Module m, MessageFrame frame, Operation.OperationResult operationResult) {
+    if (this.profiler == null || !this.profiler.inSpan()) {
+      m.tracePostExecution(frame, operationResult);
+      return;
+    }
+    this.profiler.startHook();
+    m.tracePostExecution(frame, operationResult);
+    this.profiler.endHook(m, TracerProfiler.Hook.POST_EXECUTION);
+  }
+
+  private void triggerContextEnter(Module m, MessageFrame frame) {
+    if (this.profiler == null || !this.profiler.inSpan()) {
+      m.traceContextEnter(frame);
+      return;
+    }
+    this.profiler.startHook();
+    m.traceContextEnter(frame);
+    this.profiler.endHook(m, TracerProfiler.Hook.CONTEXT_ENTER);
   }
 
   void triggerModules(MessageFrame frame) {
     switch (this.opCodeData().instructionFamily()) {
       case ADD -> {
         if (this.exceptions.noStackException()) {
-          this.add.tracePreOpcode(frame);
+          this.triggerPreOpcode(this.add, frame);
         }
       }
       case MOD -> {
         if (this.exceptions.noStackException()) {
-          this.mod.tracePreOpcode(frame);
+          this.triggerPreOpcode(this.mod, frame);
         }
       }
       case MUL -> {
         if (this.exceptions.noStackException()) {
-          this.mul.tracePreOpcode(frame);
+          this.triggerPreOpcode(this.mul, frame);
         }
       }
       case EXT -> {
         if (this.exceptions.noStackException()) {
-          this.ext.tracePreOpcode(frame);
+          this.triggerPreOpcode(this.ext, frame);
         }
       }
       case WCP -> {
         if (this.exceptions.noStackException()) {
-          this.wcp.tracePreOpcode(frame);
+          this.triggerPreOpcode(this.wcp, frame);
         }
       }
       case BIN -> {}
       case SHF -> {
         if (this.exceptions.noStackException()) {
-          this.shf.tracePreOpcode(frame);
+          this.triggerPreOpcode(this.shf, frame);
         }
       }
       case KEC -> {
         if (this.exceptions.noStackException()) {
-          this.mxp.tracePreOpcode(frame);
+          this.triggerPreOpcode(this.mxp, frame);
         }
       }
       case CONTEXT -> {}
       case ACCOUNT -> {
         if (this.exceptions.noStackException()) {
-          this.trm.tracePreOpcode(frame); // TODO refine the trigger
+          this.triggerPreOpcode(this.trm, frame); // TODO refine the trigger
         }
       }
       case COPY -> {
         if (this.exceptions.noStackException()) {
           if (this.currentFrame().opCode() == OpCode.RETURNDATACOPY) {
             if (!this.exceptions.returnDataCopyFault()) {
-              this.mxp.tracePreOpcode(frame);
+              this.triggerPreOpcode(this.mxp, frame);
             }
           } else {
-            this.mxp.tracePreOpcode(frame);
+            this.triggerPreOpcode(this.mxp, frame);
           }
         }
         if (!this.exceptions.any() && this.callStack().depth() < 1024) {
-          this.romLex.tracePreOpcode(frame);
+          this.triggerPreOpcode(this.romLex, frame);
           if (this.exceptions.noStackException()) {
-            this.trm.tracePreOpcode(frame); // TODO refine the trigger
+            this.triggerPreOpcode(this.trm, frame); // TODO refine the trigger
           }
         }
       }
@@ -482,14 +575,14 @@ public class Hub implements Module {
       case STACK_RAM -> {
         if (this.exceptions.noStackException()
             && this.currentFrame().opCode() != OpCode.CALLDATALOAD) {
-          this.mxp.tracePreOpcode(frame);
+          this.triggerPreOpcode(this.mxp, frame);
         }
       }
       case STORAGE -> {}
       case JUMP -> {}
       case MACHINE_STATE -> {
         if (this.exceptions.noStackException() && this.currentFrame().opCode() == OpCode.MSIZE) {
-          this.mxp.tracePreOpcode(frame);
+          this.triggerPreOpcode(this.mxp, frame);
         }
       }
       case PUSH_POP -> {}
@@ -497,12 +590,12 @@ public class Hub implements Module {
       case SWAP -> {}
       case LOG -> {
         if (this.exceptions.noStackException() && !this.exceptions.staticViolation()) {
-          this.mxp.tracePreOpcode(frame);
+          this.triggerPreOpcode(this.mxp, frame);
         }
       }
       case CREATE -> {
         if (this.exceptions.noStackException() && !this.exceptions.staticViolation()) {
-          this.mxp.tracePreOpcode(frame); // TODO: trigger in OoG
+          this.triggerPreOpcode(this.mxp, frame); // TODO: trigger in OoG
         }
 
         if (!this.exceptions.any() && this.callStack().depth() < 1024) {
@@ -510,42 +603,42 @@ public class Hub implements Module {
           // Deployed
           // Address)
           UInt256 value = UInt256.fromBytes(frame.getStackItem(0));
-          if (frame
-              .getWorldUpdater()
-              .get(this.tx.transaction().getSender())
+          if (this.accounts
+              .get(frame, this.tx.transaction().getSender())
               .getBalance()
               .toUInt256()
               .greaterOrEqualThan(value)) {
-            this.rlpAddr.tracePreOpcode(frame);
-            this.romLex.tracePreOpcode(frame);
+            final ContractCreation creation = this.createResolver.resolve(frame, this.accounts);
+            this.rlpAddr.traceContractCreation(creation);
+            this.romLex.traceContractCreation(creation);
           }
         }
       }
       case CALL -> {
         if (!this.exceptions.any() && this.callStack().depth() < 1024) {
-          this.romLex.tracePreOpcode(frame);
+          this.triggerPreOpcode(this.romLex, frame);
           for (Module m : this.precompileModules) {
-            m.tracePreOpcode(frame);
+            this.triggerPreOpcode(m, frame);
           }
         }
         if (!this.exceptions().stackUnderflow() && !this.exceptions().staticViolation()) {
-          this.mxp.tracePreOpcode(frame);
+          this.triggerPreOpcode(this.mxp, frame);
         }
         if (this.exceptions.noStackException()) {
-          this.trm.tracePreOpcode(frame); // TODO refine the trigger
+          this.triggerPreOpcode(this.trm, frame); // TODO refine the trigger
         }
       }
       case HALT -> {
         if (!this.exceptions.any() && this.callStack().depth() < 1024) {
-          this.romLex.tracePreOpcode(frame);
+          this.triggerPreOpcode(this.romLex, frame);
         }
         if (this.exceptions.noStackException()
             && this.currentFrame().opCode() != OpCode.STOP
             && this.currentFrame().opCode() != OpCode.SELFDESTRUCT) {
-          this.mxp.tracePreOpcode(frame);
+          this.triggerPreOpcode(this.mxp, frame);
         }
         if (this.exceptions.noStackException()) {
-          this.trm.tracePreOpcode(frame); // TODO refine the trigger
+          this.triggerPreOpcode(this.trm, frame); // TODO refine the trigger
         }
       }
       case INVALID -> {}
@@ -553,9 +646,51 @@ public class Hub implements Module {
     }
   }
 
+  /**
+   * @return true if the current instruction only shuffles the stack, and thus can not trigger any
+   *     other module, call a precompile, nor revert by itself
+   */
+  private boolean isStackOnly() {
+    return switch (this.opCodeData().instructionFamily()) {
+      case PUSH_POP, DUP, SWAP -> true;
+      default -> this.currentFrame().opCode() == OpCode.JUMPDEST;
+    };
+  }
+
+  /**
+   * Fast path of {@link #processStateExec(MessageFrame)} for the stack-only instructions, which are
+   * the bulk of executed instructions. It skips the checks, module triggers and precompile logic
+   * these instructions can not hit.
+   */
+  private void processStackOnlyExec(MessageFrame frame) {
+    this.exceptions = Exceptions.forStackOnlyFrame(frame, Hub.gp);
+    this.aborts = Aborts.forNonCallingFrame(this);
+
+    this.handleStack(frame);
+    if (this.exceptions.any()) {
+      this.callStack.revert(this.state.stamps().hub());
+    }
+
+    this.resetSignals();
+    this.addTraceSection(new StackOnlySection(this));
+    if (this.currentFrame().stack().isOk() && this.exceptions.any()) {
+      this.currentTraceSection()
+          .addChunk(
+              this,
+              this.currentFrame(),
+              new ContextFragment(this.callStack(), this.currentFrame(), true));
+    }
+    this.state.stamps().stampSubmodules(this.signals());
+  }
+
   void processStateExec(MessageFrame frame) {
     this.currentFrame().frame(frame);
     this.state.stamps().stampHub();
+    if (this.isStackOnly()) {
+      this.processStackOnlyExec(frame);
+      return;
+    }
+
     this.exceptions = Exceptions.forFrame(frame, Hub.gp);
     this.aborts = Aborts.forFrame(this);
 
@@ -579,17 +714,19 @@ public class Hub implements Module {
     this.state.stamps().stampHub();
 
     Address fromAddress = this.tx.transaction().getSender();
-    Account fromAccount = worldView.get(fromAddress);
+    Account fromAccount = this.accounts.get(worldView, fromAddress);
     AccountSnapshot fromSnapshot =
         AccountSnapshot.fromAccount(
+            this.conflation.codeStore(),
             fromAccount,
             true,
             this.conflation.deploymentInfo().number(fromAddress),
             this.conflation.deploymentInfo().isDeploying(fromAddress));
 
-    Account minerAccount = worldView.get(this.block.minerAddress);
+    Account minerAccount = this.accounts.get(worldView, this.block.minerAddress);
     AccountSnapshot minerSnapshot =
         AccountSnapshot.fromAccount(
+            this.conflation.codeStore(),
             minerAccount,
             true,
             this.conflation.deploymentInfo().number(this.block.minerAddress),
@@ -618,9 +755,10 @@ public class Hub implements Module {
 
       // otherwise 4 account rows (sender, coinbase, sender, recipient) + 1 tx row
       Address toAddress = this.tx.transaction().getSender();
-      Account toAccount = worldView.get(toAddress);
+      Account toAccount = this.accounts.get(worldView, toAddress);
       AccountSnapshot toSnapshot =
           AccountSnapshot.fromAccount(
+              this.conflation.codeStore(),
               toAccount,
               true,
               this.conflation.deploymentInfo().number(toAddress),
@@ -651,6 +789,9 @@ public class Hub implements Module {
   public void enterTransaction() {
     this.state.enter();
     this.tx.enter();
+    this.stackArena.enter();
+    this.conflation.deploymentInfo().enter();
+    this.conflation.codeStore().enter();
 
     for (Module m : this.modules) {
       m.enterTransaction();
@@ -660,12 +801,14 @@ public class Hub implements Module {
   @Override
   public void traceStartTx(final WorldView world, final Transaction tx) {
     this.enterTransaction();
+    this.accounts.invalidate();
 
     this.exceptions = Exceptions.empty();
+    this.createResolver.reset();
 
     this.tx.update(tx);
 
-    if (this.tx.shouldSkip(world)) {
+    if (this.tx.shouldSkip(world, this.accounts)) {
       this.tx.state(TxState.TX_SKIP);
       this.processStateSkip(world);
     } else {
@@ -683,14 +826,34 @@ public class Hub implements Module {
   public void popTransaction() {
     this.tx.pop();
     this.state.pop();
+    this.stackArena.pop();
+    this.conflation.deploymentInfo().pop();
+    this.conflation.codeStore().pop();
     for (Module m : this.modules) {
       m.popTransaction();
     }
   }
 
+  @Override
+  public void reset() {
+    this.state.clear();
+    this.conflation.reset();
+    this.block.reset();
+    this.tx.reset();
+    this.callStack.clear();
+    this.defers.clear();
+    this.stackArena.clear();
+    this.accounts.clear();
+    this.createResolver.reset();
+    for (Module m : this.modules) {
+      m.reset();
+    }
+  }
+
   @Override
   public void traceEndTx(
       WorldView world, Transaction tx, boolean status, Bytes output, List<Log> logs, long gasUsed) {
+    this.accounts.invalidate();
     if (this.tx.state() != TxState.TX_SKIP) {
       this.tx.state(TxState.TX_FINAL);
     }
@@ -709,37 +872,29 @@ public class Hub implements Module {
     }
   }
 
-  private void unlatchStack(MessageFrame frame) {
-    this.unlatchStack(frame, this.currentTraceSection());
-  }
-
+  /**
+   * Retroactively set the value pushed by the current instruction in its stack lines, which are
+   * shared with the stack fragments of its section.
+   *
+   * @param frame the frame having executed the instruction
+   * @param section the section of the instruction, whose stack fragments are fed the hashed values
+   */
   public void unlatchStack(MessageFrame frame, TraceSection section) {
-    if (this.currentFrame().pending() == null) {
+    // Stack values do not impact the line count
+    if (this.currentFrame().pending() == null || this.countsOnly()) {
       return;
     }
 
-    StackContext pending = this.currentFrame().pending();
-    for (int i = 0; i < pending.getLines().size(); i++) {
-      StackLine line = pending.getLines().get(i);
-      if (line.needsResult()) {
-        EWord result = EWord.ZERO;
-        // Only pop from the stack if no exceptions have been encountered
-        if (!exceptions.any()) {
-          result = EWord.of(frame.getStackItem(0));
-        }
-
-        // This works because we are certain that the stack chunks are the first.
-        ((StackFragment) section.getLines().get(i).specific())
-            .stackOps()
-            .get(line.resultColumn() - 1)
-            .setValue(result);
-      }
+    final StackContext pending = this.currentFrame().pending();
+    if (pending.needsResult()) {
+      // Only pop from the stack if no exceptions have been encountered
+      pending.setResult(exceptions.any() ? Bytes.EMPTY : frame.getStackItem(0));
     }
 
     if (this.exceptions.none()) {
       for (TraceSection.TraceLine line : section.getLines()) {
         if (line.specific() instanceof StackFragment stackFragment) {
-          stackFragment.feedHashedValue(frame);
+          stackFragment.feedHashedValue(frame, this.accounts);
         }
       }
     }
@@ -759,7 +914,7 @@ public class Hub implements Module {
           new Bytecode(
               toAddress == null
                   ? this.tx.transaction().getData().orElse(Bytes.EMPTY)
-                  : Optional.ofNullable(frame.getWorldUpdater().get(toAddress))
+                  : Optional.ofNullable(this.accounts.get(frame, toAddress))
                       .map(AccountState::getCode)
                       .orElse(Bytes.EMPTY)), // TODO: see with Olivier
           Wei.of(this.tx.transaction().getValue().getAsBigInteger()),
@@ -794,12 +949,13 @@ public class Hub implements Module {
       this.defers.runNextContext(this, frame);
 
       for (Module m : this.modules) {
-        m.traceContextEnter(frame);
+        this.triggerContextEnter(m, frame);
       }
     }
   }
 
   public void traceContextReEnter(MessageFrame frame) {
+    this.accounts.invalidate();
     if (this.currentFrame().needsUnlatchingAtReEntry() != null) {
       this.unlatchStack(frame, this.currentFrame().needsUnlatchingAtReEntry());
       this.currentFrame().needsUnlatchingAtReEntry(null);
@@ -808,6 +964,7 @@ public class Hub implements Module {
 
   @Override
   public void traceContextExit(MessageFrame frame) {
+    this.accounts.invalidate();
     if (frame.getDepth() > 0) {
       conflation.deploymentInfo().unmarkDeploying(this.currentFrame().codeAddress());
 
@@ -839,47 +996,53 @@ public class Hub implements Module {
       return;
     }
 
+    // only these families may modify accounts within the current world view
+    switch (this.opCodeData().instructionFamily()) {
+      case CALL, CREATE, HALT -> this.accounts.invalidate();
+      default -> {}
+    }
+
     if (this.currentFrame().opCode().isCreate() && operationResult.getHaltReason() == null) {
       this.handleCreate(Words.toAddress(frame.getStackItem(0)));
     }
 
     this.defers.runPostExec(this, frame, operationResult);
-    this.romLex.tracePostExecution(frame, operationResult);
+    this.triggerPostExecution(this.romLex, frame, operationResult);
 
     if (this.currentFrame().needsUnlatchingAtReEntry() == null) {
-      this.unlatchStack(frame);
+      this.unlatchStack(frame, this.currentTraceSection());
     }
 
     switch (this.opCodeData().instructionFamily()) {
       case ADD -> {
         if (this.exceptions.noStackException()) {
-          this.add.tracePostOp(frame);
+          this.triggerPostOp(this.add, frame);
         }
       }
       case MOD -> {
         if (this.exceptions.noStackException()) {
-          this.mod.tracePostOp(frame);
+          this.triggerPostOp(this.mod, frame);
         }
       }
       case MUL -> {
         if (this.exceptions.noStackException()) {
-          this.mul.tracePostOp(frame);
+          this.triggerPostOp(this.mul, frame);
         }
       }
       case EXT -> {
         if (this.exceptions.noStackException()) {
-          this.ext.tracePostOp(frame);
+          this.triggerPostOp(this.ext, frame);
         }
       }
       case WCP -> {
         if (this.exceptions.noStackException()) {
-          this.wcp.tracePostOp(frame);
+          this.triggerPostOp(this.wcp, frame);
         }
       }
       case BIN -> {}
       case SHF -> {
         if (this.exceptions.noStackException()) {
-          this.shf.tracePostOp(frame);
+          this.triggerPostOp(this.shf, frame);
         }
       }
       case KEC -> {}
@@ -890,7 +1053,7 @@ public class Hub implements Module {
       case BATCH -> {}
       case STACK_RAM -> {
         if (this.exceptions.noStackException()) {
-          this.mxp.tracePostOp(frame);
+          this.triggerPostOp(this.mxp, frame);
         }
       }
       case STORAGE -> {}
@@ -1006,9 +1169,10 @@ public class Hub implements Module {
               case BALANCE, EXTCODESIZE, EXTCODEHASH -> Words.toAddress(frame.getStackItem(0));
               default -> Address.wrap(this.currentFrame().address());
             };
-        Account targetAccount = frame.getWorldUpdater().getAccount(targetAddress);
+        Account targetAccount = this.accounts.get(frame, targetAddress);
         AccountSnapshot accountSnapshot =
             AccountSnapshot.fromAccount(
+                this.conflation.codeStore(),
                 targetAccount,
                 frame.isAddressWarm(targetAddress),
                 this.conflation.deploymentInfo().number(targetAddress),
@@ -1029,9 +1193,10 @@ public class Hub implements Module {
                 case EXTCODECOPY -> Words.toAddress(frame.getStackItem(0));
                 default -> throw new IllegalStateException("unexpected opcode");
               };
-          Account targetAccount = frame.getWorldUpdater().getAccount(targetAddress);
+          Account targetAccount = this.accounts.get(frame, targetAddress);
           AccountSnapshot accountSnapshot =
               AccountSnapshot.fromAccount(
+                  this.conflation.codeStore(),
                   targetAccount,
                   frame.isAddressWarm(targetAddress),
                   this.conflation.deploymentInfo().number(targetAddress),
@@ -1125,18 +1290,20 @@ public class Hub implements Module {
       }
       case CREATE -> {
         Address myAddress = this.currentFrame().address();
-        Account myAccount = frame.getWorldUpdater().getAccount(myAddress);
+        Account myAccount = this.accounts.get(frame, myAddress);
         AccountSnapshot myAccountSnapshot =
             AccountSnapshot.fromAccount(
+                this.conflation.codeStore(),
                 myAccount,
                 frame.isAddressWarm(myAddress),
                 this.conflation.deploymentInfo().number(myAddress),
                 this.conflation.deploymentInfo().isDeploying(myAddress));
 
         Address createdAddress = this.currentFrame().address();
-        Account createdAccount = frame.getWorldUpdater().getAccount(createdAddress);
+        Account createdAccount = this.accounts.get(frame, createdAddress);
         AccountSnapshot createdAccountSnapshot =
             AccountSnapshot.fromAccount(
+                this.conflation.codeStore(),
                 createdAccount,
                 frame.isAddressWarm(createdAddress),
                 this.conflation.deploymentInfo().number(createdAddress),
@@ -1154,21 +1321,23 @@ public class Hub implements Module {
 
       case CALL -> {
         final Address myAddress = this.currentFrame().address();
-        final Account myAccount = frame.getWorldUpdater().getAccount(myAddress);
+        final Account myAccount = this.accounts.get(frame, myAddress);
         final AccountSnapshot myAccountSnapshot =
             AccountSnapshot.fromAccount(
+                this.conflation.codeStore(),
                 myAccount,
                 frame.isAddressWarm(myAddress),
                 this.conflation.deploymentInfo().number(myAddress),
                 this.conflation.deploymentInfo().isDeploying(myAddress));
 
         final Address calledAddress = Words.toAddress(frame.getStackItem(1));
-        final Account calledAccount = frame.getWorldUpdater().getAccount(calledAddress);
+        final Account calledAccount = this.accounts.get(frame, calledAddress);
         final boolean hasCode =
             Optional.ofNullable(calledAccount).map(AccountState::hasCode).orElse(false);
 
         final AccountSnapshot calledAccountSnapshot =
             AccountSnapshot.fromAccount(
+                this.conflation.codeStore(),
                 calledAccount,
                 frame.isAddressWarm(myAddress),
                 this.conflation.deploymentInfo().number(myAddress),
@@ -1267,7 +1436,8 @@ public class Hub implements Module {
 
         AccountSnapshot codeAccountSnapshot =
             AccountSnapshot.fromAccount(
-                frame.getWorldUpdater().getAccount(this.currentFrame().codeAddress()),
+                this.conflation.codeStore(),
+                this.accounts.get(frame, this.currentFrame().codeAddress()),
                 true,
                 this.conflation.deploymentInfo().number(this.currentFrame().codeAddress()),
                 this.currentFrame().underDeployment());
@@ -1295,23 +1465,25 @@ public class Hub implements Module {
 
   public List<TraceFragment> makeStackChunks(CallFrame f) {
     List<TraceFragment> r = new ArrayList<>();
-    if (f.pending().getLines().isEmpty()) {
+    if (f.pending().lineCount() == 0) {
       for (int i = 0; i < (this.opCodeData().stackSettings().twoLinesInstruction() ? 2 : 1); i++) {
         r.add(
             StackFragment.prepare(
                 this.currentFrame().stack().snapshot(),
-                new StackLine().asStackOperations(),
+                this.stackArena,
+                StackArena.EMPTY_LINE,
                 this.exceptions.snapshot(),
                 this.aborts.snapshot(),
                 gp.of(f.frame(), f.opCode()),
                 f.underDeployment()));
       }
     } else {
-      for (StackLine line : f.pending().getLines()) {
+      for (int i = 0; i < f.pending().lineCount(); i++) {
         r.add(
             StackFragment.prepare(
                 f.stack().snapshot(),
-                line.asStackOperations(),
+                this.stackArena,
+                f.pending().line(i),
                 this.exceptions.snapshot(),
                 this.aborts.snapshot(),
                 gp.of(f.frame(), f.opCode()),
@@ -30,7 +30,7 @@ import net.consensys.linea.zktracer.opcode.OpCodeData;
 @Accessors(fluent = true)
 public class Signals {
   private final Hub hub;
-  private final OpCodeData opCodeData;
+  private OpCodeData opCodeData;
 
   @Getter boolean mmu = false;
   @Getter boolean mxp = false;
@@ -49,6 +49,20 @@ public class Signals {
     this.opCodeData = hub.currentFrame().opCode().getData();
   }
 
+  /**
+   * Lower all the signals and bind them to the instruction currently executed by the hub, so that a
+   * single instance can be reused across instructions.
+   */
+  public void reset() {
+    this.opCodeData = hub.currentFrame().opCode().getData();
+    this.mmu = false;
+    this.mxp = false;
+    this.oob = false;
+    this.precompileInfo = false;
+    this.stipend = false;
+    this.exp = false;
+  }
+
   public Signals snapshot() {
     var r = new Signals();
     r.mmu = this.mmu;
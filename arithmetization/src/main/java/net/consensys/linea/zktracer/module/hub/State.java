@@ -81,6 +81,11 @@ public class State implements StackedContainer {
     this.state.pop();
   }
 
+  /** Drop the states of all the traced transactions, stamps included. */
+  void clear() {
+    this.state.clear();
+  }
+
   /** Describes the Hub state during a given transaction. */
   @Accessors(fluent = true)
   @Getter
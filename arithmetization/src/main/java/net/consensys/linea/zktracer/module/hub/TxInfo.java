@@ -60,9 +60,9 @@ public class TxInfo implements StackedContainer {
     return this.status;
   }
 
-  boolean shouldSkip(WorldView world) {
+  boolean shouldSkip(WorldView world, AccountCache accounts) {
     return (this.transaction.getTo().isPresent()
-            && Optional.ofNullable(world.get(this.transaction.getTo().get()))
+            && Optional.ofNullable(accounts.get(world, this.transaction.getTo().get()))
                 .map(a -> a.getCode().isEmpty())
                 .orElse(true)) // pure transaction
         || (this.transaction.getTo().isEmpty()
@@ -99,6 +99,17 @@ public class TxInfo implements StackedContainer {
     this.initialGas = tx.getGasLimit();
   }
 
+  /** Forget every transaction seen so far. */
+  void reset() {
+    this.preExecNumber = 0;
+    this.number = 0;
+    this.transaction = null;
+    this.state = null;
+    this.status = null;
+    this.initialGas = 0;
+    this.storage = null;
+  }
+
   @Override
   public void enter() {
     this.preExecNumber = this.number;
@@ -94,4 +94,11 @@ public class DeferRegistry {
     }
     this.postExecDefers.clear();
   }
+
+  /** Drop all the pending actions without executing them. */
+  public void clear() {
+    this.txDefers.clear();
+    this.postExecDefers.clear();
+    this.contextReentry.clear();
+  }
 }
@@ -50,18 +50,24 @@ public record SkippedPostTransactionDefer(
 
     AccountSnapshot newFromAccount =
         AccountSnapshot.fromAccount(
-            state.get(fromAddress),
+            hub.conflation().codeStore(),
+            hub.accounts().get(state, fromAddress),
             true,
             hub.conflation().deploymentInfo().number(fromAddress),
             false);
 
     AccountSnapshot newToAccount =
         AccountSnapshot.fromAccount(
-            state.get(toAddress), true, hub.conflation().deploymentInfo().number(toAddress), false);
+            hub.conflation().codeStore(),
+            hub.accounts().get(state, toAddress),
+            true,
+            hub.conflation().deploymentInfo().number(toAddress),
+            false);
 
     AccountSnapshot newMinerAccount =
         AccountSnapshot.fromAccount(
-            state.get(minerAddress),
+            hub.conflation().codeStore(),
+            hub.accounts().get(state, minerAddress),
             true,
             hub.conflation().deploymentInfo().number(minerAddress),
             false);
@@ -20,10 +20,10 @@ import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 
-import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
 import net.consensys.linea.zktracer.module.hub.Aborts;
+import net.consensys.linea.zktracer.module.hub.AccountCache;
 import net.consensys.linea.zktracer.module.hub.DeploymentExceptions;
 import net.consensys.linea.zktracer.module.hub.Exceptions;
 import net.consensys.linea.zktracer.module.hub.Trace;
@@ -33,7 +33,7 @@ import net.consensys.linea.zktracer.opcode.gas.MxpType;
 import net.consensys.linea.zktracer.opcode.gas.projector.GasProjection;
 import net.consensys.linea.zktracer.runtime.stack.Action;
 import net.consensys.linea.zktracer.runtime.stack.Stack;
-import net.consensys.linea.zktracer.runtime.stack.StackOperation;
+import net.consensys.linea.zktracer.runtime.stack.StackArena;
 import net.consensys.linea.zktracer.types.EWord;
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.evm.frame.MessageFrame;
@@ -41,7 +41,9 @@ import org.hyperledger.besu.evm.frame.MessageFrame;
 @Accessors(fluent = true)
 public final class StackFragment implements TraceFragment {
   private final Stack stack;
-  @Getter private final List<StackOperation> stackOps;
+  private final StackArena arena;
+  /** The line of the {@link StackArena} holding the stack operations of this fragment. */
+  private final int line;
   private final Exceptions exceptions;
   @Setter private DeploymentExceptions contextExceptions;
   private final long staticGas;
@@ -52,14 +54,16 @@ public final class StackFragment implements TraceFragment {
 
   private StackFragment(
       Stack stack,
-      List<StackOperation> stackOps,
+      StackArena arena,
+      int line,
       Exceptions exceptions,
       Aborts aborts,
       DeploymentExceptions contextExceptions,
       GasProjection gp,
       boolean isDeploying) {
     this.stack = stack;
-    this.stackOps = stackOps;
+    this.arena = arena;
+    this.line = line;
     this.exceptions = exceptions;
     this.contextExceptions = contextExceptions;
     this.opCode = stack.getCurrentOpcodeData().mnemonic();
@@ -79,23 +83,31 @@ public final class StackFragment implements TraceFragment {
 
   public static StackFragment prepare(
       final Stack stack,
-      final List<StackOperation> stackOperations,
+      final StackArena arena,
+      final int line,
       final Exceptions exceptions,
       final Aborts aborts,
       final GasProjection gp,
       boolean isDeploying) {
     return new StackFragment(
-        stack, stackOperations, exceptions, aborts, DeploymentExceptions.empty(), gp, isDeploying);
+        stack,
+        arena,
+        line,
+        exceptions,
+        aborts,
+        DeploymentExceptions.empty(),
+        gp,
+        isDeploying);
   }
 
-  public void feedHashedValue(MessageFrame frame) {
+  public void feedHashedValue(MessageFrame frame, AccountCache accounts) {
     if (hashInfoFlag) {
       switch (this.opCode) {
         case SHA3 -> this.hashInfoKeccak = EWord.of(frame.getStackItem(0));
         case RETURN -> this.hashInfoKeccak = EWord.ZERO; // TODO: fixme
         case CREATE2 -> {
           Address newAddress = EWord.of(frame.getStackItem(0)).toAddress();
-          this.hashInfoKeccak = EWord.of(frame.getWorldUpdater().get(newAddress).getCodeHash());
+          this.hashInfoKeccak = EWord.of(accounts.get(frame, newAddress).getCodeHash());
         }
         default -> throw new IllegalStateException("unexpected opcode");
       }
@@ -154,16 +166,12 @@ public final class StackFragment implements TraceFragment {
       heightUnder = -heightUnder - 1;
     }
 
-    var it = stackOps.listIterator();
-    while (it.hasNext()) {
-      var i = it.nextIndex();
-      var op = it.next();
-
-      heightTracers.get(i).apply(BigInteger.valueOf(op.height()));
-      valLoTracers.get(i).apply(op.value().loBigInt());
-      valHiTracers.get(i).apply(op.value().hiBigInt());
-      popTracers.get(i).apply(op.action() == Action.POP);
-      stampTracers.get(i).apply(BigInteger.valueOf(op.stackStamp()));
+    for (int i = 0; i < heightTracers.size(); i++) {
+      heightTracers.get(i).apply(BigInteger.valueOf(arena.height(line, i + 1)));
+      valLoTracers.get(i).apply(arena.valueLo(line, i + 1));
+      valHiTracers.get(i).apply(arena.valueHi(line, i + 1));
+      popTracers.get(i).apply(arena.action(line, i + 1) == Action.POP);
+      stampTracers.get(i).apply(BigInteger.valueOf(arena.stamp(line, i + 1)));
     }
 
     return trace
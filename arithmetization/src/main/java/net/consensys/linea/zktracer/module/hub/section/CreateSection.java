@@ -55,7 +55,8 @@ public class CreateSection extends TraceSection
     Address creatorAddress = oldCreatorSnapshot.address();
     this.newCreatorSnapshot =
         AccountSnapshot.fromAccount(
-            frame.getWorldUpdater().getAccount(creatorAddress),
+            hub.conflation().codeStore(),
+            hub.accounts().get(frame, creatorAddress),
             true,
             hub.conflation().deploymentInfo().number(creatorAddress),
             hub.conflation().deploymentInfo().isDeploying(creatorAddress));
@@ -63,7 +64,8 @@ public class CreateSection extends TraceSection
     Address createdAddress = oldCreatedSnapshot.address();
     this.newCreatedSnapshot =
         AccountSnapshot.fromAccount(
-            frame.getWorldUpdater().getAccount(createdAddress),
+            hub.conflation().codeStore(),
+            hub.accounts().get(frame, createdAddress),
             true,
             hub.conflation().deploymentInfo().number(createdAddress),
             hub.conflation().deploymentInfo().isDeploying(createdAddress));
@@ -64,18 +64,20 @@ public class NoCodeCallSection extends TraceSection implements PostTransactionDe
   @Override
   public void runPostExec(Hub hub, MessageFrame frame, Operation.OperationResult operationResult) {
     final Address callerAddress = preCallCallerAccountSnapshot.address();
-    final Account callerAccount = frame.getWorldUpdater().getAccount(callerAddress);
+    final Account callerAccount = hub.accounts().get(frame, callerAddress);
     final Address calledAddress = preCallCalledAccountSnapshot.address();
-    final Account calledAccount = frame.getWorldUpdater().getAccount(calledAddress);
+    final Account calledAccount = hub.accounts().get(frame, calledAddress);
 
     this.postCallCallerAccountSnapshot =
         AccountSnapshot.fromAccount(
+            hub.conflation().codeStore(),
             callerAccount,
             frame.isAddressWarm(callerAddress),
             hub.conflation().deploymentInfo().number(callerAddress),
             hub.conflation().deploymentInfo().isDeploying(callerAddress));
     this.postCallCalledAccountSnapshot =
         AccountSnapshot.fromAccount(
+            hub.conflation().codeStore(),
             calledAccount,
             frame.isAddressWarm(calledAddress),
             hub.conflation().deploymentInfo().number(calledAddress),
@@ -72,7 +72,7 @@ public abstract class TraceSection {
   private CommonFragment traceCommon(Hub hub, CallFrame callFrame) {
     OpCode opCode = callFrame.opCode();
     long refund = 0;
-    if (hub.exceptions().noStackException()) {
+    if (hub.exceptions().noStackException() && !hub.countsOnly()) {
       refund = Hub.gp.of(callFrame.frame(), opCode).refund();
     }
 
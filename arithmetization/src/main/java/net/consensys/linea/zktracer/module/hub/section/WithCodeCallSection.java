@@ -63,18 +63,20 @@ public class WithCodeCallSection extends TraceSection
   @Override
   public void runPostExec(Hub hub, MessageFrame frame, Operation.OperationResult operationResult) {
     final Address callerAddress = preCallCallerAccountSnapshot.address();
-    final Account callerAccount = frame.getWorldUpdater().getAccount(callerAddress);
+    final Account callerAccount = hub.accounts().get(frame, callerAddress);
     final Address calledAddress = preCallCalledAccountSnapshot.address();
-    final Account calledAccount = frame.getWorldUpdater().getAccount(calledAddress);
+    final Account calledAccount = hub.accounts().get(frame, calledAddress);
 
     this.postCallCallerAccountSnapshot =
         AccountSnapshot.fromAccount(
+            hub.conflation().codeStore(),
             callerAccount,
             frame.isAddressWarm(callerAddress),
             hub.conflation().deploymentInfo().number(callerAddress),
             hub.conflation().deploymentInfo().isDeploying(callerAddress));
     this.postCallCalledAccountSnapshot =
         AccountSnapshot.fromAccount(
+            hub.conflation().codeStore(),
             calledAccount,
             frame.isAddressWarm(calledAddress),
             hub.conflation().deploymentInfo().number(calledAddress),
@@ -84,18 +86,20 @@ public class WithCodeCallSection extends TraceSection
   @Override
   public void runNextContext(Hub hub, MessageFrame frame) {
     final Address callerAddress = preCallCallerAccountSnapshot.address();
-    final Account callerAccount = frame.getWorldUpdater().getAccount(callerAddress);
+    final Account callerAccount = hub.accounts().get(frame, callerAddress);
     final Address calledAddress = preCallCalledAccountSnapshot.address();
-    final Account calledAccount = frame.getWorldUpdater().getAccount(calledAddress);
+    final Account calledAccount = hub.accounts().get(frame, calledAddress);
 
     this.inCallCallerAccountSnapshot =
         AccountSnapshot.fromAccount(
+            hub.conflation().codeStore(),
             callerAccount,
             frame.isAddressWarm(callerAddress),
             hub.conflation().deploymentInfo().number(callerAddress),
             hub.conflation().deploymentInfo().isDeploying(callerAddress));
     this.inCallCalledAccountSnapshot =
         AccountSnapshot.fromAccount(
+            hub.conflation().codeStore(),
             calledAccount,
             frame.isAddressWarm(calledAddress),
             hub.conflation().deploymentInfo().number(calledAddress),
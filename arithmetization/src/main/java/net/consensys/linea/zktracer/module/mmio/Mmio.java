@@ -30,6 +30,9 @@ public class Mmio implements Module {
   @Override
   public void popTransaction() {}
 
+  @Override
+  public void reset() {}
+
   @Override
   public int lineCount() {
     return 0;
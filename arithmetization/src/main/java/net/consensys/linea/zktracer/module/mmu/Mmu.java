@@ -61,6 +61,13 @@ public class Mmu implements Module {
     this.state.pop();
   }
 
+  @Override
+  public void reset() {
+    this.state.clear();
+    this.ramStamp = 0;
+    this.isMicro = false;
+  }
+
   @Override
   public int lineCount() {
     return this.state.stream().mapToInt(m -> maxCounter(m.pointers().oob())).sum();
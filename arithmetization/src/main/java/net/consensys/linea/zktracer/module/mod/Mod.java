@@ -17,18 +17,19 @@ package net.consensys.linea.zktracer.module.mod;
 
 import java.math.BigInteger;
 
-import net.consensys.linea.zktracer.container.stacked.set.StackedSet;
+import net.consensys.linea.zktracer.TracingMode;
+import net.consensys.linea.zktracer.container.stacked.set.StackedKeyedSet;
 import net.consensys.linea.zktracer.module.Module;
 import net.consensys.linea.zktracer.module.ModuleTrace;
+import net.consensys.linea.zktracer.module.OperationKey;
+import net.consensys.linea.zktracer.module.ParallelWitness;
 import net.consensys.linea.zktracer.opcode.OpCode;
 import net.consensys.linea.zktracer.opcode.OpCodeData;
 import net.consensys.linea.zktracer.opcode.OpCodes;
 import net.consensys.linea.zktracer.types.UnsignedByte;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
-import org.hyperledger.besu.datatypes.Transaction;
 import org.hyperledger.besu.evm.frame.MessageFrame;
-import org.hyperledger.besu.evm.worldstate.WorldView;
 
 public class Mod implements Module {
   private int stamp = 0;
@@ -38,7 +39,19 @@ public class Mod implements Module {
     return "mod";
   }
 
-  private final StackedSet<ModOperation> chunks = new StackedSet<>();
+  private final StackedKeyedSet<OperationKey, ModOperation> chunks = new StackedKeyedSet<>();
+  /** The line counts of the operations, used instead of the operations when counting lines */
+  private final StackedKeyedSet<OperationKey, Integer> lineCounts = new StackedKeyedSet<>();
+  /** Whether only the line counts are recorded */
+  private final boolean countsOnly;
+
+  public Mod() {
+    this(TracingMode.FULL);
+  }
+
+  public Mod(final TracingMode mode) {
+    this.countsOnly = mode == TracingMode.LINE_COUNT;
+  }
 
   @Override
   public void tracePreOpcode(final MessageFrame frame) {
@@ -46,42 +59,66 @@ public class Mod implements Module {
     final Bytes32 arg1 = Bytes32.leftPad(frame.getStackItem(0));
     final Bytes32 arg2 = Bytes32.leftPad(frame.getStackItem(1));
 
-    this.chunks.add(new ModOperation(opCodeData, arg1, arg2));
+    this.add(opCodeData.mnemonic(), arg1, arg2);
+  }
+
+  private void add(final OpCode opCode, final Bytes32 arg1, final Bytes32 arg2) {
+    final OperationKey key = OperationKey.of(opCode, arg1, arg2);
+    if (this.countsOnly) {
+      this.lineCounts.add(key, () -> ModOperation.lineCount(arg2));
+    } else {
+      this.chunks.add(key, () -> new ModOperation(opCode, arg1, arg2));
+    }
   }
 
   @Override
   public void enterTransaction() {
     this.chunks.enter();
+    this.lineCounts.enter();
   }
 
   @Override
   public void popTransaction() {
     this.chunks.pop();
+    this.lineCounts.pop();
   }
 
   @Override
-  public void traceStartTx(WorldView worldView, Transaction tx) {
-    this.chunks.enter();
+  public void reset() {
+    this.chunks.clear();
+    this.lineCounts.clear();
+    this.stamp = 0;
   }
 
   public void traceModOperation(ModOperation op, Trace.TraceBuilder trace) {
     this.stamp++;
+    op.computeWitness();
+
+    // the values constant over the operation are shared by all its lines
+    final BigInteger stampValue = BigInteger.valueOf(this.stamp);
+    final BigInteger inst = BigInteger.valueOf(op.getOpCode().getData().value());
+    final BigInteger arg1Hi = op.getArg1().getHigh().toUnsignedBigInteger();
+    final BigInteger arg1Lo = op.getArg1().getLow().toUnsignedBigInteger();
+    final BigInteger arg2Hi = op.getArg2().getHigh().toUnsignedBigInteger();
+    final BigInteger arg2Lo = op.getArg2().getLow().toUnsignedBigInteger();
+    final BigInteger resHi = op.getResult().getHigh().toUnsignedBigInteger();
+    final BigInteger resLo = op.getResult().getLow().toUnsignedBigInteger();
 
     for (int i = 0; i < op.maxCounter(); i++) {
       final int accLength = i + 1;
       trace
-          .stamp(BigInteger.valueOf(stamp))
+          .stamp(stampValue)
           .oli(op.isOli())
           .ct(BigInteger.valueOf(i))
-          .inst(BigInteger.valueOf(op.getOpCode().getData().value()))
+          .inst(inst)
           .decSigned(op.isSigned())
           .decOutput(op.isDiv())
-          .arg1Hi(op.getArg1().getHigh().toUnsignedBigInteger())
-          .arg1Lo(op.getArg1().getLow().toUnsignedBigInteger())
-          .arg2Hi(op.getArg2().getHigh().toUnsignedBigInteger())
-          .arg2Lo(op.getArg2().getLow().toUnsignedBigInteger())
-          .resHi(op.getResult().getHigh().toUnsignedBigInteger())
-          .resLo(op.getResult().getLow().toUnsignedBigInteger())
+          .arg1Hi(arg1Hi)
+          .arg1Lo(arg1Lo)
+          .arg2Hi(arg2Hi)
+          .arg2Lo(arg2Lo)
+          .resHi(resHi)
+          .resLo(resLo)
           .acc12(op.getArg1().getBytes32().slice(8, i + 1).toUnsignedBigInteger())
           .acc13(op.getArg1().getBytes32().slice(0, i + 1).toUnsignedBigInteger())
           .acc22(op.getArg2().getBytes32().slice(8, i + 1).toUnsignedBigInteger())
@@ -139,6 +176,7 @@ public class Mod implements Module {
   @Override
   public ModuleTrace commit() {
     final Trace.TraceBuilder trace = Trace.builder(this.lineCount());
+    ParallelWitness.compute(this.chunks, ModOperation::computeWitness);
     for (ModOperation op : this.chunks) {
       this.traceModOperation(op, trace);
     }
@@ -147,6 +185,9 @@ public class Mod implements Module {
 
   @Override
   public int lineCount() {
+    if (this.countsOnly) {
+      return this.lineCounts.stream().mapToInt(Integer::intValue).sum();
+    }
     return this.chunks.stream().mapToInt(ModOperation::maxCounter).sum();
   }
 
@@ -157,7 +198,7 @@ public class Mod implements Module {
    * @param arg2 the dividend
    */
   public void callDiv(Bytes32 arg1, Bytes32 arg2) {
-    this.chunks.add(new ModOperation(OpCode.DIV, arg1, arg2));
+    this.add(OpCode.DIV, arg1, arg2);
   }
 
   /**
@@ -167,6 +208,6 @@ public class Mod implements Module {
    * @param arg2 the module
    */
   public void callMod(Bytes32 arg1, Bytes32 arg2) {
-    this.chunks.add(new ModOperation(OpCode.MOD, arg1, arg2));
+    this.add(OpCode.MOD, arg1, arg2);
   }
 }
@@ -20,7 +20,6 @@ import static net.consensys.linea.zktracer.module.Util.byteBits;
 
 import java.math.BigInteger;
 import java.util.Arrays;
-import java.util.Objects;
 
 import lombok.Getter;
 import net.consensys.linea.zktracer.bytestheta.BaseBytes;
@@ -39,27 +38,21 @@ public class ModOperation {
   @Getter private final boolean oli;
   @Getter private final BaseBytes arg1;
   @Getter private final BaseBytes arg2;
-  @Getter private BaseBytes result = BaseBytes.fromBytes32(Bytes32.ZERO);
-  @Getter private BaseTheta aBytes = BaseTheta.fromBytes32(Bytes32.ZERO);
-  @Getter private BaseTheta bBytes = BaseTheta.fromBytes32(Bytes32.ZERO);
-  @Getter private BaseTheta qBytes = BaseTheta.fromBytes32(Bytes32.ZERO);
-  @Getter private BaseTheta rBytes = BaseTheta.fromBytes32(Bytes32.ZERO);
-  @Getter private BaseTheta hBytes = BaseTheta.fromBytes32(Bytes32.ZERO);
-  @Getter private BaseTheta dBytes = BaseTheta.fromBytes32(Bytes32.ZERO);
+
+  // The witness columns, filled by computeWitness()
+  private boolean witnessComputed = false;
+  @Getter private BaseBytes result;
+  @Getter private BaseTheta aBytes;
+  @Getter private BaseTheta bBytes;
+  @Getter private BaseTheta qBytes;
+  @Getter private BaseTheta rBytes;
+  @Getter private BaseTheta hBytes;
+  @Getter private BaseTheta dBytes;
   @Getter private final boolean[] cmp1 = new boolean[8];
   @Getter private final boolean[] cmp2 = new boolean[8];
   @Getter private Boolean[] msb1 = new Boolean[8];
   @Getter private Boolean[] msb2 = new Boolean[8];
 
-  /**
-   * This custom hash function ensures that all identical operations are only traced once per
-   * conflation block.
-   */
-  @Override
-  public int hashCode() {
-    return Objects.hash(this.opCode, this.arg1, this.arg2);
-  }
-
   public ModOperation(OpCodeData opCodeData, Bytes32 arg1, Bytes32 arg2) {
     this(opCodeData.mnemonic(), arg1, arg2);
   }
@@ -70,36 +63,59 @@ public class ModOperation {
 
     this.opCode = opCode;
     this.oli = arg2.isZero();
+  }
+
+  /**
+   * Compute the witness columns of the operation. This is deferred until the operation is actually
+   * traced, as the line count only depends on the divisor, and most of the operations seen during
+   * execution are duplicates or end up popped with their transaction.
+   */
+  void computeWitness() {
+    if (this.witnessComputed) {
+      return;
+    }
+    this.witnessComputed = true;
 
     Arrays.fill(msb1, false);
     Arrays.fill(msb2, false);
 
-    if (!this.oli) {
-      this.result = getRes(opCode, arg1, arg2);
+    if (this.oli) {
+      this.result = BaseBytes.fromBytes32(Bytes32.ZERO);
+      this.aBytes = BaseTheta.fromBytes32(Bytes32.ZERO);
+      this.bBytes = BaseTheta.fromBytes32(Bytes32.ZERO);
+      this.qBytes = BaseTheta.fromBytes32(Bytes32.ZERO);
+      this.rBytes = BaseTheta.fromBytes32(Bytes32.ZERO);
+      this.hBytes = BaseTheta.fromBytes32(Bytes32.ZERO);
+      this.dBytes = BaseTheta.fromBytes32(Bytes32.ZERO);
+      return;
+    }
 
-      UInt256 a = absoluteValueIfSignedInst(arg1);
-      this.aBytes = BaseTheta.fromBytes32(a);
+    final Bytes32 arg1 = this.arg1.getBytes32().copy();
+    final Bytes32 arg2 = this.arg2.getBytes32().copy();
+    this.result = getRes(opCode, arg1, arg2);
 
-      UInt256 b = absoluteValueIfSignedInst(arg2);
-      this.bBytes = BaseTheta.fromBytes32(b);
+    UInt256 a = absoluteValueIfSignedInst(arg1);
+    this.aBytes = BaseTheta.fromBytes32(a);
 
-      UInt256 q = a.divide(b);
-      this.qBytes = BaseTheta.fromBytes32(q);
+    UInt256 b = absoluteValueIfSignedInst(arg2);
+    this.bBytes = BaseTheta.fromBytes32(b);
 
-      UInt256 r = a.mod(b);
-      this.rBytes = BaseTheta.fromBytes32(r);
+    UInt256 q = a.divide(b);
+    this.qBytes = BaseTheta.fromBytes32(q);
 
-      this.dBytes = BaseTheta.fromBytes32(Bytes32.ZERO);
-      this.setCmp12();
-      this.setDeltas();
-      this.setAlphaBetasH012();
+    UInt256 r = a.mod(b);
+    this.rBytes = BaseTheta.fromBytes32(r);
 
-      UnsignedByte msb1 = UnsignedByte.of(this.arg1.getHigh().get(0));
-      UnsignedByte msb2 = UnsignedByte.of(this.arg2.getHigh().get(0));
+    this.dBytes = BaseTheta.fromBytes32(Bytes32.ZERO);
+    this.setCmp12();
+    this.setDeltas();
+    this.setAlphaBetasH012();
 
-      this.msb1 = byteBits(msb1);
-      this.msb2 = byteBits(msb2);
-    }
+    UnsignedByte msb1 = UnsignedByte.of(this.arg1.getHigh().get(0));
+    UnsignedByte msb2 = UnsignedByte.of(this.arg2.getHigh().get(0));
+
+    this.msb1 = byteBits(msb1);
+    this.msb2 = byteBits(msb2);
   }
 
   private static BaseBytes getRes(OpCode op, Bytes32 arg1, Bytes32 arg2) {
@@ -219,4 +235,14 @@ public class ModOperation {
       return MMEDIUM;
     }
   }
+
+  /**
+   * Count the trace lines of an operation without building it.
+   *
+   * @param arg2 the divisor
+   * @return the number of lines of the operation
+   */
+  static int lineCount(final Bytes32 arg2) {
+    return arg2.isZero() ? 1 : MMEDIUM;
+  }
 }
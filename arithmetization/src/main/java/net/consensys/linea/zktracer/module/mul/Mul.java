@@ -17,23 +17,36 @@ package net.consensys.linea.zktracer.module.mul;
 
 import java.math.BigInteger;
 
-import net.consensys.linea.zktracer.container.stacked.set.StackedSet;
+import net.consensys.linea.zktracer.TracingMode;
+import net.consensys.linea.zktracer.container.stacked.set.StackedKeyedSet;
 import net.consensys.linea.zktracer.module.Module;
 import net.consensys.linea.zktracer.module.ModuleTrace;
+import net.consensys.linea.zktracer.module.OperationKey;
+import net.consensys.linea.zktracer.module.ParallelWitness;
 import net.consensys.linea.zktracer.opcode.OpCode;
 import net.consensys.linea.zktracer.types.UnsignedByte;
 import org.apache.tuweni.bytes.Bytes32;
-import org.apache.tuweni.units.bigints.UInt256;
-import org.hyperledger.besu.datatypes.Transaction;
 import org.hyperledger.besu.evm.frame.MessageFrame;
-import org.hyperledger.besu.evm.worldstate.WorldView;
 
 public class Mul implements Module {
   /** A set of the operations to trace */
-  private final StackedSet<MulOperation> operations = new StackedSet<>();
+  private final StackedKeyedSet<OperationKey, MulOperation> operations =
+      new StackedKeyedSet<>();
+  /** The line counts of the operations, used instead of the operations when counting lines */
+  private final StackedKeyedSet<OperationKey, Integer> lineCounts = new StackedKeyedSet<>();
+  /** Whether only the line counts are recorded */
+  private final boolean countsOnly;
 
   private int stamp = 0;
 
+  public Mul() {
+    this(TracingMode.FULL);
+  }
+
+  public Mul(final TracingMode mode) {
+    this.countsOnly = mode == TracingMode.LINE_COUNT;
+  }
+
   @Override
   public String jsonKey() {
     return "mul";
@@ -45,27 +58,38 @@ public class Mul implements Module {
     final Bytes32 arg1 = Bytes32.leftPad(frame.getStackItem(0));
     final Bytes32 arg2 = Bytes32.leftPad(frame.getStackItem(1));
 
-    operations.add(new MulOperation(opCode, arg1, arg2));
+    final OperationKey key = OperationKey.of(opCode, arg1, arg2);
+    if (this.countsOnly) {
+      // the line count only depends on the arguments, the operation is not kept
+      this.lineCounts.add(key, () -> new MulOperation(opCode, arg1, arg2).lineCount());
+    } else {
+      this.operations.add(key, () -> new MulOperation(opCode, arg1, arg2));
+    }
   }
 
   @Override
   public void enterTransaction() {
     this.operations.enter();
+    this.lineCounts.enter();
   }
 
   @Override
   public void popTransaction() {
     this.operations.pop();
+    this.lineCounts.pop();
   }
 
   @Override
-  public void traceStartTx(WorldView worldView, Transaction tx) {
-    this.operations.enter();
+  public void reset() {
+    this.operations.clear();
+    this.lineCounts.clear();
+    this.stamp = 0;
   }
 
   @Override
   public ModuleTrace commit() {
     final Trace.TraceBuilder trace = Trace.builder(this.lineCount() + 16);
+    ParallelWitness.compute(this.operations, MulOperation::computeWitness);
     for (var op : this.operations) {
       this.traceMulOperation(op, trace);
     }
@@ -74,50 +98,59 @@ public class Mul implements Module {
     return new MulTrace(trace.build());
   }
 
+  /** The values constant over the lines of an operation, shared by all of them. */
+  private record SharedValues(
+      BigInteger stamp,
+      BigInteger instruction,
+      BigInteger arg1Hi,
+      BigInteger arg1Lo,
+      BigInteger arg2Hi,
+      BigInteger arg2Lo,
+      BigInteger resHi,
+      BigInteger resLo) {}
+
   private void traceMulOperation(final MulOperation op, Trace.TraceBuilder trace) {
     this.stamp++;
-
-    switch (op.getRegime()) {
-      case EXPONENT_ZERO_RESULT -> traceSubOp(op, trace);
-
-      case EXPONENT_NON_ZERO_RESULT -> {
-        while (op.carryOn()) {
-          op.update();
-          traceSubOp(op, trace);
-        }
-      }
-
-      case TRIVIAL_MUL, NON_TRIVIAL_MUL -> {
-        op.setHsAndBits(UInt256.fromBytes(op.getArg1()), UInt256.fromBytes(op.getArg2()));
-        traceSubOp(op, trace);
+    op.computeWitness();
+
+    final SharedValues shared =
+        new SharedValues(
+            BigInteger.valueOf(this.stamp),
+            BigInteger.valueOf(op.getOpCode().getData().value()),
+            op.getArg1Hi().toUnsignedBigInteger(),
+            op.getArg1Lo().toUnsignedBigInteger(),
+            op.getArg2Hi().toUnsignedBigInteger(),
+            op.getArg2Lo().toUnsignedBigInteger(),
+            op.res().getHigh().toUnsignedBigInteger(),
+            op.res().getLow().toUnsignedBigInteger());
+    for (MulOperation.Step step : op.getSteps()) {
+      for (int ct = 0; ct < op.maxCt(); ct++) {
+        traceRow(op, shared, step, ct, trace);
       }
-
-      default -> throw new RuntimeException("regime not supported");
     }
   }
 
-  private void traceSubOp(final MulOperation data, Trace.TraceBuilder trace) {
-    for (int ct = 0; ct < data.maxCt(); ct++) {
-      traceRow(data, ct, trace);
-    }
-  }
-
-  private void traceRow(final MulOperation op, final int i, Trace.TraceBuilder trace) {
+  private void traceRow(
+      final MulOperation op,
+      final SharedValues shared,
+      final MulOperation.Step step,
+      final int i,
+      Trace.TraceBuilder trace) {
     trace
-        .mulStamp(BigInteger.valueOf(stamp))
+        .mulStamp(shared.stamp())
         .counter(BigInteger.valueOf(i))
         .oli(op.isOneLineInstruction())
         .tinyBase(op.isTinyBase())
         .tinyExponent(op.isTinyExponent())
-        .resultVanishes(op.res.isZero())
-        .instruction(BigInteger.valueOf(op.getOpCode().getData().value()))
-        .arg1Hi(op.getArg1Hi().toUnsignedBigInteger())
-        .arg1Lo(op.getArg1Lo().toUnsignedBigInteger())
-        .arg2Hi(op.getArg2Hi().toUnsignedBigInteger())
-        .arg2Lo(op.getArg2Lo().toUnsignedBigInteger())
-        .resHi(op.res.getHigh().toUnsignedBigInteger())
-        .resLo(op.res.getLow().toUnsignedBigInteger())
-        .bits(op.bits[i])
+        .resultVanishes(op.res().isZero())
+        .instruction(shared.instruction())
+        .arg1Hi(shared.arg1Hi())
+        .arg1Lo(shared.arg1Lo())
+        .arg2Hi(shared.arg2Hi())
+        .arg2Lo(shared.arg2Lo())
+        .resHi(shared.resHi())
+        .resLo(shared.resLo())
+        .bits(step.bits()[i])
         .byteA3(UnsignedByte.of(op.aBytes.get(3, i)))
         .byteA2(UnsignedByte.of(op.aBytes.get(2, i)))
         .byteA1(UnsignedByte.of(op.aBytes.get(1, i)))
@@ -134,57 +167,35 @@ public class Mul implements Module {
         .accB2(op.bBytes.getRange(2, 0, i + 1).toUnsignedBigInteger())
         .accB1(op.bBytes.getRange(1, 0, i + 1).toUnsignedBigInteger())
         .accB0(op.bBytes.getRange(0, 0, i + 1).toUnsignedBigInteger())
-        .byteC3(UnsignedByte.of(op.cBytes.get(3, i)))
-        .byteC2(UnsignedByte.of(op.cBytes.get(2, i)))
-        .byteC1(UnsignedByte.of(op.cBytes.get(1, i)))
-        .byteC0(UnsignedByte.of(op.cBytes.get(0, i)))
-        .accC3(op.cBytes.getRange(3, 0, i + 1).toUnsignedBigInteger())
-        .accC2(op.cBytes.getRange(2, 0, i + 1).toUnsignedBigInteger())
-        .accC1(op.cBytes.getRange(1, 0, i + 1).toUnsignedBigInteger())
-        .accC0(op.cBytes.getRange(0, 0, i + 1).toUnsignedBigInteger())
-        .byteH3(UnsignedByte.of(op.hBytes.get(3, i)))
-        .byteH2(UnsignedByte.of(op.hBytes.get(2, i)))
-        .byteH1(UnsignedByte.of(op.hBytes.get(1, i)))
-        .byteH0(UnsignedByte.of(op.hBytes.get(0, i)))
-        .accH3(op.hBytes.getRange(3, 0, i + 1).toUnsignedBigInteger())
-        .accH2(op.hBytes.getRange(2, 0, i + 1).toUnsignedBigInteger())
-        .accH1(op.hBytes.getRange(1, 0, i + 1).toUnsignedBigInteger())
-        .accH0(op.hBytes.getRange(0, 0, i + 1).toUnsignedBigInteger())
-        .exponentBit(op.isExponentBitSet())
-        .exponentBitAccumulator(op.expAcc.toUnsignedBigInteger())
-        .exponentBitSource(op.isExponentInSource())
-        .squareAndMultiply(op.squareAndMultiply)
-        .bitNum(BigInteger.valueOf(op.getBitNum()))
+        .byteC3(UnsignedByte.of(step.cBytes().get(3, i)))
+        .byteC2(UnsignedByte.of(step.cBytes().get(2, i)))
+        .byteC1(UnsignedByte.of(step.cBytes().get(1, i)))
+        .byteC0(UnsignedByte.of(step.cBytes().get(0, i)))
+        .accC3(step.cBytes().getRange(3, 0, i + 1).toUnsignedBigInteger())
+        .accC2(step.cBytes().getRange(2, 0, i + 1).toUnsignedBigInteger())
+        .accC1(step.cBytes().getRange(1, 0, i + 1).toUnsignedBigInteger())
+        .accC0(step.cBytes().getRange(0, 0, i + 1).toUnsignedBigInteger())
+        .byteH3(UnsignedByte.of(step.hBytes().get(3, i)))
+        .byteH2(UnsignedByte.of(step.hBytes().get(2, i)))
+        .byteH1(UnsignedByte.of(step.hBytes().get(1, i)))
+        .byteH0(UnsignedByte.of(step.hBytes().get(0, i)))
+        .accH3(step.hBytes().getRange(3, 0, i + 1).toUnsignedBigInteger())
+        .accH2(step.hBytes().getRange(2, 0, i + 1).toUnsignedBigInteger())
+        .accH1(step.hBytes().getRange(1, 0, i + 1).toUnsignedBigInteger())
+        .accH0(step.hBytes().getRange(0, 0, i + 1).toUnsignedBigInteger())
+        .exponentBit(step.exponentBit())
+        .exponentBitAccumulator(step.expAcc().toUnsignedBigInteger())
+        .exponentBitSource(step.exponentBitSource())
+        .squareAndMultiply(step.squareAndMultiply())
+        .bitNum(BigInteger.valueOf(step.bitNum()))
         .validateRow();
   }
 
   @Override
   public int lineCount() {
-    return 1
-        + this.operations.stream()
-            .map(MulOperation::clone) // The counting operation is destructive, hence the clone
-            .mapToInt(
-                op ->
-                    switch (op.getRegime()) {
-                      case EXPONENT_ZERO_RESULT -> op.maxCt();
-
-                      case EXPONENT_NON_ZERO_RESULT -> {
-                        int r = 0;
-                        while (op.carryOn()) {
-                          op.update();
-                          r += op.maxCt();
-                        }
-                        yield r;
-                      }
-
-                      case TRIVIAL_MUL, NON_TRIVIAL_MUL -> {
-                        op.setHsAndBits(
-                            UInt256.fromBytes(op.getArg1()), UInt256.fromBytes(op.getArg2()));
-                        yield op.maxCt();
-                      }
-
-                      default -> throw new RuntimeException("regime not supported");
-                    })
-            .sum();
+    if (this.countsOnly) {
+      return 1 + this.lineCounts.stream().mapToInt(Integer::intValue).sum();
+    }
+    return 1 + this.operations.stream().mapToInt(MulOperation::lineCount).sum();
   }
 }
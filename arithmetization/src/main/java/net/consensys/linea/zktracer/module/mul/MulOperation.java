@@ -22,8 +22,9 @@ import static net.consensys.linea.zktracer.module.Util.getOverflow;
 
 import java.lang.reflect.Array;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Objects;
+import java.util.List;
 
 import lombok.Getter;
 import net.consensys.linea.zktracer.bytestheta.BaseBytes;
@@ -32,6 +33,7 @@ import net.consensys.linea.zktracer.opcode.OpCode;
 import net.consensys.linea.zktracer.opcode.OpCodeData;
 import net.consensys.linea.zktracer.types.Bytes16;
 import net.consensys.linea.zktracer.types.UnsignedByte;
+import net.consensys.linea.zktracer.types.Word256;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 import org.apache.tuweni.units.bigints.UInt256;
@@ -57,8 +59,10 @@ public class MulOperation {
   UInt256 expAcc =
       UInt256.ZERO; // accumulator for doubles and adds of the exponent, resets at some point
 
-  final BaseTheta aBytes;
-  final BaseTheta bBytes;
+  // filled by computeWitness()
+  private boolean witnessComputed = false;
+  BaseTheta aBytes;
+  BaseTheta bBytes;
   BaseTheta cBytes = BaseTheta.fromBytes32(Bytes32.ZERO);
   BaseTheta hBytes = BaseTheta.fromBytes32(Bytes32.ZERO);
   boolean squareAndMultiply = false;
@@ -66,16 +70,33 @@ public class MulOperation {
   Boolean[] bits = new Boolean[8];
   String exponentBits = "0";
 
-  BaseBytes res;
+  private BaseBytes res;
 
   /**
-   * This custom hash function ensures that all identical operations are only traced once per
-   * conflation block.
+   * The state of the operation at each of its computation steps, each of them spanning {@link
+   * #maxCt()} trace lines.
+   *
+   * @param bits the bits of the step
+   * @param cBytes the C bytes of the step
+   * @param hBytes the H bytes of the step
+   * @param expAcc the exponent bit accumulator of the step
+   * @param exponentBit whether the current exponent bit is set
+   * @param exponentBitSource whether the current exponent bit is in the low part of the exponent
+   * @param squareAndMultiply whether the step is a multiplication by the base
+   * @param bitNum the index of the current exponent bit
    */
-  @Override
-  public int hashCode() {
-    return Objects.hash(this.opCode, this.arg1, this.arg2);
-  }
+  record Step(
+      Boolean[] bits,
+      BaseTheta cBytes,
+      BaseTheta hBytes,
+      UInt256 expAcc,
+      boolean exponentBit,
+      boolean exponentBitSource,
+      boolean squareAndMultiply,
+      int bitNum) {}
+
+  /** The computation steps of the operation, filled by computeWitness() */
+  @Getter private List<Step> steps = List.of();
 
   public MulOperation(OpCodeData opCodeData, Bytes32 arg1, Bytes32 arg2) {
     this(opCodeData.mnemonic(), arg1, arg2);
@@ -85,29 +106,37 @@ public class MulOperation {
     this.opCode = opCode;
     this.arg1 = arg1;
     this.arg2 = arg2;
-    this.aBytes = BaseTheta.fromBytes32(arg1);
-    this.bBytes = BaseTheta.fromBytes32(arg2);
 
     arg1Hi = Bytes16.wrap(arg1.slice(0, 16));
     arg1Lo = Bytes16.wrap(arg1.slice(16));
     arg2Hi = Bytes16.wrap(arg2.slice(0, 16));
     arg2Lo = Bytes16.wrap(arg2.slice(16));
 
-    this.res = getRes(opCode, arg1, arg2);
-
-    final BigInteger arg1BigInt = UInt256.fromBytes(arg1).toUnsignedBigInteger();
-    final BigInteger arg2BigInt = UInt256.fromBytes(arg2).toUnsignedBigInteger();
-
-    this.tinyBase = isTiny(arg1BigInt);
-    this.tinyExponent = isTiny(arg2BigInt);
+    this.tinyBase = isTiny(Word256.fromBytes(arg1));
+    this.tinyExponent = isTiny(Word256.fromBytes(arg2));
 
     // initialize bits
     Arrays.fill(bits, false);
+  }
+
+  /**
+   * Compute the witness columns of the operation. This is deferred until the operation is actually
+   * traced, as most of the operations seen during execution are duplicates or end up popped with
+   * their transaction.
+   */
+  void computeWitness() {
+    if (this.witnessComputed) {
+      return;
+    }
+    this.witnessComputed = true;
+
+    this.aBytes = BaseTheta.fromBytes32(arg1);
+    this.bBytes = BaseTheta.fromBytes32(arg2);
 
     final Regime regime = getRegime();
     switch (regime) {
       case TRIVIAL_MUL -> {}
-      case NON_TRIVIAL_MUL -> cBytes = BaseTheta.fromBytes32(res.getBytes32());
+      case NON_TRIVIAL_MUL -> cBytes = BaseTheta.fromBytes32(res().getBytes32());
       case EXPONENT_ZERO_RESULT -> setArraysForZeroResultCase();
       case EXPONENT_NON_ZERO_RESULT -> {
         this.exponentBits = new BigInteger(1, arg2.toArray()).toString(2);
@@ -116,10 +145,64 @@ public class MulOperation {
       case IOTA -> throw new RuntimeException("alu/mul regime was never set");
       default -> throw new IllegalStateException("[MUL module] Unexpected regime value: " + regime);
     }
+
+    final List<Step> steps = new ArrayList<>();
+    switch (regime) {
+      case EXPONENT_ZERO_RESULT -> steps.add(this.currentStep());
+      case EXPONENT_NON_ZERO_RESULT -> {
+        while (this.carryOn()) {
+          this.update();
+          steps.add(this.currentStep());
+        }
+      }
+      case TRIVIAL_MUL, NON_TRIVIAL_MUL -> {
+        this.setHsAndBits(UInt256.fromBytes(arg1), UInt256.fromBytes(arg2));
+        steps.add(this.currentStep());
+      }
+      default -> throw new RuntimeException("regime not supported");
+    }
+    this.steps = steps;
   }
 
-  public MulOperation clone() {
-    return new MulOperation(this.opCode, this.arg1, this.arg2);
+  private Step currentStep() {
+    return new Step(
+        this.bits.clone(),
+        // the C bytes are replaced, never updated in place, once the steps started
+        this.cBytes,
+        this.hBytes.copy(),
+        this.expAcc,
+        this.isExponentBitSet(),
+        this.isExponentInSource(),
+        this.squareAndMultiply,
+        this.getBitNum());
+  }
+
+  /**
+   * @return the result of the operation, computed on first use
+   */
+  BaseBytes res() {
+    if (this.res == null) {
+      this.res = getRes(opCode, arg1, arg2);
+    }
+    return this.res;
+  }
+
+  /**
+   * Count the trace lines of the operation without computing its witness.
+   *
+   * @return the number of lines of the operation
+   */
+  int lineCount() {
+    return switch (getRegime()) {
+      case TRIVIAL_MUL, NON_TRIVIAL_MUL, EXPONENT_ZERO_RESULT -> maxCt();
+      case EXPONENT_NON_ZERO_RESULT -> {
+        // a first multiplication by the base, then for every following exponent bit a squaring,
+        // followed by a multiplication by the base if the bit is set
+        final Word256 exponent = Word256.fromBytes(arg2);
+        yield maxCt() * (exponent.bitLength() + exponent.bitCount() - 1);
+      }
+      default -> throw new RuntimeException("regime not supported");
+    };
   }
 
   private static BaseBytes getRes(OpCode opCode, Bytes32 arg1, Bytes32 arg2) {
@@ -220,22 +303,7 @@ public class MulOperation {
   }
 
   public static int twoAdicity(final Bytes32 x) {
-    if (x.isZero()) {
-      // panic("twoAdicity was called on zero")
-      return 256;
-    }
-
-    String baseStringBase2 = x.toBigInteger().toString(2);
-
-    for (int i = 0; i < baseStringBase2.length(); i++) {
-      int j = baseStringBase2.length() - i - 1;
-      char zeroAscii = '0';
-      if (baseStringBase2.charAt(j) != zeroAscii) {
-        return i;
-      }
-    }
-
-    return 0;
+    return Word256.fromBytes(x).numberOfTrailingZeros();
   }
 
   public boolean isOneLineInstruction() {
@@ -252,7 +320,7 @@ public class MulOperation {
     }
 
     if (OpCode.EXP.equals(opCode)) {
-      if (res.isZero()) {
+      if (res().isZero()) {
         return Regime.EXPONENT_ZERO_RESULT;
       } else {
         return Regime.EXPONENT_NON_ZERO_RESULT;
@@ -266,6 +334,10 @@ public class MulOperation {
     return arg.compareTo(BigInteger.valueOf(1)) <= 0;
   }
 
+  public static boolean isTiny(Word256 arg) {
+    return arg.compareTo(Word256.ONE) <= 0;
+  }
+
   public boolean carryOn() {
     // first round is special
     if (index == 0 && !squareAndMultiply) {
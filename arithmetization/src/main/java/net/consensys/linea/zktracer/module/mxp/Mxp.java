@@ -15,10 +15,10 @@
 
 package net.consensys.linea.zktracer.module.mxp;
 
-import static net.consensys.linea.zktracer.types.Conversions.bigIntegerToBytes;
-
 import java.math.BigInteger;
+import java.util.Stack;
 
+import net.consensys.linea.zktracer.TracingMode;
 import net.consensys.linea.zktracer.container.stacked.list.StackedList;
 import net.consensys.linea.zktracer.module.Module;
 import net.consensys.linea.zktracer.module.ModuleTrace;
@@ -26,13 +26,20 @@ import net.consensys.linea.zktracer.module.hub.Hub;
 import net.consensys.linea.zktracer.opcode.gas.BillingRate;
 import net.consensys.linea.zktracer.opcode.gas.MxpType;
 import net.consensys.linea.zktracer.types.UnsignedByte;
-import org.apache.tuweni.bytes.Bytes32;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 
 /** Implementation of a {@link Module} for memory expansion. */
 public class Mxp implements Module {
+  private static final int ACC_COLUMNS = 7;
+  /** Accumulators of at most this many bytes are kept positive in a long */
+  private static final int MAX_LONG_ACC_BYTES = 7;
+
   /** A list of the operations to trace */
   private final StackedList<MxpData> chunks = new StackedList<>();
+  /** The line counts of each transaction, used instead of the operations when counting lines */
+  private final Stack<Integer> lineCounts = new Stack<>();
+  /** Whether only the line counts are recorded */
+  private final boolean countsOnly;
 
   private Hub hub;
 
@@ -42,14 +49,26 @@ public class Mxp implements Module {
   }
 
   public Mxp(Hub hub) {
+    this(hub, TracingMode.FULL);
+  }
+
+  public Mxp(Hub hub, TracingMode mode) {
     this.hub = hub;
+    this.countsOnly = mode == TracingMode.LINE_COUNT;
   }
 
   // TODO: update tests and eliminate this constructor
-  public Mxp() {}
+  public Mxp() {
+    this(null);
+  }
 
   @Override
   public void tracePreOpcode(MessageFrame frame) { // This will be renamed to tracePreOp
+    if (this.countsOnly) {
+      this.lineCounts.push(this.lineCounts.pop() + MxpData.lineCount(frame));
+      return;
+    }
+
     // create a data object to do the work
     this.chunks.add(new MxpData(frame, hub));
 
@@ -58,16 +77,21 @@ public class Mxp implements Module {
   }
 
   final void traceChunk(final MxpData chunk, int stamp, Trace.TraceBuilder trace) {
-    Bytes32 acc1Bytes32 = Bytes32.leftPad(bigIntegerToBytes(chunk.getAcc1()));
-    Bytes32 acc2Bytes32 = Bytes32.leftPad(bigIntegerToBytes(chunk.getAcc2()));
-    Bytes32 acc3Bytes32 = Bytes32.leftPad(bigIntegerToBytes(chunk.getAcc3()));
-    Bytes32 acc4Bytes32 = Bytes32.leftPad(bigIntegerToBytes(chunk.getAcc4()));
-    Bytes32 accABytes32 = Bytes32.leftPad(bigIntegerToBytes(chunk.getAccA()));
-    Bytes32 accWBytes32 = Bytes32.leftPad(bigIntegerToBytes(chunk.getAccW()));
-    Bytes32 accQBytes32 = Bytes32.leftPad(bigIntegerToBytes(chunk.getAccQ()));
-
-    int maxCt = chunk.maxCt();
-    int maxCtComplement = 32 - maxCt;
+    final int maxCt = chunk.maxCt();
+    final BigInteger offset1Hi = chunk.getOffset1().hi().toUnsignedBigInteger();
+    final BigInteger offset1Lo = chunk.getOffset1().lo().toUnsignedBigInteger();
+    final BigInteger offset2Hi = chunk.getOffset2().hi().toUnsignedBigInteger();
+    final BigInteger offset2Lo = chunk.getOffset2().lo().toUnsignedBigInteger();
+    final BigInteger size1Hi = chunk.getSize1().hi().toUnsignedBigInteger();
+    final BigInteger size1Lo = chunk.getSize1().lo().toUnsignedBigInteger();
+    final BigInteger size2Hi = chunk.getSize2().hi().toUnsignedBigInteger();
+    final BigInteger size2Lo = chunk.getSize2().lo().toUnsignedBigInteger();
+    final MxpType type = chunk.getOpCodeData().billing().type();
+    final BillingRate billingRate = chunk.getOpCodeData().billing().billingRate();
+    final long perUnit = chunk.getOpCodeData().billing().perUnit().cost();
+
+    // the accumulators are built up one byte per row
+    final long[] acc = new long[ACC_COLUMNS];
 
     for (int i = 0; i < maxCt; i++) {
       trace
@@ -78,50 +102,42 @@ public class Mxp implements Module {
           .noop(chunk.isNoOperation())
           .mxpx(chunk.isMxpx())
           .inst(BigInteger.valueOf(chunk.getOpCodeData().value()))
-          .mxpType1(chunk.getOpCodeData().billing().type() == MxpType.TYPE_1)
-          .mxpType2(chunk.getOpCodeData().billing().type() == MxpType.TYPE_2)
-          .mxpType3(chunk.getOpCodeData().billing().type() == MxpType.TYPE_3)
-          .mxpType4(chunk.getOpCodeData().billing().type() == MxpType.TYPE_4)
-          .mxpType5(chunk.getOpCodeData().billing().type() == MxpType.TYPE_5)
-          .gword(
-              BigInteger.valueOf(
-                  chunk.getOpCodeData().billing().billingRate() == BillingRate.BY_WORD
-                      ? chunk.getOpCodeData().billing().perUnit().cost()
-                      : 0))
-          .gbyte(
-              BigInteger.valueOf(
-                  chunk.getOpCodeData().billing().billingRate() == BillingRate.BY_BYTE
-                      ? chunk.getOpCodeData().billing().perUnit().cost()
-                      : 0))
+          .mxpType1(type == MxpType.TYPE_1)
+          .mxpType2(type == MxpType.TYPE_2)
+          .mxpType3(type == MxpType.TYPE_3)
+          .mxpType4(type == MxpType.TYPE_4)
+          .mxpType5(type == MxpType.TYPE_5)
+          .gword(BigInteger.valueOf(billingRate == BillingRate.BY_WORD ? perUnit : 0))
+          .gbyte(BigInteger.valueOf(billingRate == BillingRate.BY_BYTE ? perUnit : 0))
           .deploys(chunk.isDeploys())
-          .offset1Hi(chunk.getOffset1().hiBigInt())
-          .offset1Lo(chunk.getOffset1().loBigInt())
-          .offset2Hi(chunk.getOffset2().hiBigInt())
-          .offset2Lo(chunk.getOffset2().loBigInt())
-          .size1Hi(chunk.getSize1().hiBigInt())
-          .size1Lo(chunk.getSize1().loBigInt())
-          .size2Hi(chunk.getSize2().hiBigInt())
-          .size2Lo(chunk.getSize2().loBigInt())
+          .offset1Hi(offset1Hi)
+          .offset1Lo(offset1Lo)
+          .offset2Hi(offset2Hi)
+          .offset2Lo(offset2Lo)
+          .size1Hi(size1Hi)
+          .size1Lo(size1Lo)
+          .size2Hi(size2Hi)
+          .size2Lo(size2Lo)
           .maxOffset1(chunk.getMaxOffset1())
           .maxOffset2(chunk.getMaxOffset2())
           .maxOffset(chunk.getMaxOffset())
           .comp(chunk.isComp())
-          .acc1(acc1Bytes32.slice(maxCtComplement, 1 + i).toUnsignedBigInteger())
-          .acc2(acc2Bytes32.slice(maxCtComplement, 1 + i).toUnsignedBigInteger())
-          .acc3(acc3Bytes32.slice(maxCtComplement, 1 + i).toUnsignedBigInteger())
-          .acc4(acc4Bytes32.slice(maxCtComplement, 1 + i).toUnsignedBigInteger())
-          .accA(accABytes32.slice(maxCtComplement, 1 + i).toUnsignedBigInteger())
-          .accW(accWBytes32.slice(maxCtComplement, 1 + i).toUnsignedBigInteger())
-          .accQ(accQBytes32.slice(maxCtComplement, 1 + i).toUnsignedBigInteger())
-          .byte1(UnsignedByte.of(acc1Bytes32.get(maxCtComplement + i)))
-          .byte2(UnsignedByte.of(acc2Bytes32.get(maxCtComplement + i)))
-          .byte3(UnsignedByte.of(acc3Bytes32.get(maxCtComplement + i)))
-          .byte4(UnsignedByte.of(acc4Bytes32.get(maxCtComplement + i)))
-          .byteA(UnsignedByte.of(accABytes32.get(maxCtComplement + i)))
-          .byteW(UnsignedByte.of(accWBytes32.get(maxCtComplement + i)))
-          .byteQ(UnsignedByte.of(accQBytes32.get(maxCtComplement + i)))
-          .byteQq(chunk.getByteQQ()[i].toBigInteger())
-          .byteR(chunk.getByteR()[i].toBigInteger())
+          .acc1(accumulate(acc, chunk, MxpData.BYTE_1, i))
+          .acc2(accumulate(acc, chunk, MxpData.BYTE_2, i))
+          .acc3(accumulate(acc, chunk, MxpData.BYTE_3, i))
+          .acc4(accumulate(acc, chunk, MxpData.BYTE_4, i))
+          .accA(accumulate(acc, chunk, MxpData.BYTE_A, i))
+          .accW(accumulate(acc, chunk, MxpData.BYTE_W, i))
+          .accQ(accumulate(acc, chunk, MxpData.BYTE_Q, i))
+          .byte1(UnsignedByte.of(chunk.getByte(MxpData.BYTE_1, i)))
+          .byte2(UnsignedByte.of(chunk.getByte(MxpData.BYTE_2, i)))
+          .byte3(UnsignedByte.of(chunk.getByte(MxpData.BYTE_3, i)))
+          .byte4(UnsignedByte.of(chunk.getByte(MxpData.BYTE_4, i)))
+          .byteA(UnsignedByte.of(chunk.getByte(MxpData.BYTE_A, i)))
+          .byteW(UnsignedByte.of(chunk.getByte(MxpData.BYTE_W, i)))
+          .byteQ(UnsignedByte.of(chunk.getByte(MxpData.BYTE_Q, i)))
+          .byteQq(BigInteger.valueOf(chunk.getByte(MxpData.BYTE_QQ, i) & 0xff))
+          .byteR(BigInteger.valueOf(chunk.getByte(MxpData.BYTE_R, i) & 0xff))
           .words(BigInteger.valueOf(chunk.getWords()))
           .wordsNew(
               BigInteger.valueOf(
@@ -136,18 +152,43 @@ public class Mxp implements Module {
     }
   }
 
+  /**
+   * Append the byte of the given row to the running value of an accumulator column. Only the
+   * 17-row memory expansion exceptions outgrow a long, their accumulators are then rebuilt from
+   * the bytes.
+   */
+  private static BigInteger accumulate(
+      final long[] acc, final MxpData chunk, final int column, final int ct) {
+    if (ct < MAX_LONG_ACC_BYTES) {
+      acc[column] = (acc[column] << 8) | (chunk.getByte(column, ct) & 0xff);
+      return BigInteger.valueOf(acc[column]);
+    }
+    return chunk.getAccumulator(column, ct);
+  }
+
   @Override
   public void enterTransaction() {
     this.chunks.enter();
+    this.lineCounts.push(0);
   }
 
   @Override
   public void popTransaction() {
     this.chunks.pop();
+    this.lineCounts.pop();
+  }
+
+  @Override
+  public void reset() {
+    this.chunks.clear();
+    this.lineCounts.clear();
   }
 
   @Override
   public int lineCount() {
+    if (this.countsOnly) {
+      return this.lineCounts.stream().mapToInt(x -> x).sum();
+    }
     return this.chunks.stream().mapToInt(MxpData::maxCt).sum();
   }
 
@@ -20,8 +20,8 @@ import static org.hyperledger.besu.evm.internal.Words.clampedAdd;
 import static org.hyperledger.besu.evm.internal.Words.clampedMultiply;
 
 import java.math.BigInteger;
-import java.util.Arrays;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import net.consensys.linea.zktracer.module.hub.Hub;
 import net.consensys.linea.zktracer.opcode.OpCode;
@@ -30,26 +30,40 @@ import net.consensys.linea.zktracer.opcode.OpCodes;
 import net.consensys.linea.zktracer.opcode.gas.BillingRate;
 import net.consensys.linea.zktracer.opcode.gas.GasConstants;
 import net.consensys.linea.zktracer.opcode.gas.MxpType;
-import net.consensys.linea.zktracer.types.EWord;
-import net.consensys.linea.zktracer.types.UnsignedByte;
-import org.apache.tuweni.bytes.Bytes32;
-import org.apache.tuweni.units.bigints.UInt256;
+import net.consensys.linea.zktracer.types.Word256;
 import org.hyperledger.besu.evm.frame.MessageFrame;
-import org.hyperledger.besu.evm.internal.Words;
 
+/**
+ * The data of a single memory expansion.
+ *
+ * <p>Operands are kept as primitive {@link Word256}s and the small accumulators as {@code long}s;
+ * the byte decomposition columns are computed once and stored row-major in a single byte array,
+ * from which {@link Mxp} derives the accumulator columns while tracing.
+ */
 @Getter
 public class MxpData {
-  public static final BigInteger TWO_POW_128 = BigInteger.ONE.shiftLeft(128);
   public static final BigInteger TWO_POW_32 = BigInteger.ONE.shiftLeft(32);
 
+  // the byte decomposition columns, in the order of ACC_1 ... ACC_Q, then BYTE_QQ and BYTE_R
+  static final int BYTE_1 = 0;
+  static final int BYTE_2 = 1;
+  static final int BYTE_3 = 2;
+  static final int BYTE_4 = 3;
+  static final int BYTE_A = 4;
+  static final int BYTE_W = 5;
+  static final int BYTE_Q = 6;
+  static final int BYTE_QQ = 7;
+  static final int BYTE_R = 8;
+  private static final int BYTE_COLUMNS = 9;
+
   // constants from protocol_params.go
 
   private final OpCodeData opCodeData;
   private final int contextNumber;
-  private EWord offset1 = EWord.ZERO;
-  private EWord offset2 = EWord.ZERO;
-  private EWord size1 = EWord.ZERO;
-  private EWord size2 = EWord.ZERO;
+  private Word256 offset1 = Word256.ZERO;
+  private Word256 offset2 = Word256.ZERO;
+  private Word256 size1 = Word256.ZERO;
+  private Word256 size2 = Word256.ZERO;
   private BigInteger maxOffset1 = BigInteger.ZERO;
   private BigInteger maxOffset2 = BigInteger.ZERO;
   private BigInteger maxOffset = BigInteger.ZERO;
@@ -57,22 +71,12 @@ public class MxpData {
   private boolean roob;
   private boolean noOperation;
   private boolean comp;
-  private BigInteger acc1 = BigInteger.ZERO;
-  private BigInteger acc2 = BigInteger.ZERO;
-  private BigInteger acc3 = BigInteger.ZERO;
-  private BigInteger acc4 = BigInteger.ZERO;
-  private BigInteger accA = BigInteger.ZERO;
-  private BigInteger accW = BigInteger.ZERO;
-  private BigInteger accQ = BigInteger.ZERO;
-  private UnsignedByte[] byte1;
-  private UnsignedByte[] byte2;
-  private UnsignedByte[] byte3;
-  private UnsignedByte[] byte4;
-  private UnsignedByte[] byteA;
-  private UnsignedByte[] byteW;
-  private UnsignedByte[] byteQ;
-  private UnsignedByte[] byteQQ;
-  private UnsignedByte[] byteR;
+  // on the non-trivial path, the maximal offset and the size fit in 32 bits
+  private long accA = 0;
+  private long acc4 = 0;
+  private long accW = 0;
+  private long accQ = 0;
+  @Getter(AccessLevel.NONE) private final byte[] bytes;
   private boolean expands;
   private final MxpType typeMxp;
   private final long words;
@@ -84,15 +88,26 @@ public class MxpData {
   private final boolean deploys;
 
   public MxpData(final MessageFrame frame, final Hub hub) {
+    this(frame, hub.currentFrame().contextNumber(), hub.currentFrame().underDeployment(), true);
+  }
+
+  /**
+   * @param withColumns whether to compute the columns, or only what determines the line count
+   */
+  private MxpData(
+      final MessageFrame frame,
+      final int contextNumber,
+      final boolean deploys,
+      final boolean withColumns) {
     this.opCodeData = OpCodes.of(frame.getCurrentOperation().getOpcode());
-    this.contextNumber = hub.currentFrame().contextNumber();
+    this.contextNumber = contextNumber;
     this.typeMxp = opCodeData.billing().type();
 
     this.words = frame.memoryWordSize();
     this.wordsNew = frame.memoryWordSize();
     this.cMem = memoryCost(frame.memoryWordSize());
     this.cMemNew = memoryCost(frame.memoryWordSize());
-    this.deploys = hub.currentFrame().underDeployment();
+    this.deploys = deploys;
 
     setOffsetsAndSizes(frame);
     setRoob();
@@ -100,14 +115,17 @@ public class MxpData {
     setMaxOffset1and2();
     setMaxOffsetAndMxpx();
 
-    setInitializeByteArrays();
+    if (!withColumns) {
+      this.bytes = new byte[0];
+      return;
+    }
+
+    this.bytes = new byte[BYTE_COLUMNS * maxCt()];
 
     setAccAAndFirstTwoBytesOfByteR();
     setExpands();
     setWordsAndCMem(frame);
     setComp();
-    setAcc1and2();
-    setAcc3();
     setAcc4();
     setAccWAndLastTwoBytesOfByteR();
     setAccQAndByteQQ();
@@ -115,25 +133,15 @@ public class MxpData {
     setCosts();
   }
 
-  private void setInitializeByteArrays() {
-    byte1 = new UnsignedByte[maxCt()];
-    byte2 = new UnsignedByte[maxCt()];
-    byte3 = new UnsignedByte[maxCt()];
-    byte4 = new UnsignedByte[maxCt()];
-    byteA = new UnsignedByte[maxCt()];
-    byteW = new UnsignedByte[maxCt()];
-    byteQ = new UnsignedByte[maxCt()];
-    byteQQ = new UnsignedByte[maxCt()];
-    byteR = new UnsignedByte[maxCt()];
-    Arrays.fill(byte1, UnsignedByte.of(0));
-    Arrays.fill(byte2, UnsignedByte.of(0));
-    Arrays.fill(byte3, UnsignedByte.of(0));
-    Arrays.fill(byte4, UnsignedByte.of(0));
-    Arrays.fill(byteA, UnsignedByte.of(0));
-    Arrays.fill(byteW, UnsignedByte.of(0));
-    Arrays.fill(byteQ, UnsignedByte.of(0));
-    Arrays.fill(byteQQ, UnsignedByte.of(0));
-    Arrays.fill(byteR, UnsignedByte.of(0));
+  /**
+   * Count the trace lines of the memory expansion of the instruction about to be executed, without
+   * computing its columns.
+   *
+   * @param frame the frame executing the instruction
+   * @return the number of lines of the memory expansion
+   */
+  static int lineCount(final MessageFrame frame) {
+    return new MxpData(frame, 0, false, false).maxCt();
   }
 
   private void setOffsetsAndSizes(final MessageFrame frame) {
@@ -141,53 +149,58 @@ public class MxpData {
 
     switch (opCode) {
       case SHA3, LOG0, LOG1, LOG2, LOG3, LOG4, RETURN, REVERT -> {
-        offset1 = EWord.of(frame.getStackItem(0));
-        size1 = EWord.of(frame.getStackItem(1));
+        offset1 = Word256.fromBytes(frame.getStackItem(0));
+        size1 = Word256.fromBytes(frame.getStackItem(1));
       }
       case MSIZE -> {}
       case CALLDATACOPY, CODECOPY, RETURNDATACOPY -> {
-        offset1 = EWord.of(frame.getStackItem(0));
-        size1 = EWord.of(frame.getStackItem(2));
+        offset1 = Word256.fromBytes(frame.getStackItem(0));
+        size1 = Word256.fromBytes(frame.getStackItem(2));
       }
       case EXTCODECOPY -> {
-        offset1 = EWord.of(frame.getStackItem(1));
-        size1 = EWord.of(frame.getStackItem(3));
+        offset1 = Word256.fromBytes(frame.getStackItem(1));
+        size1 = Word256.fromBytes(frame.getStackItem(3));
       }
-      case MLOAD, MSTORE, MSTORE8 -> offset1 = EWord.of(frame.getStackItem(0));
+      case MLOAD, MSTORE, MSTORE8 -> offset1 = Word256.fromBytes(frame.getStackItem(0));
       case CREATE, CREATE2 -> {
-        offset1 = EWord.of(frame.getStackItem(1));
-        size1 = EWord.of(frame.getStackItem(2));
+        offset1 = Word256.fromBytes(frame.getStackItem(1));
+        size1 = Word256.fromBytes(frame.getStackItem(2));
       }
       case CALL, CALLCODE -> {
-        offset1 = EWord.of(frame.getStackItem(3));
-        size1 = EWord.of(frame.getStackItem(4));
-        offset2 = EWord.of(frame.getStackItem(5));
-        size2 = EWord.of(frame.getStackItem(6));
+        offset1 = Word256.fromBytes(frame.getStackItem(3));
+        size1 = Word256.fromBytes(frame.getStackItem(4));
+        offset2 = Word256.fromBytes(frame.getStackItem(5));
+        size2 = Word256.fromBytes(frame.getStackItem(6));
       }
       case DELEGATECALL, STATICCALL -> {
-        offset1 = EWord.of(frame.getStackItem(2));
-        size1 = EWord.of(frame.getStackItem(3));
-        offset2 = EWord.of(frame.getStackItem(4));
-        size2 = EWord.of(frame.getStackItem(5));
+        offset1 = Word256.fromBytes(frame.getStackItem(2));
+        size1 = Word256.fromBytes(frame.getStackItem(3));
+        offset2 = Word256.fromBytes(frame.getStackItem(4));
+        size2 = Word256.fromBytes(frame.getStackItem(5));
       }
       default -> throw new IllegalStateException("Unexpected value: " + opCode);
     }
   }
 
+  /** Whether a word is at least 2^128. */
+  private static boolean isLarge(final Word256 x) {
+    return x.bitLength() > 128;
+  }
+
+  /** The same as {@link org.hyperledger.besu.evm.internal.Words#clampedToLong}. */
+  private static long clampedToLong(final Word256 x) {
+    return x.fitsLong() && x.limb(0) >= 0 ? x.limb(0) : Long.MAX_VALUE;
+  }
+
   /** get ridiculously out of bounds. */
   protected void setRoob() {
     roob =
         switch (typeMxp) {
-          case TYPE_2, TYPE_3 -> offset1.toBigInteger().compareTo(TWO_POW_128) >= 0;
-          case TYPE_4 -> size1.toBigInteger().compareTo(TWO_POW_128) >= 0
-              || (offset1.toBigInteger().compareTo(TWO_POW_128) >= 0
-                  && !size1.toBigInteger().equals(BigInteger.ZERO));
-          case TYPE_5 -> size1.toBigInteger().compareTo(TWO_POW_128) >= 0
-              || (offset1.toBigInteger().compareTo(TWO_POW_128) >= 0
-                  && !size1.toBigInteger().equals(BigInteger.ZERO))
-              || (size2.toBigInteger().compareTo(TWO_POW_128) >= 0
-                  || (offset2.toBigInteger().compareTo(TWO_POW_128) >= 0
-                      && !size2.toBigInteger().equals(BigInteger.ZERO)));
+          case TYPE_2, TYPE_3 -> isLarge(offset1);
+          case TYPE_4 -> isLarge(size1) || (isLarge(offset1) && !size1.isZero());
+          case TYPE_5 -> isLarge(size1)
+              || (isLarge(offset1) && !size1.isZero())
+              || (isLarge(size2) || (isLarge(offset2) && !size2.isZero()));
           default -> false;
         };
   }
@@ -210,25 +223,32 @@ public class MxpData {
   protected void setMaxOffset1and2() {
     if (getMxpExecutionPath() != mxpExecutionPath.TRIVIAL) {
       switch (typeMxp) {
-        case TYPE_2 -> maxOffset1 = offset1.toBigInteger().add(BigInteger.valueOf(31));
-        case TYPE_3 -> maxOffset1 = offset1.toBigInteger();
+        case TYPE_2 -> maxOffset1 = offset1.toUnsignedBigInteger().add(BigInteger.valueOf(31));
+        case TYPE_3 -> maxOffset1 = offset1.toUnsignedBigInteger();
         case TYPE_4 -> {
-          if (!size1.toBigInteger().equals(BigInteger.ZERO)) {
-            maxOffset1 = offset1.toBigInteger().add(size1.toBigInteger()).subtract(BigInteger.ONE);
+          if (!size1.isZero()) {
+            maxOffset1 = lastByteOffset(offset1, size1);
           }
         }
         case TYPE_5 -> {
-          if (!size1.toBigInteger().equals(BigInteger.ZERO)) {
-            maxOffset1 = offset1.toBigInteger().add(size1.toBigInteger()).subtract(BigInteger.ONE);
+          if (!size1.isZero()) {
+            maxOffset1 = lastByteOffset(offset1, size1);
           }
-          if (!size2.toBigInteger().equals(BigInteger.ZERO)) {
-            maxOffset2 = offset2.toBigInteger().add(size2.toBigInteger()).subtract(BigInteger.ONE);
+          if (!size2.isZero()) {
+            maxOffset2 = lastByteOffset(offset2, size2);
           }
         }
       }
     }
   }
 
+  private static BigInteger lastByteOffset(final Word256 offset, final Word256 size) {
+    return offset
+        .toUnsignedBigInteger()
+        .add(size.toUnsignedBigInteger())
+        .subtract(BigInteger.ONE);
+  }
+
   /** set max offset and mxpx. */
   protected void setMaxOffsetAndMxpx() {
     if (roob || noOperation) {
@@ -242,7 +262,7 @@ public class MxpData {
 
   public void setExpands() {
     if (!roob && !noOperation && !mxpx) {
-      expands = accA.compareTo(BigInteger.valueOf(words)) > 0;
+      expands = accA > words;
     }
   }
 
@@ -277,54 +297,55 @@ public class MxpData {
   // This should translate into code page 12, point 5?
   protected void setAccAAndFirstTwoBytesOfByteR() {
     if (this.getMxpExecutionPath() == mxpExecutionPath.NON_TRIVIAL) {
-      BigInteger maxOffsetPlusOne = maxOffset.add(BigInteger.ONE);
-      accA = divRoundedUpBigInteger(maxOffsetPlusOne, BigInteger.valueOf(32));
-      BigInteger diff = accA.multiply(BigInteger.valueOf(32)).subtract(maxOffsetPlusOne);
-      Bytes32 diffBytes = Bytes32.leftPad(UInt256.valueOf(diff));
-
-      UnsignedByte r = UnsignedByte.of(diffBytes.get(31));
-      int rAsInt = r.toInteger();
-      byteR[0] = UnsignedByte.of(rAsInt + 224);
-      byteR[1] = UnsignedByte.of(rAsInt);
+      final long maxOffsetPlusOne = maxOffset.longValueExact() + 1;
+      accA = (maxOffsetPlusOne + 31) / 32;
+      // r in [0,31]
+      final int r = (int) (accA * 32 - maxOffsetPlusOne);
+      setByte(BYTE_R, 0, r + 224);
+      setByte(BYTE_R, 1, r);
     }
   }
 
-  public BigInteger divRoundedUpBigInteger(BigInteger a, BigInteger b) {
-    return a.add(b.subtract(BigInteger.ONE)).divide(b);
+  private BigInteger acc1() {
+    if (roob) {
+      return BigInteger.ZERO;
+    }
+    if (mxpx) {
+      return maxOffset1.compareTo(TWO_POW_32) >= 0
+          ? maxOffset1.subtract(TWO_POW_32)
+          : BigInteger.ZERO;
+    }
+    return maxOffset1;
   }
 
-  protected void setAcc1and2() {
+  private BigInteger acc2() {
     if (roob) {
-      return;
+      return BigInteger.ZERO;
     }
     if (mxpx) {
       if (maxOffset1.compareTo(TWO_POW_32) >= 0) {
-        acc1 = maxOffset1.subtract(TWO_POW_32);
-      } else {
-        assert maxOffset2.compareTo(TWO_POW_32) >= 0;
-        acc2 = maxOffset2.subtract(TWO_POW_32);
+        return BigInteger.ZERO;
       }
-    } else {
-      acc1 = maxOffset1;
-      acc2 = maxOffset2;
+      assert maxOffset2.compareTo(TWO_POW_32) >= 0;
+      return maxOffset2.subtract(TWO_POW_32);
     }
+    return maxOffset2;
   }
 
-  protected void setAcc3() {
+  private BigInteger acc3() {
     if (comp) {
-      acc3 = maxOffset1.subtract(maxOffset2);
+      return maxOffset1.subtract(maxOffset2);
     } else {
-      acc3 = maxOffset2.subtract(maxOffset1);
-      acc3 = acc3.subtract(BigInteger.ONE);
+      return maxOffset2.subtract(maxOffset1).subtract(BigInteger.ONE);
     }
   }
 
   protected void setAcc4() {
     if (this.getMxpExecutionPath() == mxpExecutionPath.NON_TRIVIAL) {
       if (expands) {
-        acc4 = accA.subtract(BigInteger.valueOf(words + 1));
+        acc4 = accA - (words + 1);
       } else {
-        acc4 = BigInteger.valueOf(words).subtract(accA);
+        acc4 = words - accA;
       }
     }
   }
@@ -336,15 +357,13 @@ public class MxpData {
         return;
       }
 
-      accW = size1.toBigInteger().add(BigInteger.valueOf(31)).divide(BigInteger.valueOf(32));
-
-      BigInteger r = accW.multiply(BigInteger.valueOf(32)).subtract(size1.toBigInteger());
+      final long size = size1.limb(0);
+      accW = (size + 31) / 32;
 
       // r in [0,31]
-      UnsignedByte rByte = UnsignedByte.of(r.toByteArray()[r.toByteArray().length - 1]);
-      int rByteAsInt = rByte.toInteger();
-      byteR[2] = UnsignedByte.of(rByteAsInt + 224);
-      byteR[3] = rByte;
+      final int r = (int) (accW * 32 - size);
+      setByte(BYTE_R, 2, r + 224);
+      setByte(BYTE_R, 3, r);
     }
   }
 
@@ -382,39 +401,74 @@ public class MxpData {
   protected void setAccQAndByteQQNonTrivialCase() {
     long square = wordsNew * wordsNew; // ACC_A
 
-    long quotient = square / 512;
-    long remainder = square % 512;
+    long quotient = square / 512; // q'
+    long remainder = square % 512; // r'
 
-    accQ = BigInteger.valueOf(quotient % (1L << 32));
+    accQ = quotient % (1L << 32);
 
-    Bytes32 quotientBytes = UInt256.valueOf(quotient); // q'
-    Bytes32 remainderBytes = UInt256.valueOf(remainder); // r'
-
-    byteQQ[0] = UnsignedByte.of(quotientBytes.get(quotientBytes.size() - 6));
-    byteQQ[1] = UnsignedByte.of(quotientBytes.get(quotientBytes.size() - 5));
-    byteQQ[2] = UnsignedByte.of(remainderBytes.get(quotientBytes.size() - 2));
-    byteQQ[3] = UnsignedByte.of(remainderBytes.get(quotientBytes.size() - 1));
+    setByte(BYTE_QQ, 0, (int) (quotient >>> 40));
+    setByte(BYTE_QQ, 1, (int) (quotient >>> 32));
+    setByte(BYTE_QQ, 2, (int) (remainder >>> 8));
+    setByte(BYTE_QQ, 3, (int) remainder);
   }
 
+  /** Decompose the accumulators into their last {@link #maxCt()} bytes, most significant first. */
   protected void setBytes() {
-    int maxCt = maxCt();
-    Bytes32 b1 = UInt256.valueOf(acc1);
-    Bytes32 b2 = UInt256.valueOf(acc2);
-    Bytes32 b3 = UInt256.valueOf(acc3);
-    Bytes32 b4 = UInt256.valueOf(acc4);
-    Bytes32 bA = UInt256.valueOf(accA);
-    Bytes32 bW = UInt256.valueOf(accW);
-    Bytes32 bQ = UInt256.valueOf(accQ);
+    setBytes(BYTE_1, acc1());
+    setBytes(BYTE_2, acc2());
+    setBytes(BYTE_3, acc3());
+    setBytes(BYTE_4, acc4);
+    setBytes(BYTE_A, accA);
+    setBytes(BYTE_W, accW);
+    setBytes(BYTE_Q, accQ);
+  }
+
+  private void setBytes(final int column, final BigInteger value) {
+    final byte[] valueBytes = value.toByteArray();
+    final int maxCt = maxCt();
+    for (int i = 0; i < maxCt; i++) {
+      final int j = valueBytes.length - maxCt + i;
+      setByte(column, i, j >= 0 ? valueBytes[j] : 0);
+    }
+  }
+
+  private void setBytes(final int column, final long value) {
+    final int maxCt = maxCt();
     for (int i = 0; i < maxCt; i++) {
+      final int shift = 8 * (maxCt - 1 - i);
+      setByte(column, i, shift < 64 ? (int) (value >>> shift) : 0);
+    }
+  }
+
+  private void setByte(final int column, final int ct, final int value) {
+    bytes[ct * BYTE_COLUMNS + column] = (byte) value;
+  }
+
+  /**
+   * Returns a byte of a byte decomposition column.
+   *
+   * @param column the column, e.g. {@link #BYTE_1}
+   * @param ct the row within this memory expansion
+   * @return the byte
+   */
+  byte getByte(final int column, final int ct) {
+    return bytes[ct * BYTE_COLUMNS + column];
+  }
 
-      byte1[i] = UnsignedByte.of(b1.get(b1.size() - 1 - maxCt + i));
-      byte2[i] = UnsignedByte.of(b2.get(b2.size() - 1 - maxCt + i));
-      byte3[i] = UnsignedByte.of(b3.get(b3.size() - 1 - maxCt + i));
-      byte4[i] = UnsignedByte.of(b4.get(b4.size() - 1 - maxCt + i));
-      byteA[i] = UnsignedByte.of(bA.get(bA.size() - 1 - maxCt + i));
-      byteW[i] = UnsignedByte.of(bW.get(bW.size() - 1 - maxCt + i));
-      byteQ[i] = UnsignedByte.of(bQ.get(bQ.size() - 1 - maxCt + i));
+  /**
+   * Returns the accumulator matching a byte decomposition column, i.e. the value of its first
+   * ct + 1 bytes.
+   *
+   * @param column the column, e.g. {@link #BYTE_1}
+   * @param ct the row within this memory expansion
+   * @return the value of the accumulator
+   */
+  BigInteger getAccumulator(final int column, final int ct) {
+    final byte[] prefix = new byte[ct + 1];
+    for (int i = 0; i <= ct; i++) {
+      prefix[i] = getByte(column, i);
     }
+    return new BigInteger(1, prefix);
   }
 
   private void setWordsAndCMem(final MessageFrame frame) {
@@ -425,19 +479,16 @@ public class MxpData {
   private void setWordsNew(final MessageFrame frame) {
     if (getMxpExecutionPath() == MxpData.mxpExecutionPath.NON_TRIVIAL && expands) {
       switch (getTypeMxp()) {
-        case TYPE_1 -> wordsNew = frame.calculateMemoryExpansion(Words.clampedToLong(offset1), 0);
-        case TYPE_2 -> wordsNew = frame.calculateMemoryExpansion(Words.clampedToLong(offset1), 32);
-        case TYPE_3 -> wordsNew = frame.calculateMemoryExpansion(Words.clampedToLong(offset1), 1);
+        case TYPE_1 -> wordsNew = frame.calculateMemoryExpansion(clampedToLong(offset1), 0);
+        case TYPE_2 -> wordsNew = frame.calculateMemoryExpansion(clampedToLong(offset1), 32);
+        case TYPE_3 -> wordsNew = frame.calculateMemoryExpansion(clampedToLong(offset1), 1);
         case TYPE_4 -> wordsNew =
-            frame.calculateMemoryExpansion(
-                Words.clampedToLong(offset1), Words.clampedToLong(size1));
+            frame.calculateMemoryExpansion(clampedToLong(offset1), clampedToLong(size1));
         case TYPE_5 -> {
           long wordsNew1 =
-              frame.calculateMemoryExpansion(
-                  Words.clampedToLong(offset1), Words.clampedToLong(size1));
+              frame.calculateMemoryExpansion(clampedToLong(offset1), clampedToLong(size1));
           long wordsNew2 =
-              frame.calculateMemoryExpansion(
-                  Words.clampedToLong(offset2), Words.clampedToLong(size2));
+              frame.calculateMemoryExpansion(clampedToLong(offset2), clampedToLong(size2));
           wordsNew = Math.max(wordsNew1, wordsNew2);
         }
       }
@@ -453,16 +504,16 @@ public class MxpData {
   private void setCosts() {
     if (getMxpExecutionPath() == mxpExecutionPath.NON_TRIVIAL) {
       quadCost = cMemNew - cMem;
-      linCost = getLinCost(opCodeData, Words.clampedToLong(size1));
+      linCost = getLinCost(opCodeData, clampedToLong(size1));
     }
   }
 
   long getEffectiveLinCost() {
     if (opCodeData.mnemonic() != OpCode.RETURN) {
-      return getLinCost(opCodeData, Words.clampedToLong(size1));
+      return getLinCost(opCodeData, clampedToLong(size1));
     } else {
       if (deploys) {
-        return getLinCost(opCodeData, Words.clampedToLong(size1));
+        return getLinCost(opCodeData, clampedToLong(size1));
       } else {
         return 0;
       }
@@ -44,6 +44,11 @@ public final class Ecadd implements Module {
     counts.pop();
   }
 
+  @Override
+  public void reset() {
+    this.counts.clear();
+  }
+
   @Override
   public void tracePreOpcode(MessageFrame frame) {
     final OpCode opCode = OpCode.of(frame.getCurrentOperation().getOpcode());
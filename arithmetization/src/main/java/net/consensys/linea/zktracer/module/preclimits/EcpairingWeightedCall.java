@@ -36,6 +36,9 @@ public final class EcpairingWeightedCall implements Module {
   @Override
   public void popTransaction() {}
 
+  @Override
+  public void reset() {}
+
   @Override
   public int lineCount() {
     return ecpairingCall.counts.stream().mapToInt(EcpairingLimit::nMillerLoop).sum();
@@ -18,16 +18,16 @@ package net.consensys.linea.zktracer.module.rlpAddr;
 import static net.consensys.linea.zktracer.module.rlputils.Pattern.bitDecomposition;
 import static net.consensys.linea.zktracer.module.rlputils.Pattern.byteCounting;
 import static net.consensys.linea.zktracer.module.rlputils.Pattern.padToGivenSizeWithLeftZero;
-import static net.consensys.linea.zktracer.module.rlputils.Pattern.padToGivenSizeWithRightZero;
+import static net.consensys.linea.zktracer.module.rlputils.Pattern.powerOf256;
+import static net.consensys.linea.zktracer.module.rlputils.Pattern.rightPaddedToUnsignedBigInteger;
 import static net.consensys.linea.zktracer.types.Conversions.bigIntegerToBytes;
-import static org.hyperledger.besu.crypto.Hash.keccak256;
-import static org.hyperledger.besu.evm.internal.Words.clampedToLong;
 
 import java.math.BigInteger;
 
 import net.consensys.linea.zktracer.container.stacked.list.StackedList;
 import net.consensys.linea.zktracer.module.Module;
 import net.consensys.linea.zktracer.module.ModuleTrace;
+import net.consensys.linea.zktracer.module.hub.ContractCreation;
 import net.consensys.linea.zktracer.module.rlputils.BitDecOutput;
 import net.consensys.linea.zktracer.module.rlputils.ByteCountAndPowerOutput;
 import net.consensys.linea.zktracer.opcode.OpCode;
@@ -36,7 +36,6 @@ import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Transaction;
-import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.worldstate.WorldView;
 
 public class RlpAddr implements Module {
@@ -62,48 +61,56 @@ public class RlpAddr implements Module {
     this.chunkList.pop();
   }
 
+  @Override
+  public void reset() {
+    this.chunkList.clear();
+  }
+
   @Override
   public void traceStartTx(WorldView world, Transaction tx) {
     if (tx.getTo().isEmpty()) {
-      RlpAddrChunk chunk = new RlpAddrChunk(OpCode.CREATE, tx.getNonce(), tx.getSender());
+      RlpAddrChunk chunk =
+          new RlpAddrChunk(
+              OpCode.CREATE,
+              tx.getNonce(),
+              tx.getSender(),
+              Address.contractAddress(tx.getSender(), tx.getNonce()));
       this.chunkList.add(chunk);
     }
   }
 
-  @Override
-  public void tracePreOpcode(MessageFrame frame) {
-    OpCode opcode = OpCode.of(frame.getCurrentOperation().getOpcode());
-    switch (opcode) {
-      case CREATE -> {
-        final Address currentAddress = frame.getRecipientAddress();
-        RlpAddrChunk chunk =
-            new RlpAddrChunk(
-                OpCode.CREATE,
-                frame
-                    .getWorldUpdater()
-                    .getAccount(currentAddress)
-                    .getNonce(), // TODO: use the method done by @Lorenzo in OOB module
-                currentAddress);
-        this.chunkList.add(chunk);
-      }
-      case CREATE2 -> {
-        final long offset = clampedToLong(frame.getStackItem(1));
-        final long length = clampedToLong(frame.getStackItem(2));
-        final Bytes initCode = frame.shadowReadMemory(offset, length);
-        final Bytes32 salt = Bytes32.leftPad(frame.getStackItem(3));
-        final Bytes32 hash = keccak256(initCode);
-
-        RlpAddrChunk chunk =
-            new RlpAddrChunk(OpCode.CREATE2, frame.getRecipientAddress(), salt, hash);
-        this.chunkList.add(chunk);
-      }
-    }
+  /**
+   * Trace the address derivation of a CREATE or CREATE2 resolved by the hub.
+   *
+   * @param creation the resolved contract creation
+   */
+  public void traceContractCreation(ContractCreation creation) {
+    final RlpAddrChunk chunk =
+        switch (creation.opCode()) {
+          case CREATE -> new RlpAddrChunk(
+              OpCode.CREATE,
+              creation.creatorNonce(),
+              creation.creator(),
+              creation.deployedAddress());
+          case CREATE2 -> new RlpAddrChunk(
+              OpCode.CREATE2,
+              creation.creator(),
+              creation.salt().orElseThrow(),
+              creation.initCodeHash().orElseThrow(),
+              creation.deployedAddress());
+          default -> throw new IllegalArgumentException(
+              "not a contract creation: " + creation.opCode());
+        };
+    this.chunkList.add(chunk);
   }
 
   private void traceCreate2(
-      int stamp, Address address, Bytes32 salt, Bytes32 keccak, Trace.TraceBuilder trace) {
-    final Address deployementAddress =
-        Address.extract(keccak256(Bytes.concatenate(CREATE2_SHIFT, address, salt, keccak)));
+      int stamp,
+      Address address,
+      Bytes32 salt,
+      Bytes32 keccak,
+      Address deployementAddress,
+      Trace.TraceBuilder trace) {
 
     for (int ct = 0; ct < 6; ct++) {
       trace
@@ -126,9 +133,8 @@ public class RlpAddr implements Module {
       switch (ct) {
         case 0 -> {
           trace.limb(
-              padToGivenSizeWithRightZero(
-                      Bytes.concatenate(CREATE2_SHIFT, address.slice(0, 4)), LLARGE)
-                  .toUnsignedBigInteger());
+              rightPaddedToUnsignedBigInteger(
+                  Bytes.concatenate(CREATE2_SHIFT, address.slice(0, 4)), LLARGE));
           trace.nBytes(BigInteger.valueOf(5));
         }
         case 1 -> trace
@@ -163,7 +169,12 @@ public class RlpAddr implements Module {
     }
   }
 
-  private void traceCreate(int stamp, BigInteger nonce, Address addr, Trace.TraceBuilder trace) {
+  private void traceCreate(
+      int stamp,
+      BigInteger nonce,
+      Address addr,
+      Address deployementAddress,
+      Trace.TraceBuilder trace) {
     final int RECIPE1_CT_MAX = 8;
 
     Bytes nonceShifted = padToGivenSizeWithLeftZero(bigIntegerToBytes(nonce), RECIPE1_CT_MAX);
@@ -199,14 +210,11 @@ public class RlpAddr implements Module {
             Bytes.concatenate(
                 bigIntegerToBytes(
                     BigInteger.valueOf(
-                        128 + byteCounting.accByteSizeList().get(RECIPE1_CT_MAX - 1))),
+                        128 + byteCounting.accByteSize(RECIPE1_CT_MAX - 1))),
                 bigIntegerToBytes(nonce));
       }
     }
 
-    // Keccak of the Rlp to get the deployment address
-    final Address deployementAddress = Address.contractAddress(addr, nonce.longValueExact());
-
     for (int ct = 0; ct < 8; ct++) {
       trace
           .stamp(BigInteger.valueOf(stamp))
@@ -221,10 +229,10 @@ public class RlpAddr implements Module {
           .counter(BigInteger.valueOf(ct))
           .byte1(UnsignedByte.of(nonceShifted.get(ct)))
           .acc(nonceShifted.slice(0, ct + 1).toUnsignedBigInteger())
-          .accBytesize(BigInteger.valueOf(byteCounting.accByteSizeList().get(ct)))
-          .power(byteCounting.powerList().get(ct).divide(BigInteger.valueOf(256)))
-          .bit1(bitDecomposition.bitDecList().get(ct))
-          .bitAcc(UnsignedByte.of(bitDecomposition.bitAccList().get(ct)))
+          .accBytesize(BigInteger.valueOf(byteCounting.accByteSize(ct)))
+          .power(powerOf256(byteCounting.powerExponent(ct) - 1))
+          .bit1(bitDecomposition.bitDec(ct))
+          .bitAcc(UnsignedByte.of(bitDecomposition.bitAcc(ct)))
           .tinyNonZeroNonce(tinyNonZeroNonce);
 
       switch (ct) {
@@ -236,23 +244,17 @@ public class RlpAddr implements Module {
         case 4 -> trace
             .lc(true)
             .limb(
-                padToGivenSizeWithRightZero(
-                        bigIntegerToBytes(
-                            BigInteger.valueOf(LIST_SHORT)
-                                .add(BigInteger.valueOf(21))
-                                .add(BigInteger.valueOf(size_rlp_nonce))),
-                        LLARGE)
-                    .toUnsignedBigInteger())
+                rightPaddedToUnsignedBigInteger(
+                    bigIntegerToBytes(BigInteger.valueOf(LIST_SHORT + 21 + size_rlp_nonce)),
+                    LLARGE))
             .nBytes(BigInteger.ONE)
             .index(BigInteger.ZERO);
         case 5 -> trace
             .lc(true)
             .limb(
-                padToGivenSizeWithRightZero(
-                        Bytes.concatenate(
-                            bigIntegerToBytes(BigInteger.valueOf(148)), addr.slice(0, 4)),
-                        LLARGE)
-                    .toUnsignedBigInteger())
+                rightPaddedToUnsignedBigInteger(
+                    Bytes.concatenate(bigIntegerToBytes(BigInteger.valueOf(148)), addr.slice(0, 4)),
+                    LLARGE))
             .nBytes(BigInteger.valueOf(5))
             .index(BigInteger.ONE);
         case 6 -> trace
@@ -262,7 +264,7 @@ public class RlpAddr implements Module {
             .index(BigInteger.valueOf(2));
         case 7 -> trace
             .lc(true)
-            .limb(padToGivenSizeWithRightZero(rlpNonce, LLARGE).toUnsignedBigInteger())
+            .limb(rightPaddedToUnsignedBigInteger(rlpNonce, LLARGE))
             .nBytes(BigInteger.valueOf(size_rlp_nonce))
             .index(BigInteger.valueOf(3));
       }
@@ -279,9 +281,20 @@ public class RlpAddr implements Module {
 
   private void traceChunks(RlpAddrChunk chunk, int stamp, Trace.TraceBuilder trace) {
     if (chunk.opCode().equals(OpCode.CREATE)) {
-      traceCreate(stamp, BigInteger.valueOf(chunk.nonce().get()), chunk.address(), trace);
+      traceCreate(
+          stamp,
+          BigInteger.valueOf(chunk.nonce().get()),
+          chunk.address(),
+          chunk.depAddress(),
+          trace);
     } else {
-      traceCreate2(stamp, chunk.address(), chunk.salt().get(), chunk.keccak().get(), trace);
+      traceCreate2(
+          stamp,
+          chunk.address(),
+          chunk.salt().get(),
+          chunk.keccak().get(),
+          chunk.depAddress(),
+          trace);
     }
   }
 
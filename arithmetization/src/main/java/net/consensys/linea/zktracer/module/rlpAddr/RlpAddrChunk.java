@@ -26,12 +26,14 @@ public record RlpAddrChunk(
     Optional<Long> nonce,
     Address address,
     Optional<Bytes32> salt,
-    Optional<Bytes32> keccak) {
-  public RlpAddrChunk(OpCode opCode, long nonce, Address address) {
-    this(opCode, Optional.of(nonce), address, Optional.empty(), Optional.empty());
+    Optional<Bytes32> keccak,
+    Address depAddress) {
+  public RlpAddrChunk(OpCode opCode, long nonce, Address address, Address depAddress) {
+    this(opCode, Optional.of(nonce), address, Optional.empty(), Optional.empty(), depAddress);
   }
 
-  public RlpAddrChunk(OpCode opCode, Address address, Bytes32 salt, Bytes32 kec) {
-    this(opCode, Optional.empty(), address, Optional.of(salt), Optional.of(kec));
+  public RlpAddrChunk(
+      OpCode opCode, Address address, Bytes32 salt, Bytes32 kec, Address depAddress) {
+    this(opCode, Optional.empty(), address, Optional.of(salt), Optional.of(kec), depAddress);
   }
 }
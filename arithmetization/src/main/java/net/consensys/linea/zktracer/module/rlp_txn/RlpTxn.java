@@ -21,6 +21,7 @@ import static net.consensys.linea.zktracer.module.rlputils.Pattern.byteCounting;
 import static net.consensys.linea.zktracer.module.rlputils.Pattern.outerRlpSize;
 import static net.consensys.linea.zktracer.module.rlputils.Pattern.padToGivenSizeWithLeftZero;
 import static net.consensys.linea.zktracer.module.rlputils.Pattern.padToGivenSizeWithRightZero;
+import static net.consensys.linea.zktracer.module.rlputils.Pattern.rightPaddedToUnsignedBigInteger;
 import static net.consensys.linea.zktracer.types.Conversions.bigIntegerToBytes;
 import static org.hyperledger.besu.ethereum.core.encoding.EncodingContext.BLOCK_BODY;
 import static org.hyperledger.besu.ethereum.core.encoding.TransactionEncoder.encodeOpaqueBytes;
@@ -84,6 +85,16 @@ public class RlpTxn implements Module {
   public static final int intPrefixLongList =
       bytesPrefixLongList.toUnsignedBigInteger().intValueExact();
 
+  /** The system property enabling {@link #VERIFY_RLP}, e.g. in tests. */
+  public static final String VERIFY_RLP_PROPERTY = "zktracer.rlptxn.verify";
+
+  /**
+   * Whether the RLPs reconstructed from the trace should be checked against the Besu encodings at
+   * commit time. Accumulating the reconstructed RLPs is costly, so this is disabled unless the
+   * {@link #VERIFY_RLP_PROPERTY} system property is set to true, as it is in all the tests.
+   */
+  static final boolean VERIFY_RLP = Boolean.getBoolean(VERIFY_RLP_PROPERTY);
+
   private final StackedList<RlpTxnChunk> chunkList = new StackedList<>();
 
   // Used to check the reconstruction of RLPs
@@ -101,11 +112,17 @@ public class RlpTxn implements Module {
     this.chunkList.pop();
   }
 
+  @Override
+  public void reset() {
+    this.chunkList.clear();
+  }
+
   @Override
   public void traceStartTx(WorldView worldView, Transaction tx) {
     // Contract Creation
     if (tx.getTo().isEmpty() && !tx.getInit().orElseThrow().isEmpty()) {
-      this.chunkList.add(new RlpTxnChunk(tx, true, romLex.codeIdentifierBeforeLexOrder));
+      this.chunkList.add(
+          RlpTxnChunk.of(tx, true, Optional.of(romLex.codeIdentifierBeforeLexOrder)));
     }
 
     // Call to a non-empty smart contract
@@ -113,12 +130,12 @@ public class RlpTxn implements Module {
         && Optional.ofNullable(worldView.get(tx.getTo().orElseThrow()))
             .map(AccountState::hasCode)
             .orElse(false)) {
-      this.chunkList.add(new RlpTxnChunk(tx, true));
+      this.chunkList.add(RlpTxnChunk.of(tx, true, Optional.empty()));
     }
 
     // Contract doesn't require EVM execution
     else {
-      this.chunkList.add(new RlpTxnChunk(tx, false));
+      this.chunkList.add(RlpTxnChunk.of(tx, false, Optional.empty()));
     }
   }
 
@@ -135,67 +152,17 @@ public class RlpTxn implements Module {
     traceValue.codeFragmentIndex = codeFragmentIndex;
     traceValue.txType = getTxTypeAsInt(chunk.tx().getType());
 
-    // Initialise RLP_LT and RLP_LX byte size + verify that we construct the right RLP
-    this.reconstructedRlpLt = Bytes.EMPTY;
-    this.reconstructedRlpLx = Bytes.EMPTY;
-    Bytes besuRlpLt =
+    // The transaction is encoded once, here, as only the traces need the RLP_LT and RLP_LX sizes
+    final Bytes besuRlpLt =
         encodeOpaqueBytes((org.hyperledger.besu.ethereum.core.Transaction) chunk.tx(), BLOCK_BODY);
-    // the encodeOpaqueBytes method already concatenate with the first byte "transaction  type"
-    if (traceValue.txType == 0) {
-      traceValue.RLP_LT_BYTESIZE = innerRlpSize(besuRlpLt.size());
-    } else {
-      traceValue.RLP_LT_BYTESIZE = innerRlpSize(besuRlpLt.size() - 1);
-    }
-
-    Bytes besuRlpLx;
-    switch (traceValue.txType) {
-      case 0 -> {
-        besuRlpLx =
-            frontierPreimage(
-                chunk.tx().getNonce(),
-                (Wei) chunk.tx().getGasPrice().orElseThrow(),
-                chunk.tx().getGasLimit(),
-                chunk.tx().getTo().map(x -> (Address) x),
-                (Wei) chunk.tx().getValue(),
-                chunk.tx().getPayload(),
-                chunk.tx().getChainId());
-        traceValue.RLP_LX_BYTESIZE = innerRlpSize(besuRlpLx.size());
-      }
-      case 1 -> {
-        List<AccessListEntry> accessList = null;
-        if (chunk.tx().getAccessList().isPresent()) {
-          accessList = chunk.tx().getAccessList().orElseThrow();
-        }
-        besuRlpLx =
-            accessListPreimage(
-                chunk.tx().getNonce(),
-                (Wei) chunk.tx().getGasPrice().orElseThrow(),
-                chunk.tx().getGasLimit(),
-                chunk.tx().getTo().map(x -> (Address) x),
-                (Wei) chunk.tx().getValue(),
-                chunk.tx().getPayload(),
-                accessList,
-                chunk.tx().getChainId());
-        // the innerRlp method already concatenate with the first byte "transaction  type"
-        traceValue.RLP_LX_BYTESIZE = innerRlpSize(besuRlpLx.size() - 1);
-      }
-      case 2 -> {
-        besuRlpLx =
-            eip1559Preimage(
-                chunk.tx().getNonce(),
-                (Wei) chunk.tx().getMaxPriorityFeePerGas().orElseThrow(),
-                (Wei) chunk.tx().getMaxFeePerGas().orElseThrow(),
-                chunk.tx().getGasLimit(),
-                chunk.tx().getTo().map(x -> (Address) x),
-                (Wei) chunk.tx().getValue(),
-                chunk.tx().getPayload(),
-                chunk.tx().getChainId(),
-                chunk.tx().getAccessList());
-        // the innerRlp method already concatenate with the first byte "transaction  type"
-        traceValue.RLP_LX_BYTESIZE = innerRlpSize(besuRlpLx.size() - 1);
-      }
-      default -> throw new IllegalStateException(
-          "Transaction Type not supported: " + traceValue.txType);
+    final Bytes besuRlpLx = signingPayload(chunk.tx());
+    // Both encodings of typed transactions are prefixed with the transaction type
+    final int typePrefixSize = traceValue.txType == 0 ? 0 : 1;
+    traceValue.RLP_LT_BYTESIZE = innerRlpSize(besuRlpLt.size() - typePrefixSize);
+    traceValue.RLP_LX_BYTESIZE = innerRlpSize(besuRlpLx.size() - typePrefixSize);
+    if (VERIFY_RLP) {
+      this.reconstructedRlpLt = Bytes.EMPTY;
+      this.reconstructedRlpLx = Bytes.EMPTY;
     }
 
     // Phase 0 : Global RLP prefix
@@ -293,10 +260,14 @@ public class RlpTxn implements Module {
     // Phase 14 : s
     handle32BytesInteger(traceValue, 14, chunk.tx().getS(), trace);
 
-    Preconditions.checkArgument(
-        this.reconstructedRlpLt.equals(besuRlpLt), "Reconstructed RLP LT and Besu RLP LT differ");
-    Preconditions.checkArgument(
-        this.reconstructedRlpLx.equals(besuRlpLx), "Reconstructed RLP LX and Besu RLP LX differ");
+    if (VERIFY_RLP) {
+      Preconditions.checkArgument(
+          this.reconstructedRlpLt.equals(besuRlpLt),
+          "Reconstructed RLP LT and Besu RLP LT differ");
+      Preconditions.checkArgument(
+          this.reconstructedRlpLx.equals(besuRlpLx),
+          "Reconstructed RLP LX and Besu RLP LX differ");
+    }
   }
 
   // Define each phase's constraints
@@ -667,8 +638,8 @@ public class RlpTxn implements Module {
 
     for (int ct = 0; ct < 8; ct++) {
       traceValue.COUNTER = ct;
-      traceValue.ACC_BYTESIZE = byteCountingOutput.accByteSizeList().get(ct);
-      traceValue.POWER = byteCountingOutput.powerList().get(ct);
+      traceValue.ACC_BYTESIZE = byteCountingOutput.accByteSize(ct);
+      traceValue.POWER = byteCountingOutput.power(ct);
       traceValue.BYTE_1 = input1RightShift.get(ct);
       traceValue.ACC_1 = input1RightShift.slice(0, ct + 1);
       traceValue.BYTE_2 = acc2LastRowShift.get(ct);
@@ -741,10 +712,10 @@ public class RlpTxn implements Module {
       traceValue.COUNTER = ct;
       traceValue.BYTE_1 = inputBytePadded.get(ct);
       traceValue.ACC_1 = inputBytePadded.slice(0, ct + 1);
-      traceValue.POWER = byteCountingOutput.powerList().get(ct);
-      traceValue.ACC_BYTESIZE = byteCountingOutput.accByteSizeList().get(ct);
-      traceValue.BIT = bitDecOutput.bitDecList().get(ct);
-      traceValue.BIT_ACC = bitDecOutput.bitAccList().get(ct);
+      traceValue.POWER = byteCountingOutput.power(ct);
+      traceValue.ACC_BYTESIZE = byteCountingOutput.accByteSize(ct);
+      traceValue.BIT = bitDecOutput.bitDec(ct);
+      traceValue.BIT_ACC = bitDecOutput.bitAcc(ct);
 
       if (input.compareTo(BigInteger.valueOf(128)) >= 0 && ct == nStep - 2) {
         traceValue.LIMB_CONSTRUCTED = true;
@@ -793,10 +764,10 @@ public class RlpTxn implements Module {
           traceValue.COUNTER = ct;
           traceValue.BYTE_2 = traceValue.INPUT_2.get(ct);
           traceValue.ACC_2 = traceValue.INPUT_2.slice(0, ct + 1);
-          traceValue.ACC_BYTESIZE = byteCountingOutput.accByteSizeList().get(ct);
-          traceValue.POWER = byteCountingOutput.powerList().get(ct);
-          traceValue.BIT = bitDecOutput.bitDecList().get(ct);
-          traceValue.BIT_ACC = bitDecOutput.bitAccList().get(ct);
+          traceValue.ACC_BYTESIZE = byteCountingOutput.accByteSize(ct);
+          traceValue.POWER = byteCountingOutput.power(ct);
+          traceValue.BIT = bitDecOutput.bitDec(ct);
+          traceValue.BIT_ACC = bitDecOutput.bitAcc(ct);
 
           // if input >= 128, there is a RLP prefix, nothing if 0 < input < 128
           if (ct == traceValue.nSTEP - 2 && input.compareTo(BigInteger.valueOf(128)) >= 0) {
@@ -822,8 +793,8 @@ public class RlpTxn implements Module {
           traceValue.ACC_1 = traceValue.INPUT_1.slice(0, ct + 1);
           traceValue.BYTE_2 = traceValue.INPUT_2.get(ct);
           traceValue.ACC_2 = traceValue.INPUT_2.slice(0, ct + 1);
-          traceValue.ACC_BYTESIZE = byteCounting.accByteSizeList().get(ct);
-          traceValue.POWER = byteCounting.powerList().get(ct);
+          traceValue.ACC_BYTESIZE = byteCounting.accByteSize(ct);
+          traceValue.POWER = byteCounting.power(ct);
 
           if (ct == traceValue.nSTEP - 3) {
             traceValue.LIMB_CONSTRUCTED = true;
@@ -951,6 +922,47 @@ public class RlpTxn implements Module {
     return output;
   }
 
+  /**
+   * Compute the RLP of the signing payload of a transaction, i.e. the RLP(LX) of the
+   * specification, prefixed by the transaction type for typed transactions.
+   *
+   * @param tx the transaction
+   * @return the RLP of the transaction signing payload
+   */
+  static Bytes signingPayload(Transaction tx) {
+    return switch (getTxTypeAsInt(tx.getType())) {
+      case 0 -> frontierPreimage(
+          tx.getNonce(),
+          (Wei) tx.getGasPrice().orElseThrow(),
+          tx.getGasLimit(),
+          tx.getTo().map(x -> (Address) x),
+          (Wei) tx.getValue(),
+          tx.getPayload(),
+          tx.getChainId());
+      case 1 -> accessListPreimage(
+          tx.getNonce(),
+          (Wei) tx.getGasPrice().orElseThrow(),
+          tx.getGasLimit(),
+          tx.getTo().map(x -> (Address) x),
+          (Wei) tx.getValue(),
+          tx.getPayload(),
+          tx.getAccessList().orElse(null),
+          tx.getChainId());
+      case 2 -> eip1559Preimage(
+          tx.getNonce(),
+          (Wei) tx.getMaxPriorityFeePerGas().orElseThrow(),
+          (Wei) tx.getMaxFeePerGas().orElseThrow(),
+          tx.getGasLimit(),
+          tx.getTo().map(x -> (Address) x),
+          (Wei) tx.getValue(),
+          tx.getPayload(),
+          tx.getChainId(),
+          tx.getAccessList());
+      default -> throw new IllegalStateException(
+          "Transaction Type not supported: " + tx.getType());
+    };
+  }
+
   private static Bytes frontierPreimage(
       final long nonce,
       final Wei gasPrice,
@@ -1146,7 +1158,7 @@ public class RlpTxn implements Module {
         .input2(traceValue.INPUT_2.toUnsignedBigInteger())
         .lcCorrection(traceValue.LC_CORRECTION)
         .isPrefix(traceValue.IS_PREFIX)
-        .limb(padToGivenSizeWithRightZero(traceValue.LIMB, llarge).toUnsignedBigInteger())
+        .limb(rightPaddedToUnsignedBigInteger(traceValue.LIMB, llarge))
         .limbConstructed(traceValue.LIMB_CONSTRUCTED)
         .lt(traceValue.LT)
         .lx(traceValue.LX)
@@ -1215,6 +1227,9 @@ public class RlpTxn implements Module {
     builder.validateRow();
 
     // reconstruct RLPs
+    if (!VERIFY_RLP) {
+      return;
+    }
     if (traceValue.LIMB_CONSTRUCTED && traceValue.LT) {
       this.reconstructedRlpLt =
           Bytes.concatenate(this.reconstructedRlpLt, traceValue.LIMB.slice(0, traceValue.nBYTES));
@@ -1225,19 +1240,25 @@ public class RlpTxn implements Module {
     }
   }
 
-  private int ChunkRowSize(RlpTxnChunk chunk) {
+  /**
+   * Count the rows of a transaction in the trace, without encoding it.
+   *
+   * @param tx the transaction
+   * @return the number of rows of the transaction
+   */
+  static int chunkRowSize(Transaction tx) {
     int txType;
-    if (chunk.tx().getType() == TransactionType.FRONTIER) {
+    if (tx.getType() == TransactionType.FRONTIER) {
       txType = 0;
     } else {
-      txType = chunk.tx().getType().getSerializedType();
+      txType = tx.getType().getSerializedType();
     }
     // Phase 0 is always 17 rows long
     int rowSize = 17;
 
     // Phase 1: chainID
     if (txType == 1 || txType == 2) {
-      if (chunk.tx().getChainId().orElseThrow().equals(BigInteger.ZERO)) {
+      if (tx.getChainId().orElseThrow().equals(BigInteger.ZERO)) {
         rowSize += 1;
       } else {
         rowSize += 8;
@@ -1245,7 +1266,7 @@ public class RlpTxn implements Module {
     }
 
     // Phase 2: nonce
-    if (chunk.tx().getNonce() == 0) {
+    if (tx.getNonce() == 0) {
       rowSize += 1;
     } else {
       rowSize += 8;
@@ -1258,12 +1279,7 @@ public class RlpTxn implements Module {
 
     // Phase 4: MaxPriorityFeeperGas
     if (txType == 2) {
-      if (chunk
-          .tx()
-          .getMaxPriorityFeePerGas()
-          .orElseThrow()
-          .getAsBigInteger()
-          .equals(BigInteger.ZERO)) {
+      if (tx.getMaxPriorityFeePerGas().orElseThrow().getAsBigInteger().equals(BigInteger.ZERO)) {
         rowSize += 1;
       } else {
         rowSize += 8;
@@ -1272,7 +1288,7 @@ public class RlpTxn implements Module {
 
     // Phase 5: MaxFeePerGas
     if (txType == 2) {
-      if (chunk.tx().getMaxFeePerGas().orElseThrow().getAsBigInteger().equals(BigInteger.ZERO)) {
+      if (tx.getMaxFeePerGas().orElseThrow().getAsBigInteger().equals(BigInteger.ZERO)) {
         rowSize += 1;
       } else {
         rowSize += 8;
@@ -1283,42 +1299,41 @@ public class RlpTxn implements Module {
     rowSize += 8;
 
     // Phase 7: To
-    if (chunk.tx().getTo().isPresent()) {
+    if (tx.getTo().isPresent()) {
       rowSize += 16;
     } else {
       rowSize += 1;
     }
 
     // Phase 8: Value
-    if (chunk.tx().getValue().getAsBigInteger().equals(BigInteger.ZERO)) {
+    if (tx.getValue().getAsBigInteger().equals(BigInteger.ZERO)) {
       rowSize += 1;
     } else {
       rowSize += 16;
     }
 
     // Phase 9: Data
-    if (chunk.tx().getPayload().isEmpty()) {
+    if (tx.getPayload().isEmpty()) {
       rowSize += 2; // 1 for prefix + 1 for padding
     } else {
-      int dataSize = chunk.tx().getPayload().size();
+      int dataSize = tx.getPayload().size();
       rowSize += 8 + llarge * ((dataSize - 1) / llarge + 1);
       rowSize += 2; // 2 lines of padding
     }
 
     // Phase 10: AccessList
     if (txType == 1 || txType == 2) {
-      if (chunk.tx().getAccessList().orElseThrow().isEmpty()) {
+      if (tx.getAccessList().orElseThrow().isEmpty()) {
         rowSize += 1;
       } else {
         // Rlp prefix of the AccessList list
         rowSize += 8;
-        for (int i = 0; i < chunk.tx().getAccessList().orElseThrow().size(); i++) {
+        for (int i = 0; i < tx.getAccessList().orElseThrow().size(); i++) {
           rowSize += 8 + 16;
-          if (chunk.tx().getAccessList().orElseThrow().get(i).storageKeys().isEmpty()) {
+          if (tx.getAccessList().orElseThrow().get(i).storageKeys().isEmpty()) {
             rowSize += 1;
           } else {
-            rowSize +=
-                8 + 16 * chunk.tx().getAccessList().orElseThrow().get(i).storageKeys().size();
+            rowSize += 8 + 16 * tx.getAccessList().orElseThrow().get(i).storageKeys().size();
           }
         }
       }
@@ -1327,7 +1342,7 @@ public class RlpTxn implements Module {
     // Phase 11: beta
     if (txType == 0) {
       rowSize += 8;
-      if (chunk.tx().getChainId().orElseThrow().equals(BigInteger.ZERO)) {
+      if (tx.getChainId().orElseThrow().equals(BigInteger.ZERO)) {
         rowSize += 1;
       } else {
         rowSize += 9;
@@ -1340,14 +1355,14 @@ public class RlpTxn implements Module {
     }
 
     // Phase 13: r
-    if (chunk.tx().getR().equals(BigInteger.ZERO)) {
+    if (tx.getR().equals(BigInteger.ZERO)) {
       rowSize += 1;
     } else {
       rowSize += 16;
     }
 
     // Phase 14: s
-    if (chunk.tx().getS().equals(BigInteger.ZERO)) {
+    if (tx.getS().equals(BigInteger.ZERO)) {
       rowSize += 1;
     } else {
       rowSize += 16;
@@ -1359,7 +1374,7 @@ public class RlpTxn implements Module {
   public int lineCount() {
     int traceRowSize = 0;
     for (RlpTxnChunk chunk : this.chunkList) {
-      traceRowSize += ChunkRowSize(chunk);
+      traceRowSize += chunk.rowCount();
     }
     return traceRowSize;
   }
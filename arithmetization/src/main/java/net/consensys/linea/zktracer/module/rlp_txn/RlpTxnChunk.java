@@ -19,12 +19,28 @@ import java.util.Optional;
 
 import org.hyperledger.besu.datatypes.Transaction;
 
-public record RlpTxnChunk(Transaction tx, boolean requireEvmExecution, Optional<Integer> id) {
-  public RlpTxnChunk(Transaction tx, boolean requireEvmExecution) {
-    this(tx, requireEvmExecution, Optional.empty());
-  }
+/**
+ * A transaction to be traced by the {@link RlpTxn} module, along with its number of trace rows.
+ * The transaction is only encoded when the traces are generated, so that counting the lines of
+ * the module does not require any RLP encoding.
+ *
+ * @param tx the transaction
+ * @param requireEvmExecution whether the transaction triggers EVM execution
+ * @param id the code identifier of the deployed init code, if any
+ * @param rowCount the number of rows of the transaction in the trace
+ */
+public record RlpTxnChunk(
+    Transaction tx, boolean requireEvmExecution, Optional<Integer> id, int rowCount) {
 
-  public RlpTxnChunk(Transaction tx, boolean requireEvmExecution, int codeIdentifierPreLexOrder) {
-    this(tx, requireEvmExecution, Optional.of(codeIdentifierPreLexOrder));
+  /**
+   * Capture what counting the lines of the {@link RlpTxn} trace needs from a transaction.
+   *
+   * @param tx the transaction
+   * @param requireEvmExecution whether the transaction triggers EVM execution
+   * @param id the code identifier of the deployed init code, if any
+   * @return the chunk describing the transaction
+   */
+  public static RlpTxnChunk of(Transaction tx, boolean requireEvmExecution, Optional<Integer> id) {
+    return new RlpTxnChunk(tx, requireEvmExecution, id, RlpTxn.chunkRowSize(tx));
   }
 }
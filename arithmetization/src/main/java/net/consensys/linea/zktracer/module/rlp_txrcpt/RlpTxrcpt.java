@@ -20,6 +20,7 @@ import static net.consensys.linea.zktracer.module.rlputils.Pattern.byteCounting;
 import static net.consensys.linea.zktracer.module.rlputils.Pattern.outerRlpSize;
 import static net.consensys.linea.zktracer.module.rlputils.Pattern.padToGivenSizeWithLeftZero;
 import static net.consensys.linea.zktracer.module.rlputils.Pattern.padToGivenSizeWithRightZero;
+import static net.consensys.linea.zktracer.module.rlputils.Pattern.rightPaddedToUnsignedBigInteger;
 import static net.consensys.linea.zktracer.types.Conversions.bigIntegerToBytes;
 
 import java.math.BigInteger;
@@ -69,6 +70,13 @@ public class RlpTxrcpt implements Module {
     this.chunkList.pop();
   }
 
+  @Override
+  public void reset() {
+    this.chunkList.clear();
+    this.absLogNumMax = 0;
+    this.absLogNum = 0;
+  }
+
   @Override
   public void traceEndTx(
       WorldView worldView,
@@ -494,8 +502,8 @@ public class RlpTxrcpt implements Module {
             bigIntegerToBytes(BigInteger.valueOf(acc2LastRow)), traceValue.nStep);
     for (int ct = 0; ct < 8; ct++) {
       traceValue.counter = ct;
-      traceValue.accSize = byteCountingOutput.accByteSizeList().get(ct);
-      traceValue.power = byteCountingOutput.powerList().get(ct);
+      traceValue.accSize = byteCountingOutput.accByteSize(ct);
+      traceValue.power = byteCountingOutput.power(ct);
       traceValue.byte1 = input1RightShift.get(ct);
       traceValue.acc1 = input1RightShift.slice(0, ct + 1);
       traceValue.byte2 = acc2LastRowShift.get(ct);
@@ -565,10 +573,10 @@ public class RlpTxrcpt implements Module {
       traceValue.counter = ct;
       traceValue.byte1 = inputBytes.get(ct);
       traceValue.acc1 = inputBytes.slice(0, ct + 1);
-      traceValue.power = byteCountingOutput.powerList().get(ct);
-      traceValue.accSize = byteCountingOutput.accByteSizeList().get(ct);
-      traceValue.bit = bitDecOutput.bitDecList().get(ct);
-      traceValue.bitAcc = bitDecOutput.bitAccList().get(ct);
+      traceValue.power = byteCountingOutput.power(ct);
+      traceValue.accSize = byteCountingOutput.accByteSize(ct);
+      traceValue.bit = bitDecOutput.bitDec(ct);
+      traceValue.bitAcc = bitDecOutput.bitAcc(ct);
 
       if (input >= 128 && ct == 6) {
         traceValue.limbConstructed = true;
@@ -640,7 +648,7 @@ public class RlpTxrcpt implements Module {
         .isPrefix(traceValue.isPrefix)
         .isTopic(traceValue.isTopic)
         .lcCorrection(traceValue.lcCorrection)
-        .limb(padToGivenSizeWithRightZero(traceValue.limb, LLARGE).toUnsignedBigInteger())
+        .limb(rightPaddedToUnsignedBigInteger(traceValue.limb, LLARGE))
         .limbConstructed(traceValue.limbConstructed)
         .localSize(BigInteger.valueOf(traceValue.localSize))
         .logEntrySize(BigInteger.valueOf(traceValue.logEntrySize))
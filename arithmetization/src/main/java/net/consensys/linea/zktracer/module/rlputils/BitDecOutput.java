@@ -15,6 +15,15 @@
 
 package net.consensys.linea.zktracer.module.rlputils;
 
-import java.util.List;
+/**
+ * The BIT and BIT_ACC columns of the RLP bit decomposition pattern, one entry per counter value.
+ */
+public record BitDecOutput(boolean[] bitDecs, int[] bitAccs) {
+  public boolean bitDec(int ct) {
+    return bitDecs[ct];
+  }
 
-public record BitDecOutput(List<Boolean> bitDecList, List<Integer> bitAccList) {}
+  public int bitAcc(int ct) {
+    return bitAccs[ct];
+  }
+}
@@ -16,6 +16,21 @@
 package net.consensys.linea.zktracer.module.rlputils;
 
 import java.math.BigInteger;
-import java.util.List;
 
-public record ByteCountAndPowerOutput(List<BigInteger> powerList, List<Integer> accByteSizeList) {}
+/**
+ * The POWER and ACC_BYTESIZE columns of the RLP byte counting pattern, one entry per counter value.
+ * Powers are stored as exponents of 256 and resolved against a precomputed table.
+ */
+public record ByteCountAndPowerOutput(int[] powerExponents, int[] accByteSizes) {
+  public BigInteger power(int ct) {
+    return Pattern.powerOf256(powerExponents[ct]);
+  }
+
+  public int powerExponent(int ct) {
+    return powerExponents[ct];
+  }
+
+  public int accByteSize(int ct) {
+    return accByteSizes[ct];
+  }
+}
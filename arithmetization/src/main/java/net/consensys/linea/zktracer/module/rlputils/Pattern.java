@@ -16,12 +16,31 @@
 package net.consensys.linea.zktracer.module.rlputils;
 
 import java.math.BigInteger;
-import java.util.ArrayList;
 
 import com.google.common.base.Preconditions;
 import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.MutableBytes;
 
 public class Pattern {
+  /** The powers 256^k, for k = 0..16, i.e. all the powers that fit in a 16 bytes limb and 2^128. */
+  private static final BigInteger[] POWERS_OF_256 = new BigInteger[17];
+
+  static {
+    for (int k = 0; k < POWERS_OF_256.length; k++) {
+      POWERS_OF_256[k] = BigInteger.ONE.shiftLeft(8 * k);
+    }
+  }
+
+  /**
+   * Returns 256^k from a precomputed table.
+   *
+   * @param k the exponent, between 0 and 16
+   * @return 256^k
+   */
+  public static BigInteger powerOf256(int k) {
+    return POWERS_OF_256[k];
+  }
+
   /**
    * Returns the size of RLP(something) where something is of size inputSize (!=1) (it can be ZERO
    * though).
@@ -50,17 +69,45 @@ public class Pattern {
   public static Bytes padToGivenSizeWithLeftZero(Bytes input, int wantedSize) {
     Preconditions.checkArgument(
         wantedSize >= input.size(), "wantedSize can't be shorter than the input size");
-    byte nullByte = 0;
+    if (wantedSize == input.size()) {
+      return input;
+    }
 
-    return Bytes.concatenate(Bytes.repeat(nullByte, wantedSize - input.size()), input);
+    final MutableBytes output = MutableBytes.create(wantedSize);
+    input.copyTo(output, wantedSize - input.size());
+    return output;
   }
 
   public static Bytes padToGivenSizeWithRightZero(Bytes input, int wantedSize) {
     Preconditions.checkArgument(
         wantedSize >= input.size(), "wantedSize can't be shorter than the input size");
-    byte nullByte = 0;
+    if (wantedSize == input.size()) {
+      return input;
+    }
 
-    return Bytes.concatenate(input, Bytes.repeat(nullByte, wantedSize - input.size()));
+    final MutableBytes output = MutableBytes.create(wantedSize);
+    input.copyTo(output, 0);
+    return output;
+  }
+
+  /**
+   * Returns the unsigned value of the {@link Bytes} padded with zeroes to the right up to the given
+   * size, without materializing the padded {@link Bytes}; e.g. the value of a partially filled
+   * limb.
+   *
+   * @param input the left-aligned content
+   * @param wantedSize the size of the padded input, at most 16
+   * @return the unsigned value of the right-padded input
+   */
+  public static BigInteger rightPaddedToUnsignedBigInteger(Bytes input, int wantedSize) {
+    Preconditions.checkArgument(
+        wantedSize >= input.size(), "wantedSize can't be shorter than the input size");
+    final BigInteger value = input.toUnsignedBigInteger();
+    if (value.signum() == 0) {
+      return BigInteger.ZERO;
+    }
+
+    return value.multiply(powerOf256(wantedSize - input.size()));
   }
 
   /**
@@ -72,36 +119,31 @@ public class Pattern {
    * @return
    */
   public static ByteCountAndPowerOutput byteCounting(int inputByteLen, int nbStep) {
+    final int[] powerExponents = new int[nbStep];
+    final int[] accByteSizes = new int[nbStep];
 
-    ArrayList<BigInteger> powerInit = new ArrayList<>(nbStep);
-    ArrayList<Integer> acc = new ArrayList<>(nbStep);
-    ByteCountAndPowerOutput output = new ByteCountAndPowerOutput(powerInit, acc);
-
-    BigInteger power;
+    int exponent = 16 - nbStep;
     int accByteSize = 0;
-    int offset = 16 - nbStep;
 
     if (inputByteLen == nbStep) {
-      power = BigInteger.valueOf(256).pow(offset);
       accByteSize = 1;
     } else {
-      offset += 1;
-      power = BigInteger.valueOf(256).pow(offset);
+      exponent += 1;
     }
-
-    output.powerList().add(0, power);
-    output.accByteSizeList().add(0, accByteSize);
+    powerExponents[0] = exponent;
+    accByteSizes[0] = accByteSize;
 
     for (int i = 1; i < nbStep; i++) {
       if (inputByteLen + i < nbStep) {
-        power = power.multiply(BigInteger.valueOf(256));
+        exponent += 1;
       } else {
         accByteSize += 1;
       }
-      output.powerList().add(i, power);
-      output.accByteSizeList().add(i, accByteSize);
+      powerExponents[i] = exponent;
+      accByteSizes[i] = accByteSize;
     }
-    return output;
+
+    return new ByteCountAndPowerOutput(powerExponents, accByteSizes);
   }
 
   /**
@@ -116,33 +158,25 @@ public class Pattern {
     Preconditions.checkArgument(
         nbStep >= nbStepMin, "Number of steps must be at least " + nbStepMin);
 
-    ArrayList<Boolean> bit = new ArrayList<>(nbStep);
-    ArrayList<Integer> acc = new ArrayList<>(nbStep);
-    for (int i = 0; i < nbStep - nbStepMin; i++) {
-      bit.add(i, false);
-      acc.add(i, 0);
-    }
-    BitDecOutput output = new BitDecOutput(bit, acc);
+    // Only the least significant byte is decomposed; the leading rows are left at zero.
+    final boolean[] bitDecs = new boolean[nbStep];
+    final int[] bitAccs = new int[nbStep];
 
     int bitAcc = 0;
-    boolean bitDec = false;
-    double div = 0;
-
     for (int i = nbStepMin - 1; i >= 0; i--) {
-      div = Math.pow(2, i);
+      final int div = 1 << i;
       bitAcc *= 2;
 
-      if (input >= div) {
-        bitDec = true;
+      final boolean bitDec = input >= div;
+      if (bitDec) {
         bitAcc += 1;
-        input -= (int) div;
-      } else {
-        bitDec = false;
+        input -= div;
       }
 
-      output.bitDecList().add(nbStep - i - 1, bitDec);
-      output.bitAccList().add(nbStep - i - 1, bitAcc);
+      bitDecs[nbStep - i - 1] = bitDec;
+      bitAccs[nbStep - i - 1] = bitAcc;
     }
-    return output;
+
+    return new BitDecOutput(bitDecs, bitAccs);
   }
 }
@@ -52,6 +52,9 @@ public class Rom implements Module {
   @Override
   public void popTransaction() {}
 
+  @Override
+  public void reset() {}
+
   @Override
   public int lineCount() {
     int traceRowSize = 0;
@@ -79,6 +82,11 @@ public class Rom implements Module {
       nBytesLastRow = LLARGE;
     }
 
+    // the values constant over the chunk are shared by all its lines
+    final BigInteger cfiValue = BigInteger.valueOf(cfi);
+    final BigInteger cfiInftyValue = BigInteger.valueOf(cfiInfty);
+    final BigInteger codeSizeValue = BigInteger.valueOf(codeSize);
+
     int pushParameter = 0;
     int ctPush = 0;
     Bytes pushValueHigh = Bytes.minimalBytes(0);
@@ -90,11 +98,11 @@ public class Rom implements Module {
 
       // Fill Generic columns
       trace
-          .codeFragmentIndex(BigInteger.valueOf(cfi))
-          .codeFragmentIndexInfty(BigInteger.valueOf(cfiInfty))
+          .codeFragmentIndex(cfiValue)
+          .codeFragmentIndexInfty(cfiInftyValue)
           .programmeCounter(BigInteger.valueOf(i))
           .limb(dataPadded.slice(sliceNumber * LLARGE, LLARGE).toUnsignedBigInteger())
-          .codeSize(BigInteger.valueOf(codeSize))
+          .codeSize(codeSizeValue)
           .paddedBytecodeByte(UnsignedByte.of(dataPadded.get(i)))
           .acc(dataPadded.slice(sliceNumber * LLARGE, (i % LLARGE) + 1).toUnsignedBigInteger())
           .codesizeReached(codeSizeReached)
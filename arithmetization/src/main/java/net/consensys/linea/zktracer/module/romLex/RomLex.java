@@ -15,23 +15,23 @@
 
 package net.consensys.linea.zktracer.module.romLex;
 
-import static net.consensys.linea.zktracer.types.Conversions.bigIntegerToBytes;
-import static org.hyperledger.besu.crypto.Hash.keccak256;
 import static org.hyperledger.besu.evm.internal.Words.clampedToLong;
 
 import java.math.BigInteger;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
 import java.util.Optional;
 
 import net.consensys.linea.zktracer.container.stacked.set.StackedSet;
 import net.consensys.linea.zktracer.module.Module;
 import net.consensys.linea.zktracer.module.ModuleTrace;
+import net.consensys.linea.zktracer.module.hub.ContractCreation;
 import net.consensys.linea.zktracer.module.hub.Hub;
 import net.consensys.linea.zktracer.opcode.OpCode;
 import org.apache.tuweni.bytes.Bytes;
-import org.apache.tuweni.bytes.Bytes32;
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Transaction;
 import org.hyperledger.besu.evm.account.AccountState;
@@ -42,11 +42,12 @@ import org.hyperledger.besu.evm.worldstate.WorldView;
 
 public class RomLex implements Module {
   private static final int LLARGE = 16;
-  private static final Bytes CREATE2_SHIFT = bigIntegerToBytes(BigInteger.valueOf(0xff));
   private static final RomChunkComparator romChunkComparator = new RomChunkComparator();
 
   private final Hub hub;
   public int codeIdentifierBeforeLexOrder = 0;
+  /** The value of codeIdentifierBeforeLexOrder at the start of each traced transaction */
+  private final Deque<Integer> codeIdentifiersAtTransactionStart = new ArrayDeque<>();
 
   public final StackedSet<RomChunk> chunks = new StackedSet<>();
   public final List<RomChunk> sortedChunks = new ArrayList<>();
@@ -89,11 +90,23 @@ public class RomLex implements Module {
   @Override
   public void enterTransaction() {
     this.chunks.enter();
+    this.codeIdentifiersAtTransactionStart.push(this.codeIdentifierBeforeLexOrder);
   }
 
   @Override
   public void popTransaction() {
     this.chunks.pop();
+    this.codeIdentifierBeforeLexOrder = this.codeIdentifiersAtTransactionStart.pop();
+  }
+
+  @Override
+  public void reset() {
+    this.chunks.clear();
+    this.sortedChunks.clear();
+    this.codeIdentifierBeforeLexOrder = 0;
+    this.codeIdentifiersAtTransactionStart.clear();
+    this.byteCode = Bytes.EMPTY;
+    this.address = Address.ZERO;
   }
 
   public int getCFIById(int value) {
@@ -153,45 +166,24 @@ public class RomLex implements Module {
             });
   }
 
+  /**
+   * Register the init code of a CREATE or CREATE2 resolved by the hub.
+   *
+   * @param creation the resolved contract creation
+   */
+  public void traceContractCreation(ContractCreation creation) {
+    this.address = creation.deployedAddress();
+    this.byteCode = creation.initCode();
+    if (!this.byteCode.isEmpty()) {
+      codeIdentifierBeforeLexOrder += 1;
+    }
+  }
+
   @Override
   public void tracePreOpcode(MessageFrame frame) {
     OpCode opcode = OpCode.of(frame.getCurrentOperation().getOpcode());
 
     switch (opcode) {
-      case CREATE -> {
-        final Address currentAddress = frame.getRecipientAddress();
-        this.address =
-            Address.contractAddress(
-                currentAddress,
-                frame
-                    .getWorldUpdater()
-                    .getAccount(currentAddress)
-                    .getNonce()); // TODO: use the method done by @Lorenzo in OOB module
-
-        final long offset = clampedToLong(frame.getStackItem(1));
-        final long length = clampedToLong(frame.getStackItem(2));
-        this.byteCode = frame.readMemory(offset, length);
-        if (!this.byteCode.isEmpty()) {
-          codeIdentifierBeforeLexOrder += 1;
-        }
-      }
-
-      case CREATE2 -> {
-        final long offset = clampedToLong(frame.getStackItem(1));
-        final long length = clampedToLong(frame.getStackItem(2));
-        this.byteCode = frame.readMemory(offset, length);
-
-        if (!this.byteCode.isEmpty()) {
-          codeIdentifierBeforeLexOrder += 1;
-          final Bytes32 salt = Bytes32.leftPad(frame.getStackItem(3));
-          final Bytes32 hash = keccak256(this.byteCode);
-          this.address =
-              Address.extract(
-                  keccak256(
-                      Bytes.concatenate(CREATE2_SHIFT, frame.getRecipientAddress(), salt, hash)));
-        }
-      }
-
       case RETURN -> {
         final long offset = clampedToLong(frame.getStackItem(0));
         final long length = clampedToLong(frame.getStackItem(1));
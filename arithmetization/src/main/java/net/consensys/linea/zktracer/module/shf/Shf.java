@@ -17,9 +17,11 @@ package net.consensys.linea.zktracer.module.shf;
 
 import java.math.BigInteger;
 
-import net.consensys.linea.zktracer.container.stacked.set.StackedSet;
+import net.consensys.linea.zktracer.TracingMode;
+import net.consensys.linea.zktracer.container.stacked.set.StackedKeyedSet;
 import net.consensys.linea.zktracer.module.Module;
 import net.consensys.linea.zktracer.module.ModuleTrace;
+import net.consensys.linea.zktracer.module.OperationKey;
 import net.consensys.linea.zktracer.opcode.OpCode;
 import net.consensys.linea.zktracer.types.UnsignedByte;
 import org.apache.tuweni.bytes.Bytes32;
@@ -27,7 +29,20 @@ import org.hyperledger.besu.evm.frame.MessageFrame;
 
 public class Shf implements Module {
   private int stamp = 0;
-  private final StackedSet<ShfOperation> operations = new StackedSet<>();
+  private final StackedKeyedSet<OperationKey, ShfOperation> operations =
+      new StackedKeyedSet<>();
+  /** The line counts of the operations, used instead of the operations when counting lines */
+  private final StackedKeyedSet<OperationKey, Integer> lineCounts = new StackedKeyedSet<>();
+  /** Whether only the line counts are recorded */
+  private final boolean countsOnly;
+
+  public Shf() {
+    this(TracingMode.FULL);
+  }
+
+  public Shf(final TracingMode mode) {
+    this.countsOnly = mode == TracingMode.LINE_COUNT;
+  }
 
   @Override
   public String jsonKey() {
@@ -37,19 +52,33 @@ public class Shf implements Module {
   @Override
   public void enterTransaction() {
     this.operations.enter();
+    this.lineCounts.enter();
   }
 
   @Override
   public void popTransaction() {
     this.operations.pop();
+    this.lineCounts.pop();
+  }
+
+  @Override
+  public void reset() {
+    this.operations.clear();
+    this.lineCounts.clear();
+    this.stamp = 0;
   }
 
   @Override
   public void tracePreOpcode(MessageFrame frame) {
     final Bytes32 arg1 = Bytes32.leftPad(frame.getStackItem(0));
     final Bytes32 arg2 = Bytes32.leftPad(frame.getStackItem(1));
-    this.operations.add(
-        new ShfOperation(OpCode.of(frame.getCurrentOperation().getOpcode()), arg1, arg2));
+    final OpCode opCode = OpCode.of(frame.getCurrentOperation().getOpcode());
+    final OperationKey key = OperationKey.of(opCode, arg1, arg2);
+    if (this.countsOnly) {
+      this.lineCounts.add(key, () -> ShfOperation.lineCount(opCode, arg1));
+    } else {
+      this.operations.add(key, () -> new ShfOperation(opCode, arg1, arg2));
+    }
   }
 
   private void traceShfOperation(ShfOperation op, Trace.TraceBuilder trace) {
@@ -134,6 +163,9 @@ public class Shf implements Module {
 
   @Override
   public int lineCount() {
+    if (this.countsOnly) {
+      return this.lineCounts.stream().mapToInt(Integer::intValue).sum();
+    }
     return this.operations.stream().mapToInt(ShfOperation::maxCt).sum();
   }
 }
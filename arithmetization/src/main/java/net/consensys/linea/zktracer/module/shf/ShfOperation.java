@@ -138,4 +138,15 @@ final class ShfOperation {
   public int maxCt() {
     return this.isOneLineInstruction ? 1 : LIMB_SIZE;
   }
+
+  /**
+   * Count the trace lines of an operation without building it.
+   *
+   * @param opCode the shift
+   * @param arg1 the shift amount
+   * @return the number of lines of the operation
+   */
+  static int lineCount(final OpCode opCode, final Bytes32 arg1) {
+    return isOneLineInstruction(opCode, Bytes16.wrap(arg1.slice(0, 16))) ? 1 : LIMB_SIZE;
+  }
 }
@@ -20,14 +20,15 @@ import static net.consensys.linea.zktracer.module.rlputils.Pattern.padToGivenSiz
 import static net.consensys.linea.zktracer.types.Address.isPrecompile;
 
 import java.math.BigInteger;
-import java.util.List;
 
 import net.consensys.linea.zktracer.container.stacked.set.StackedSet;
 import net.consensys.linea.zktracer.module.Module;
 import net.consensys.linea.zktracer.module.ModuleTrace;
+import net.consensys.linea.zktracer.module.rlputils.BitDecOutput;
 import net.consensys.linea.zktracer.opcode.OpCode;
 import net.consensys.linea.zktracer.types.EWord;
 import net.consensys.linea.zktracer.types.UnsignedByte;
+import net.consensys.linea.zktracer.types.Word256;
 import org.apache.tuweni.bytes.Bytes;
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.evm.frame.MessageFrame;
@@ -42,6 +43,7 @@ public class Trm implements Module {
   private final int maxCT = 16;
   static final int LLARGE = 16;
   static final int PIVOT_BIT_FLIPS_TO_TRUE = 12;
+  private static final Word256 PRECOMPILE_BOUND = Word256.of(10);
 
   private final StackedSet<EWord> trimmings = new StackedSet<>();
 
@@ -55,6 +57,12 @@ public class Trm implements Module {
     this.trimmings.pop();
   }
 
+  @Override
+  public void reset() {
+    this.trimmings.clear();
+    this.stamp = 0;
+  }
+
   @Override
   public void tracePreOpcode(MessageFrame frame) {
 
@@ -70,9 +78,8 @@ public class Trm implements Module {
   }
 
   public static boolean isPrec(EWord data) {
-    BigInteger trmAddrParamAsBigInt = data.slice(12, 20).toUnsignedBigInteger();
-    return (!trmAddrParamAsBigInt.equals(BigInteger.ZERO)
-        && (trmAddrParamAsBigInt.compareTo(BigInteger.TEN) < 0));
+    final Word256 trmAddrParam = Word256.fromBytes(data.slice(12, 20));
+    return !trmAddrParam.isZero() && trmAddrParam.lessThan(PRECOMPILE_BOUND);
   }
 
   private void traceTrimming(EWord data, Trace.TraceBuilder trace) {
@@ -80,7 +87,7 @@ public class Trm implements Module {
     Bytes trmHi = padToGivenSizeWithLeftZero(data.hi().slice(PIVOT_BIT_FLIPS_TO_TRUE, 4), LLARGE);
     Boolean isPrec = isPrecompile(Address.extract(data));
     final int accLastByte = isPrec ? 9 - (0xff & data.get(31)) : (0xff & data.get(31)) - 10;
-    List<Boolean> ones = bitDecomposition(accLastByte, maxCT).bitDecList();
+    BitDecOutput ones = bitDecomposition(accLastByte, maxCT);
 
     for (int ct = 0; ct < this.maxCT; ct++) {
       trace
@@ -96,7 +103,7 @@ public class Trm implements Module {
           .accT(trmHi.slice(0, ct + 1).toUnsignedBigInteger())
           .byteHi(UnsignedByte.of(data.hi().get(ct)))
           .byteLo(UnsignedByte.of(data.lo().get(ct)))
-          .one(ones.get(ct))
+          .one(ones.bitDec(ct))
           .validateRow();
     }
   }
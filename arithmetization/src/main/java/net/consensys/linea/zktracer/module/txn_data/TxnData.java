@@ -55,8 +55,6 @@ public class TxnData implements Module {
     return "txnData";
   }
 
-  final Trace.TraceBuilder trace = new Trace.TraceBuilder();
-
   private final List<BlockSnapshot> blocks = new ArrayList<>();
 
   @Override
@@ -69,6 +67,11 @@ public class TxnData implements Module {
     this.currentBlock().getTxs().pop();
   }
 
+  @Override
+  public void reset() {
+    this.blocks.clear();
+  }
+
   private BlockSnapshot currentBlock() {
     return this.blocks.get(this.blocks.size() - 1);
   }
@@ -448,7 +451,8 @@ public class TxnData implements Module {
       int btcNumMax,
       int btcNum,
       int relTxNumMax,
-      int relTxNum) {
+      int relTxNum,
+      Trace.TraceBuilder trace) {
     final EWord from = EWord.of(tx.from());
     final EWord to = EWord.of(tx.to());
     final EWord coinbase = EWord.of(block.getCoinbaseAddress());
@@ -466,7 +470,7 @@ public class TxnData implements Module {
     final List<Integer> phaseRlpTxnRcpt = setPhaseRlpTxnRcpt(tx);
     final List<Long> outgoingRlpTxnRcpt = setOutgoingRlpTxnRcpt(tx);
     for (int ct = 0; ct < tx.maxCounter(); ct++) {
-      this.trace
+      trace
           .absTxNumMax(BigInteger.valueOf(absTxNumMax))
           .absTxNum(BigInteger.valueOf(absTxNum))
           .btcNumMax(BigInteger.valueOf(btcNumMax))
@@ -512,12 +516,13 @@ public class TxnData implements Module {
           .phaseRlpTxnrcpt(BigInteger.valueOf(phaseRlpTxnRcpt.get(ct)))
           .outgoingRlpTxnrcpt(BigInteger.valueOf(outgoingRlpTxnRcpt.get(ct)));
 
-      this.trace.validateRow();
+      trace.validateRow();
     }
   }
 
   @Override
   public ModuleTrace commit() {
+    final Trace.TraceBuilder trace = new Trace.TraceBuilder();
     int absTxNumMax = 0;
     int absTxNum = 0;
     int batchNumMax = 0;
@@ -537,7 +542,15 @@ public class TxnData implements Module {
           absTxNum++;
           relTxNum++;
           this.traceTx(
-              block, tx, absTxNumMax, absTxNum, batchNumMax, btchNum, relTxNumMax, relTxNum);
+              block,
+              tx,
+              absTxNumMax,
+              absTxNum,
+              batchNumMax,
+              btchNum,
+              relTxNumMax,
+              relTxNum,
+              trace);
         }
       }
     }
@@ -17,9 +17,11 @@ package net.consensys.linea.zktracer.module.wcp;
 
 import java.math.BigInteger;
 
-import net.consensys.linea.zktracer.container.stacked.set.StackedSet;
+import net.consensys.linea.zktracer.TracingMode;
+import net.consensys.linea.zktracer.container.stacked.set.StackedKeyedSet;
 import net.consensys.linea.zktracer.module.Module;
 import net.consensys.linea.zktracer.module.ModuleTrace;
+import net.consensys.linea.zktracer.module.OperationKey;
 import net.consensys.linea.zktracer.opcode.OpCode;
 import net.consensys.linea.zktracer.opcode.OpCodeData;
 import net.consensys.linea.zktracer.opcode.OpCodes;
@@ -28,9 +30,22 @@ import org.apache.tuweni.bytes.Bytes32;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 
 public class Wcp implements Module {
-  private final StackedSet<WcpOperation> operations = new StackedSet<>();
+  private final StackedKeyedSet<OperationKey, WcpOperation> operations =
+      new StackedKeyedSet<>();
+  /** The line counts of the operations, used instead of the operations when counting lines */
+  private final StackedKeyedSet<OperationKey, Integer> lineCounts = new StackedKeyedSet<>();
+  /** Whether only the line counts are recorded */
+  private final boolean countsOnly;
   private int stamp = 0;
 
+  public Wcp() {
+    this(TracingMode.FULL);
+  }
+
+  public Wcp(final TracingMode mode) {
+    this.countsOnly = mode == TracingMode.LINE_COUNT;
+  }
+
   @Override
   public String jsonKey() {
     return "wcp";
@@ -39,11 +54,20 @@ public class Wcp implements Module {
   @Override
   public void enterTransaction() {
     this.operations.enter();
+    this.lineCounts.enter();
   }
 
   @Override
   public void popTransaction() {
     this.operations.pop();
+    this.lineCounts.pop();
+  }
+
+  @Override
+  public void reset() {
+    this.operations.clear();
+    this.lineCounts.clear();
+    this.stamp = 0;
   }
 
   @Override
@@ -55,21 +79,38 @@ public class Wcp implements Module {
             ? Bytes32.leftPad(frame.getStackItem(1))
             : Bytes32.ZERO;
 
-    this.operations.add(new WcpOperation(opCode, arg1, arg2));
+    this.add(opCode.mnemonic(), arg1, arg2);
+  }
+
+  private void add(final OpCode opCode, final Bytes32 arg1, final Bytes32 arg2) {
+    final OperationKey key = OperationKey.of(opCode, arg1, arg2);
+    if (this.countsOnly) {
+      this.lineCounts.add(key, () -> WcpOperation.lineCount(opCode));
+    } else {
+      this.operations.add(key, () -> new WcpOperation(opCode, arg1, arg2));
+    }
   }
 
   public void traceWcpOperation(WcpOperation op, Trace.TraceBuilder trace) {
     this.stamp++;
+    // the values constant over the operation are shared by all its lines
+    final BigInteger stampValue = BigInteger.valueOf(this.stamp);
+    final BigInteger inst = BigInteger.valueOf(op.getOpCode().getData().value());
+    final BigInteger argument1Hi = op.getArg1Hi().toUnsignedBigInteger();
+    final BigInteger argument1Lo = op.getArg1Lo().toUnsignedBigInteger();
+    final BigInteger argument2Hi = op.getArg2Hi().toUnsignedBigInteger();
+    final BigInteger argument2Lo = op.getArg2Lo().toUnsignedBigInteger();
+
     for (int i = 0; i < op.maxCt(); i++) {
       trace
-          .wordComparisonStamp(BigInteger.valueOf(stamp))
+          .wordComparisonStamp(stampValue)
           .oneLineInstruction(op.isOneLineInstruction())
           .counter(BigInteger.valueOf(i))
-          .inst(BigInteger.valueOf(op.getOpCode().getData().value()))
-          .argument1Hi(op.getArg1Hi().toUnsignedBigInteger())
-          .argument1Lo(op.getArg1Lo().toUnsignedBigInteger())
-          .argument2Hi(op.getArg2Hi().toUnsignedBigInteger())
-          .argument2Lo(op.getArg2Lo().toUnsignedBigInteger())
+          .inst(inst)
+          .argument1Hi(argument1Hi)
+          .argument1Lo(argument1Lo)
+          .argument2Hi(argument2Hi)
+          .argument2Lo(argument2Lo)
           .resultHi(op.getResHi() ? BigInteger.ONE : BigInteger.ZERO)
           .resultLo(op.getResLo() ? BigInteger.ONE : BigInteger.ZERO)
           .bits(op.getBits().get(i))
@@ -108,18 +149,21 @@ public class Wcp implements Module {
 
   @Override
   public int lineCount() {
+    if (this.countsOnly) {
+      return this.lineCounts.stream().mapToInt(Integer::intValue).sum();
+    }
     return this.operations.stream().mapToInt(WcpOperation::maxCt).sum();
   }
 
   public void callLT(Bytes32 arg1, Bytes32 arg2) {
-    this.operations.add(new WcpOperation(OpCode.LT, arg1, arg2));
+    this.add(OpCode.LT, arg1, arg2);
   }
 
   public void callEQ(Bytes32 arg1, Bytes32 arg2) {
-    this.operations.add(new WcpOperation(OpCode.EQ, arg1, arg2));
+    this.add(OpCode.EQ, arg1, arg2);
   }
 
   public void callISZERO(Bytes32 arg1) {
-    this.operations.add(new WcpOperation(OpCode.ISZERO, arg1, Bytes32.ZERO));
+    this.add(OpCode.ISZERO, arg1, Bytes32.ZERO);
   }
 }
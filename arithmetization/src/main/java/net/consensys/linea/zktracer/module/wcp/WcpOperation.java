@@ -22,7 +22,6 @@ import java.security.InvalidParameterException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
 
 import lombok.Getter;
 import net.consensys.linea.zktracer.opcode.OpCode;
@@ -119,16 +118,11 @@ public class WcpOperation {
     this.adjLo = calculateAdj(bit4, firstLo, secondLo);
   }
 
-  @Override
-  public int hashCode() {
-    return Objects.hash(this.opCode, this.arg1, this.arg2);
-  }
-
   public Boolean getResHi() {
     return false;
   }
 
-  private boolean isOneLineInstruction(final OpCode opCode) {
+  private static boolean isOneLineInstruction(final OpCode opCode) {
     return List.of(OpCode.EQ, OpCode.ISZERO).contains(opCode);
   }
 
@@ -159,4 +153,14 @@ public class WcpOperation {
   int maxCt() {
     return this.isOneLineInstruction ? 1 : LIMB_SIZE;
   }
+
+  /**
+   * Count the trace lines of an operation without building it.
+   *
+   * @param opCode the comparison
+   * @return the number of lines of the operation
+   */
+  static int lineCount(final OpCode opCode) {
+    return isOneLineInstruction(opCode) ? 1 : LIMB_SIZE;
+  }
 }
@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -28,17 +29,34 @@ import com.fasterxml.jackson.databind.type.TypeFactory;
 import lombok.SneakyThrows;
 import net.consensys.linea.zktracer.json.JsonConverter;
 
-/** Responsible for managing opcode loading and opcode metadata retrieval. */
+/**
+ * Responsible for managing opcode loading and opcode metadata retrieval. The metadata are parsed
+ * from src/main/resources/opcodes.yml once per JVM, the first time they are required.
+ */
 public class OpCodes {
   private static final JsonConverter YAML_CONVERTER = JsonConverter.builder().enableYaml().build();
 
-  private static Map<Integer, OpCodeData> valueToOpCodeDataMap;
-  private static Map<OpCode, OpCodeData> opCodeToOpCodeDataMap;
+  /** Holds the parsed opcode metadata; initialized by the JVM on first access, exactly once. */
+  private static final class Loaded {
+    private static final OpCodeData[] VALUE_TO_OP_CODE_DATA = new OpCodeData[256];
+    private static final Map<OpCode, OpCodeData> OP_CODE_TO_OP_CODE_DATA;
 
-  /** Loads all opcode metadata from src/main/resources/opcodes.yml. */
-  @SneakyThrows(IOException.class)
-  public static void load() {
+    static {
+      final List<OpCodeData> opCodes = parse();
+
+      OP_CODE_TO_OP_CODE_DATA =
+          opCodes.stream().collect(Collectors.toMap(OpCodeData::mnemonic, e -> e));
+
+      final OpCodeData invalid = OP_CODE_TO_OP_CODE_DATA.get(OpCode.INVALID);
+      Arrays.fill(VALUE_TO_OP_CODE_DATA, invalid);
+      for (OpCodeData opCode : opCodes) {
+        VALUE_TO_OP_CODE_DATA[opCode.value()] = opCode;
+      }
+    }
+  }
 
+  @SneakyThrows(IOException.class)
+  private static List<OpCodeData> parse() {
     JsonNode rootNode =
         YAML_CONVERTER
             .getObjectMapper()
@@ -48,12 +66,15 @@ public class OpCodes {
     CollectionType typeReference =
         TypeFactory.defaultInstance().constructCollectionType(List.class, OpCodeData.class);
 
-    List<OpCodeData> opCodes =
-        YAML_CONVERTER.getObjectMapper().treeToValue(rootNode, typeReference);
+    return YAML_CONVERTER.getObjectMapper().treeToValue(rootNode, typeReference);
+  }
 
-    valueToOpCodeDataMap = opCodes.stream().collect(Collectors.toMap(OpCodeData::value, e -> e));
-    opCodeToOpCodeDataMap =
-        opCodes.stream().collect(Collectors.toMap(OpCodeData::mnemonic, e -> e));
+  /**
+   * Loads all opcode metadata from src/main/resources/opcodes.yml, if they have not been loaded
+   * yet; calling it is never required, but allows to pay the loading cost ahead of time.
+   */
+  public static void load() {
+    Objects.requireNonNull(Loaded.OP_CODE_TO_OP_CODE_DATA);
   }
 
   /**
@@ -67,7 +88,7 @@ public class OpCodes {
       throw new IllegalArgumentException("No OpCode with value %s is defined.".formatted(value));
     }
 
-    return valueToOpCodeDataMap.getOrDefault(value, of(OpCode.INVALID));
+    return Loaded.VALUE_TO_OP_CODE_DATA[value];
   }
 
   /**
@@ -77,7 +98,7 @@ public class OpCodes {
    * @return an instance of {@link OpCodeData} corresponding to mnemonic of type {@link OpCode}.
    */
   public static OpCodeData of(final OpCode code) {
-    return Optional.ofNullable(opCodeToOpCodeDataMap.get(code))
+    return Optional.ofNullable(Loaded.OP_CODE_TO_OP_CODE_DATA.get(code))
         .orElseThrow(
             () ->
                 new IllegalArgumentException(
@@ -87,6 +87,13 @@ public final class CallStack {
     return this.frames.isEmpty();
   }
 
+  /** Drop all the frames of all the transactions traced so far. */
+  public void clear() {
+    this.frames.clear();
+    this.depth = 0;
+    this.current = 0;
+  }
+
   public int futureId() {
     return this.frames.size();
   }
@@ -17,6 +17,7 @@ package net.consensys.linea.zktracer.runtime.stack;
 
 import lombok.Getter;
 import lombok.experimental.Accessors;
+import net.consensys.linea.zktracer.module.hub.CodeStore;
 import net.consensys.linea.zktracer.module.hub.DeploymentInfo;
 
 /** Stores data relative to the conflation. */
@@ -25,9 +26,18 @@ import net.consensys.linea.zktracer.module.hub.DeploymentInfo;
 public class ConflationInfo {
   private int number = 0;
   private DeploymentInfo deploymentInfo;
+  private CodeStore codeStore;
 
   public void update() {
     this.number++;
     this.deploymentInfo = new DeploymentInfo();
+    this.codeStore = new CodeStore();
+  }
+
+  /** Forget every conflation seen so far. */
+  public void reset() {
+    this.number = 0;
+    this.deploymentInfo = null;
+    this.codeStore = null;
   }
 }
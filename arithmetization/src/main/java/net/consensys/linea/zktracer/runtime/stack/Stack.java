@@ -19,7 +19,6 @@ import lombok.Getter;
 import net.consensys.linea.zktracer.opcode.OpCode;
 import net.consensys.linea.zktracer.opcode.OpCodeData;
 import net.consensys.linea.zktracer.runtime.callstack.CallFrame;
-import net.consensys.linea.zktracer.types.EWord;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 
 public class Stack {
@@ -30,6 +29,8 @@ public class Stack {
   @Getter OpCodeData currentOpcodeData;
   Status status;
   int stamp;
+  /** Where the stack operations of the current instruction are stored */
+  private StackArena arena;
 
   public Stack() {
     this.height = 0;
@@ -47,259 +48,214 @@ public class Stack {
     return r;
   }
 
-  private EWord getStack(MessageFrame frame, int i) {
-    return EWord.of(frame.getStackItem(i));
+  private int getStack(MessageFrame frame, int i) {
+    if (!this.arena.recordsValues()) {
+      return StackArena.ZERO;
+    }
+    return this.arena.store(frame.getStackItem(i));
   }
 
   private void oneZero(MessageFrame frame, StackContext pending) {
-    EWord val = getStack(frame, 0);
-    pending.addLine(new IndexedStackOperation(1, StackOperation.pop(this.height, val, this.stamp)));
+    final int val = getStack(frame, 0);
+
+    final int line = pending.addLine();
+    pending.pop(line, 1, this.height, val, this.stamp);
   }
 
   private void twoZero(MessageFrame frame, StackContext pending) {
-    EWord val1 = getStack(frame, 0);
-    EWord val2 = getStack(frame, 1);
+    final int val1 = getStack(frame, 0);
+    final int val2 = getStack(frame, 1);
 
-    pending.addLine(
-        new IndexedStackOperation(1, StackOperation.pop(this.height, val1, this.stamp)),
-        new IndexedStackOperation(2, StackOperation.pop(this.height, val2, this.stamp)));
+    final int line = pending.addLine();
+    pending.pop(line, 1, this.height, val1, this.stamp);
+    pending.pop(line, 2, this.height, val2, this.stamp);
   }
 
   private void zeroOne(MessageFrame ignoredFrame, StackContext pending) {
-    pending.addArmingLine(
-        new IndexedStackOperation(4, StackOperation.push(this.height + 1, this.stamp)));
+    final int line = pending.addArmingLine();
+    pending.push(line, 4, this.height + 1, this.stamp);
   }
 
   private void oneOne(MessageFrame frame, StackContext pending) {
-    EWord val = getStack(frame, 0);
+    final int val = getStack(frame, 0);
 
-    pending.addArmingLine(
-        new IndexedStackOperation(1, StackOperation.pop(this.height, val, this.stamp)),
-        new IndexedStackOperation(4, StackOperation.push(this.height, this.stamp + 1)));
+    final int line = pending.addArmingLine();
+    pending.pop(line, 1, this.height, val, this.stamp);
+    pending.push(line, 4, this.height, this.stamp + 1);
   }
 
   private void twoOne(MessageFrame frame, StackContext pending) {
-    EWord val1 = getStack(frame, 0);
-    EWord val2 = getStack(frame, 1);
+    final int val1 = getStack(frame, 0);
+    final int val2 = getStack(frame, 1);
 
-    pending.addArmingLine(
-        new IndexedStackOperation(1, StackOperation.pop(this.height, val1, this.stamp)),
-        new IndexedStackOperation(2, StackOperation.pop(this.height - 1, val2, this.stamp + 1)),
-        new IndexedStackOperation(4, StackOperation.push(this.height - 1, this.stamp + 2)));
+    final int line = pending.addArmingLine();
+    pending.pop(line, 1, this.height, val1, this.stamp);
+    pending.pop(line, 2, this.height - 1, val2, this.stamp + 1);
+    pending.push(line, 4, this.height - 1, this.stamp + 2);
   }
 
   private void threeOne(MessageFrame frame, StackContext pending) {
-    EWord val1 = getStack(frame, 0);
-    EWord val2 = getStack(frame, 1);
-    EWord val3 = getStack(frame, 2);
-
-    pending.addArmingLine(
-        new IndexedStackOperation(1, StackOperation.pop(this.height, val1, this.stamp)),
-        new IndexedStackOperation(2, StackOperation.pop(this.height - 1, val2, this.stamp + 1)),
-        new IndexedStackOperation(3, StackOperation.pop(this.height - 2, val3, this.stamp + 2)),
-        new IndexedStackOperation(4, StackOperation.push(this.height - 2, this.stamp + 3)));
+    final int val1 = getStack(frame, 0);
+    final int val2 = getStack(frame, 1);
+    final int val3 = getStack(frame, 2);
+
+    final int line = pending.addArmingLine();
+    pending.pop(line, 1, this.height, val1, this.stamp);
+    pending.pop(line, 2, this.height - 1, val2, this.stamp + 1);
+    pending.pop(line, 3, this.height - 2, val3, this.stamp + 2);
+    pending.push(line, 4, this.height - 2, this.stamp + 3);
   }
 
   private void loadStore(MessageFrame frame, StackContext pending) {
     if (this.currentOpcodeData.stackSettings().flag3()
         || this.currentOpcodeData.stackSettings().flag4()) {
-      EWord val1 = getStack(frame, 0);
-      EWord val2 = getStack(frame, 1);
+      final int val1 = getStack(frame, 0);
+      final int val2 = getStack(frame, 1);
 
-      pending.addLine(
-          new IndexedStackOperation(1, StackOperation.pop(this.height, val1, this.stamp)),
-          new IndexedStackOperation(4, StackOperation.pop(this.height - 1, val2, this.stamp + 1)));
+      final int line = pending.addLine();
+      pending.pop(line, 1, this.height, val1, this.stamp);
+      pending.pop(line, 4, this.height - 1, val2, this.stamp + 1);
     } else {
-      EWord val = getStack(frame, 0);
+      final int val = getStack(frame, 0);
 
-      pending.addArmingLine(
-          new IndexedStackOperation(1, StackOperation.pop(this.height, val, this.stamp)),
-          new IndexedStackOperation(4, StackOperation.push(this.height, this.stamp + 1)));
+      final int line = pending.addArmingLine();
+      pending.pop(line, 1, this.height, val, this.stamp);
+      pending.push(line, 4, this.height, this.stamp + 1);
     }
   }
 
   private void dup(MessageFrame frame, StackContext pending) {
-    int depth = this.currentOpcodeData.stackSettings().delta() - 1;
-    EWord val = getStack(frame, depth);
-
-    pending.addLine(
-        new IndexedStackOperation(1, StackOperation.pop(this.height - depth, val, this.stamp)),
-        new IndexedStackOperation(
-            2, StackOperation.pushImmediate(this.height - depth, val, this.stamp + 1)),
-        new IndexedStackOperation(
-            4, StackOperation.pushImmediate(this.height + 1, val, this.stamp + 2)));
+    final int depth = this.currentOpcodeData.stackSettings().delta() - 1;
+    final int val = getStack(frame, depth);
+
+    final int line = pending.addLine();
+    pending.pop(line, 1, this.height - depth, val, this.stamp);
+    pending.pushImmediate(line, 2, this.height - depth, val, this.stamp + 1);
+    pending.pushImmediate(line, 4, this.height + 1, val, this.stamp + 2);
   }
 
   private void swap(MessageFrame frame, StackContext pending) {
-    int depth = this.currentOpcodeData.stackSettings().delta() - 1;
-    EWord val1 = getStack(frame, 0);
-    EWord val2 = getStack(frame, depth);
-
-    pending.addLine(
-        new IndexedStackOperation(1, StackOperation.pop(this.height - depth, val1, this.stamp)),
-        new IndexedStackOperation(2, StackOperation.pop(this.height, val2, this.stamp + 1)),
-        new IndexedStackOperation(
-            3, StackOperation.pushImmediate(this.height - depth, val2, this.stamp + 2)),
-        new IndexedStackOperation(
-            4, StackOperation.pushImmediate(this.height, val1, this.stamp + 3)));
+    final int depth = this.currentOpcodeData.stackSettings().delta() - 1;
+    final int val1 = getStack(frame, 0);
+    final int val2 = getStack(frame, depth);
+
+    final int line = pending.addLine();
+    pending.pop(line, 1, this.height - depth, val1, this.stamp);
+    pending.pop(line, 2, this.height, val2, this.stamp + 1);
+    pending.pushImmediate(line, 3, this.height - depth, val2, this.stamp + 2);
+    pending.pushImmediate(line, 4, this.height, val1, this.stamp + 3);
   }
 
   private void log(MessageFrame frame, StackContext pending) {
-    EWord offset = getStack(frame, 0);
-    EWord size = getStack(frame, 1);
+    final int offset = getStack(frame, 0);
+    final int size = getStack(frame, 1);
 
     // Stack line 1
-    pending.addLine(
-        new IndexedStackOperation(1, StackOperation.pop(this.height, offset, this.stamp)),
-        new IndexedStackOperation(2, StackOperation.pop(this.height - 1, size, this.stamp + 1)));
+    final int line1 = pending.addLine();
+    pending.pop(line1, 1, this.height, offset, this.stamp);
+    pending.pop(line1, 2, this.height - 1, size, this.stamp + 1);
 
     // Stack line 2
-    IndexedStackOperation[] line2 = new IndexedStackOperation[] {};
-    switch (this.currentOpcodeData.mnemonic()) {
-      case LOG0 -> {}
-      case LOG1 -> {
-        EWord topic1 = getStack(frame, 2);
-
-        line2 =
-            new IndexedStackOperation[] {
-              new IndexedStackOperation(
-                  1, StackOperation.pop(this.height - 2, topic1, this.stamp + 2)),
-            };
-      }
-      case LOG2 -> {
-        EWord topic1 = getStack(frame, 2);
-        EWord topic2 = getStack(frame, 3);
-
-        line2 =
-            new IndexedStackOperation[] {
-              new IndexedStackOperation(
-                  1, StackOperation.pop(this.height - 2, topic1, this.stamp + 2)),
-              new IndexedStackOperation(
-                  2, StackOperation.pop(this.height - 3, topic2, this.stamp + 3)),
-            };
-      }
-      case LOG3 -> {
-        EWord topic1 = getStack(frame, 2);
-        EWord topic2 = getStack(frame, 3);
-        EWord topic3 = getStack(frame, 4);
-
-        line2 =
-            new IndexedStackOperation[] {
-              new IndexedStackOperation(
-                  1, StackOperation.pop(this.height - 2, topic1, this.stamp + 2)),
-              new IndexedStackOperation(
-                  2, StackOperation.pop(this.height - 3, topic2, this.stamp + 3)),
-              new IndexedStackOperation(
-                  3, StackOperation.pop(this.height - 4, topic3, this.stamp + 4)),
-            };
-      }
-      case LOG4 -> {
-        EWord topic1 = getStack(frame, 2);
-        EWord topic2 = getStack(frame, 3);
-        EWord topic3 = getStack(frame, 4);
-        EWord topic4 = getStack(frame, 5);
-
-        line2 =
-            new IndexedStackOperation[] {
-              new IndexedStackOperation(
-                  1, StackOperation.pop(this.height - 2, topic1, this.stamp + 2)),
-              new IndexedStackOperation(
-                  2, StackOperation.pop(this.height - 3, topic2, this.stamp + 3)),
-              new IndexedStackOperation(
-                  3, StackOperation.pop(this.height - 4, topic3, this.stamp + 4)),
-              new IndexedStackOperation(
-                  4, StackOperation.pop(this.height - 5, topic4, this.stamp + 5)),
-            };
-      }
-      default -> throw new RuntimeException("not a LOGx");
+    final int topics =
+        switch (this.currentOpcodeData.mnemonic()) {
+          case LOG0 -> 0;
+          case LOG1 -> 1;
+          case LOG2 -> 2;
+          case LOG3 -> 3;
+          case LOG4 -> 4;
+          default -> throw new RuntimeException("not a LOGx");
+        };
+    final int line2 = pending.addLine();
+    for (int i = 1; i <= topics; i++) {
+      final int topic = getStack(frame, i + 1);
+      pending.pop(line2, i, this.height - i - 1, topic, this.stamp + i + 1);
     }
-    pending.addLine(line2);
   }
 
   private void copy(MessageFrame frame, StackContext pending) {
     if (this.currentOpcodeData.stackSettings().addressTrimmingInstruction()) {
-      EWord val0 = getStack(frame, 0);
-      EWord val1 = getStack(frame, 1);
-      EWord val2 = getStack(frame, 2);
-      EWord val3 = getStack(frame, 3);
-
-      pending.addLine(
-          new IndexedStackOperation(1, StackOperation.pop(this.height - 1, val1, this.stamp + 1)),
-          new IndexedStackOperation(2, StackOperation.pop(this.height - 3, val3, this.stamp + 2)),
-          new IndexedStackOperation(3, StackOperation.pop(this.height - 2, val2, this.stamp + 3)),
-          new IndexedStackOperation(4, StackOperation.pop(this.height, val0, this.stamp)));
+      final int val0 = getStack(frame, 0);
+      final int val1 = getStack(frame, 1);
+      final int val2 = getStack(frame, 2);
+      final int val3 = getStack(frame, 3);
+
+      final int line = pending.addLine();
+      pending.pop(line, 1, this.height - 1, val1, this.stamp + 1);
+      pending.pop(line, 2, this.height - 3, val3, this.stamp + 2);
+      pending.pop(line, 3, this.height - 2, val2, this.stamp + 3);
+      pending.pop(line, 4, this.height, val0, this.stamp);
     } else {
-      EWord val1 = getStack(frame, 0);
-      EWord val2 = getStack(frame, 2);
-      EWord val3 = getStack(frame, 1);
-
-      pending.addLine(
-          new IndexedStackOperation(1, StackOperation.pop(this.height, val1, this.stamp + 1)),
-          new IndexedStackOperation(2, StackOperation.pop(this.height - 2, val2, this.stamp + 2)),
-          new IndexedStackOperation(3, StackOperation.pop(this.height - 1, val3, this.stamp + 3)));
+      final int val1 = getStack(frame, 0);
+      final int val2 = getStack(frame, 2);
+      final int val3 = getStack(frame, 1);
+
+      final int line = pending.addLine();
+      pending.pop(line, 1, this.height, val1, this.stamp + 1);
+      pending.pop(line, 2, this.height - 2, val2, this.stamp + 2);
+      pending.pop(line, 3, this.height - 1, val3, this.stamp + 3);
     }
   }
 
   private void call(MessageFrame frame, StackContext pending) {
-    EWord val1 = getStack(frame, 0);
-    EWord val2 = getStack(frame, 1);
-    EWord val3 = getStack(frame, 2);
-    EWord val4 = getStack(frame, 3);
-    EWord val5 = getStack(frame, 4);
-    EWord val6 = getStack(frame, 5);
+    final int val1 = getStack(frame, 0);
+    final int val2 = getStack(frame, 1);
+    final int val3 = getStack(frame, 2);
+    final int val4 = getStack(frame, 3);
+    final int val5 = getStack(frame, 4);
+    final int val6 = getStack(frame, 5);
 
     boolean sevenItems =
         this.currentOpcodeData.stackSettings().flag1()
             || this.currentOpcodeData.stackSettings().flag2();
     if (sevenItems) {
-      EWord val7 = getStack(frame, 6);
-
-      pending.addLine(
-          new IndexedStackOperation(1, StackOperation.pop(this.height - 3, val4, this.stamp + 3)),
-          new IndexedStackOperation(2, StackOperation.pop(this.height - 4, val5, this.stamp + 4)),
-          new IndexedStackOperation(3, StackOperation.pop(this.height - 5, val6, this.stamp + 5)),
-          new IndexedStackOperation(4, StackOperation.pop(this.height - 6, val7, this.stamp + 6)));
-      pending.addArmingLine(
-          new IndexedStackOperation(1, StackOperation.pop(this.height, val1, this.stamp)),
-          new IndexedStackOperation(2, StackOperation.pop(this.height - 1, val2, this.stamp + 1)),
-          new IndexedStackOperation(3, StackOperation.pop(this.height - 2, val3, this.stamp + 2)),
-          new IndexedStackOperation(4, StackOperation.push(this.height - 6, this.stamp + 6)));
+      final int val7 = getStack(frame, 6);
+
+      final int line1 = pending.addLine();
+      pending.pop(line1, 1, this.height - 3, val4, this.stamp + 3);
+      pending.pop(line1, 2, this.height - 4, val5, this.stamp + 4);
+      pending.pop(line1, 3, this.height - 5, val6, this.stamp + 5);
+      pending.pop(line1, 4, this.height - 6, val7, this.stamp + 6);
+
+      final int line2 = pending.addArmingLine();
+      pending.pop(line2, 1, this.height, val1, this.stamp);
+      pending.pop(line2, 2, this.height - 1, val2, this.stamp + 1);
+      pending.pop(line2, 3, this.height - 2, val3, this.stamp + 2);
+      pending.push(line2, 4, this.height - 6, this.stamp + 6);
     } else {
-
-      pending.addLine(
-          new IndexedStackOperation(1, StackOperation.pop(this.height - 2, val3, this.stamp + 3)),
-          new IndexedStackOperation(2, StackOperation.pop(this.height - 3, val4, this.stamp + 4)),
-          new IndexedStackOperation(3, StackOperation.pop(this.height - 4, val5, this.stamp + 5)),
-          new IndexedStackOperation(4, StackOperation.pop(this.height - 5, val6, this.stamp + 6)));
-
-      pending.addArmingLine(
-          new IndexedStackOperation(1, StackOperation.pop(this.height, val1, this.stamp)),
-          new IndexedStackOperation(2, StackOperation.pop(this.height - 1, val2, this.stamp + 1)),
-          new IndexedStackOperation(4, StackOperation.push(this.height - 5, this.stamp + 7)));
+      final int line1 = pending.addLine();
+      pending.pop(line1, 1, this.height - 2, val3, this.stamp + 3);
+      pending.pop(line1, 2, this.height - 3, val4, this.stamp + 4);
+      pending.pop(line1, 3, this.height - 4, val5, this.stamp + 5);
+      pending.pop(line1, 4, this.height - 5, val6, this.stamp + 6);
+
+      final int line2 = pending.addArmingLine();
+      pending.pop(line2, 1, this.height, val1, this.stamp);
+      pending.pop(line2, 2, this.height - 1, val2, this.stamp + 1);
+      pending.push(line2, 4, this.height - 5, this.stamp + 7);
     }
   }
 
   private void create(MessageFrame frame, StackContext pending) {
-    EWord val1 = getStack(frame, 1);
-    EWord val2 = getStack(frame, 2);
+    final int val1 = getStack(frame, 1);
+    final int val2 = getStack(frame, 2);
 
-    pending.addLine(
-        new IndexedStackOperation(1, StackOperation.pop(this.height - 1, val1, this.stamp + 1)),
-        new IndexedStackOperation(2, StackOperation.pop(this.height - 2, val2, this.stamp + 2)));
+    final int line1 = pending.addLine();
+    pending.pop(line1, 1, this.height - 1, val1, this.stamp + 1);
+    pending.pop(line1, 2, this.height - 2, val2, this.stamp + 2);
     if (this.currentOpcodeData.stackSettings().flag1()) {
-      EWord val3 = getStack(frame, 3);
-      EWord val4 = getStack(frame, 0);
+      final int val3 = getStack(frame, 3);
+      final int val4 = getStack(frame, 0);
 
-      pending.addArmingLine(
-          new IndexedStackOperation(2, StackOperation.pop(this.height - 3, val3, this.stamp + 3)),
-          new IndexedStackOperation(3, StackOperation.pop(this.height, val4, this.stamp)),
-          new IndexedStackOperation(4, StackOperation.push(this.height - 3, this.stamp + 4)));
+      final int line2 = pending.addArmingLine();
+      pending.pop(line2, 2, this.height - 3, val3, this.stamp + 3);
+      pending.pop(line2, 3, this.height, val4, this.stamp);
+      pending.push(line2, 4, this.height - 3, this.stamp + 4);
     } else {
-      EWord val4 = getStack(frame, 0);
+      final int val4 = getStack(frame, 0);
 
-      pending.addArmingLine(
-          new IndexedStackOperation(3, StackOperation.pop(this.height, val4, this.stamp)),
-          new IndexedStackOperation(4, StackOperation.push(this.height - 2, this.stamp + 4)));
+      final int line2 = pending.addArmingLine();
+      pending.pop(line2, 3, this.height, val4, this.stamp);
+      pending.push(line2, 4, this.height - 2, this.stamp + 4);
     }
   }
 
@@ -324,11 +280,24 @@ public class Stack {
     return this.status == Status.OVERFLOW;
   }
 
-  public void processInstruction(MessageFrame frame, CallFrame callFrame, int stackStamp) {
+  /**
+   * Register the stack operations of the instruction about to be executed in the given frame.
+   *
+   * @param frame the frame executing the instruction
+   * @param callFrame the {@link CallFrame} owning this stack
+   * @param arena where to store the stack operations
+   * @param stackStamp the stack stamp before the instruction
+   */
+  public void processInstruction(
+      MessageFrame frame, CallFrame callFrame, StackArena arena, int stackStamp) {
+    this.arena = arena;
     this.stamp = stackStamp;
     this.height = this.heightNew;
     this.currentOpcodeData = OpCode.of(frame.getCurrentOperation().getOpcode()).getData();
-    callFrame.pending(new StackContext(this.currentOpcodeData.mnemonic()));
+    if (callFrame.pending() == null) {
+      callFrame.pending(new StackContext(arena));
+    }
+    callFrame.pending().reset(this.currentOpcodeData.mnemonic());
 
     this.heightNew += this.currentOpcodeData.stackSettings().nbAdded();
     this.heightNew -= this.currentOpcodeData.stackSettings().nbRemoved();
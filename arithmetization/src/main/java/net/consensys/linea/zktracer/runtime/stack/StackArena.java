@@ -0,0 +1,241 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.zktracer.runtime.stack;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.consensys.linea.zktracer.container.StackedContainer;
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * A flat, primitive store for the stack operations of all the instructions traced by the hub.
+ *
+ * <p>Stack operations are grouped in lines of four items, mapping 1-to-1 with the stack perspective
+ * of the hub. Each item is encoded as four ints -- its height, its stamp, its {@link Action} and a
+ * reference to its value -- and the 256-bit values themselves are stored as four longs in a shared
+ * slab, so that items carrying the same value (e.g. for DUPs) share it. Nothing is allocated per
+ * stack operation, and the stack fragments are mere views over a line of the arena.
+ *
+ * <p>Line {@link #EMPTY_LINE} is made of no-ops and is always available; value {@link #ZERO} is
+ * always zero. An arena that does not record values, e.g. when only counting lines, refers every
+ * item to {@link #ZERO}.
+ */
+public final class StackArena implements StackedContainer {
+  /** A line made of four no-op items. */
+  public static final int EMPTY_LINE = 0;
+  /** The reference to the zero value. */
+  public static final int ZERO = 0;
+  /** The reference to the marker value of a push not yet unlatched. */
+  static final int UNLATCHED = 1;
+
+  private static final int ITEMS_PER_LINE = 4;
+  private static final int ITEM_STRIDE = 4;
+  private static final int LINE_STRIDE = ITEMS_PER_LINE * ITEM_STRIDE;
+  private static final int HEIGHT = 0;
+  private static final int STAMP = 1;
+  private static final int ACTION = 2;
+  private static final int VALUE = 3;
+  private static final int LIMBS = 4;
+  private static final int INITIAL_LINES = 1024;
+  private static final Action[] ACTIONS = Action.values();
+
+  private int[] items = new int[INITIAL_LINES * LINE_STRIDE];
+  private int lineCount = 0;
+  private long[] values = new long[INITIAL_LINES * LIMBS];
+  private int valueCount = 0;
+  /** The line and value counts when entering each of the modification contexts. */
+  private final List<int[]> marks = new ArrayList<>();
+  /** Whether the values of the stack items are stored; they are not required to count lines. */
+  private final boolean recordsValues;
+
+  public StackArena() {
+    this(true);
+  }
+
+  /**
+   * @param recordsValues whether the values of the stack items are stored
+   */
+  public StackArena(final boolean recordsValues) {
+    this.recordsValues = recordsValues;
+    this.clear();
+  }
+
+  /**
+   * @return whether the values of the stack items are stored, rather than all referred to {@link
+   *     #ZERO}
+   */
+  public boolean recordsValues() {
+    return this.recordsValues;
+  }
+
+  /**
+   * Drop all the lines and values but the reserved ones, keeping the buffers allocated so far.
+   */
+  public void clear() {
+    this.lineCount = 0;
+    this.valueCount = 0;
+    this.marks.clear();
+    this.newLine();
+    this.storeLimbs(0, 0, 0, 0);
+    this.storeLimbs(0, 0, 0, 0xDEADBEEFL);
+  }
+
+  @Override
+  public void enter() {
+    this.marks.add(new int[] {this.lineCount, this.valueCount});
+  }
+
+  @Override
+  public void pop() {
+    final int[] mark = this.marks.remove(this.marks.size() - 1);
+    this.lineCount = mark[0];
+    this.valueCount = mark[1];
+  }
+
+  /**
+   * @return the number of lines in the arena, which is also the index of the next line
+   */
+  public int lineCount() {
+    return this.lineCount;
+  }
+
+  /**
+   * Append a line of four no-ops to the arena.
+   *
+   * @return the index of the new line
+   */
+  int newLine() {
+    if ((this.lineCount + 1) * LINE_STRIDE > this.items.length) {
+      this.items = Arrays.copyOf(this.items, this.items.length * 2);
+    }
+    final int offset = this.lineCount * LINE_STRIDE;
+    Arrays.fill(this.items, offset, offset + LINE_STRIDE, 0);
+    return this.lineCount++;
+  }
+
+  /**
+   * Set an item of a line.
+   *
+   * @param line the line to alter
+   * @param i the 1-based index of the item within the line -- within [[1, 4]]
+   * @param height the height of the item
+   * @param action whether the item is pushed or popped
+   * @param value the reference to the value of the item
+   * @param stamp the stack stamp of the item
+   */
+  void set(int line, int i, int height, Action action, int value, int stamp) {
+    final int offset = offset(line, i);
+    this.items[offset + HEIGHT] = height;
+    this.items[offset + STAMP] = stamp;
+    this.items[offset + ACTION] = action.ordinal();
+    this.items[offset + VALUE] = value;
+  }
+
+  /**
+   * Retroactively set the value of an item; used during the unlatching process.
+   *
+   * @param line the line to alter
+   * @param i the 1-based index of the item within the line
+   * @param value the reference to the new value of the item
+   */
+  void setValue(int line, int i, int value) {
+    this.items[offset(line, i) + VALUE] = value;
+  }
+
+  /**
+   * Store a stack value of at most 32 bytes, left-padded with zeros.
+   *
+   * @param value the value to store
+   * @return the reference to the stored value
+   */
+  int store(Bytes value) {
+    final int size = value.size();
+    if (size == 32) {
+      return this.storeLimbs(
+          value.getLong(0), value.getLong(8), value.getLong(16), value.getLong(24));
+    }
+
+    final long[] limbs = new long[LIMBS];
+    for (int j = 0; j < size; j++) {
+      final int k = 32 - size + j;
+      limbs[k / 8] |= (value.get(j) & 0xffL) << (8 * (7 - k % 8));
+    }
+    return this.storeLimbs(limbs[0], limbs[1], limbs[2], limbs[3]);
+  }
+
+  private int storeLimbs(long u3, long u2, long u1, long u0) {
+    if ((u3 | u2 | u1 | u0) == 0 && this.valueCount > ZERO) {
+      return ZERO;
+    }
+    if ((this.valueCount + 1) * LIMBS > this.values.length) {
+      this.values = Arrays.copyOf(this.values, this.values.length * 2);
+    }
+    final int offset = this.valueCount * LIMBS;
+    this.values[offset] = u3;
+    this.values[offset + 1] = u2;
+    this.values[offset + 2] = u1;
+    this.values[offset + 3] = u0;
+    return this.valueCount++;
+  }
+
+  public int height(int line, int i) {
+    return this.items[offset(line, i) + HEIGHT];
+  }
+
+  public int stamp(int line, int i) {
+    return this.items[offset(line, i) + STAMP];
+  }
+
+  public Action action(int line, int i) {
+    return ACTIONS[this.items[offset(line, i) + ACTION]];
+  }
+
+  /**
+   * @return the 128 most significant bits of the value of an item
+   */
+  public BigInteger valueHi(int line, int i) {
+    final int value = this.items[offset(line, i) + VALUE] * LIMBS;
+    return unsigned128(this.values[value], this.values[value + 1]);
+  }
+
+  /**
+   * @return the 128 least significant bits of the value of an item
+   */
+  public BigInteger valueLo(int line, int i) {
+    final int value = this.items[offset(line, i) + VALUE] * LIMBS;
+    return unsigned128(this.values[value + 2], this.values[value + 3]);
+  }
+
+  private static int offset(int line, int i) {
+    return line * LINE_STRIDE + (i - 1) * ITEM_STRIDE;
+  }
+
+  private static BigInteger unsigned128(long hi, long lo) {
+    if (hi == 0 && lo >= 0) {
+      return BigInteger.valueOf(lo);
+    }
+
+    final byte[] bytes = new byte[16];
+    for (int j = 0; j < 8; j++) {
+      bytes[j] = (byte) (hi >>> (56 - 8 * j));
+      bytes[8 + j] = (byte) (lo >>> (56 - 8 * j));
+    }
+    return new BigInteger(1, bytes);
+  }
+}
@@ -15,34 +15,58 @@
 
 package net.consensys.linea.zktracer.runtime.stack;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-
 import lombok.Getter;
+import lombok.experimental.Accessors;
 import net.consensys.linea.zktracer.module.hub.Hub;
 import net.consensys.linea.zktracer.opcode.OpCode;
 import net.consensys.linea.zktracer.runtime.callstack.CallFrame;
+import org.apache.tuweni.bytes.Bytes;
 
 /**
  * A StackContext encode the stack-related information pertaining to the execution of an opcode
  * within a {@link CallFrame}. These cached information are used by the {@link Hub} to generate its
  * traces in the stack perspective.
+ *
+ * <p>The lines themselves live in a {@link StackArena}; as the lines of an instruction are created
+ * together, they are contiguous in the arena. A {@link CallFrame} reuses the same context for all
+ * of its instructions.
  */
+@Accessors(fluent = true)
 public final class StackContext {
+  private final StackArena arena;
   /** The opcode that triggered the stack operations. */
   OpCode opCode;
+  /** The arena index of the first line of the current instruction. */
+  private int firstLine;
   /** One or two lines to be traced, representing the stack operations performed by the opcode. */
-  @Getter List<StackLine> lines;
+  @Getter private int lineCount;
+  /** If positive, the line in which the expected retroactive result shall be stored. */
+  private int resultLine = -1;
+  /** In which item of {@link #resultLine} to store the expected retroactive result. */
+  private int resultColumn;
+
+  StackContext(StackArena arena) {
+    this.arena = arena;
+  }
 
   /**
-   * The default constructor for a valid, albeit empty line.
+   * Bind this context to a new instruction, starting with no lines.
    *
    * @param opCode the {@link OpCode} triggering the lines creation
    */
-  StackContext(OpCode opCode) {
+  void reset(OpCode opCode) {
     this.opCode = opCode;
-    this.lines = new ArrayList<>();
+    this.firstLine = this.arena.lineCount();
+    this.lineCount = 0;
+    this.resultLine = -1;
+  }
+
+  /**
+   * @param i the index of a line of this context
+   * @return the index of this line in the {@link StackArena}
+   */
+  public int line(int i) {
+    return this.firstLine + i;
   }
 
   /**
@@ -54,38 +78,71 @@ public final class StackContext {
    */
   int addEmptyLines(int k) {
     for (int i = 0; i < k; i++) {
-      this.lines.add(new StackLine());
+      this.addLine();
     }
     return k;
   }
 
   /**
-   * Creates a new stack lint that will not require unlatching, either because no value are pushed
+   * Creates a new stack line that will not require unlatching, either because no value are pushed
    * or because they are already known.
    *
-   * @param items the stack operations to execute
+   * @return the arena index of the new line
    */
-  void addLine(IndexedStackOperation... items) {
-    int newPos = this.lines.size();
-    this.lines.add(new StackLine(newPos, items));
+  int addLine() {
+    this.lineCount++;
+    return this.arena.newLine();
   }
 
   /**
    * Creates a new stack line that will require unlatching.
    *
    * @param posResult in which stack item the result shall be unlatched
-   * @param items the stack operations to execute
+   * @return the arena index of the new line
    */
-  void addArmingLine(int posResult, IndexedStackOperation... items) {
-    this.lines.add(new StackLine(Arrays.stream(items).toList(), posResult));
+  int addArmingLine(int posResult) {
+    this.resultLine = this.lineCount;
+    this.resultColumn = posResult;
+    return this.addLine();
   }
 
   /**
    * As virtually all latched stack operations write to item #4, this provides a shortcut for it.
    *
-   * @param items the stack operations to execute
+   * @return the arena index of the new line
+   */
+  int addArmingLine() {
+    return this.addArmingLine(4);
+  }
+
+  void pop(int line, int i, int height, int value, int stamp) {
+    this.arena.set(line, i, height, Action.POP, value, stamp);
+  }
+
+  void push(int line, int i, int height, int stamp) {
+    this.arena.set(line, i, height, Action.PUSH, StackArena.UNLATCHED, stamp);
+  }
+
+  void pushImmediate(int line, int i, int height, int value, int stamp) {
+    this.arena.set(line, i, height, Action.PUSH, value, stamp);
+  }
+
+  /**
+   * @return whether an item of these stack lines requires a retroactively set value
+   */
+  public boolean needsResult() {
+    return this.resultLine >= 0;
+  }
+
+  /**
+   * Sets the value of the item awaiting a retroactive result, during the unlatching process.
+   *
+   * @param value the value to use
    */
-  void addArmingLine(IndexedStackOperation... items) {
-    this.addArmingLine(4, items);
+  public void setResult(Bytes value) {
+    if (!this.needsResult()) {
+      throw new RuntimeException("Stack lines have no result column");
+    }
+    this.arena.setValue(this.line(this.resultLine), this.resultColumn, this.arena.store(value));
   }
 }
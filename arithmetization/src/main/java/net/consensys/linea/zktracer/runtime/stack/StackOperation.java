@@ -18,12 +18,10 @@ package net.consensys.linea.zktracer.runtime.stack;
 import net.consensys.linea.zktracer.types.EWord;
 
 /**
- * An atomic operation (read/pop or write/push) on the stack, indexed within a {@link
- * IndexedStackOperation}.
+ * An atomic operation (read/pop or write/push) on the stack.
  *
- * <p>Alterations of the stack by an EVM instruction are decomposed in one or two chunks, or {@link
- * StackLine}, made of {@link IndexedStackOperation}, which are then stored, with the associated
- * metadata, in a {@link StackContext}.
+ * <p>The hub does not materialize these while tracing: the stack operations of the EVM instructions
+ * are stored in a {@link StackArena} and described by a {@link StackContext}.
  */
 public final class StackOperation {
   /**
@@ -107,6 +107,16 @@ public final class EWord extends BaseUInt256Value<EWord> implements Quantity {
     return new EWord(UInt256.fromBytes(value));
   }
 
+  /**
+   * EVM word of {@link Word256}.
+   *
+   * @param value the value
+   * @return the EVM word
+   */
+  public static EWord of(final Word256 value) {
+    return new EWord(UInt256.fromBytes(value.toBytes32()));
+  }
+
   /**
    * From hex string to EVM word.
    *
@@ -132,6 +142,15 @@ public final class EWord extends BaseUInt256Value<EWord> implements Quantity {
     return super.toHexString();
   }
 
+  /**
+   * Returns the EWord as a {@link Word256}, for comparisons and arithmetic on primitive limbs
+   *
+   * @return the EWord as a {@link Word256}
+   */
+  public Word256 toWord256() {
+    return Word256.fromBytes(this);
+  }
+
   public Address toAddress() {
     return Address.wrap(this.slice(12, 20));
   }
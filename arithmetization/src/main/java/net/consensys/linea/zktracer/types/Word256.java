@@ -0,0 +1,348 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.zktracer.types;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.math.BigInteger;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * An immutable, unsigned 256-bit EVM word held in four primitive limbs.
+ *
+ * <p>Limb 0 holds the least significant 64 bits, matching the chunk order of {@link
+ * net.consensys.linea.zktracer.bytestheta.BaseTheta}; byte indices follow the big-endian order of
+ * {@link Bytes32}. Arithmetic wraps modulo 2^256 like the EVM does, and comparisons are unsigned,
+ * so operands can be inspected and combined without going through {@link BigInteger}.
+ */
+public final class Word256 implements Comparable<Word256> {
+  public static final Word256 ZERO = new Word256(0, 0, 0, 0);
+  public static final Word256 ONE = new Word256(0, 0, 0, 1);
+
+  private final long u3;
+  private final long u2;
+  private final long u1;
+  private final long u0;
+
+  private Word256(final long u3, final long u2, final long u1, final long u0) {
+    this.u3 = u3;
+    this.u2 = u2;
+    this.u1 = u1;
+    this.u0 = u0;
+  }
+
+  /**
+   * Builds a word from its limbs, most significant first.
+   *
+   * @param u3 bits 192 to 255
+   * @param u2 bits 128 to 191
+   * @param u1 bits 64 to 127
+   * @param u0 bits 0 to 63
+   * @return the word
+   */
+  public static Word256 of(final long u3, final long u2, final long u1, final long u0) {
+    return new Word256(u3, u2, u1, u0);
+  }
+
+  /**
+   * Builds a word from an unsigned long.
+   *
+   * @param value the value, read as unsigned
+   * @return the word
+   */
+  public static Word256 of(final long value) {
+    return new Word256(0, 0, 0, value);
+  }
+
+  /**
+   * Reads a big-endian value of at most 32 bytes, left-padding it with zeros.
+   *
+   * @param bytes the value
+   * @return the word
+   */
+  public static Word256 fromBytes(final Bytes bytes) {
+    final int size = bytes.size();
+    checkArgument(size <= 32, "expected at most 32 bytes, got %s", size);
+    return new Word256(
+        readLimb(bytes, size, 3),
+        readLimb(bytes, size, 2),
+        readLimb(bytes, size, 1),
+        readLimb(bytes, size, 0));
+  }
+
+  private static long readLimb(final Bytes bytes, final int size, final int i) {
+    final int end = size - 8 * i;
+    if (end <= 0) {
+      return 0;
+    }
+    final int start = Math.max(0, end - 8);
+    if (end - start == 8) {
+      return bytes.getLong(start);
+    }
+
+    long limb = 0;
+    for (int j = start; j < end; j++) {
+      limb = (limb << 8) | (bytes.get(j) & 0xff);
+    }
+    return limb;
+  }
+
+  /**
+   * Returns the i-th 64-bit limb, limb 0 being the least significant one.
+   *
+   * @param i the limb index, between 0 and 3
+   * @return the limb
+   */
+  public long limb(final int i) {
+    return switch (i) {
+      case 0 -> u0;
+      case 1 -> u1;
+      case 2 -> u2;
+      case 3 -> u3;
+      default -> throw new IndexOutOfBoundsException("limb index out of range: " + i);
+    };
+  }
+
+  /**
+   * Returns the i-th byte of the big-endian representation, as {@link Bytes32#get(int)} would.
+   *
+   * @param i the byte index, between 0 and 31
+   * @return the byte
+   */
+  public byte get(final int i) {
+    checkArgument(i >= 0 && i < 32, "byte index out of range: %s", i);
+    return (byte) (limb(3 - i / 8) >>> (8 * (7 - i % 8)));
+  }
+
+  public boolean isZero() {
+    return (u3 | u2 | u1 | u0) == 0;
+  }
+
+  /**
+   * @return true if the word fits in an unsigned long
+   */
+  public boolean fitsLong() {
+    return (u3 | u2 | u1) == 0;
+  }
+
+  @Override
+  public int compareTo(final Word256 other) {
+    int cmp = Long.compareUnsigned(u3, other.u3);
+    if (cmp == 0) {
+      cmp = Long.compareUnsigned(u2, other.u2);
+    }
+    if (cmp == 0) {
+      cmp = Long.compareUnsigned(u1, other.u1);
+    }
+    if (cmp == 0) {
+      cmp = Long.compareUnsigned(u0, other.u0);
+    }
+    return cmp;
+  }
+
+  /**
+   * @param other the word to compare against
+   * @return true if this word is strictly lower than the other one
+   */
+  public boolean lessThan(final Word256 other) {
+    return compareTo(other) < 0;
+  }
+
+  public int bitLength() {
+    for (int i = 3; i >= 0; i--) {
+      final long limb = limb(i);
+      if (limb != 0) {
+        return 64 * i + 64 - Long.numberOfLeadingZeros(limb);
+      }
+    }
+    return 0;
+  }
+
+  public int bitCount() {
+    return Long.bitCount(u3) + Long.bitCount(u2) + Long.bitCount(u1) + Long.bitCount(u0);
+  }
+
+  /**
+   * @return the number of trailing zero bits, 256 for the zero word
+   */
+  public int numberOfTrailingZeros() {
+    for (int i = 0; i < 4; i++) {
+      final long limb = limb(i);
+      if (limb != 0) {
+        return 64 * i + Long.numberOfTrailingZeros(limb);
+      }
+    }
+    return 256;
+  }
+
+  /**
+   * @param other the word to add
+   * @return the sum, modulo 2^256
+   */
+  public Word256 add(final Word256 other) {
+    final long r0 = u0 + other.u0;
+    long carry = carryOut(u0, other.u0, r0);
+    final long r1 = u1 + other.u1 + carry;
+    carry = carryOut(u1, other.u1, r1);
+    final long r2 = u2 + other.u2 + carry;
+    carry = carryOut(u2, other.u2, r2);
+    final long r3 = u3 + other.u3 + carry;
+    return new Word256(r3, r2, r1, r0);
+  }
+
+  /** Carry out of {@code sum = a + b + carryIn}, see Hacker's Delight 2-13. */
+  private static long carryOut(final long a, final long b, final long sum) {
+    return ((a & b) | ((a | b) & ~sum)) >>> 63;
+  }
+
+  /**
+   * @param other the word to subtract
+   * @return the difference, modulo 2^256
+   */
+  public Word256 subtract(final Word256 other) {
+    final long r0 = u0 - other.u0;
+    long borrow = borrowOut(u0, other.u0, r0);
+    final long r1 = u1 - other.u1 - borrow;
+    borrow = borrowOut(u1, other.u1, r1);
+    final long r2 = u2 - other.u2 - borrow;
+    borrow = borrowOut(u2, other.u2, r2);
+    final long r3 = u3 - other.u3 - borrow;
+    return new Word256(r3, r2, r1, r0);
+  }
+
+  /** Borrow out of {@code difference = a - b - borrowIn}, see Hacker's Delight 2-13. */
+  private static long borrowOut(final long a, final long b, final long difference) {
+    return ((~a & b) | ((~a | b) & difference)) >>> 63;
+  }
+
+  /**
+   * @param other the word to multiply by
+   * @return the product, modulo 2^256
+   */
+  public Word256 multiply(final Word256 other) {
+    final long[] a = {u0, u1, u2, u3};
+    final long[] b = {other.u0, other.u1, other.u2, other.u3};
+    final long[] r = new long[4];
+    for (int i = 0; i < 4; i++) {
+      long carry = 0;
+      for (int j = 0; i + j < 4; j++) {
+        // r[i + j] + a[i] * b[j] + carry always fits in 128 bits
+        final long lo = a[i] * b[j];
+        final long hi = unsignedMultiplyHigh(a[i], b[j]);
+        long sum = r[i + j] + lo;
+        long overflow = Long.compareUnsigned(sum, lo) < 0 ? 1 : 0;
+        sum += carry;
+        if (Long.compareUnsigned(sum, carry) < 0) {
+          overflow++;
+        }
+        r[i + j] = sum;
+        carry = hi + overflow;
+      }
+    }
+    return new Word256(r[3], r[2], r[1], r[0]);
+  }
+
+  private static long unsignedMultiplyHigh(final long a, final long b) {
+    return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+  }
+
+  /**
+   * @param modulus the modulus
+   * @return the remainder of the division by the modulus, zero if the modulus is zero
+   */
+  public Word256 mod(final Word256 modulus) {
+    if (modulus.isZero()) {
+      return ZERO;
+    }
+    if (this.fitsLong() && modulus.fitsLong()) {
+      return of(Long.remainderUnsigned(u0, modulus.u0));
+    }
+    if (this.lessThan(modulus)) {
+      return this;
+    }
+    return fromBigInteger(toUnsignedBigInteger().mod(modulus.toUnsignedBigInteger()));
+  }
+
+  private static Word256 fromBigInteger(final BigInteger value) {
+    return new Word256(
+        value.shiftRight(192).longValue(),
+        value.shiftRight(128).longValue(),
+        value.shiftRight(64).longValue(),
+        value.longValue());
+  }
+
+  /**
+   * @return the 16 most significant bytes
+   */
+  public Bytes16 hi() {
+    final byte[] bytes = new byte[16];
+    writeLimb(bytes, 0, u3);
+    writeLimb(bytes, 8, u2);
+    return Bytes16.wrap(bytes);
+  }
+
+  /**
+   * @return the 16 least significant bytes
+   */
+  public Bytes16 lo() {
+    final byte[] bytes = new byte[16];
+    writeLimb(bytes, 0, u1);
+    writeLimb(bytes, 8, u0);
+    return Bytes16.wrap(bytes);
+  }
+
+  public Bytes32 toBytes32() {
+    final byte[] bytes = new byte[32];
+    writeLimb(bytes, 0, u3);
+    writeLimb(bytes, 8, u2);
+    writeLimb(bytes, 16, u1);
+    writeLimb(bytes, 24, u0);
+    return Bytes32.wrap(bytes);
+  }
+
+  private static void writeLimb(final byte[] bytes, final int offset, final long limb) {
+    for (int i = 0; i < 8; i++) {
+      bytes[offset + i] = (byte) (limb >>> (8 * (7 - i)));
+    }
+  }
+
+  public BigInteger toUnsignedBigInteger() {
+    return new BigInteger(1, toBytes32().toArrayUnsafe());
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    return o instanceof Word256 w && u3 == w.u3 && u2 == w.u2 && u1 == w.u1 && u0 == w.u0;
+  }
+
+  @Override
+  public int hashCode() {
+    int h = Long.hashCode(u3);
+    h = 31 * h + Long.hashCode(u2);
+    h = 31 * h + Long.hashCode(u1);
+    return 31 * h + Long.hashCode(u0);
+  }
+
+  @Override
+  public String toString() {
+    return toBytes32().toHexString();
+  }
+}
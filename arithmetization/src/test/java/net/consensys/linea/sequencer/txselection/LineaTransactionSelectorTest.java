@@ -0,0 +1,208 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.sequencer.txselection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import net.consensys.linea.sequencer.txselection.selectors.LineaTransactionSelectionResult;
+import net.consensys.linea.zktracer.ZkTracer;
+import net.consensys.linea.zktracer.opcode.OpCode;
+import net.consensys.linea.zktracer.testing.BytecodeCompiler;
+import net.consensys.linea.zktracer.testing.ToyAccount;
+import net.consensys.linea.zktracer.testing.ToyExecutionEnvironment;
+import net.consensys.linea.zktracer.testing.ToyTransaction;
+import net.consensys.linea.zktracer.testing.ToyWorld;
+import org.hyperledger.besu.crypto.KeyPair;
+import org.hyperledger.besu.crypto.SECP256K1;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.PendingTransaction;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.plugin.data.TransactionProcessingResult;
+import org.hyperledger.besu.plugin.data.TransactionSelectionResult;
+import org.hyperledger.besu.plugin.services.txselection.PluginTransactionSelector;
+import org.junit.jupiter.api.Test;
+
+public class LineaTransactionSelectorTest {
+  private static final int PARALLEL_SELECTORS = 4;
+  private static final int PENDING_TRANSACTIONS = 5;
+  private static final Address RECEIVER = Address.fromHexString("0x111111");
+
+  private final List<KeyPair> senders = new ArrayList<>();
+
+  @Test
+  public void parallelSelectorsTraceInIsolation() throws Exception {
+    final Map<String, Integer> limits = new HashMap<>();
+    new ZkTracer().getModulesLineCount().keySet().forEach(m -> limits.put(m, Integer.MAX_VALUE));
+    final LineaTransactionSelectorFactory factory =
+        new LineaTransactionSelectorFactory(
+            LineaTransactionSelectorCliOptions.create(), () -> limits);
+
+    // the same pending transactions, processed by every block-building attempt
+    final List<Transaction> pendingTransactions = new ArrayList<>();
+    for (int i = 0; i < PENDING_TRANSACTIONS; i++) {
+      final KeyPair keyPair = new SECP256K1().generateKeyPair();
+      senders.add(keyPair);
+      pendingTransactions.add(
+          ToyTransaction.builder()
+              .sender(senderAccount(keyPair))
+              .to(receiverAccount())
+              .keyPair(keyPair)
+              .gasLimit(1_000_000L)
+              .build());
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_SELECTORS);
+    try {
+      final List<Callable<Map<String, Integer>>> attempts = new ArrayList<>();
+      for (int i = 0; i < PARALLEL_SELECTORS; i++) {
+        attempts.add(() -> buildBlock(factory, pendingTransactions));
+      }
+
+      final List<Map<String, Integer>> lineCounts = new ArrayList<>();
+      for (Future<Map<String, Integer>> attempt : executor.invokeAll(attempts)) {
+        lineCounts.add(attempt.get());
+      }
+
+      assertThat(lineCounts.get(0).get("Hub")).isPositive();
+      assertThat(lineCounts).allSatisfy(counts -> assertThat(counts).isEqualTo(lineCounts.get(0)));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void tracerIsGivenBackAtTheEndOfTheBlockOnceTheSelectionStops() {
+    final LineaTransactionSelectorFactory factory =
+        new LineaTransactionSelectorFactory(
+            LineaTransactionSelectorCliOptions.create(), HashMap::new);
+    final PluginTransactionSelector selector = factory.create();
+    assertThat(factory.getTracerPool().leased()).isOne();
+
+    selector.onTransactionNotSelected(
+        mock(PendingTransaction.class),
+        LineaTransactionSelectionResult.TX_MODULE_LINE_COUNT_OVERFLOW);
+    selector.onTransactionNotSelected(
+        mock(PendingTransaction.class), TransactionSelectionResult.BLOCK_FULL);
+    // the block builder still has to trace the end of the block
+    assertThat(factory.getTracerPool().leased()).isOne();
+
+    ToyExecutionEnvironment.builder()
+        .toyWorld(ToyWorld.empty())
+        .testValidator(x -> {})
+        .build()
+        .traceBlockWith((ZkTracer) selector.getOperationTracer());
+    assertThat(factory.getTracerPool().leased()).isZero();
+    assertThat(factory.getTracerPool().idle()).isOne();
+  }
+
+  @Test
+  public void tracerIsGivenBackWhenTheSelectionEndsWithoutBeingStopped() {
+    final Map<String, Integer> limits = new HashMap<>();
+    new ZkTracer().getModulesLineCount().keySet().forEach(m -> limits.put(m, Integer.MAX_VALUE));
+    final LineaTransactionSelectorFactory factory =
+        new LineaTransactionSelectorFactory(
+            LineaTransactionSelectorCliOptions.create(), () -> limits);
+    final KeyPair keyPair = new SECP256K1().generateKeyPair();
+    senders.add(keyPair);
+
+    // every pending transaction is selected, until the pool runs out of them
+    final Map<String, Integer> lineCounts =
+        buildBlock(
+            factory,
+            List.of(
+                ToyTransaction.builder()
+                    .sender(senderAccount(keyPair))
+                    .to(receiverAccount())
+                    .keyPair(keyPair)
+                    .gasLimit(1_000_000L)
+                    .build()));
+    assertThat(lineCounts.get("Hub")).isPositive();
+    assertThat(factory.getTracerPool().leased()).isZero();
+    assertThat(factory.getTracerPool().idle()).isOne();
+
+    // the next attempt is lent the same tracer
+    factory.create();
+    assertThat(factory.getTracerPool().leased()).isOne();
+    assertThat(factory.getTracerPool().idle()).isZero();
+  }
+
+  private Map<String, Integer> buildBlock(
+      LineaTransactionSelectorFactory factory, List<Transaction> pendingTransactions) {
+    final PluginTransactionSelector selector = factory.create();
+    final ZkTracer tracer = (ZkTracer) selector.getOperationTracer();
+    final AtomicReference<Map<String, Integer>> lineCounts = new AtomicReference<>();
+
+    // every attempt starts from its own copy of the same world state
+    final ToyWorld.ToyWorldBuilder world = ToyWorld.builder().account(receiverAccount());
+    senders.forEach(keyPair -> world.account(senderAccount(keyPair)));
+
+    // the line counts are only available until the tracer has traced the end of the block
+    ToyExecutionEnvironment.builder()
+        .toyWorld(world.build())
+        .transactions(pendingTransactions)
+        .testValidator(
+            result -> {
+              assertThat(
+                      selector.evaluateTransactionPostProcessing(
+                          mock(PendingTransaction.class), mock(TransactionProcessingResult.class)))
+                  .isEqualTo(TransactionSelectionResult.SELECTED);
+              lineCounts.set(tracer.getModulesLineCount());
+            })
+        .build()
+        .traceBlockWith(tracer);
+
+    return lineCounts.get();
+  }
+
+  private ToyAccount senderAccount(KeyPair keyPair) {
+    return ToyAccount.builder()
+        .balance(Wei.fromEth(1))
+        .nonce(0)
+        .address(Address.extract(Hash.hash(keyPair.getPublicKey().getEncodedBytes())))
+        .build();
+  }
+
+  private ToyAccount receiverAccount() {
+    return ToyAccount.builder()
+        .balance(Wei.ONE)
+        .nonce(1)
+        .address(RECEIVER)
+        .code(
+            BytecodeCompiler.newProgram()
+                .push(32, 0xbeef)
+                .push(32, 0xdead)
+                .op(OpCode.ADD)
+                .op(OpCode.POP)
+                .push(32, 0xbeef)
+                .push(0)
+                .op(OpCode.MSTORE)
+                .compile())
+        .build();
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.sequencer.txselection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.junit.jupiter.api.Test;
+
+public class TraceFootprintsTest {
+  private static final Address ALICE = Address.fromHexString("0xa11ce");
+  private static final Address BOB = Address.fromHexString("0xb0b");
+
+  @Test
+  public void diffKeepsTheTouchedModules() {
+    final TraceFootprints.Footprint footprint =
+        TraceFootprints.diff(
+            hash(1),
+            ALICE,
+            Map.of("Hub", 10, "Add", 2, "Mul", 0),
+            Map.of("Hub", 25, "Add", 2, "Mul", 4));
+
+    assertThat(footprint.lineCounts()).isEqualTo(Map.of("Hub", 15, "Mul", 4));
+  }
+
+  @Test
+  public void evictsTheLeastRecentlyUsedFootprints() {
+    final TraceFootprints footprints = new TraceFootprints(2, 0);
+    footprints.record(new TraceFootprints.Footprint(hash(1), ALICE, Map.of("Hub", 1)));
+    footprints.record(new TraceFootprints.Footprint(hash(2), BOB, Map.of("Hub", 2)));
+    assertThat(footprints.get(hash(1))).isPresent();
+    footprints.record(new TraceFootprints.Footprint(hash(3), ALICE, Map.of("Hub", 3)));
+
+    assertThat(footprints.get(hash(2))).isEmpty();
+    assertThat(footprints.bySender(ALICE))
+        .extracting(TraceFootprints.Footprint::hash)
+        .containsExactly(hash(1), hash(3));
+    assertThat(footprints.senderAverage(ALICE)).isEmpty();
+  }
+
+  @Test
+  public void averagesTheFootprintsOfEachSender() {
+    final TraceFootprints footprints = new TraceFootprints(10, 4);
+    footprints.record(new TraceFootprints.Footprint(hash(1), ALICE, Map.of("Hub", 100)));
+    footprints.record(new TraceFootprints.Footprint(hash(2), ALICE, Map.of("Hub", 20, "Add", 8)));
+
+    assertThat(footprints.senderAverage(ALICE)).contains(Map.of("Hub", 80.0, "Add", 2.0));
+    assertThat(footprints.senderAverage(BOB)).isEmpty();
+  }
+
+  private static Hash hash(int i) {
+    return Hash.hash(Bytes.of(i));
+  }
+}
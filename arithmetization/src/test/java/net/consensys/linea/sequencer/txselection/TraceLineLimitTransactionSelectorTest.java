@@ -0,0 +1,100 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.sequencer.txselection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import net.consensys.linea.sequencer.txselection.selectors.LineaTransactionSelectionResult;
+import net.consensys.linea.sequencer.txselection.selectors.TraceLineLimitTransactionSelector;
+import net.consensys.linea.zktracer.TracingMode;
+import net.consensys.linea.zktracer.ZkTracer;
+import org.apache.tuweni.bytes.Bytes;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.PendingTransaction;
+import org.hyperledger.besu.datatypes.Transaction;
+import org.hyperledger.besu.plugin.data.TransactionSelectionResult;
+import org.junit.jupiter.api.Test;
+
+public class TraceLineLimitTransactionSelectorTest {
+  private static final int LIMIT = 100;
+  private static final Address SENDER = Address.fromHexString("0x1000");
+
+  @Test
+  public void skipsTransactionsKnownToOverflowWhenPacking() {
+    final TraceFootprints footprints = new TraceFootprints(16, 0);
+    final PendingTransaction large = pendingTransaction(1);
+    final PendingTransaction small = pendingTransaction(2);
+    final PendingTransaction unknown = pendingTransaction(3);
+    footprints.record(footprint(large, LIMIT + 1));
+    footprints.record(footprint(small, LIMIT));
+
+    final TraceLineLimitTransactionSelector packing = selector(footprints, 1);
+    assertThat(packing.evaluateTransactionPreProcessing(large))
+        .isEqualTo(LineaTransactionSelectionResult.TX_MODULE_LINE_COUNT_OVERFLOW);
+    assertThat(packing.evaluateTransactionPreProcessing(small))
+        .isEqualTo(TransactionSelectionResult.SELECTED);
+    assertThat(packing.evaluateTransactionPreProcessing(unknown))
+        .isEqualTo(TransactionSelectionResult.SELECTED);
+
+    final TraceLineLimitTransactionSelector notPacking = selector(footprints, 0);
+    assertThat(notPacking.evaluateTransactionPreProcessing(large))
+        .isEqualTo(TransactionSelectionResult.SELECTED);
+  }
+
+  @Test
+  public void doesNotSkipOnTheAverageFootprintOfTheSender() {
+    final TraceFootprints footprints = new TraceFootprints(16, 4);
+    final PendingTransaction large = pendingTransaction(1);
+    final PendingTransaction unknown = pendingTransaction(2);
+    footprints.record(footprint(large, LIMIT + 1));
+    assertThat(footprints.senderAverage(SENDER)).isPresent();
+
+    // the unknown transaction of the same sender is traced, not skipped on an estimate
+    final TraceLineLimitTransactionSelector packing = selector(footprints, 1);
+    assertThat(packing.evaluateTransactionPreProcessing(unknown))
+        .isEqualTo(TransactionSelectionResult.SELECTED);
+  }
+
+  private static TraceLineLimitTransactionSelector selector(
+      final TraceFootprints footprints, final int maxLineCountSkips) {
+    final Map<String, Integer> limits = new HashMap<>();
+    final ZkTracer zkTracer = new ZkTracer(TracingMode.LINE_COUNT);
+    zkTracer.getModulesLineCount().keySet().forEach(m -> limits.put(m, LIMIT));
+    return new TraceLineLimitTransactionSelector(
+        () -> limits, "limits.json", zkTracer, footprints, maxLineCountSkips);
+  }
+
+  private static PendingTransaction pendingTransaction(final int i) {
+    final Transaction tx = mock(Transaction.class);
+    when(tx.getHash()).thenReturn(Hash.hash(Bytes.of(i)));
+    when(tx.getSender()).thenReturn(SENDER);
+    final PendingTransaction pendingTransaction = mock(PendingTransaction.class);
+    when(pendingTransaction.getTransaction()).thenReturn(tx);
+    return pendingTransaction;
+  }
+
+  private static TraceFootprints.Footprint footprint(
+      final PendingTransaction pendingTransaction, final int addLines) {
+    return new TraceFootprints.Footprint(
+        pendingTransaction.getTransaction().getHash(), SENDER, Map.of("Add", addLines));
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.sequencer.txvalidation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DenyListTest {
+
+  @Test
+  public void containsExactlyTheListedAddresses() {
+    final List<Address> denied = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      denied.add(Address.fromHexString(String.format("0x%040x", i * 7919L)));
+    }
+    denied.add(Address.fromHexString("0xffffffffffffffffffffffffffffffffffffffff"));
+    denied.add(Address.fromHexString("0x8000000000000000000000000000000080000000"));
+    // duplicates are collapsed
+    denied.add(denied.get(0));
+
+    final DenyList denyList = DenyList.of(denied);
+
+    assertThat(denyList.size()).isEqualTo(102);
+    for (Address address : denied) {
+      assertThat(denyList.contains(address)).isTrue();
+    }
+    assertThat(denyList.contains(Address.precompiled(1))).isFalse();
+    final Address notDenied = Address.fromHexString("0x7fffffffffffffffffffffffffffffffffffffff");
+    assertThat(denyList.contains(notDenied)).isFalse();
+    assertThat(DenyList.EMPTY.contains(denied.get(0))).isFalse();
+  }
+
+  @Test
+  public void reloadSwapsListAndKeepsPreviousOnError(@TempDir final Path dir) throws IOException {
+    final Address first = Address.fromHexString("0x0000000000000000000000000000000000001000");
+    final Address second = Address.fromHexString("0x0000000000000000000000000000000000002000");
+    final Path file = dir.resolve("denyList.txt");
+    Files.writeString(file, first.toHexString() + "\n\n");
+
+    final AtomicReference<DenyList> denyList = new AtomicReference<>(DenyList.EMPTY);
+    try (DenyListWatcher watcher = new DenyListWatcher(file, denyList)) {
+      watcher.start();
+      assertThat(denyList.get().contains(first)).isTrue();
+      assertThat(denyList.get().contains(second)).isFalse();
+
+      Files.writeString(file, second.toHexString() + "\n");
+      watcher.reload();
+      assertThat(denyList.get().contains(first)).isFalse();
+      assertThat(denyList.get().contains(second)).isTrue();
+
+      Files.writeString(file, "not an address\n");
+      watcher.reload();
+      assertThat(denyList.get().contains(second)).isTrue();
+    }
+  }
+
+  @Test
+  public void reloadReplacesTheListWhateverItsSize(@TempDir final Path dir) throws IOException {
+    final Address first = Address.fromHexString("0x0000000000000000000000000000000000001000");
+    final Address second = Address.fromHexString("0x0000000000000000000000000000000000002000");
+    final Path file = dir.resolve("denyList.txt");
+    Files.writeString(file, first.toHexString() + "\n" + second.toHexString() + "\n");
+
+    final AtomicReference<DenyList> denyList = new AtomicReference<>(DenyList.EMPTY);
+    try (DenyListWatcher watcher = new DenyListWatcher(file, denyList)) {
+      watcher.start();
+      assertThat(denyList.get().size()).isEqualTo(2);
+
+      Files.writeString(file, first.toHexString() + "\n");
+      watcher.reload();
+      assertThat(denyList.get().size()).isEqualTo(1);
+      assertThat(denyList.get().contains(second)).isFalse();
+
+      // an invalid file leaves the previous list in place
+      Files.writeString(file, "not an address\n");
+      watcher.reload();
+      assertThat(denyList.get().contains(first)).isTrue();
+
+      Files.writeString(file, "");
+      watcher.reload();
+      assertThat(denyList.get().size()).isZero();
+    }
+  }
+}
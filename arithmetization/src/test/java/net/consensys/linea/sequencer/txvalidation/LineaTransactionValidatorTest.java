@@ -15,7 +15,6 @@
 
 package net.consensys.linea.sequencer.txvalidation;
 
-import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 
@@ -43,12 +42,11 @@ public class LineaTransactionValidatorTest {
 
   @BeforeEach
   public void initialize() {
-    Set<Address> denied = new HashSet<>();
-    denied.add(DENIED);
+    final DenyList denied = DenyList.of(Set.of(DENIED));
     lineaTransactionValidator =
         new LineaTransactionValidator(
             new LineaTransactionValidatorConfiguration("", MAX_TX_GAS_LIMIT, MAX_TX_CALLDATA_SIZE),
-            denied);
+            () -> denied);
   }
 
   @Test
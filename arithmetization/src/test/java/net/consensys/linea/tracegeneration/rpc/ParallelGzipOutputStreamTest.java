@@ -0,0 +1,53 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.tracegeneration.rpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+public class ParallelGzipOutputStreamTest {
+  @Test
+  public void outputIsReadableByGzipInputStream() throws IOException {
+    final Random random = new Random(1);
+    for (int size : new int[] {0, 1, 1000, 1 << 16, 3_000_000}) {
+      final StringBuilder json = new StringBuilder();
+      while (json.length() < size) {
+        json.append("{\"col\":").append(random.nextInt(1000)).append("},\n");
+      }
+      final byte[] input = json.substring(0, size).getBytes(StandardCharsets.UTF_8);
+
+      final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+      try (OutputStream out = new ParallelGzipOutputStream(compressed, 6, 4, 1 << 16)) {
+        out.write(input, 0, size / 2);
+        out.write(input, size / 2, size - size / 2);
+      }
+
+      try (GZIPInputStream in =
+          new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+        assertThat(in.readAllBytes()).isEqualTo(input);
+      }
+    }
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.tracegeneration.rpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class TraceJobsTest {
+  private static final TraceRequestParams PARAMS = new TraceRequestParams(1, 3, "0.1.0");
+
+  @Test
+  public void jobsReportProgressAndResult() throws InterruptedException {
+    final CountDownLatch release = new CountDownLatch(1);
+    final TraceJobs traceJobs =
+        new TraceJobs(
+            1,
+            1,
+            (params, progress) -> {
+              progress.blockTraced();
+              progress.bytesWritten(42);
+              awaitQuietly(release);
+              return new FileTrace(params.runtimeVersion(), "traces.json.gz");
+            });
+    try {
+      final TraceJob job = traceJobs.submit(PARAMS);
+      assertThat(traceJobs.get(job.id())).containsSame(job);
+      assertThat(traceJobs.get("unknown")).isEmpty();
+
+      release.countDown();
+      awaitFinished(job);
+
+      final TraceJobStatus status = job.status();
+      assertThat(status.state()).isEqualTo(TraceJob.State.COMPLETED);
+      assertThat(status.blocksTraced()).isEqualTo(1);
+      assertThat(status.bytesWritten()).isEqualTo(42);
+      assertThat(status.result()).isEqualTo(new FileTrace("0.1.0", "traces.json.gz"));
+      assertThat(status.error()).isNull();
+    } finally {
+      traceJobs.shutdown();
+    }
+  }
+
+  @Test
+  public void jobsBeyondTheQueueLimitAreRejected() throws InterruptedException {
+    final CountDownLatch release = new CountDownLatch(1);
+    final TraceJobs traceJobs =
+        new TraceJobs(
+            1,
+            1,
+            (params, progress) -> {
+              awaitQuietly(release);
+              throw new IllegalStateException("boom");
+            });
+    try {
+      final TraceJob running = traceJobs.submit(PARAMS);
+      final TraceJob queued = traceJobs.submit(PARAMS);
+      // the first job may not have left the queue yet
+      awaitState(running, TraceJob.State.RUNNING);
+      assertThat(queued.state()).isEqualTo(TraceJob.State.QUEUED);
+      assertThatThrownBy(() -> traceJobs.submit(PARAMS))
+          .isInstanceOf(IllegalStateException.class);
+
+      release.countDown();
+      awaitFinished(running);
+      awaitFinished(queued);
+      assertThat(running.state()).isEqualTo(TraceJob.State.FAILED);
+      assertThat(running.status().error()).isEqualTo("boom");
+    } finally {
+      traceJobs.shutdown();
+    }
+  }
+
+  private static void awaitFinished(final TraceJob job) throws InterruptedException {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (!job.isFinished() && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(job.isFinished()).isTrue();
+  }
+
+  private static void awaitState(final TraceJob job, final TraceJob.State state)
+      throws InterruptedException {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (job.state() != state && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(job.state()).isEqualTo(state);
+  }
+
+  private static void awaitQuietly(final CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.tracegeneration.rpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TraceResultCacheTest {
+  private static final String VERSION = "0.1.0";
+  private static final int LEVEL = 6;
+
+  @TempDir Path dir;
+
+  @Test
+  public void repeatedRequestsReuseStoredTraces() throws IOException {
+    final AtomicInteger tracings = new AtomicInteger();
+    final TraceResultCache.Key key =
+        new TraceResultCache.Key(
+            10, 11, List.of(Hash.hash(Hash.ZERO), Hash.hash(Hash.EMPTY)), VERSION, LEVEL);
+
+    final FileTrace first =
+        new TraceResultCache(dir.resolve("index")).getOrCompute(key, () -> trace(tracings));
+    // a new cache, as after a restart, still finds the traces on disk
+    final FileTrace second =
+        new TraceResultCache(dir.resolve("index")).getOrCompute(key, () -> trace(tracings));
+    assertThat(second).isEqualTo(first);
+    assertThat(tracings).hasValue(1);
+
+    // a reorganized range is traced again
+    final TraceResultCache.Key reorged =
+        new TraceResultCache.Key(
+            10, 11, List.of(Hash.hash(Hash.ZERO), Hash.ZERO), VERSION, LEVEL);
+    new TraceResultCache(dir.resolve("index")).getOrCompute(reorged, () -> trace(tracings));
+    assertThat(tracings).hasValue(2);
+
+    // so is a range requested with another compression, without evicting the first traces
+    final TraceResultCache.Key uncompressed =
+        new TraceResultCache.Key(
+            key.fromBlock(), key.toBlock(), key.blockHashes(), key.tracesEngineVersion(), 0);
+    new TraceResultCache(dir.resolve("index")).getOrCompute(uncompressed, () -> trace(tracings));
+    assertThat(tracings).hasValue(3);
+    assertThat(new TraceResultCache(dir.resolve("index")).lookup(key)).contains(first);
+
+    // so are traces whose file disappeared
+    Files.delete(Path.of(first.traceFileName()));
+    new TraceResultCache(dir.resolve("index")).getOrCompute(key, () -> trace(tracings));
+    assertThat(tracings).hasValue(4);
+  }
+
+  @Test
+  public void concurrentRequestsShareTheTracing() throws Exception {
+    final TraceResultCache cache = new TraceResultCache(dir.resolve("index"));
+    final TraceResultCache.Key key =
+        new TraceResultCache.Key(1, 1, List.of(Hash.ZERO), VERSION, LEVEL);
+    final AtomicInteger tracings = new AtomicInteger();
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final Future<FileTrace> first =
+          executor.submit(
+              () ->
+                  cache.getOrCompute(
+                      key,
+                      () -> {
+                        started.countDown();
+                        awaitQuietly(release);
+                        return trace(tracings);
+                      }));
+      started.await();
+      final Future<FileTrace> second =
+          executor.submit(() -> cache.getOrCompute(key, () -> trace(tracings)));
+      release.countDown();
+
+      assertThat(second.get()).isEqualTo(first.get());
+      assertThat(tracings).hasValue(1);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private FileTrace trace(final AtomicInteger tracings) {
+    try {
+      final Path file =
+          Files.createTempFile(dir, "trace-" + tracings.incrementAndGet() + "-", ".json.gz");
+      return new FileTrace(VERSION, file.toAbsolutePath().toString());
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static void awaitQuietly(final CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
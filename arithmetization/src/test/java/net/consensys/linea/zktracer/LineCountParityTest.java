@@ -0,0 +1,261 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.zktracer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import lombok.extern.slf4j.Slf4j;
+import net.consensys.linea.zktracer.module.Module;
+import net.consensys.linea.zktracer.module.ModuleTrace;
+import net.consensys.linea.zktracer.opcode.OpCode;
+import net.consensys.linea.zktracer.testing.BytecodeCompiler;
+import net.consensys.linea.zktracer.testing.ToyAccount;
+import net.consensys.linea.zktracer.testing.ToyExecutionEnvironment;
+import net.consensys.linea.zktracer.testing.ToyTransaction;
+import net.consensys.linea.zktracer.testing.ToyWorld;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.hyperledger.besu.crypto.KeyPair;
+import org.hyperledger.besu.crypto.SECP256K1;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.PendingTransaction;
+import org.hyperledger.besu.datatypes.Transaction;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.evm.log.Log;
+import org.hyperledger.besu.evm.worldstate.WorldView;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks on random programs and transaction mixes that the line count incrementally maintained by
+ * every module matches the number of lines it actually generates, and reports the time spent by
+ * each module in both.
+ */
+@Slf4j
+class LineCountParityTest {
+  private static final int CONFLATION_COUNT = 10;
+  private static final int TX_PER_CONFLATION = 20;
+
+  private static final OpCode[] UNARY_OPS = {OpCode.ISZERO, OpCode.NOT};
+  private static final OpCode[] BINARY_OPS = {
+    OpCode.ADD,
+    OpCode.SUB,
+    OpCode.MUL,
+    OpCode.DIV,
+    OpCode.SDIV,
+    OpCode.MOD,
+    OpCode.SMOD,
+    OpCode.EXP,
+    OpCode.SIGNEXTEND,
+    OpCode.LT,
+    OpCode.GT,
+    OpCode.SLT,
+    OpCode.SGT,
+    OpCode.EQ,
+    OpCode.AND,
+    OpCode.OR,
+    OpCode.XOR,
+    OpCode.BYTE,
+    OpCode.SHL,
+    OpCode.SHR,
+    OpCode.SAR
+  };
+  private static final OpCode[] TERNARY_OPS = {OpCode.ADDMOD, OpCode.MULMOD};
+
+  private final Random rnd = new Random(1337);
+
+  @Test
+  void lineCountsMatchCommittedTraces() {
+    final Map<String, Long> lineCountNs = new TreeMap<>();
+    final Map<String, Long> commitNs = new TreeMap<>();
+
+    for (int i = 0; i < CONFLATION_COUNT; i++) {
+      final PoppingTracer tracer = new PoppingTracer(new Random(rnd.nextLong()));
+      randomConflation().traceWith(tracer);
+
+      for (Module module : tracer.getModulesToTrace()) {
+        final long start = System.nanoTime();
+        final int lineCount = module.lineCount();
+        final long counted = System.nanoTime();
+        final ModuleTrace trace = module.commit();
+        final long committed = System.nanoTime();
+
+        if (trace != null) {
+          assertThat(trace.length())
+              .as("line count of %s after %d popped transactions", module.jsonKey(), tracer.popped)
+              .isEqualTo(lineCount);
+        }
+        lineCountNs.merge(module.jsonKey(), counted - start, Long::sum);
+        commitNs.merge(module.jsonKey(), committed - counted, Long::sum);
+      }
+    }
+
+    for (String module : lineCountNs.keySet()) {
+      log.info(
+          "{}: lineCount {}µs, commit {}µs",
+          module,
+          lineCountNs.get(module) / 1000,
+          commitNs.get(module) / 1000);
+    }
+  }
+
+  private ToyExecutionEnvironment randomConflation() {
+    final ToyWorld.ToyWorldBuilder world = ToyWorld.builder();
+    final List<org.hyperledger.besu.ethereum.core.Transaction> txs = new ArrayList<>();
+
+    for (int i = 0; i < TX_PER_CONFLATION; i++) {
+      final KeyPair keyPair = new SECP256K1().generateKeyPair();
+      final ToyAccount sender =
+          ToyAccount.builder()
+              .balance(Wei.fromEth(1))
+              .nonce(rnd.nextInt(0, 1000))
+              .address(Address.extract(Hash.hash(keyPair.getPublicKey().getEncodedBytes())))
+              .build();
+      world.account(sender);
+
+      final ToyTransaction.ToyTransactionBuilder tx =
+          ToyTransaction.builder().sender(sender).keyPair(keyPair).gasLimit(1_000_000L);
+      if (rnd.nextInt(4) == 0) {
+        // deployment, with the random program as init code
+        tx.payload(randomProgram());
+      } else {
+        final ToyAccount receiver =
+            ToyAccount.builder()
+                .balance(Wei.ONE)
+                .nonce(1)
+                .address(Address.wrap(Bytes.random(20, rnd)))
+                .code(randomProgram())
+                .build();
+        world.account(receiver);
+        tx.to(receiver);
+      }
+      txs.add(tx.build());
+    }
+
+    return ToyExecutionEnvironment.builder()
+        .toyWorld(world.build())
+        .transactions(txs)
+        .testValidator(x -> {})
+        .build();
+  }
+
+  /**
+   * Generate a random program whose instructions leave the stack balanced, terminated by a random
+   * halting instruction or exception.
+   */
+  private Bytes randomProgram() {
+    final BytecodeCompiler program = BytecodeCompiler.newProgram();
+    final int length = rnd.nextInt(1, 64);
+    for (int i = 0; i < length; i++) {
+      switch (rnd.nextInt(6)) {
+        case 0 -> program.push(randomWord()).op(pick(UNARY_OPS)).op(OpCode.POP);
+        case 1 -> program.push(randomWord()).push(randomWord()).op(pick(BINARY_OPS)).op(OpCode.POP);
+        case 2 -> program
+            .push(randomWord())
+            .push(randomWord())
+            .push(randomWord())
+            .op(pick(TERNARY_OPS))
+            .op(OpCode.POP);
+        case 3 -> program.push(randomWord()).push(rnd.nextInt(1024)).op(OpCode.MSTORE);
+        case 4 -> program.push(rnd.nextInt(1024)).op(OpCode.MLOAD).op(OpCode.POP);
+        default -> program
+            .push(rnd.nextInt(256))
+            .push(rnd.nextInt(1024))
+            .op(OpCode.SHA3)
+            .op(OpCode.POP);
+      }
+    }
+
+    switch (rnd.nextInt(5)) {
+      case 0 -> program.op(OpCode.STOP);
+      case 1 -> program.push(rnd.nextInt(64)).push(rnd.nextInt(64)).op(OpCode.RETURN);
+      case 2 -> program.push(rnd.nextInt(64)).push(rnd.nextInt(64)).op(OpCode.REVERT);
+      case 3 -> program.op(OpCode.INVALID);
+      default -> program.op(pick(BINARY_OPS)); // stack underflow
+    }
+
+    return program.compile();
+  }
+
+  private Bytes randomWord() {
+    return switch (rnd.nextInt(5)) {
+      case 0 -> Bytes.of(0);
+      case 1 -> Bytes.of(1);
+      case 2 -> Bytes32.fromHexString("0x" + "ff".repeat(32));
+      case 3 -> Bytes.of(rnd.nextInt(256));
+      default -> Bytes32.random(rnd);
+    };
+  }
+
+  private OpCode pick(OpCode[] opCodes) {
+    return opCodes[rnd.nextInt(opCodes.length)];
+  }
+
+  /**
+   * A {@link ZkTracer} rejecting some of the transactions it traced, as the sequencer does when a
+   * transaction does not fit in the block being built: either the latest one alone, or all those
+   * traced since a checkpoint.
+   */
+  private static class PoppingTracer extends ZkTracer {
+    private final Random rnd;
+    private Checkpoint savepoint = null;
+    private int popped = 0;
+
+    PoppingTracer(Random rnd) {
+      this.rnd = rnd;
+    }
+
+    @Override
+    public void traceEndTransaction(
+        WorldView worldView,
+        Transaction tx,
+        boolean status,
+        Bytes output,
+        List<Log> logs,
+        long gasUsed,
+        long timeNs) {
+      super.traceEndTransaction(worldView, tx, status, output, logs, gasUsed, timeNs);
+
+      switch (rnd.nextInt(8)) {
+        case 0, 1 -> {
+          final PendingTransaction pendingTransaction = mock(PendingTransaction.class);
+          when(pendingTransaction.getTransaction()).thenReturn(tx);
+          this.popTransaction(pendingTransaction);
+          this.popped++;
+          if (this.savepoint != null && this.savepoint.depth() > this.checkpoint().depth()) {
+            this.savepoint = null;
+          }
+        }
+        case 2 -> {
+          if (this.savepoint != null) {
+            this.popped += this.checkpoint().depth() - this.savepoint.depth();
+            this.rollback(this.savepoint);
+          }
+        }
+        case 3 -> this.savepoint = this.checkpoint();
+        default -> {}
+      }
+    }
+  }
+}
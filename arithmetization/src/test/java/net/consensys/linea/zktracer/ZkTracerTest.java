@@ -16,7 +16,26 @@
 package net.consensys.linea.zktracer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.List;
+import java.util.function.Consumer;
+
+import net.consensys.linea.zktracer.module.Module;
+import net.consensys.linea.zktracer.opcode.OpCode;
+import net.consensys.linea.zktracer.testing.BytecodeCompiler;
+import net.consensys.linea.zktracer.testing.ToyAccount;
+import net.consensys.linea.zktracer.testing.ToyExecutionEnvironment;
+import net.consensys.linea.zktracer.testing.ToyTransaction;
+import net.consensys.linea.zktracer.testing.ToyWorld;
+import org.apache.tuweni.bytes.Bytes;
+import org.hyperledger.besu.crypto.KeyPair;
+import org.hyperledger.besu.crypto.SECP256K1;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
 import org.junit.jupiter.api.Test;
 
 public class ZkTracerTest {
@@ -26,4 +45,228 @@ public class ZkTracerTest {
     final ZkTracer zkTracer = new ZkTracer();
     assertThat(zkTracer.isExtendedTracing()).isTrue();
   }
+
+  @Test
+  public void lineCountTracerDoesNotGenerateTraces() {
+    final ZkTracer zkTracer = new ZkTracer(TracingMode.LINE_COUNT);
+    zkTracer.traceStartConflation(1);
+    assertThat(zkTracer.getModulesLineCount()).containsEntry("Add", 0);
+    assertThatThrownBy(zkTracer::getTrace).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void lineCountTracerCountsLikeAFullOne() {
+    final BytecodeCompiler program = BytecodeCompiler.newProgram();
+    // the same operations twice, so that duplicates are counted once in both modes
+    for (int i = 0; i < 2; i++) {
+      for (OpCode opCode :
+          List.of(
+              OpCode.ADD,
+              OpCode.MUL,
+              OpCode.EXP,
+              OpCode.DIV,
+              OpCode.MOD,
+              OpCode.LT,
+              OpCode.SGT,
+              OpCode.EQ,
+              OpCode.SHL,
+              OpCode.SAR)) {
+        program.push(3).push(32, 0xbeef).op(opCode).op(OpCode.POP);
+        program.push(0).push(32, 0xdead).op(opCode).op(OpCode.POP);
+      }
+      program.push(7).push(0).push(32, 0xbeef).op(OpCode.MULMOD).op(OpCode.POP);
+      program.push(0).push(5).push(32, 0xbeef).op(OpCode.ADDMOD).op(OpCode.POP);
+      program.push(32, 0xcafe).push(2, 0x0400).op(OpCode.MSTORE);
+      program.push(1).push(0).op(OpCode.SHA3).op(OpCode.POP);
+    }
+    final Consumer<ZkTracer> trace = program(program.compile());
+
+    final ZkTracer full = new ZkTracer(TracingMode.FULL);
+    trace.accept(full);
+    final ZkTracer counting = new ZkTracer(TracingMode.LINE_COUNT);
+    trace.accept(counting);
+
+    assertThat(counting.getModulesLineCount()).isEqualTo(full.getModulesLineCount());
+    assertThat(full.getModulesLineCount().get("Mxp")).isPositive();
+  }
+
+  @Test
+  public void rollbackRejectsStaleCheckpoints() {
+    final ZkTracer zkTracer = new ZkTracer();
+    final ZkTracer.Checkpoint empty = zkTracer.checkpoint();
+    assertThat(empty.depth()).isZero();
+    zkTracer.rollback(empty);
+
+    assertThatThrownBy(() -> zkTracer.rollback(new ZkTracer.Checkpoint(1, 0)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void retracingARolledBackTransactionTracesItLikeTheFirstTime() {
+    // both transactions deploy a contract, so as to go through the deployment information and the
+    // code identifiers of RomLex, and execute a MUL in their init code
+    final Bytes initCode =
+        BytecodeCompiler.newProgram()
+            .push(32, 0xbeef)
+            .push(32, 0xdead)
+            .op(OpCode.MUL)
+            .push(0)
+            .op(OpCode.MSTORE)
+            .push(1)
+            .push(31)
+            .op(OpCode.RETURN)
+            .compile();
+    final KeyPair firstKeyPair = new SECP256K1().generateKeyPair();
+    final KeyPair secondKeyPair = new SECP256K1().generateKeyPair();
+    final ToyAccount firstSender = sender(firstKeyPair);
+    final ToyAccount secondSender = sender(secondKeyPair);
+    final List<ToyAccount> accounts = List.of(firstSender, secondSender);
+    final Transaction first = deployment(firstSender, firstKeyPair, initCode);
+    final Transaction second = deployment(secondSender, secondKeyPair, initCode);
+
+    final ZkTracer reference = new ZkTracer(TracingMode.FULL);
+    reference.traceStartConflation(3);
+    block(accounts, List.of(first), x -> {}).traceBlockWith(reference);
+    block(accounts, List.of(), x -> {}).traceBlockWith(reference);
+    block(accounts, List.of(second), x -> {}).traceBlockWith(reference);
+    reference.traceEndConflation();
+
+    final ZkTracer retraced = new ZkTracer(TracingMode.FULL);
+    retraced.traceStartConflation(3);
+    block(accounts, List.of(first), x -> {}).traceBlockWith(retraced);
+    final ZkTracer.Checkpoint checkpoint = retraced.checkpoint();
+    // the second transaction is rolled back as soon as it has been traced, leaving its block empty
+    block(accounts, List.of(second), x -> retraced.rollback(checkpoint)).traceBlockWith(retraced);
+    assertThat(retraced.checkpoint()).isEqualTo(checkpoint);
+    block(accounts, List.of(second), x -> {}).traceBlockWith(retraced);
+    retraced.traceEndConflation();
+
+    assertThat(retraced.getModulesLineCount()).isEqualTo(reference.getModulesLineCount());
+    assertThat(retraced.getModulesLineCount().get("Mul")).isPositive();
+    assertThat(retraced.getJsonTrace()).isEqualTo(reference.getJsonTrace());
+  }
+
+  @Test
+  public void resetTracerCountsLikeANewOne() {
+    final Consumer<ZkTracer> trace = mulProgram();
+
+    final ZkTracer fresh = new ZkTracer(TracingMode.LINE_COUNT);
+    trace.accept(fresh);
+
+    final ZkTracer reused = new ZkTracer(TracingMode.LINE_COUNT);
+    trace.accept(reused);
+    final ZkTracer.Checkpoint beforeReset = reused.checkpoint();
+    final List<Module> modules = reused.getModulesToTrace();
+    reused.reset();
+
+    // the modules are cleared in place rather than rebuilt
+    final List<Module> modulesAfterReset = reused.getModulesToTrace();
+    assertThat(modulesAfterReset).hasSameSizeAs(modules);
+    for (int i = 0; i < modules.size(); i++) {
+      assertThat(modulesAfterReset.get(i)).isSameAs(modules.get(i));
+    }
+
+    assertThat(reused.checkpoint().depth()).isZero();
+    assertThatThrownBy(() -> reused.rollback(beforeReset))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    trace.accept(reused);
+    assertThat(reused.getModulesLineCount()).isEqualTo(fresh.getModulesLineCount());
+  }
+
+  @Test
+  public void profilerReportsOpcodesAndModuleHooks() {
+    final TracerProfiler profiler = new TracerProfiler();
+    final ZkTracer zkTracer = new ZkTracer(TracingMode.LINE_COUNT, profiler);
+    mulProgram().accept(zkTracer);
+
+    assertThat(zkTracer.getProfiler()).containsSame(profiler);
+    assertThat(profiler.toCollapsedStacks(TracerProfiler.Metric.CALLS))
+        .contains("tracePreExecution;MUL;MUL 1\n")
+        .contains("tracePreExecution;MUL;MUL;Mul.tracePreOpcode 1\n")
+        .contains("tracePostExecution;MUL;MUL;Mul.tracePostOp 1\n")
+        .doesNotContain("Mul.tracePostExecution")
+        .contains("tracePreExecution;PUSH_POP;PUSH32 2\n");
+    assertThat(profiler.toCollapsedStacks(TracerProfiler.Metric.NANOS))
+        .contains("tracePreExecution;MUL;MUL;Mul.tracePreOpcode ");
+
+    profiler.reset();
+    assertThat(profiler.toCollapsedStacks(TracerProfiler.Metric.CALLS)).isEmpty();
+  }
+
+  /**
+   * @return a function tracing, with a given tracer, a transaction executing a MUL
+   */
+  private static Consumer<ZkTracer> mulProgram() {
+    return program(
+        BytecodeCompiler.newProgram()
+            .push(32, 0xbeef)
+            .push(32, 0xdead)
+            .op(OpCode.MUL)
+            .push(0)
+            .op(OpCode.MSTORE)
+            .compile());
+  }
+
+  /**
+   * @param accounts the accounts of the world state the block starts from
+   * @param transactions the transactions of the block
+   * @param afterEachTransaction called once each transaction has been traced
+   * @return an environment tracing the given transactions as a single block
+   */
+  private static ToyExecutionEnvironment block(
+      final List<ToyAccount> accounts,
+      final List<Transaction> transactions,
+      final Consumer<TransactionProcessingResult> afterEachTransaction) {
+    // every block starts from its own copy of the same world state
+    return ToyExecutionEnvironment.builder()
+        .toyWorld(ToyWorld.builder().accounts(accounts).build())
+        .transactions(transactions)
+        .testValidator(afterEachTransaction)
+        .build();
+  }
+
+  private static Transaction deployment(
+      final ToyAccount sender, final KeyPair keyPair, final Bytes initCode) {
+    return ToyTransaction.builder()
+        .sender(sender)
+        .keyPair(keyPair)
+        .payload(initCode)
+        .gasLimit(1_000_000L)
+        .build();
+  }
+
+  private static ToyAccount sender(final KeyPair keyPair) {
+    return ToyAccount.builder()
+        .balance(Wei.fromEth(1))
+        .nonce(0)
+        .address(Address.extract(Hash.hash(keyPair.getPublicKey().getEncodedBytes())))
+        .build();
+  }
+
+  /**
+   * @param code the code of the called account
+   * @return a function tracing, with a given tracer, a transaction executing the given code
+   */
+  private static Consumer<ZkTracer> program(final Bytes code) {
+    final KeyPair keyPair = new SECP256K1().generateKeyPair();
+    final ToyAccount sender = sender(keyPair);
+    final ToyAccount receiver =
+        ToyAccount.builder()
+            .balance(Wei.ONE)
+            .nonce(1)
+            .address(Address.fromHexString("0x111111"))
+            .code(code)
+            .build();
+    final Transaction tx =
+        ToyTransaction.builder().sender(sender).to(receiver).keyPair(keyPair).build();
+    // every run starts from its own copy of the same world state
+    return tracer ->
+        ToyExecutionEnvironment.builder()
+            .toyWorld(ToyWorld.builder().accounts(List.of(sender, receiver)).build())
+            .transaction(tx)
+            .testValidator(x -> {})
+            .build()
+            .traceWith(tracer);
+  }
 }
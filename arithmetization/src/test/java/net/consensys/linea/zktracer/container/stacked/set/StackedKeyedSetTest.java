@@ -0,0 +1,87 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.zktracer.container.stacked.set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.consensys.linea.zktracer.module.OperationKey;
+import net.consensys.linea.zktracer.opcode.OpCode;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.Test;
+
+public class StackedKeyedSetTest {
+  private static final Bytes32 ONE = Bytes32.fromHexString("0x01");
+  private static final Bytes32 TWO = Bytes32.fromHexString("0x02");
+
+  @Test
+  void operationKeysCompareOpCodeAndArguments() {
+    assertThat(OperationKey.of(OpCode.LT, ONE, TWO))
+        .isEqualTo(OperationKey.of(OpCode.LT, Bytes32.leftPad(ONE), TWO))
+        .hasSameHashCodeAs(OperationKey.of(OpCode.LT, ONE, TWO))
+        .isNotEqualTo(OperationKey.of(OpCode.GT, ONE, TWO))
+        .isNotEqualTo(OperationKey.of(OpCode.LT, TWO, ONE));
+    assertThat(OperationKey.of(OpCode.ADDMOD, ONE, TWO, ONE))
+        .isNotEqualTo(OperationKey.of(OpCode.ADDMOD, ONE, TWO, TWO));
+  }
+
+  @Test
+  void elementsAreOnlyBuiltOnceAndDroppedWithTheirContext() {
+    final AtomicInteger built = new AtomicInteger();
+    final StackedKeyedSet<OperationKey, String> set = new StackedKeyedSet<>();
+
+    set.enter();
+    assertThat(set.add(OperationKey.of(OpCode.LT, ONE, TWO), () -> "lt" + built.incrementAndGet()))
+        .isTrue();
+
+    set.enter();
+    assertThat(set.add(OperationKey.of(OpCode.LT, ONE, TWO), () -> "lt" + built.incrementAndGet()))
+        .isFalse();
+    assertThat(set.add(OperationKey.of(OpCode.GT, ONE, TWO), () -> "gt" + built.incrementAndGet()))
+        .isTrue();
+    assertThat(built).hasValue(2);
+    assertThat(set).containsExactly("lt1", "gt2");
+
+    set.pop();
+    assertThat(set).containsExactly("lt1");
+    assertThat(set.containsKey(OperationKey.of(OpCode.GT, ONE, TWO))).isFalse();
+  }
+
+  @Test
+  void keysDroppedWithTheirContextAreAddedAgain() {
+    final AtomicInteger built = new AtomicInteger();
+    final StackedKeyedSet<OperationKey, String> set = new StackedKeyedSet<>();
+
+    set.enter();
+    set.add(OperationKey.of(OpCode.LT, ONE, TWO), () -> "lt" + built.incrementAndGet());
+    set.enter();
+    set.add(OperationKey.of(OpCode.GT, ONE, TWO), () -> "gt" + built.incrementAndGet());
+    set.pop();
+
+    set.enter();
+    assertThat(set.add(OperationKey.of(OpCode.GT, ONE, TWO), () -> "gt" + built.incrementAndGet()))
+        .isTrue();
+    assertThat(set.add(OperationKey.of(OpCode.LT, ONE, TWO), () -> "lt" + built.incrementAndGet()))
+        .isFalse();
+    assertThat(built).hasValue(3);
+    assertThat(set).hasSize(2).containsExactly("lt1", "gt3");
+
+    set.pop();
+    set.pop();
+    assertThat(set).isEmpty();
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.zktracer.module;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class ParallelWitnessTest {
+  @Test
+  public void computesEveryWitnessOnceOnTheWitnessThreads() {
+    final List<AtomicInteger> operations = new ArrayList<>();
+    for (int i = 0; i < 1_000; i++) {
+      operations.add(new AtomicInteger());
+    }
+    final Map<String, Boolean> threads = new ConcurrentHashMap<>();
+
+    ParallelWitness.compute(
+        operations,
+        op -> {
+          op.incrementAndGet();
+          threads.put(Thread.currentThread().getName(), true);
+        });
+
+    assertThat(operations).allSatisfy(op -> assertThat(op.get()).isOne());
+    assertThat(threads.keySet())
+        .allSatisfy(thread -> assertThat(thread).startsWith("linea-zktracer-witness-"));
+  }
+
+  @Test
+  public void leavesSmallSetsToTheTracing() {
+    final List<AtomicInteger> operations = List.of(new AtomicInteger(), new AtomicInteger());
+    ParallelWitness.compute(operations, AtomicInteger::incrementAndGet);
+    assertThat(operations).allSatisfy(op -> assertThat(op.get()).isZero());
+  }
+
+  @Test
+  public void rethrowsTheFailureOfAWitness() {
+    final List<Integer> operations = new ArrayList<>();
+    for (int i = 0; i < 1_000; i++) {
+      operations.add(i);
+    }
+
+    assertThatThrownBy(
+            () ->
+                ParallelWitness.compute(
+                    operations,
+                    i -> {
+                      if (i == 500) {
+                        throw new IllegalArgumentException("bad operation");
+                      }
+                    }))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("bad operation");
+  }
+}
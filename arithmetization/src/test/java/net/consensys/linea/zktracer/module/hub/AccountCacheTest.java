@@ -0,0 +1,57 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.zktracer.module.hub;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.evm.account.Account;
+import org.hyperledger.besu.evm.worldstate.WorldView;
+import org.junit.jupiter.api.Test;
+
+public class AccountCacheTest {
+  private static final Address PRESENT = Address.fromHexString("0x1000");
+  private static final Address ABSENT = Address.fromHexString("0x2000");
+
+  @Test
+  public void resolvesEachAccountOncePerView() {
+    final Account account = mock(Account.class);
+    final WorldView parent = mock(WorldView.class);
+    final WorldView child = mock(WorldView.class);
+    when(parent.get(PRESENT)).thenReturn(account);
+    when(child.get(PRESENT)).thenReturn(account);
+
+    final AccountCache accounts = new AccountCache();
+    assertThat(accounts.get(parent, PRESENT)).isSameAs(account);
+    assertThat(accounts.get(parent, PRESENT)).isSameAs(account);
+    assertThat(accounts.get(parent, ABSENT)).isNull();
+    assertThat(accounts.get(parent, ABSENT)).isNull();
+    verify(parent, times(1)).get(PRESENT);
+    verify(parent, times(1)).get(ABSENT);
+
+    // switching views, or invalidating, resolves the accounts anew
+    assertThat(accounts.get(child, PRESENT)).isSameAs(account);
+    assertThat(accounts.get(parent, PRESENT)).isSameAs(account);
+    verify(parent, times(2)).get(PRESENT);
+    accounts.invalidate();
+    accounts.get(parent, PRESENT);
+    verify(parent, times(3)).get(PRESENT);
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.zktracer.module.hub;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.evm.account.Account;
+import org.junit.jupiter.api.Test;
+
+public class CodeStoreTest {
+  @Test
+  public void sharesBytecodesByHash() {
+    final Bytes code = Bytes.fromHexString("0x600160020100");
+    final Account first = account(code);
+    final Account second = account(code);
+    final Account empty = account(Bytes.EMPTY);
+
+    final CodeStore codes = new CodeStore();
+    final Bytecode firstCode = codes.of(first);
+    assertThat(firstCode.getBytes()).isSameAs(code);
+    assertThat(firstCode.getCodeHash()).isEqualTo(Hash.hash(code));
+    assertThat(codes.of(second)).isSameAs(firstCode);
+    assertThat(codes.of(empty)).isSameAs(Bytecode.EMPTY);
+    assertThat(codes.size()).isEqualTo(1);
+
+    verify(first, times(1)).getCode();
+    verify(second, times(0)).getCode();
+  }
+
+  @Test
+  public void forgetsTheBytecodesFirstMetByAPoppedTransaction() {
+    final Account kept = account(Bytes.fromHexString("0x6001"));
+    final Account dropped = account(Bytes.fromHexString("0x6002"));
+
+    final CodeStore codes = new CodeStore();
+    codes.enter();
+    final Bytecode keptCode = codes.of(kept);
+    codes.enter();
+    codes.of(kept);
+    codes.of(dropped);
+    assertThat(codes.size()).isEqualTo(2);
+
+    codes.pop();
+    assertThat(codes.size()).isEqualTo(1);
+    assertThat(codes.of(kept)).isSameAs(keptCode);
+  }
+
+  private static Account account(final Bytes code) {
+    final Account account = mock(Account.class);
+    when(account.getCode()).thenReturn(code);
+    when(account.getCodeHash()).thenReturn(code.isEmpty() ? Hash.EMPTY : Hash.hash(code));
+    return account;
+  }
+}
@@ -18,11 +18,16 @@ package net.consensys.linea.zktracer.module.rlptxn;
 import static net.consensys.linea.zktracer.module.rlpCommon.rlpRandEdgeCase.randBigInt;
 import static net.consensys.linea.zktracer.module.rlpCommon.rlpRandEdgeCase.randData;
 import static net.consensys.linea.zktracer.module.rlpCommon.rlpRandEdgeCase.randLong;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.core.encoding.EncodingContext.BLOCK_BODY;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Random;
 
+import net.consensys.linea.zktracer.module.rlp_txn.RlpTxn;
+import net.consensys.linea.zktracer.module.rlp_txn.RlpTxnChunk;
 import net.consensys.linea.zktracer.opcode.OpCode;
 import net.consensys.linea.zktracer.opcode.OpCodes;
 import net.consensys.linea.zktracer.testing.BytecodeCompiler;
@@ -40,6 +45,8 @@ import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.datatypes.TransactionType;
 import org.hyperledger.besu.datatypes.Wei;
 import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.encoding.TransactionDecoder;
+import org.hyperledger.besu.ethereum.core.encoding.TransactionEncoder;
 import org.junit.jupiter.api.Test;
 
 class TestRandomTxns {
@@ -69,6 +76,39 @@ class TestRandomTxns {
         .run();
   }
 
+  @Test
+  void chunksSurviveAnEncodingRoundTrip() {
+    for (int i = 0; i < TEST_TX_COUNT; i++) {
+      KeyPair keyPair = new SECP256K1().generateKeyPair();
+      Address senderAddress = Address.extract(Hash.hash(keyPair.getPublicKey().getEncodedBytes()));
+      Transaction tx = randTx(randToyAccount(senderAddress), keyPair, receiverAccount());
+
+      // the chunk only counts rows, the transaction is encoded when the traces are generated
+      RlpTxnChunk chunk = RlpTxnChunk.of(tx, true, Optional.empty());
+
+      Bytes rlpLt = TransactionEncoder.encodeOpaqueBytes(tx, BLOCK_BODY);
+      Transaction decoded = TransactionDecoder.decodeOpaqueBytes(rlpLt, BLOCK_BODY);
+      assertThat(decoded).isEqualTo(tx);
+      assertThat(RlpTxnChunk.of(decoded, true, Optional.empty()).rowCount())
+          .isEqualTo(chunk.rowCount());
+
+      int typePrefixSize = tx.getType() == TransactionType.FRONTIER ? 0 : 1;
+      assertThat(RlpTxn.innerRlpSize(rlpLt.size() - typePrefixSize))
+          .isEqualTo(innerRlpSize(tx, rlpLt));
+    }
+  }
+
+  /** The size of the payload of the RLP list encoding a transaction, after its type if typed. */
+  private static int innerRlpSize(Transaction tx, Bytes encoding) {
+    final Bytes rlp = tx.getType() == TransactionType.FRONTIER ? encoding : encoding.slice(1);
+    final int prefix = rlp.get(0) & 0xff;
+    if (prefix < 0xf8) {
+      return prefix - 0xc0;
+    }
+    final int lengthSize = prefix - 0xf7;
+    return rlp.slice(1, lengthSize).toInt();
+  }
+
   final Transaction randTx(ToyAccount senderAccount, KeyPair keyPair, ToyAccount receiverAccount) {
 
     int txType = rnd.nextInt(0, 6);
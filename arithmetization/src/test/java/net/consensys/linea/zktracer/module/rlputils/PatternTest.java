@@ -0,0 +1,82 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.zktracer.module.rlputils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigInteger;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.Test;
+
+class PatternTest {
+  @Test
+  void byteCountingMatchesRepeatedMultiplication() {
+    for (int nbStep : new int[] {8, 16}) {
+      for (int inputByteLen = 0; inputByteLen <= nbStep; inputByteLen++) {
+        final ByteCountAndPowerOutput output = Pattern.byteCounting(inputByteLen, nbStep);
+
+        int offset = 16 - nbStep;
+        int accByteSize = 0;
+        if (inputByteLen == nbStep) {
+          accByteSize = 1;
+        } else {
+          offset += 1;
+        }
+        BigInteger power = BigInteger.valueOf(256).pow(offset);
+        for (int ct = 0; ct < nbStep; ct++) {
+          if (ct > 0) {
+            if (inputByteLen + ct < nbStep) {
+              power = power.multiply(BigInteger.valueOf(256));
+            } else {
+              accByteSize += 1;
+            }
+          }
+          assertThat(output.power(ct)).isEqualTo(power);
+          assertThat(output.accByteSize(ct)).isEqualTo(accByteSize);
+        }
+      }
+    }
+  }
+
+  @Test
+  void bitDecompositionOfLastByte() {
+    for (int input = 0; input < 256; input++) {
+      final BitDecOutput output = Pattern.bitDecomposition(input, 16);
+      for (int ct = 0; ct < 8; ct++) {
+        assertThat(output.bitDec(ct)).isFalse();
+        assertThat(output.bitAcc(ct)).isZero();
+      }
+      for (int ct = 8; ct < 16; ct++) {
+        assertThat(output.bitDec(ct)).isEqualTo(((input >> (15 - ct)) & 1) == 1);
+        assertThat(output.bitAcc(ct)).isEqualTo(input >> (15 - ct));
+      }
+    }
+  }
+
+  @Test
+  void padding() {
+    final Bytes input = Bytes.fromHexString("0xc0ffee");
+
+    assertThat(Pattern.padToGivenSizeWithLeftZero(input, 5))
+        .isEqualTo(Bytes.fromHexString("0x0000c0ffee"));
+    assertThat(Pattern.padToGivenSizeWithRightZero(input, 5))
+        .isEqualTo(Bytes.fromHexString("0xc0ffee0000"));
+    assertThat(Pattern.rightPaddedToUnsignedBigInteger(input, 16))
+        .isEqualTo(Pattern.padToGivenSizeWithRightZero(input, 16).toUnsignedBigInteger());
+    assertThat(Pattern.rightPaddedToUnsignedBigInteger(Bytes.EMPTY, 16)).isZero();
+  }
+}
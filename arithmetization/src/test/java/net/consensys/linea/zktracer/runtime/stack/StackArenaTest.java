@@ -0,0 +1,86 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.zktracer.runtime.stack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigInteger;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.Test;
+
+public class StackArenaTest {
+  @Test
+  public void storesItemsAndSplitsValues() {
+    final StackArena arena = new StackArena();
+    final Bytes32 word =
+        Bytes32.fromHexString("0x8000000000000000000000000000000100000000000000000000000000000002");
+    final int value = arena.store(word);
+    final int small = arena.store(Bytes.fromHexString("0x0102"));
+
+    final int line = arena.newLine();
+    arena.set(line, 2, 7, Action.POP, value, 11);
+    arena.set(line, 4, 8, Action.PUSH, small, 12);
+
+    assertThat(arena.height(line, 2)).isEqualTo(7);
+    assertThat(arena.stamp(line, 2)).isEqualTo(11);
+    assertThat(arena.action(line, 2)).isEqualTo(Action.POP);
+    assertThat(arena.valueHi(line, 2)).isEqualTo(word.slice(0, 16).toUnsignedBigInteger());
+    assertThat(arena.valueLo(line, 2)).isEqualTo(BigInteger.TWO);
+    assertThat(arena.valueHi(line, 4)).isZero();
+    assertThat(arena.valueLo(line, 4)).isEqualTo(BigInteger.valueOf(0x0102));
+
+    // untouched items are no-ops
+    assertThat(arena.action(line, 1)).isEqualTo(Action.NONE);
+    assertThat(arena.valueLo(line, 3)).isZero();
+    assertThat(arena.store(Bytes32.ZERO)).isEqualTo(StackArena.ZERO);
+  }
+
+  @Test
+  public void popDropsTheLinesOfTheLatestContext() {
+    final StackArena arena = new StackArena();
+    arena.newLine();
+    arena.enter();
+    final int dropped = arena.newLine();
+    arena.set(dropped, 1, 3, Action.POP, arena.store(Bytes.of(1)), 5);
+    arena.pop();
+
+    assertThat(arena.lineCount()).isEqualTo(dropped);
+    final int line = arena.newLine();
+    assertThat(line).isEqualTo(dropped);
+    assertThat(arena.action(line, 1)).isEqualTo(Action.NONE);
+    assertThat(arena.height(line, 1)).isZero();
+  }
+
+  @Test
+  public void clearKeepsOnlyTheReservedLineAndValues() {
+    final StackArena arena = new StackArena();
+    arena.enter();
+    for (int i = 0; i < 2048; i++) {
+      arena.set(arena.newLine(), 1, 1, Action.PUSH, arena.store(Bytes.ofUnsignedInt(i + 1)), i);
+    }
+    arena.clear();
+
+    assertThat(arena.lineCount()).isEqualTo(StackArena.EMPTY_LINE + 1);
+    assertThat(arena.action(StackArena.EMPTY_LINE, 1)).isEqualTo(Action.NONE);
+    assertThat(arena.store(Bytes32.ZERO)).isEqualTo(StackArena.ZERO);
+    final int line = arena.newLine();
+    assertThat(line).isEqualTo(StackArena.EMPTY_LINE + 1);
+    assertThat(arena.height(line, 1)).isZero();
+    assertThat(arena.valueLo(line, 1)).isZero();
+  }
+}
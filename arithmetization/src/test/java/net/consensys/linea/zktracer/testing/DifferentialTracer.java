@@ -0,0 +1,133 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.zktracer.testing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import net.consensys.linea.zktracer.TracingMode;
+import net.consensys.linea.zktracer.ZkBlockAwareOperationTracer;
+import net.consensys.linea.zktracer.ZkTracer;
+import org.apache.tuweni.bytes.Bytes;
+import org.hyperledger.besu.datatypes.Transaction;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.log.Log;
+import org.hyperledger.besu.evm.operation.Operation;
+import org.hyperledger.besu.evm.worldstate.WorldView;
+import org.hyperledger.besu.plugin.data.BlockBody;
+import org.hyperledger.besu.plugin.data.BlockHeader;
+import org.hyperledger.besu.plugin.data.ProcessableBlockHeader;
+
+/**
+ * Feeds the same events to a full {@link ZkTracer} and to a {@link TracingMode#LINE_COUNT} one,
+ * and checks after every transaction that both report the same line count for every module.
+ */
+public class DifferentialTracer implements ZkBlockAwareOperationTracer {
+  private final ZkTracer full = new ZkTracer(TracingMode.FULL);
+  private final ZkTracer counting = new ZkTracer(TracingMode.LINE_COUNT);
+
+  @Override
+  public void traceStartConflation(final long numBlocksInConflation) {
+    full.traceStartConflation(numBlocksInConflation);
+    counting.traceStartConflation(numBlocksInConflation);
+  }
+
+  @Override
+  public void traceEndConflation() {
+    full.traceEndConflation();
+    counting.traceEndConflation();
+  }
+
+  @Override
+  public boolean isExtendedTracing() {
+    return full.isExtendedTracing();
+  }
+
+  @Override
+  public String getJsonTrace() {
+    return full.getJsonTrace();
+  }
+
+  @Override
+  public void traceStartBlock(final ProcessableBlockHeader processableBlockHeader) {
+    full.traceStartBlock(processableBlockHeader);
+    counting.traceStartBlock(processableBlockHeader);
+  }
+
+  @Override
+  public void traceStartBlock(final BlockHeader blockHeader, final BlockBody blockBody) {
+    full.traceStartBlock(blockHeader, blockBody);
+    counting.traceStartBlock(blockHeader, blockBody);
+  }
+
+  @Override
+  public void traceEndBlock(final BlockHeader blockHeader, final BlockBody blockBody) {
+    full.traceEndBlock(blockHeader, blockBody);
+    counting.traceEndBlock(blockHeader, blockBody);
+  }
+
+  @Override
+  public void traceStartTransaction(WorldView worldView, Transaction transaction) {
+    full.traceStartTransaction(worldView, transaction);
+    counting.traceStartTransaction(worldView, transaction);
+  }
+
+  @Override
+  public void traceEndTransaction(
+      WorldView worldView,
+      Transaction tx,
+      boolean status,
+      Bytes output,
+      List<Log> logs,
+      long gasUsed,
+      long timeNs) {
+    full.traceEndTransaction(worldView, tx, status, output, logs, gasUsed, timeNs);
+    counting.traceEndTransaction(worldView, tx, status, output, logs, gasUsed, timeNs);
+
+    assertThat(counting.getModulesLineCount()).isEqualTo(full.getModulesLineCount());
+  }
+
+  @Override
+  public void tracePreExecution(final MessageFrame frame) {
+    full.tracePreExecution(frame);
+    counting.tracePreExecution(frame);
+  }
+
+  @Override
+  public void tracePostExecution(MessageFrame frame, Operation.OperationResult operationResult) {
+    full.tracePostExecution(frame, operationResult);
+    counting.tracePostExecution(frame, operationResult);
+  }
+
+  @Override
+  public void traceContextEnter(MessageFrame frame) {
+    full.traceContextEnter(frame);
+    counting.traceContextEnter(frame);
+  }
+
+  @Override
+  public void traceContextReEnter(MessageFrame frame) {
+    full.traceContextReEnter(frame);
+    counting.traceContextReEnter(frame);
+  }
+
+  @Override
+  public void traceContextExit(MessageFrame frame) {
+    full.traceContextExit(frame);
+    counting.traceContextExit(frame);
+  }
+}
@@ -77,7 +77,7 @@ public class ToyExecutionEnvironment {
   private final Consumer<TransactionProcessingResult> testValidator;
 
   private static final FeeMarket feeMarket = FeeMarket.london(-1);
-  private final ZkBlockAwareOperationTracer tracer = new ZkTracer();
+  private final ZkBlockAwareOperationTracer tracer = new DifferentialTracer();
 
   /**
    * Gets the default EVM implementation, i.e. London.
@@ -94,8 +94,28 @@ public class ToyExecutionEnvironment {
    * @return the generated JSON trace
    */
   public String traceCode() {
-    execute();
-    return tracer.getJsonTrace();
+    execute(this.tracer);
+    return this.tracer.getJsonTrace();
+  }
+
+  /**
+   * Execute constructed EVM bytecode with the given tracer, leaving it to the caller to check the
+   * resulting trace.
+   *
+   * @param tracer the tracer to feed
+   */
+  public void traceWith(ZkBlockAwareOperationTracer tracer) {
+    execute(tracer);
+  }
+
+  /**
+   * Execute constructed EVM bytecode as a single block, the way a block builder feeds the tracer
+   * of a transaction selector, which starts the conflation itself and never ends it.
+   *
+   * @param tracer the tracer to feed
+   */
+  public void traceBlockWith(ZkBlockAwareOperationTracer tracer) {
+    executeBlock(tracer);
   }
 
   /** Execute constructed EVM bytecode and perform Corset trace validation. */
@@ -103,14 +123,19 @@ public class ToyExecutionEnvironment {
     assertThat(CorsetValidator.isValid(traceCode())).isTrue();
   }
 
-  private void execute() {
+  private void execute(ZkBlockAwareOperationTracer tracer) {
+    tracer.traceStartConflation(1);
+    executeBlock(tracer);
+    tracer.traceEndConflation();
+  }
+
+  private void executeBlock(ZkBlockAwareOperationTracer tracer) {
     BlockHeader header =
         BlockHeaderBuilder.createDefault().baseFee(DEFAULT_BASE_FEE).buildBlockHeader();
     BlockBody mockBlockBody = new BlockBody(transactions, new ArrayList<>());
 
     final MainnetTransactionProcessor transactionProcessor = getMainnetTransactionProcessor();
 
-    tracer.traceStartConflation(1);
     tracer.traceStartBlock(header, mockBlockBody);
 
     for (Transaction tx : mockBlockBody.getTransactions()) {
@@ -145,7 +170,6 @@ public class ToyExecutionEnvironment {
     }
 
     tracer.traceEndBlock(header, mockBlockBody);
-    tracer.traceEndConflation();
   }
 
   private MainnetTransactionProcessor getMainnetTransactionProcessor() {
@@ -0,0 +1,110 @@
+/*
+ * Copyright Consensys Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.consensys.linea.zktracer.types;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+import net.consensys.linea.zktracer.bytestheta.BaseTheta;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.Test;
+
+public class Word256Test {
+  private static final Bytes32[] EDGES = {
+    Bytes32.ZERO,
+    UInt256.ONE.toBytes(),
+    UInt256.MAX_VALUE.toBytes(),
+    UInt256.ONE.shiftLeft(64).toBytes(),
+    UInt256.ONE.shiftLeft(64).subtract(1).toBytes(),
+    UInt256.ONE.shiftLeft(255).toBytes(),
+    Bytes32.fromHexString("0x00000000000000000000000000000000ffffffffffffffffffffffffffffffff"),
+  };
+
+  private static Bytes32 random(final Random random) {
+    final byte[] bytes = new byte[32];
+    random.nextBytes(bytes);
+    // sprinkle zero limbs so that carries and short operands get exercised
+    for (int limb = 0; limb < 4; limb++) {
+      if (random.nextInt(4) == 0) {
+        Arrays.fill(bytes, 8 * limb, 8 * limb + 8, (byte) 0);
+      }
+    }
+    return Bytes32.wrap(bytes);
+  }
+
+  @Test
+  void arithmeticMatchesUInt256() {
+    final Random random = new Random(42);
+    for (int n = 0; n < 10_000; n++) {
+      final Bytes32 a = n < EDGES.length ? EDGES[n] : random(random);
+      final Bytes32 b = n % 3 == 0 ? EDGES[(n / 3) % EDGES.length] : random(random);
+      final UInt256 ua = UInt256.fromBytes(a);
+      final UInt256 ub = UInt256.fromBytes(b);
+      final Word256 wa = Word256.fromBytes(a);
+      final Word256 wb = Word256.fromBytes(b);
+
+      assertThat(wa.toBytes32()).isEqualTo(a);
+      assertThat(wa.add(wb).toBytes32()).isEqualTo(ua.add(ub).toBytes());
+      assertThat(wa.subtract(wb).toBytes32()).isEqualTo(ua.subtract(ub).toBytes());
+      assertThat(wa.multiply(wb).toBytes32()).isEqualTo(ua.multiply(ub).toBytes());
+      assertThat(wa.mod(wb).toBytes32()).isEqualTo(ua.mod0(ub).toBytes());
+      assertThat(Integer.signum(wa.compareTo(wb))).isEqualTo(Integer.signum(ua.compareTo(ub)));
+      assertThat(wa.bitLength()).isEqualTo(ua.bitLength());
+      assertThat(wa.bitCount()).isEqualTo(ua.toUnsignedBigInteger().bitCount());
+      assertThat(wa.toUnsignedBigInteger()).isEqualTo(ua.toUnsignedBigInteger());
+    }
+  }
+
+  @Test
+  void accessors() {
+    final Bytes32 value =
+        Bytes32.fromHexString("0x0102030405060708111213141516171821222324252627283132333435363738");
+    final Word256 word = Word256.fromBytes(value);
+
+    assertThat(word.limb(3)).isEqualTo(0x0102030405060708L);
+    assertThat(word.limb(0)).isEqualTo(0x3132333435363738L);
+    for (int i = 0; i < 32; i++) {
+      assertThat(word.get(i)).isEqualTo(value.get(i));
+    }
+    assertThat((Bytes) word.hi()).isEqualTo(value.slice(0, 16));
+    assertThat((Bytes) word.lo()).isEqualTo(value.slice(16));
+    assertThat(BaseTheta.fromBytes32(value).toWord256()).isEqualTo(word);
+    assertThat(EWord.of(value).toWord256()).isEqualTo(word);
+  }
+
+  @Test
+  void shortInputsAreLeftPadded() {
+    assertThat(Word256.fromBytes(Bytes.EMPTY)).isEqualTo(Word256.ZERO);
+    assertThat(Word256.fromBytes(Bytes.of(1))).isEqualTo(Word256.ONE);
+    final Bytes address = Bytes.fromHexString("0x00112233445566778899aabbccddeeff00112233");
+    assertThat(Word256.fromBytes(address).toBytes32()).isEqualTo(Bytes32.leftPad(address));
+    assertThat(Word256.fromBytes(address).toUnsignedBigInteger())
+        .isEqualTo(new BigInteger(1, address.toArrayUnsafe()));
+  }
+
+  @Test
+  void trailingZeros() {
+    assertThat(Word256.ZERO.numberOfTrailingZeros()).isEqualTo(256);
+    assertThat(Word256.ONE.numberOfTrailingZeros()).isZero();
+    assertThat(Word256.fromBytes(UInt256.ONE.shiftLeft(200).toBytes()).numberOfTrailingZeros())
+        .isEqualTo(200);
+  }
+}